@@ -22,6 +22,8 @@ import org.springframework.batch.core.BatchStatus;
 import org.springframework.batch.core.JobExecution;
 import org.springframework.batch.core.listener.JobExecutionListenerSupport;
 
+import com.ibm.pmai.models.repositories.ResultsRequestRepository;
+
 public class CompletionListener extends JobExecutionListenerSupport {
 
     /**
@@ -29,6 +31,17 @@ public class CompletionListener extends JobExecutionListenerSupport {
      */
     private static final Logger logger = LoggerFactory.getLogger(CompletionListener.class);
 
+    private ResultsRequestRepository resultsRequestRepository;
+
+    /**
+     * Progress events of the results requests
+     */
+    private ResultsProgressPublisher resultsProgressPublisher;
+
+    public CompletionListener(ResultsRequestRepository resultsRequestRepository, ResultsProgressPublisher resultsProgressPublisher) {
+        this.resultsRequestRepository = resultsRequestRepository;
+        this.resultsProgressPublisher = resultsProgressPublisher;
+    }
 
     @Override
     public void afterJob(JobExecution jobExecution) {
@@ -37,6 +50,13 @@ public class CompletionListener extends JobExecutionListenerSupport {
             logger.info("BATCH JOB COMPLETED SUCCESSFULLY"+jobExecution.getJobParameters());
             System.out.println("BATCH JOB COMPLETED SUCCESSFULLY");
         }
+
+        // tell the subscribed clients the job is over, whether or not the results are available
+        String resultRequestId = jobExecution.getJobParameters().getString("resultRequestId");
+        if (resultRequestId != null) {
+            Boolean status = resultsRequestRepository.findStatusById(resultRequestId);
+            resultsProgressPublisher.completed(resultRequestId, Boolean.TRUE.equals(status), jobExecution.getStatus().toString());
+        }
     }
 
 }
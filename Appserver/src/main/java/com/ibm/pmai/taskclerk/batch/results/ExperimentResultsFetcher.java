@@ -0,0 +1,313 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.taskclerk.batch.results;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.io.input.CountingInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import com.google.gson.JsonObject;
+import com.ibm.cloud.objectstorage.services.s3.model.S3ObjectInputStream;
+import com.ibm.pmai.models.core.ExperimentOutput;
+import com.ibm.pmai.taskclerk.configurations.ApplicationConfigurations;
+import com.ibm.pmai.taskclerk.utils.Constants;
+import com.ibm.pmai.taskclerk.utils.ExperimentOutputCache;
+import com.ibm.pmai.taskclerk.utils.JsonFieldExtractor;
+import com.ibm.pmai.taskclerk.utils.TaskClerkMetrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Downloads and parses experiment outputs in parallel, reading them from the local output cache when possible. The
+ * number of concurrent downloads is bounded by the supplied executor and every download is aborted once it exceeds
+ * the configured per object timeout. Results are gathered in the order of the submitted tasks, failed experiments
+ * are skipped and reported, and so are experiments whose output was read from a stale cached copy.
+ */
+public class ExperimentResultsFetcher {
+
+    /**
+     * Logger declaration
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ExperimentResultsFetcher.class);
+
+    /**
+     * Top level fields of an experiment output that are copied into the results
+     */
+    private static final List<String> OUTPUT_FIELDS = Arrays.asList("states", "actions", "study_trials");
+
+    /**
+     * Bounded executor the downloads run on
+     */
+    private final AsyncTaskExecutor taskExecutor;
+
+    /**
+     * Aborts downloads that exceed the per object timeout
+     */
+    private final ScheduledExecutorService timeoutScheduler;
+
+    /**
+     * Local cache of experiment output files
+     */
+    private final ExperimentOutputCache experimentOutputCache;
+
+    /**
+     * Application configurations to access property values
+     */
+    private final ApplicationConfigurations applicationConfigurations;
+
+    /**
+     * Throughput and latency counters
+     */
+    private final ResultsFetchStatistics statistics;
+
+    /**
+     * Registry of the per executor and data repository fetch timers
+     */
+    private final MeterRegistry meterRegistry;
+
+    public ExperimentResultsFetcher(AsyncTaskExecutor taskExecutor, ExperimentOutputCache experimentOutputCache, ApplicationConfigurations applicationConfigurations,
+                                    ResultsFetchStatistics statistics, MeterRegistry meterRegistry) {
+        this.taskExecutor = taskExecutor;
+        this.experimentOutputCache = experimentOutputCache;
+        this.applicationConfigurations = applicationConfigurations;
+        this.statistics = statistics;
+        this.meterRegistry = meterRegistry;
+        this.timeoutScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "results-fetch-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Fetches the outputs of all the supplied tasks
+     * @param resultRequestId id of the results request the outputs are fetched for
+     * @param tasks experiment outputs to fetch
+     * @return results in the order of the supplied tasks together with the failed experiments
+     */
+    public FetchReport fetch(String resultRequestId, List<FetchTask> tasks) {
+        long started = System.nanoTime();
+
+        List<Future<Fetched>> futures = new ArrayList<>(tasks.size());
+        for (FetchTask task : tasks) {
+            statistics.recordRequested();
+            futures.add(taskExecutor.submit(() -> fetchOne(resultRequestId, task)));
+        }
+
+        FetchReport report = new FetchReport();
+        for (int i = 0; i < futures.size(); i++) {
+            FetchTask task = tasks.get(i);
+            try {
+                Fetched fetched = futures.get(i).get();
+                report.results.add(fetched.result);
+                if (fetched.stale) {
+                    logger.warn("======EXPERIMENT OUTPUT READ FROM STALE CACHED COPY====" + task.getExperimentId());
+                    report.staleExperiments.add(task.getExperimentId());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.subList(i, futures.size()).forEach(future -> future.cancel(true));
+                report.failures.put(task.getExperimentId(), "interrupted");
+                break;
+            } catch (ExecutionException | CancellationException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                logger.warn("======EXPERIMENT OUTPUT NOT FETCHED====" + task.getExperimentId() + " " + cause.getMessage());
+                report.failures.put(task.getExperimentId(), String.valueOf(cause.getMessage()));
+            }
+        }
+        report.elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        logger.info("======FETCHED " + report.results.size() + "/" + tasks.size() + " EXPERIMENT OUTPUTS IN " + report.elapsedMillis
+            + "ms (" + report.failures.size() + " failed, " + report.staleExperiments.size() + " stale, avg latency " + Math.round(statistics.getAverageLatencyMillis()) + "ms)====");
+        return report;
+    }
+
+    /**
+     * Downloads and parses a single experiment output
+     * @param resultRequestId
+     * @param task
+     * @return
+     * @throws Exception
+     */
+    private Fetched fetchOne(String resultRequestId, FetchTask task) throws Exception {
+        long started = System.nanoTime();
+        AtomicBoolean timedOut = new AtomicBoolean(false);
+        ScheduledFuture<?> timeout = null;
+        String outcome = TaskClerkMetrics.ERROR;
+        try {
+            // cache misses are downloaded with the same timeout, the latest cached copy is used if COS is unreachable
+            InputStream source = experimentOutputCache.open(task.getExperimentOutput(), applicationConfigurations.getResultsFetchTimeoutSeconds(), true);
+            boolean stale = source instanceof ExperimentOutputCache.StaleCopyInputStream;
+
+            if (source instanceof S3ObjectInputStream) {
+                // abort the connection if the object takes longer than allowed
+                S3ObjectInputStream s3ObjectInputStream = (S3ObjectInputStream) source;
+                timeout = timeoutScheduler.schedule(() -> {
+                    timedOut.set(true);
+                    s3ObjectInputStream.abort();
+                }, applicationConfigurations.getResultsFetchTimeoutSeconds(), TimeUnit.SECONDS);
+            }
+
+            // only the fields kept in the results are materialised, the rest of the document is skipped while streaming
+            JsonObject dataObject;
+            long bytes;
+            try (CountingInputStream inputStream = new CountingInputStream(source)) {
+                dataObject = JsonFieldExtractor.extract(inputStream, OUTPUT_FIELDS, source);
+                bytes = inputStream.getByteCount();
+            }
+
+            JsonObject jsonResultObject = new JsonObject();
+            jsonResultObject.addProperty("resultId", resultRequestId);
+            jsonResultObject.addProperty("resultName", "");
+            if (task.getLocationId() != null)
+                jsonResultObject.addProperty("locationId", task.getLocationId());
+            if (task.getExecutorId() != null)
+                jsonResultObject.addProperty("executorId", task.getExecutorId());
+
+            if (dataObject.has("states")) {
+                jsonResultObject.add("rewards", dataObject.get("states").getAsJsonArray());
+            }
+            if (dataObject.has("actions")) {
+                jsonResultObject.add("actions", dataObject.get("actions").getAsJsonArray());
+            }
+            if (dataObject.has("study_trials")) {
+                jsonResultObject.add("study_trials", dataObject.get("study_trials").getAsJsonArray());
+            }
+            jsonResultObject.addProperty("outputType", Constants.TASK_OUTPUTS_TYPES.TASK_EXECUTION_RESPONSE.toString());
+
+            statistics.recordSuccess(bytes, System.nanoTime() - started);
+            outcome = stale ? "stale" : TaskClerkMetrics.SUCCESS;
+            return new Fetched(jsonResultObject, stale);
+        } catch (Exception e) {
+            if (e instanceof TimeoutException) {
+                timedOut.set(true);
+            }
+            statistics.recordFailure(System.nanoTime() - started, timedOut.get());
+            if (timedOut.get()) {
+                throw new Exception("timed out after " + applicationConfigurations.getResultsFetchTimeoutSeconds() + "s", e);
+            }
+            throw e;
+        } finally {
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+            Timer.builder(TaskClerkMetrics.RESULTS_FETCHES)
+                .description("Downloads and parsing of experiment outputs by the results jobs")
+                .tag(TaskClerkMetrics.TAG_OUTCOME, timedOut.get() ? "timeout" : outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Releases the timeout scheduler
+     */
+    public void shutdown() {
+        timeoutScheduler.shutdownNow();
+    }
+
+    /**
+     * Result of a single fetch
+     */
+    private static class Fetched {
+        private final JsonObject result;
+        private final boolean stale;
+
+        Fetched(JsonObject result, boolean stale) {
+            this.result = result;
+            this.stale = stale;
+        }
+    }
+
+    /**
+     * Describes a single experiment output to fetch
+     */
+    public static class FetchTask {
+        private final String experimentId;
+        private final String locationId;
+        private final String executorId;
+        private final ExperimentOutput experimentOutput;
+
+        public FetchTask(String experimentId, String locationId, String executorId, ExperimentOutput experimentOutput) {
+            this.experimentId = experimentId;
+            this.locationId = locationId;
+            this.executorId = executorId;
+            this.experimentOutput = experimentOutput;
+        }
+
+        public String getExperimentId() {
+            return experimentId;
+        }
+
+        public String getLocationId() {
+            return locationId;
+        }
+
+        public String getExecutorId() {
+            return executorId;
+        }
+
+        public ExperimentOutput getExperimentOutput() {
+            return experimentOutput;
+        }
+    }
+
+    /**
+     * Outcome of a fetch: the results in request order, the experiments that could not be fetched and the experiments
+     * whose results were read from an older cached output because COS could not be reached
+     */
+    public static class FetchReport {
+        private final List<JsonObject> results = new ArrayList<>();
+        private final Map<String, String> failures = new LinkedHashMap<>();
+        private final List<String> staleExperiments = new ArrayList<>();
+        private long elapsedMillis;
+
+        public List<JsonObject> getResults() {
+            return results;
+        }
+
+        public Map<String, String> getFailures() {
+            return failures;
+        }
+
+        public List<String> getStaleExperiments() {
+            return staleExperiments;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+}
@@ -17,20 +17,16 @@
 package com.ibm.pmai.taskclerk.batch.results;
 
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
-import java.util.Map;
 
-import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.batch.core.JobParameters;
 import org.springframework.batch.core.StepExecution;
-import org.springframework.batch.core.annotation.BeforeStep;
+import org.springframework.batch.item.ExecutionContext;
 import org.springframework.batch.item.ItemReader;
 import org.springframework.batch.item.NonTransientResourceException;
 import org.springframework.batch.item.ParseException;
@@ -38,23 +34,17 @@ import org.springframework.batch.item.UnexpectedInputException;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-import com.ibm.cloud.objectstorage.services.s3.model.S3ObjectInputStream;
 import com.ibm.pmai.models.core.Experiment;
 import com.ibm.pmai.models.core.ExperimentOutput;
-import com.ibm.pmai.models.core.ResultsRequest;
 import com.ibm.pmai.models.repositories.ExperimentOutputRepository;
 import com.ibm.pmai.models.repositories.ExperimentRepository;
-import com.ibm.pmai.models.repositories.ResultsRequestRepository;
-import com.ibm.pmai.taskclerk.configurations.ApplicationConfigurations;
-import com.ibm.pmai.taskclerk.utils.Constants;
-import com.ibm.pmai.taskclerk.utils.PBEEncryption;
-import com.ibm.pmai.taskclerk.utils.Sha256DocumentHasher;
-import com.ibm.pmai.taskclerk.utils.Utils;
 
-public class Reader implements ItemReader<String> {
+/**
+ * Reads the results of the experiments of a single partition. Experiment outputs are fetched in windows of the chunk
+ * size so the downloads of a window run in parallel while the previous chunk is being processed and written.
+ */
+public class Reader implements ItemReader<JsonObject> {
 
     /**
      * Experiment repository declaration
@@ -67,24 +57,28 @@ public class Reader implements ItemReader<String> {
     private ExperimentOutputRepository experimentOutputRepository;
 
     /**
-     * Hashing util
+     * Parallel experiment output downloader
      */
-    private Sha256DocumentHasher sha256DocumentHasher;
+    private ExperimentResultsFetcher experimentResultsFetcher;
 
     /**
-     * Encryption key
+     * Progress events of the results requests
      */
-    private PBEEncryption pbeEncryption;
+    private ResultsProgressPublisher resultsProgressPublisher;
 
-    private ResultsRequestRepository resultsRequestRepository;
+    private String resultRequestId;
+    private StepExecution stepExecution;
+    private int windowSize;
 
     /**
-     * Application configurations to access property values
+     * Experiments of this partition that have not been fetched yet
      */
-    private ApplicationConfigurations applicationConfigurations;
+    private final Deque<String> pendingExperimentIds = new ArrayDeque<>();
 
-    private String resultRequestId;
-    private long epoch;
+    /**
+     * Fetched results waiting to be handed to the processor
+     */
+    private final Deque<JsonObject> fetchedResults = new ArrayDeque<>();
 
 
     /**
@@ -94,186 +88,46 @@ public class Reader implements ItemReader<String> {
 
 
     @Autowired
-    public Reader(ResultsRequestRepository resultsRequestRepository, ApplicationConfigurations applicationConfigurations, PBEEncryption pbeEncryption, ExperimentOutputRepository experimentOutputRepository, ExperimentRepository experimentRepository, Sha256DocumentHasher sha256DocumentHasher) {
-        this.resultsRequestRepository = resultsRequestRepository;
-        this.applicationConfigurations = applicationConfigurations;
-        this.pbeEncryption = pbeEncryption;
+    public Reader(ExperimentOutputRepository experimentOutputRepository, ExperimentRepository experimentRepository, ExperimentResultsFetcher experimentResultsFetcher,
+                  ResultsProgressPublisher resultsProgressPublisher, StepExecution stepExecution, String resultRequestId, String experimentIds, int windowSize) {
         this.experimentOutputRepository = experimentOutputRepository;
         this.experimentRepository = experimentRepository;
-        this.sha256DocumentHasher = sha256DocumentHasher;
-    }
-
-    @BeforeStep
-    public void beforeStep(final StepExecution stepExecution) {
-        JobParameters jobParameters = stepExecution.getJobParameters();
-        resultRequestId = jobParameters.getString("resultRequestId");
-        epoch = jobParameters.getLong("epoch");
+        this.experimentResultsFetcher = experimentResultsFetcher;
+        this.resultsProgressPublisher = resultsProgressPublisher;
+        this.stepExecution = stepExecution;
+        this.resultRequestId = resultRequestId;
+        this.windowSize = Math.max(1, windowSize);
+        if (experimentIds != null && experimentIds.length() > 0) {
+            pendingExperimentIds.addAll(Arrays.asList(experimentIds.split(",")));
+        }
     }
 
     @Override
-    public String read() throws Exception, UnexpectedInputException,
+    public JsonObject read() throws Exception, UnexpectedInputException,
         ParseException, NonTransientResourceException {
-        JsonArray resultsArray = null;
-        logger.info("READER: " + System.currentTimeMillis());
-
-        if ((System.currentTimeMillis() - epoch) > (applicationConfigurations.getJobBatchTimeout()*60*60*1000)) {
-            return null;
-        }
-
-        if (resultRequestId != null) {
-            ResultsRequest resultsRequest = resultsRequestRepository.getById(resultRequestId);
-
-            if (resultsRequest == null || resultsRequest.isStatus()) {
-                return null;
-            }
-            
-            // request of type experiment
-            if (resultsRequest.getRequestName().equalsIgnoreCase("experiment")) {
-                logger.info("=====experiment=====");
-
-                List<Map<String, Object>> experimentArray = resultsRequest.getExperiments();
-                if (experimentArray == null || experimentArray.size()<1) {
-                    logger.info("======NO MATCHING FOUND====" + new Gson().toJson(resultsRequest));
-                    return null;
-                }
-
-                resultsArray = fetchExperimentsResults(resultsRequest, experimentArray);
-
-            } else if (resultsRequest.getRequestName().equalsIgnoreCase("search")) {
-                // request of type search
-                logger.info("=====search=====");
-
-                List<Map<String, Object>> environmentsArray = resultsRequest.getEnvironments();
-
-                List<Map<String, Object>> locationsArray = resultsRequest.getLocations();
-
-                List<Map<String, Object>> experimentArray = new ArrayList<>();
-
-                if (environmentsArray == null || locationsArray == null || environmentsArray.size()<1 || locationsArray.size()<1) {
-                    logger.info("======NO MATCHING FOUND====" + new Gson().toJson(resultsRequest));
-                    return null;
-                }
-
-                for (int i = 0; i < environmentsArray.size(); i++) {
-                    String json = new Gson().toJson(environmentsArray.get(i));
-                    JsonObject jsonExecutorObject = JsonParser.parseString(json).getAsJsonObject();
-                    JsonObject jsonLocationObject = new JsonObject();
-                    if (i < locationsArray.size()) {
-                        jsonLocationObject = JsonParser.parseString(new Gson().toJson(locationsArray.get(i))).getAsJsonObject();
-                    } else {
-                        jsonLocationObject = JsonParser.parseString(new Gson().toJson(locationsArray.get(locationsArray.size()-1))).getAsJsonObject();
-                    }
-
-                    String executorId = jsonExecutorObject.get("id").getAsString();
-                    String locationId = jsonLocationObject.get("id").getAsString();
-                    // compute hash
-                    String experimentHash = sha256DocumentHasher.getHash(Utils.getExperimentHash(locationId, executorId).getBytes());
-
-                    // fetch experiment based on the computed hash
-                    List<Experiment> experimentsWithHash = experimentRepository.getByExperimentHash(experimentHash);
-                    if (experimentsWithHash == null || experimentsWithHash.size() < 1) {
-                        continue;
-                    }
-                    for (int exp = 0; exp < experimentsWithHash.size(); exp++) {
-                        Experiment experimentWithHash = experimentsWithHash.get(exp);
-                        Map<String, Object> experimentWithHashObject = new HashMap<>();
-                        experimentWithHashObject.put("id", experimentWithHash.getId().toString());
-                        experimentArray.add(experimentWithHashObject);
-                    }
-                }
-
-                resultsArray = fetchExperimentsResults(resultsRequest, experimentArray);
-
-            } else if (resultsRequest.getRequestName().equalsIgnoreCase("algorithm")) {
-                // request of type algorithm
-                logger.info("=====algorithm=====");
-
-                List<Map<String, Object>> algorithmsArray = resultsRequest.getExecutors();
-
-                List<Map<String, Object>> environmentsArray = resultsRequest.getEnvironments();
-
-                List<Map<String, Object>> locationsArray = resultsRequest.getLocations();
-
-                List<Map<String, Object>> experimentArray = new ArrayList<>();
-
-                if (environmentsArray == null || locationsArray == null || algorithmsArray == null || environmentsArray.size()<1 || locationsArray.size()<1 || algorithmsArray.size()<1) {
-                    logger.info("======NO MATCHING FOUND====" + new Gson().toJson(resultsRequest));
-                    return null;
-                }
-
-                for (int i = 0; i < environmentsArray.size(); i++) {
-                    String json = new Gson().toJson(environmentsArray.get(i));
-                    JsonObject jsonExecutorObject = JsonParser.parseString(json).getAsJsonObject();
-                    JsonObject jsonLocationObject = new JsonObject();
-                    JsonObject jsonAlgorithmObject = new JsonObject();
-                    if (i < locationsArray.size()) {
-                        jsonLocationObject = JsonParser.parseString(new Gson().toJson(locationsArray.get(i))).getAsJsonObject();
-                    } else {
-                        jsonLocationObject = JsonParser.parseString(new Gson().toJson(locationsArray.get(locationsArray.size()-1))).getAsJsonObject();
-                    }
-
-                    if (i < algorithmsArray.size()) {
-                        jsonAlgorithmObject = JsonParser.parseString(new Gson().toJson(algorithmsArray.get(i))).getAsJsonObject();
-                    } else {
-                        jsonAlgorithmObject = JsonParser.parseString(new Gson().toJson(algorithmsArray.get(algorithmsArray.size()-1))).getAsJsonObject();
-                    }
-
-                    String executorId = jsonExecutorObject.get("id").getAsString();
-                    String locationId = jsonLocationObject.get("id").getAsString();
-                    String algorithmId = jsonAlgorithmObject.get("id").getAsString();
-                    // compute hash
-                    String experimentHash = sha256DocumentHasher.getHash(Utils.getExperimentHash(locationId, executorId).getBytes());
-
-                    // fetch experiment based on the computed hash and algorithmId
-                    List<Experiment> experimentsWithHashAndAlgorithmId = experimentRepository.getByExperimentHashAndAlgorithmId(experimentHash, algorithmId);
-                    if (experimentsWithHashAndAlgorithmId == null || experimentsWithHashAndAlgorithmId.size() < 1) {
-                        continue;
-                    }
-                    for (int exp = 0; exp < experimentsWithHashAndAlgorithmId.size(); exp++) {
-                        Experiment experimentWithHashAndAlgorithmId = experimentsWithHashAndAlgorithmId.get(exp);
-                        Map<String, Object> experimentWithHashObject = new HashMap<>();
-                        experimentWithHashObject.put("id", experimentWithHashAndAlgorithmId.getId().toString());
-                        experimentArray.add(experimentWithHashObject);
-                    }
-                }
-
-                resultsArray = fetchExperimentsResults(resultsRequest, experimentArray);
+        while (fetchedResults.isEmpty() && !pendingExperimentIds.isEmpty()) {
+            List<String> window = new ArrayList<>(windowSize);
+            while (window.size() < windowSize && !pendingExperimentIds.isEmpty()) {
+                window.add(pendingExperimentIds.poll());
             }
+            logger.info("READER: " + System.currentTimeMillis() + " fetching " + window.size() + " experiments");
+            fetchedResults.addAll(fetchExperimentsResults(window));
         }
-
-        if (resultsArray != null) {
-            logger.info("=====resultsArray====");
-            return resultsArray.toString();
-        } else
-            return "";
+        return fetchedResults.poll();
     }
 
-    private JsonArray fetchExperimentsResults(ResultsRequest resultsRequest,
-            List<Map<String, Object>> experimentArray) throws Exception, IOException {
-        JsonArray resultsArray = null;
-        for (int i = 0; i < experimentArray.size(); i++) {
-            String json = new Gson().toJson(experimentArray.get(i));
-            JsonObject jsonExperimentObject = JsonParser.parseString(json).getAsJsonObject();
-
-            String experimentId = jsonExperimentObject.get("id").getAsString();
-
+    private List<JsonObject> fetchExperimentsResults(List<String> experimentIds) {
+        // resolve the outputs to download on the calling thread, the downloads themselves run in parallel
+        List<ExperimentResultsFetcher.FetchTask> tasks = new ArrayList<>();
+        int notReady = 0;
+        for (String experimentId : experimentIds) {
             Experiment experiment = experimentRepository.getById(experimentId);
             if (experiment == null) {
                 logger.info("======EXPERIMENT NOT FOUND====" + experimentId);
+                notReady++;
                 continue;
             }
 
-            JsonObject jsonResultObject = new JsonObject();
-
-            jsonResultObject.addProperty("resultId", resultRequestId);
-            jsonResultObject.addProperty("resultName", "");
-            String outputType = Constants.TASK_OUTPUTS_TYPES.TASK_EXECUTION_RESPONSE.toString();
-
-            if (experiment.getLocation()!= null)
-                jsonResultObject.addProperty("locationId", experiment.getLocation().getId());
-            if (experiment.getExecutor()!= null)
-                jsonResultObject.addProperty("executorId", experiment.getExecutor().getId());
-
             List<ExperimentOutput> experimentOutputList = experimentOutputRepository.getByExperiment_IdOrderByUpdatedAt(experimentId);
             ExperimentOutput experimentOutput = null;
             if (experimentOutputList.size() > 0) {
@@ -281,49 +135,49 @@ public class Reader implements ItemReader<String> {
                 experimentOutput = experimentOutputList.get(0);
             }
             
-            if (resultsRequest.isStatus() 
-            || experimentOutput == null
+            if (experimentOutput == null
             || experimentOutput.getMetadataDetails() == null
             || experimentOutput.getMetadataDetails().getDataRepositoryConfiguration() == null) {
-                logger.info("======TASK EXECUTION NOT READY====" + resultsRequest.isStatus()+experimentId);
+                logger.info("======TASK EXECUTION NOT READY====" + experimentId);
+                notReady++;
                 continue;
             }
-            logger.info("======JOB EXECUTION READY====" + resultsRequest.isStatus());
-
-            // decrypt credentials
-            String decryptedCredentials = pbeEncryption
-            .decrypt(applicationConfigurations.getAuthenticationEncryptionKey().toCharArray(), experimentOutput.getMetadataDetails().getDataRepositoryConfiguration().getCredentials());
 
-            JsonObject jsonObject = JsonParser.parseString(decryptedCredentials).getAsJsonObject();
-
-            String fileName = experimentOutput.getMetadataDetails().getName();
+            tasks.add(new ExperimentResultsFetcher.FetchTask(experimentId,
+                experiment.getLocation() != null ? experiment.getLocation().getId() : null,
+                experiment.getExecutor() != null ? experiment.getExecutor().getId() : null,
+                experimentOutput));
+        }
 
-            S3ObjectInputStream s3ObjectInputStream = Utils.downloadFileFromCos(jsonObject.get("apikey").getAsString(), jsonObject.get("resource_instance_id").getAsString(), jsonObject.get("endpointUrl").getAsString()
-                , jsonObject.get("bucketName").getAsString(), jsonObject.get("bucketRegion").getAsString(), jsonObject.get("iamEndpoint").getAsString(), fileName);
+        if (tasks.isEmpty()) {
+            resultsProgressPublisher.fetched(resultRequestId, 0, 0, notReady);
+            return new ArrayList<>();
+        }
 
-            InputStream inputStream = s3ObjectInputStream.getDelegateStream();
-            String text = IOUtils.toString(inputStream, StandardCharsets.UTF_8.name());
+        ExperimentResultsFetcher.FetchReport report = experimentResultsFetcher.fetch(resultRequestId, tasks);
+        recordFetchReport(report);
+        resultsProgressPublisher.fetched(resultRequestId, report.getResults().size(), report.getFailures().size(), notReady);
+        return report.getResults();
+    }
 
-            if (outputType.contains(Constants.TASK_OUTPUTS_TYPES.TASK_EXECUTION_RESPONSE.toString())){
-                JsonObject dataObject = JsonParser.parseString(text).getAsJsonObject();
-                if (dataObject.has("states")) {
-                    jsonResultObject.add("rewards", dataObject.get("states").getAsJsonArray());
-                }
-                if (dataObject.has("actions")) {
-                    jsonResultObject.add("actions", dataObject.get("actions").getAsJsonArray());
-                }
-                if (dataObject.has("study_trials")) {
-                    jsonResultObject.add("study_trials", dataObject.get("study_trials").getAsJsonArray());
-                }
-                
-                jsonResultObject.addProperty("outputType",outputType);
-                
-                if (resultsArray == null) {
-                    resultsArray = new JsonArray();
-                }
-                resultsArray.add(jsonResultObject);
-            }
+    /**
+     * Keeps the fetch counters of this step in the step execution context
+     * @param report
+     */
+    private void recordFetchReport(ExperimentResultsFetcher.FetchReport report) {
+        if (stepExecution == null) {
+            return;
+        }
+        ExecutionContext executionContext = stepExecution.getExecutionContext();
+        executionContext.putLong("fetch.succeeded", executionContext.getLong("fetch.succeeded", 0L) + report.getResults().size());
+        executionContext.putLong("fetch.failed", executionContext.getLong("fetch.failed", 0L) + report.getFailures().size());
+        executionContext.putLong("fetch.elapsedMillis", executionContext.getLong("fetch.elapsedMillis", 0L) + report.getElapsedMillis());
+        if (!report.getFailures().isEmpty()) {
+            executionContext.putString("fetch.failedExperiments", new Gson().toJson(report.getFailures()));
+        }
+        if (!report.getStaleExperiments().isEmpty()) {
+            executionContext.putLong("fetch.stale", executionContext.getLong("fetch.stale", 0L) + report.getStaleExperiments().size());
+            executionContext.putString("fetch.staleExperiments", new Gson().toJson(report.getStaleExperiments()));
         }
-        return resultsArray;
     }
 }
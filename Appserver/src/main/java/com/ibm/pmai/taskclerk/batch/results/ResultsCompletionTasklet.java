@@ -0,0 +1,101 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.taskclerk.batch.results;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+
+import com.ibm.pmai.models.core.ResultsRequest;
+import com.ibm.pmai.models.repositories.ResultsRequestRepository;
+import com.ibm.pmai.models.repositories.ResultsResponseRepository;
+import com.ibm.pmai.taskclerk.configurations.ApplicationConfigurations;
+import com.ibm.pmai.taskclerk.utils.Utils;
+
+/**
+ * Marks the results request completed once the partitions have written results. When none of the experiment
+ * outputs were ready yet the step exits with {@link #RETRY} so the job polls again until the batch timeout.
+ */
+public class ResultsCompletionTasklet implements Tasklet {
+
+    /**
+     * Exit status asking the job to run the partitions again
+     */
+    public static final String RETRY = "RETRY";
+
+    /**
+     * Logger declaration
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ResultsCompletionTasklet.class);
+
+    private ResultsRequestRepository resultsRequestRepository;
+
+    private ResultsResponseRepository resultsResponseRepository;
+
+    /**
+     * Application configurations to access property values
+     */
+    private ApplicationConfigurations applicationConfigurations;
+
+    private String resultRequestId;
+    private long epoch;
+
+    public ResultsCompletionTasklet(ResultsRequestRepository resultsRequestRepository, ResultsResponseRepository resultsResponseRepository, ApplicationConfigurations applicationConfigurations, String resultRequestId, long epoch) {
+        this.resultsRequestRepository = resultsRequestRepository;
+        this.resultsResponseRepository = resultsResponseRepository;
+        this.applicationConfigurations = applicationConfigurations;
+        this.resultRequestId = resultRequestId;
+        this.epoch = epoch;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+        if (resultRequestId == null) {
+            return RepeatStatus.FINISHED;
+        }
+
+        ResultsRequest resultsRequest = resultsRequestRepository.getById(resultRequestId);
+        if (resultsRequest == null || resultsRequest.isStatus()) {
+            return RepeatStatus.FINISHED;
+        }
+
+        if (resultsResponseRepository.countByResultId(resultRequestId) > 0) {
+            resultsRequest.setStatus(true);
+            resultsRequest.setTimeCompleted(Utils.getDateTime(new Date()));
+            resultsRequestRepository.save(resultsRequest);
+            logger.info("=====RESULTS REQUEST " + resultRequestId + " COMPLETED====");
+            return RepeatStatus.FINISHED;
+        }
+
+        if ((System.currentTimeMillis() - epoch) > (applicationConfigurations.getJobBatchTimeout()*60*60*1000)) {
+            logger.info("=====RESULTS REQUEST " + resultRequestId + " TIMED OUT====");
+            return RepeatStatus.FINISHED;
+        }
+
+        logger.info("======TASK EXECUTION NOT READY====" + resultRequestId);
+        TimeUnit.SECONDS.sleep(applicationConfigurations.getResultsPollIntervalSeconds());
+        contribution.setExitStatus(new ExitStatus(RETRY));
+        return RepeatStatus.FINISHED;
+    }
+}
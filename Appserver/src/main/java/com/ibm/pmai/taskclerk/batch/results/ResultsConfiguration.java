@@ -16,27 +16,36 @@
 
 package com.ibm.pmai.taskclerk.batch.results;
 
+import com.google.gson.JsonObject;
+import com.ibm.pmai.models.core.ResultsResponse;
 import com.ibm.pmai.models.repositories.ExecutorRepository;
 import com.ibm.pmai.models.repositories.ExperimentOutputRepository;
 import com.ibm.pmai.models.repositories.ExperimentRepository;
 import com.ibm.pmai.models.repositories.ResultsRequestRepository;
+import com.ibm.pmai.models.repositories.ResultsResponseRepository;
 import com.ibm.pmai.taskclerk.configurations.ApplicationConfigurations;
-import com.ibm.pmai.taskclerk.utils.PBEEncryption;
+import com.ibm.pmai.taskclerk.utils.ExperimentOutputCache;
 import com.ibm.pmai.taskclerk.utils.Sha256DocumentHasher;
 
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.JobExecutionListener;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
 import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
 import org.springframework.batch.core.launch.support.SimpleJobLauncher;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
 public class ResultsConfiguration {
@@ -63,10 +72,10 @@ public class ResultsConfiguration {
     private ExperimentOutputRepository experimentOutputRepository;
 
     /**
-     * Encryption key
+     * Local cache of experiment output files
      */
     @Autowired
-    private PBEEncryption pbeEncryption;
+    private ExperimentOutputCache experimentOutputCache;
 
         /**
      * Hashing util
@@ -77,6 +86,15 @@ public class ResultsConfiguration {
     @Autowired
     private ResultsRequestRepository resultsRequestRepository;
 
+    @Autowired
+    private ResultsResponseRepository resultsResponseRepository;
+
+    /**
+     * Progress events of the results requests
+     */
+    @Autowired
+    private ResultsProgressPublisher resultsProgressPublisher;
+
     /**
      * Application configurations to access property values
      */
@@ -86,38 +104,157 @@ public class ResultsConfiguration {
     @Autowired
     JobRepository jobRepository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
 
-    @Bean(name = "myJobLauncher")
-    public JobLauncher simpleJobLauncher() throws Exception {
+    /**
+     * Runs the results jobs on the calling thread, they are started on the bounded results job pool by the results job service
+     * @return
+     * @throws Exception
+     */
+    @Bean(name = "resultsJobLauncher")
+    public JobLauncher resultsJobLauncher() throws Exception {
         SimpleJobLauncher jobLauncher = new SimpleJobLauncher();
         jobLauncher.setJobRepository(jobRepository);
-        jobLauncher.setTaskExecutor(new SimpleAsyncTaskExecutor());
+        jobLauncher.setTaskExecutor(new SyncTaskExecutor());
         jobLauncher.afterPropertiesSet();
         return jobLauncher;
     }
 
+    /**
+     * Bounded pool the results jobs run on, the results job service never hands it more jobs than it has threads
+     * @return
+     */
+    @Bean(name = "resultsJobExecutor")
+    public ThreadPoolTaskExecutor resultsJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(applicationConfigurations.getResultsJobConcurrency());
+        executor.setMaxPoolSize(applicationConfigurations.getResultsJobConcurrency());
+        executor.setQueueCapacity(applicationConfigurations.getResultsJobConcurrency());
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("results-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    /**
+     * Bounded pool the experiment outputs are downloaded on, shared by all running results jobs
+     * @return
+     */
+    @Bean(name = "resultsFetchExecutor")
+    public ThreadPoolTaskExecutor resultsFetchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(applicationConfigurations.getResultsFetchConcurrency());
+        executor.setMaxPoolSize(applicationConfigurations.getResultsFetchConcurrency());
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("results-fetch-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    @Bean
+    public ResultsFetchStatistics resultsFetchStatistics() {
+        return new ResultsFetchStatistics();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExperimentResultsFetcher experimentResultsFetcher() {
+        return new ExperimentResultsFetcher(resultsFetchExecutor(), experimentOutputCache, applicationConfigurations, resultsFetchStatistics(), meterRegistry);
+    }
+
+    /**
+     * Bounded pool the partitions of the results jobs run on
+     * @return
+     */
+    @Bean(name = "resultsPartitionExecutor")
+    public ThreadPoolTaskExecutor resultsPartitionExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(applicationConfigurations.getResultsPartitionConcurrency());
+        executor.setMaxPoolSize(applicationConfigurations.getResultsPartitionConcurrency());
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("results-partition-");
+        return executor;
+    }
+
+    /**
+     * Runs the partitions of the request, then marks it completed. The completion step loops back to the partitions
+     * while none of the experiment outputs are ready.
+     * @return
+     */
     @Bean
     public Job fetchTaskExecutionResult() {
         return jobBuilderFactory.get("fetchTaskExecutionResult")
             .incrementer(new RunIdIncrementer())
             .listener(listener())
-            .flow(startExecutionSteps())
+            .flow(resultsPartitionStep())
+            .next(completeResultsRequestStep())
+            .on(ResultsCompletionTasklet.RETRY).to(resultsPartitionStep())
+            .from(completeResultsRequestStep()).on("*").end()
             .end()
             .build();
     }
 
     @Bean
-    public Step startExecutionSteps() {
-        return stepBuilderFactory.get("startExecutionSteps").<String, String>chunk(1)
-            .reader(new Reader(resultsRequestRepository,applicationConfigurations,pbeEncryption,experimentOutputRepository,experimentRepository,sha256DocumentHasher))
-            .processor( new Processor(resultsRequestRepository))
-            .writer(new Writer())
+    public Step resultsPartitionStep() {
+        return stepBuilderFactory.get("resultsPartitionStep")
+            .allowStartIfComplete(true)
+            .partitioner("resultsWorkerStep", resultsPartitioner(null))
+            .step(resultsWorkerStep())
+            .gridSize(applicationConfigurations.getResultsPartitionGridSize())
+            .taskExecutor(resultsPartitionExecutor())
+            .build();
+    }
+
+    @Bean
+    public Step resultsWorkerStep() {
+        return stepBuilderFactory.get("resultsWorkerStep")
+            .allowStartIfComplete(true)
+            .<JsonObject, ResultsResponse>chunk(applicationConfigurations.getResultsChunkSize())
+            .reader(resultsReader(null, null, null))
+            .processor(new Processor())
+            .writer(resultsWriter(null))
+            .build();
+    }
+
+    @Bean
+    public Step completeResultsRequestStep() {
+        return stepBuilderFactory.get("completeResultsRequestStep")
+            .allowStartIfComplete(true)
+            .tasklet(resultsCompletionTasklet(null, null))
             .build();
     }
 
+    @Bean
+    @StepScope
+    public ResultsPartitioner resultsPartitioner(@Value("#{jobParameters['resultRequestId']}") String resultRequestId) {
+        return new ResultsPartitioner(resultsRequestRepository, experimentRepository, sha256DocumentHasher, resultsProgressPublisher, resultRequestId);
+    }
+
+    @Bean
+    @StepScope
+    public Reader resultsReader(@Value("#{stepExecution}") StepExecution stepExecution,
+                                @Value("#{jobParameters['resultRequestId']}") String resultRequestId,
+                                @Value("#{stepExecutionContext['" + ResultsPartitioner.EXPERIMENT_IDS + "']}") String experimentIds) {
+        return new Reader(experimentOutputRepository, experimentRepository, experimentResultsFetcher(), resultsProgressPublisher, stepExecution, resultRequestId, experimentIds, applicationConfigurations.getResultsChunkSize());
+    }
+
+    @Bean
+    @StepScope
+    public Writer resultsWriter(@Value("#{jobParameters['resultRequestId']}") String resultRequestId) {
+        return new Writer(resultsResponseRepository, resultRequestId);
+    }
+
+    @Bean
+    @StepScope
+    public ResultsCompletionTasklet resultsCompletionTasklet(@Value("#{jobParameters['resultRequestId']}") String resultRequestId,
+                                                             @Value("#{jobParameters['epoch']}") Long epoch) {
+        return new ResultsCompletionTasklet(resultsRequestRepository, resultsResponseRepository, applicationConfigurations, resultRequestId, epoch == null ? 0L : epoch);
+    }
+
     @Bean
     public JobExecutionListener listener() {
-        return new CompletionListener();
+        return new CompletionListener(resultsRequestRepository, resultsProgressPublisher);
     }
 
 }
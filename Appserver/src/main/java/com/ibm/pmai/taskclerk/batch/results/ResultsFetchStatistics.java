@@ -0,0 +1,103 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.taskclerk.batch.results;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process wide throughput and latency counters of the experiment output fetch stage
+ */
+public class ResultsFetchStatistics {
+
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong bytesFetched = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    /**
+     * Records an object that was submitted for download
+     */
+    public void recordRequested() {
+        requested.incrementAndGet();
+    }
+
+    /**
+     * Records a successful download
+     * @param bytes number of bytes read from the object store
+     * @param latencyNanos time spent on decrypt, connect, download and parse
+     */
+    public void recordSuccess(long bytes, long latencyNanos) {
+        succeeded.incrementAndGet();
+        bytesFetched.addAndGet(bytes);
+        recordLatency(latencyNanos);
+    }
+
+    /**
+     * Records a failed download
+     * @param latencyNanos time spent before the failure
+     * @param timeout whether the failure was caused by the per object timeout
+     */
+    public void recordFailure(long latencyNanos, boolean timeout) {
+        failed.incrementAndGet();
+        if (timeout) {
+            timedOut.incrementAndGet();
+        }
+        recordLatency(latencyNanos);
+    }
+
+    private void recordLatency(long latencyNanos) {
+        totalLatencyNanos.addAndGet(latencyNanos);
+        maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+    }
+
+    public long getRequested() {
+        return requested.get();
+    }
+
+    public long getSucceeded() {
+        return succeeded.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public long getTimedOut() {
+        return timedOut.get();
+    }
+
+    public long getBytesFetched() {
+        return bytesFetched.get();
+    }
+
+    public long getTotalLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalLatencyNanos.get());
+    }
+
+    public long getMaxLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get());
+    }
+
+    public double getAverageLatencyMillis() {
+        long completed = succeeded.get() + failed.get();
+        return completed == 0 ? 0 : (double) getTotalLatencyMillis() / completed;
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.taskclerk.batch.results;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.ibm.pmai.models.core.Experiment;
+import com.ibm.pmai.models.core.ResultsRequest;
+import com.ibm.pmai.models.repositories.ExperimentRepository;
+import com.ibm.pmai.models.repositories.ResultsRequestRepository;
+import com.ibm.pmai.taskclerk.utils.Sha256DocumentHasher;
+import com.ibm.pmai.taskclerk.utils.Utils;
+
+/**
+ * Splits a results request into partitions of experiments. Requests of type experiment are split by experiment,
+ * requests of type search and algorithm by environment/location pair so the experiments of a pair stay together.
+ * Work units are spread over the partitions so that every partition gets a similar number of experiments.
+ */
+public class ResultsPartitioner implements Partitioner {
+
+    /**
+     * Execution context key holding the comma separated experiment ids of a partition
+     */
+    public static final String EXPERIMENT_IDS = "experimentIds";
+
+    /**
+     * Logger declaration
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ResultsPartitioner.class);
+
+    private ResultsRequestRepository resultsRequestRepository;
+
+    /**
+     * Experiment repository declaration
+     */
+    private ExperimentRepository experimentRepository;
+
+    /**
+     * Hashing util
+     */
+    private Sha256DocumentHasher sha256DocumentHasher;
+
+    /**
+     * Progress events of the results requests
+     */
+    private ResultsProgressPublisher resultsProgressPublisher;
+
+    private String resultRequestId;
+
+    public ResultsPartitioner(ResultsRequestRepository resultsRequestRepository, ExperimentRepository experimentRepository, Sha256DocumentHasher sha256DocumentHasher, ResultsProgressPublisher resultsProgressPublisher, String resultRequestId) {
+        this.resultsRequestRepository = resultsRequestRepository;
+        this.experimentRepository = experimentRepository;
+        this.sha256DocumentHasher = sha256DocumentHasher;
+        this.resultsProgressPublisher = resultsProgressPublisher;
+        this.resultRequestId = resultRequestId;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+        if (resultRequestId == null) {
+            return partitions;
+        }
+
+        ResultsRequest resultsRequest = resultsRequestRepository.getById(resultRequestId);
+        if (resultsRequest == null || resultsRequest.isStatus()) {
+            return partitions;
+        }
+
+        List<List<String>> units;
+        try {
+            units = getWorkUnits(resultsRequest);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not resolve the experiments of results request " + resultRequestId, e);
+        }
+        if (units.isEmpty()) {
+            logger.info("======NO MATCHING FOUND====" + new Gson().toJson(resultsRequest));
+            resultsProgressPublisher.started(resultRequestId, 0);
+            return partitions;
+        }
+
+        // assign every unit to the partition holding the fewest experiments so far
+        int partitionCount = Math.max(1, Math.min(gridSize, units.size()));
+        List<List<String>> buckets = new ArrayList<>(partitionCount);
+        for (int i = 0; i < partitionCount; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        units.sort((a, b) -> Integer.compare(b.size(), a.size()));
+        for (List<String> unit : units) {
+            List<String> smallest = buckets.get(0);
+            for (List<String> bucket : buckets) {
+                if (bucket.size() < smallest.size()) {
+                    smallest = bucket;
+                }
+            }
+            smallest.addAll(unit);
+        }
+
+        int total = 0;
+        for (List<String> unit : units) {
+            total += unit.size();
+        }
+        resultsProgressPublisher.started(resultRequestId, total);
+
+        for (int i = 0; i < buckets.size(); i++) {
+            ExecutionContext context = new ExecutionContext();
+            context.putString(EXPERIMENT_IDS, String.join(",", buckets.get(i)));
+            partitions.put("partition" + i, context);
+        }
+        logger.info("======RESULTS REQUEST " + resultRequestId + " SPLIT INTO " + partitions.size() + " PARTITIONS====");
+        return partitions;
+    }
+
+    /**
+     * Resolves the experiments of the request grouped into work units
+     * @param resultsRequest
+     * @return
+     * @throws Exception
+     */
+    private List<List<String>> getWorkUnits(ResultsRequest resultsRequest) throws Exception {
+        List<List<String>> units = new ArrayList<>();
+
+        if (resultsRequest.getRequestName().equalsIgnoreCase("experiment")) {
+            // request of type experiment
+            List<Map<String, Object>> experimentArray = resultsRequest.getExperiments();
+            if (experimentArray == null) {
+                return units;
+            }
+            for (Map<String, Object> experiment : experimentArray) {
+                JsonObject jsonExperimentObject = JsonParser.parseString(new Gson().toJson(experiment)).getAsJsonObject();
+                List<String> unit = new ArrayList<>();
+                unit.add(jsonExperimentObject.get("id").getAsString());
+                units.add(unit);
+            }
+
+        } else if (resultsRequest.getRequestName().equalsIgnoreCase("search")
+            || resultsRequest.getRequestName().equalsIgnoreCase("algorithm")) {
+            // request of type search or algorithm
+            boolean byAlgorithm = resultsRequest.getRequestName().equalsIgnoreCase("algorithm");
+
+            List<Map<String, Object>> algorithmsArray = resultsRequest.getExecutors();
+
+            List<Map<String, Object>> environmentsArray = resultsRequest.getEnvironments();
+
+            List<Map<String, Object>> locationsArray = resultsRequest.getLocations();
+
+            if (environmentsArray == null || locationsArray == null || environmentsArray.size()<1 || locationsArray.size()<1
+                || (byAlgorithm && (algorithmsArray == null || algorithmsArray.size()<1))) {
+                return units;
+            }
+
+            Map<String, List<String>> experimentsByPair = new LinkedHashMap<>();
+            for (int i = 0; i < environmentsArray.size(); i++) {
+                JsonObject jsonExecutorObject = JsonParser.parseString(new Gson().toJson(environmentsArray.get(i))).getAsJsonObject();
+                JsonObject jsonLocationObject = JsonParser.parseString(new Gson().toJson(locationsArray.get(Math.min(i, locationsArray.size()-1)))).getAsJsonObject();
+
+                String executorId = jsonExecutorObject.get("id").getAsString();
+                String locationId = jsonLocationObject.get("id").getAsString();
+                // compute hash
+                List<String> experimentHashes = sha256DocumentHasher.getLookupHashes(Utils.getExperimentHash(locationId, executorId).getBytes());
+
+                List<Experiment> experiments;
+                String pairKey = executorId + "|" + locationId;
+                if (byAlgorithm) {
+                    JsonObject jsonAlgorithmObject = JsonParser.parseString(new Gson().toJson(algorithmsArray.get(Math.min(i, algorithmsArray.size()-1)))).getAsJsonObject();
+                    String algorithmId = jsonAlgorithmObject.get("id").getAsString();
+                    pairKey = pairKey + "|" + algorithmId;
+                    // fetch experiment based on the computed hash and algorithmId
+                    experiments = experimentRepository.getByExperimentHashInAndAlgorithmId(experimentHashes, algorithmId);
+                } else {
+                    // fetch experiment based on the computed hash
+                    experiments = experimentRepository.getByExperimentHashIn(experimentHashes);
+                }
+                if (experiments == null || experiments.size() < 1) {
+                    continue;
+                }
+                List<String> unit = experimentsByPair.computeIfAbsent(pairKey, key -> new ArrayList<>());
+                for (Experiment experiment : experiments) {
+                    unit.add(experiment.getId());
+                }
+            }
+            units.addAll(experimentsByPair.values());
+        }
+        return units;
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.taskclerk.batch.results;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes the progress of running results jobs to clients subscribed over server-sent events. The partitioner
+ * announces how many experiments a run covers, the readers report fetched and failed experiments and the completion
+ * listener sends the final event and closes the streams. Progress is held in memory by the instance running the job.
+ */
+@Component
+public class ResultsProgressPublisher {
+
+    /**
+     * Event sent while a job is fetching experiment outputs
+     */
+    public static final String PROGRESS_EVENT = "progress";
+
+    /**
+     * Last event of a stream, sent when the job has finished
+     */
+    public static final String COMPLETED_EVENT = "completed";
+
+    /**
+     * Logger declaration
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ResultsProgressPublisher.class);
+
+    private final Map<String, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    private final Map<String, Progress> progress = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a stream for a results request and sends it the current progress
+     * @param resultRequestId
+     * @param emitter
+     */
+    public void subscribe(String resultRequestId, SseEmitter emitter) {
+        List<SseEmitter> requestEmitters = emitters.computeIfAbsent(resultRequestId, id -> new CopyOnWriteArrayList<>());
+        requestEmitters.add(emitter);
+        emitter.onCompletion(() -> remove(resultRequestId, emitter));
+        emitter.onTimeout(() -> remove(resultRequestId, emitter));
+        emitter.onError(error -> remove(resultRequestId, emitter));
+
+        Progress current = progress.get(resultRequestId);
+        send(resultRequestId, emitter, PROGRESS_EVENT, current != null ? current.toMap(resultRequestId) : new Progress(0).toMap(resultRequestId));
+    }
+
+    /**
+     * Starts a run over the given number of experiments, the counters restart when the job polls again
+     * @param resultRequestId
+     * @param total
+     */
+    public void started(String resultRequestId, int total) {
+        Progress current = new Progress(total);
+        progress.put(resultRequestId, current);
+        publish(resultRequestId, PROGRESS_EVENT, current.toMap(resultRequestId));
+    }
+
+    /**
+     * Counts the experiments a reader went through
+     * @param resultRequestId
+     * @param fetched experiments whose outputs were fetched
+     * @param failed experiments whose outputs could not be fetched
+     * @param notReady experiments without outputs yet
+     */
+    public void fetched(String resultRequestId, int fetched, int failed, int notReady) {
+        Progress current = progress.get(resultRequestId);
+        if (current == null) {
+            return;
+        }
+        current.fetched.addAndGet(fetched);
+        current.failed.addAndGet(failed);
+        current.notReady.addAndGet(notReady);
+        publish(resultRequestId, PROGRESS_EVENT, current.toMap(resultRequestId));
+    }
+
+    /**
+     * Sends the final state of a results request and closes its streams
+     * @param resultRequestId
+     * @param status whether the results are available
+     * @param batchStatus status of the job execution
+     */
+    public void completed(String resultRequestId, boolean status, String batchStatus) {
+        Progress current = progress.remove(resultRequestId);
+        Map<String, Object> data = current != null ? current.toMap(resultRequestId) : new Progress(0).toMap(resultRequestId);
+        data.put("status", status);
+        data.put("batchStatus", batchStatus);
+
+        List<SseEmitter> requestEmitters = emitters.remove(resultRequestId);
+        if (requestEmitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : requestEmitters) {
+            if (send(resultRequestId, emitter, COMPLETED_EVENT, data)) {
+                emitter.complete();
+            }
+        }
+    }
+
+    /**
+     * Keeps idle streams open through proxies and detects clients that went away
+     */
+    @Scheduled(fixedDelayString = "${app.results_events_heartbeat_ms:15000}")
+    public void heartbeat() {
+        emitters.forEach((resultRequestId, requestEmitters) -> {
+            for (SseEmitter emitter : requestEmitters) {
+                try {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } catch (IOException | IllegalStateException e) {
+                    remove(resultRequestId, emitter);
+                }
+            }
+        });
+    }
+
+    private void publish(String resultRequestId, String name, Map<String, Object> data) {
+        List<SseEmitter> requestEmitters = emitters.get(resultRequestId);
+        if (requestEmitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : requestEmitters) {
+            send(resultRequestId, emitter, name, data);
+        }
+    }
+
+    private boolean send(String resultRequestId, SseEmitter emitter, String name, Map<String, Object> data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("======RESULTS EVENT NOT DELIVERED====" + resultRequestId + " " + e.getMessage());
+            remove(resultRequestId, emitter);
+            return false;
+        }
+    }
+
+    private void remove(String resultRequestId, SseEmitter emitter) {
+        emitters.computeIfPresent(resultRequestId, (id, requestEmitters) -> {
+            requestEmitters.remove(emitter);
+            return requestEmitters.isEmpty() ? null : requestEmitters;
+        });
+    }
+
+    private static class Progress {
+        private final int total;
+        private final AtomicLong fetched = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong notReady = new AtomicLong();
+
+        Progress(int total) {
+            this.total = total;
+        }
+
+        Map<String, Object> toMap(String resultRequestId) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("resultRequestId", resultRequestId);
+            data.put("total", total);
+            data.put("fetched", fetched.get());
+            data.put("failed", failed.get());
+            data.put("notReady", notReady.get());
+            return data;
+        }
+    }
+}
@@ -16,19 +16,22 @@
 
 package com.ibm.pmai.taskclerk.batch.results;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.batch.core.JobParameters;
-import org.springframework.batch.core.StepExecution;
-import org.springframework.batch.core.annotation.BeforeStep;
 import org.springframework.batch.item.ItemWriter;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import com.ibm.pmai.models.repositories.ResultsRequestRepository;
+import com.ibm.pmai.models.core.ResultsResponse;
+import com.ibm.pmai.models.repositories.ResultsResponseRepository;
 
-public class Writer implements ItemWriter<String> {
+/**
+ * Stores a chunk of results and links them to their results request. Partitions write concurrently, so the link
+ * is set with a single update instead of saving the results collection of the request.
+ */
+public class Writer implements ItemWriter<ResultsResponse> {
 
     private String resultRequestId;
 
@@ -37,20 +40,26 @@ public class Writer implements ItemWriter<String> {
     */
     private static final Logger logger = LoggerFactory.getLogger(Writer.class);
 
-    @Autowired
-    private ResultsRequestRepository resultsRequestRepository;
-
+    private ResultsResponseRepository resultsResponseRepository;
 
-    @BeforeStep
-    public void beforeStep(final StepExecution stepExecution) {
-        JobParameters jobParameters = stepExecution.getJobParameters();
-        resultRequestId= jobParameters.getString("resultRequestId");
+    @Autowired
+    public Writer(ResultsResponseRepository resultsResponseRepository, String resultRequestId) {
+        this.resultsResponseRepository = resultsResponseRepository;
+        this.resultRequestId = resultRequestId;
     }
 
 
     @Override
-    public void write(List<? extends String> list) throws Exception {
-        logger.info("WRITER: " + System.currentTimeMillis());
-        System.out.println("Writing the data " + list);
+    public void write(List<? extends ResultsResponse> list) throws Exception {
+        logger.info("WRITER: " + System.currentTimeMillis() + " writing " + list.size() + " results");
+        if (list.isEmpty()) {
+            return;
+        }
+
+        List<String> ids = new ArrayList<>(list.size());
+        for (ResultsResponse resultsResponse : resultsResponseRepository.saveAll(list)) {
+            ids.add(resultsResponse.getId());
+        }
+        resultsResponseRepository.linkToResultsRequest(resultRequestId, ids);
     }
 }
@@ -79,6 +79,117 @@ public class ApplicationConfigurations {
     @Value("${app.job_batch_timeout}")
     private float jobBatchTimeout;
 
+    @Value("${app.results_fetch_concurrency:8}")
+    private int resultsFetchConcurrency;
+
+    @Value("${app.results_fetch_timeout_seconds:120}")
+    private long resultsFetchTimeoutSeconds;
+
+    @Value("${app.results_partition_grid_size:8}")
+    private int resultsPartitionGridSize;
+
+    @Value("${app.results_partition_concurrency:4}")
+    private int resultsPartitionConcurrency;
+
+    @Value("${app.results_chunk_size:10}")
+    private int resultsChunkSize;
+
+    @Value("${app.results_poll_interval_seconds:15}")
+    private long resultsPollIntervalSeconds;
+
+    @Value("${app.cos_max_connections:50}")
+    private int cosMaxConnections;
+
+    @Value("${app.cos_client_idle_minutes:30}")
+    private long cosClientIdleMinutes;
+
+    @Value("${app.credentials_cache_ttl_minutes:15}")
+    private long credentialsCacheTtlMinutes;
+
+    @Value("${app.credentials_cache_max_entries:100}")
+    private int credentialsCacheMaxEntries;
+
+    @Value("${app.output_cache_dir:/tmp/experiment-output-cache}")
+    private String outputCacheDir;
+
+    @Value("${app.output_cache_max_mb:1024}")
+    private long outputCacheMaxMb;
+
+    @Value("${app.output_cache_prefetch_threads:2}")
+    private int outputCachePrefetchThreads;
+
+    @Value("${app.cos_upload_part_size_mb:16}")
+    private long cosUploadPartSizeMb;
+
+    @Value("${app.cos_upload_concurrency:4}")
+    private int cosUploadConcurrency;
+
+    @Value("${app.submission_batch_size:20}")
+    private int submissionBatchSize;
+
+    @Value("${app.submission_max_attempts:10}")
+    private int submissionMaxAttempts;
+
+    @Value("${app.submission_retry_base_seconds:30}")
+    private long submissionRetryBaseSeconds;
+
+    @Value("${app.submission_retry_max_seconds:1800}")
+    private long submissionRetryMaxSeconds;
+
+    @Value("${app.location_data_cache_ttl_minutes:60}")
+    private long locationDataCacheTtlMinutes;
+
+    @Value("${app.location_data_missing_ttl_seconds:60}")
+    private long locationDataMissingTtlSeconds;
+
+    @Value("${app.location_data_probe_timeout_seconds:10}")
+    private long locationDataProbeTimeoutSeconds;
+
+    @Value("${app.job_status_sync_batch_size:50}")
+    private int jobStatusSyncBatchSize;
+
+    @Value("${app.job_status_sync_concurrency:4}")
+    private int jobStatusSyncConcurrency;
+
+    @Value("${app.job_status_poll_min_seconds:15}")
+    private long jobStatusPollMinSeconds;
+
+    @Value("${app.job_status_poll_max_seconds:300}")
+    private long jobStatusPollMaxSeconds;
+
+    @Value("${app.hash_migration_batch_size:200}")
+    private int hashMigrationBatchSize;
+
+    @Value("${app.page_size_default:100}")
+    private int pageSizeDefault;
+
+    @Value("${app.page_size_max:1000}")
+    private int pageSizeMax;
+
+    @Value("${app.access_log_buffer_size:8192}")
+    private int accessLogBufferSize;
+
+    @Value("${app.results_job_concurrency:4}")
+    private int resultsJobConcurrency;
+
+    @Value("${app.results_job_bulk_concurrency:2}")
+    private int resultsJobBulkConcurrency;
+
+    @Value("${app.results_job_user_concurrency:2}")
+    private int resultsJobUserConcurrency;
+
+    @Value("${app.results_job_interactive_queue_max:100}")
+    private int resultsJobInteractiveQueueMax;
+
+    @Value("${app.results_job_bulk_queue_max:500}")
+    private int resultsJobBulkQueueMax;
+
+    @Value("${app.results_job_user_queue_max:50}")
+    private int resultsJobUserQueueMax;
+
+    @Value("${app.results_job_retry_after_seconds:30}")
+    private int resultsJobRetryAfterSeconds;
+
 
     /**
      * Constructor
@@ -219,4 +330,300 @@ public class ApplicationConfigurations {
     public void setJobBatchTimeout(float jobBatchTimeout) {
         this.jobBatchTimeout = jobBatchTimeout;
     }
+
+    public int getResultsFetchConcurrency() {
+        return resultsFetchConcurrency;
+    }
+
+    public void setResultsFetchConcurrency(int resultsFetchConcurrency) {
+        this.resultsFetchConcurrency = resultsFetchConcurrency;
+    }
+
+    public long getResultsFetchTimeoutSeconds() {
+        return resultsFetchTimeoutSeconds;
+    }
+
+    public void setResultsFetchTimeoutSeconds(long resultsFetchTimeoutSeconds) {
+        this.resultsFetchTimeoutSeconds = resultsFetchTimeoutSeconds;
+    }
+
+    public int getResultsPartitionGridSize() {
+        return resultsPartitionGridSize;
+    }
+
+    public void setResultsPartitionGridSize(int resultsPartitionGridSize) {
+        this.resultsPartitionGridSize = resultsPartitionGridSize;
+    }
+
+    public int getResultsPartitionConcurrency() {
+        return resultsPartitionConcurrency;
+    }
+
+    public void setResultsPartitionConcurrency(int resultsPartitionConcurrency) {
+        this.resultsPartitionConcurrency = resultsPartitionConcurrency;
+    }
+
+    public int getResultsChunkSize() {
+        return resultsChunkSize;
+    }
+
+    public void setResultsChunkSize(int resultsChunkSize) {
+        this.resultsChunkSize = resultsChunkSize;
+    }
+
+    public long getResultsPollIntervalSeconds() {
+        return resultsPollIntervalSeconds;
+    }
+
+    public void setResultsPollIntervalSeconds(long resultsPollIntervalSeconds) {
+        this.resultsPollIntervalSeconds = resultsPollIntervalSeconds;
+    }
+
+    public int getCosMaxConnections() {
+        return cosMaxConnections;
+    }
+
+    public void setCosMaxConnections(int cosMaxConnections) {
+        this.cosMaxConnections = cosMaxConnections;
+    }
+
+    public long getCosClientIdleMinutes() {
+        return cosClientIdleMinutes;
+    }
+
+    public void setCosClientIdleMinutes(long cosClientIdleMinutes) {
+        this.cosClientIdleMinutes = cosClientIdleMinutes;
+    }
+
+    public long getCredentialsCacheTtlMinutes() {
+        return credentialsCacheTtlMinutes;
+    }
+
+    public void setCredentialsCacheTtlMinutes(long credentialsCacheTtlMinutes) {
+        this.credentialsCacheTtlMinutes = credentialsCacheTtlMinutes;
+    }
+
+    public int getCredentialsCacheMaxEntries() {
+        return credentialsCacheMaxEntries;
+    }
+
+    public void setCredentialsCacheMaxEntries(int credentialsCacheMaxEntries) {
+        this.credentialsCacheMaxEntries = credentialsCacheMaxEntries;
+    }
+
+    public String getOutputCacheDir() {
+        return outputCacheDir;
+    }
+
+    public void setOutputCacheDir(String outputCacheDir) {
+        this.outputCacheDir = outputCacheDir;
+    }
+
+    public long getOutputCacheMaxMb() {
+        return outputCacheMaxMb;
+    }
+
+    public void setOutputCacheMaxMb(long outputCacheMaxMb) {
+        this.outputCacheMaxMb = outputCacheMaxMb;
+    }
+
+    public int getOutputCachePrefetchThreads() {
+        return outputCachePrefetchThreads;
+    }
+
+    public void setOutputCachePrefetchThreads(int outputCachePrefetchThreads) {
+        this.outputCachePrefetchThreads = outputCachePrefetchThreads;
+    }
+
+    public long getCosUploadPartSizeMb() {
+        return cosUploadPartSizeMb;
+    }
+
+    public void setCosUploadPartSizeMb(long cosUploadPartSizeMb) {
+        this.cosUploadPartSizeMb = cosUploadPartSizeMb;
+    }
+
+    public int getCosUploadConcurrency() {
+        return cosUploadConcurrency;
+    }
+
+    public void setCosUploadConcurrency(int cosUploadConcurrency) {
+        this.cosUploadConcurrency = cosUploadConcurrency;
+    }
+
+    public int getSubmissionBatchSize() {
+        return submissionBatchSize;
+    }
+
+    public void setSubmissionBatchSize(int submissionBatchSize) {
+        this.submissionBatchSize = submissionBatchSize;
+    }
+
+    public int getSubmissionMaxAttempts() {
+        return submissionMaxAttempts;
+    }
+
+    public void setSubmissionMaxAttempts(int submissionMaxAttempts) {
+        this.submissionMaxAttempts = submissionMaxAttempts;
+    }
+
+    public long getSubmissionRetryBaseSeconds() {
+        return submissionRetryBaseSeconds;
+    }
+
+    public void setSubmissionRetryBaseSeconds(long submissionRetryBaseSeconds) {
+        this.submissionRetryBaseSeconds = submissionRetryBaseSeconds;
+    }
+
+    public long getSubmissionRetryMaxSeconds() {
+        return submissionRetryMaxSeconds;
+    }
+
+    public void setSubmissionRetryMaxSeconds(long submissionRetryMaxSeconds) {
+        this.submissionRetryMaxSeconds = submissionRetryMaxSeconds;
+    }
+
+    public long getLocationDataCacheTtlMinutes() {
+        return locationDataCacheTtlMinutes;
+    }
+
+    public void setLocationDataCacheTtlMinutes(long locationDataCacheTtlMinutes) {
+        this.locationDataCacheTtlMinutes = locationDataCacheTtlMinutes;
+    }
+
+    public long getLocationDataMissingTtlSeconds() {
+        return locationDataMissingTtlSeconds;
+    }
+
+    public void setLocationDataMissingTtlSeconds(long locationDataMissingTtlSeconds) {
+        this.locationDataMissingTtlSeconds = locationDataMissingTtlSeconds;
+    }
+
+    public long getLocationDataProbeTimeoutSeconds() {
+        return locationDataProbeTimeoutSeconds;
+    }
+
+    public void setLocationDataProbeTimeoutSeconds(long locationDataProbeTimeoutSeconds) {
+        this.locationDataProbeTimeoutSeconds = locationDataProbeTimeoutSeconds;
+    }
+
+    public int getJobStatusSyncBatchSize() {
+        return jobStatusSyncBatchSize;
+    }
+
+    public void setJobStatusSyncBatchSize(int jobStatusSyncBatchSize) {
+        this.jobStatusSyncBatchSize = jobStatusSyncBatchSize;
+    }
+
+    public int getJobStatusSyncConcurrency() {
+        return jobStatusSyncConcurrency;
+    }
+
+    public void setJobStatusSyncConcurrency(int jobStatusSyncConcurrency) {
+        this.jobStatusSyncConcurrency = jobStatusSyncConcurrency;
+    }
+
+    public long getJobStatusPollMinSeconds() {
+        return jobStatusPollMinSeconds;
+    }
+
+    public void setJobStatusPollMinSeconds(long jobStatusPollMinSeconds) {
+        this.jobStatusPollMinSeconds = jobStatusPollMinSeconds;
+    }
+
+    public long getJobStatusPollMaxSeconds() {
+        return jobStatusPollMaxSeconds;
+    }
+
+    public void setJobStatusPollMaxSeconds(long jobStatusPollMaxSeconds) {
+        this.jobStatusPollMaxSeconds = jobStatusPollMaxSeconds;
+    }
+
+    public int getPageSizeDefault() {
+        return pageSizeDefault;
+    }
+
+    public void setPageSizeDefault(int pageSizeDefault) {
+        this.pageSizeDefault = pageSizeDefault;
+    }
+
+    public int getPageSizeMax() {
+        return pageSizeMax;
+    }
+
+    public void setPageSizeMax(int pageSizeMax) {
+        this.pageSizeMax = pageSizeMax;
+    }
+
+    public int getHashMigrationBatchSize() {
+        return hashMigrationBatchSize;
+    }
+
+    public void setHashMigrationBatchSize(int hashMigrationBatchSize) {
+        this.hashMigrationBatchSize = hashMigrationBatchSize;
+    }
+
+    public int getAccessLogBufferSize() {
+        return accessLogBufferSize;
+    }
+
+    public void setAccessLogBufferSize(int accessLogBufferSize) {
+        this.accessLogBufferSize = accessLogBufferSize;
+    }
+
+    public int getResultsJobConcurrency() {
+        return resultsJobConcurrency;
+    }
+
+    public void setResultsJobConcurrency(int resultsJobConcurrency) {
+        this.resultsJobConcurrency = resultsJobConcurrency;
+    }
+
+    public int getResultsJobBulkConcurrency() {
+        return resultsJobBulkConcurrency;
+    }
+
+    public void setResultsJobBulkConcurrency(int resultsJobBulkConcurrency) {
+        this.resultsJobBulkConcurrency = resultsJobBulkConcurrency;
+    }
+
+    public int getResultsJobUserConcurrency() {
+        return resultsJobUserConcurrency;
+    }
+
+    public void setResultsJobUserConcurrency(int resultsJobUserConcurrency) {
+        this.resultsJobUserConcurrency = resultsJobUserConcurrency;
+    }
+
+    public int getResultsJobInteractiveQueueMax() {
+        return resultsJobInteractiveQueueMax;
+    }
+
+    public void setResultsJobInteractiveQueueMax(int resultsJobInteractiveQueueMax) {
+        this.resultsJobInteractiveQueueMax = resultsJobInteractiveQueueMax;
+    }
+
+    public int getResultsJobBulkQueueMax() {
+        return resultsJobBulkQueueMax;
+    }
+
+    public void setResultsJobBulkQueueMax(int resultsJobBulkQueueMax) {
+        this.resultsJobBulkQueueMax = resultsJobBulkQueueMax;
+    }
+
+    public int getResultsJobUserQueueMax() {
+        return resultsJobUserQueueMax;
+    }
+
+    public void setResultsJobUserQueueMax(int resultsJobUserQueueMax) {
+        this.resultsJobUserQueueMax = resultsJobUserQueueMax;
+    }
+
+    public int getResultsJobRetryAfterSeconds() {
+        return resultsJobRetryAfterSeconds;
+    }
+
+    public void setResultsJobRetryAfterSeconds(int resultsJobRetryAfterSeconds) {
+        this.resultsJobRetryAfterSeconds = resultsJobRetryAfterSeconds;
+    }
 }
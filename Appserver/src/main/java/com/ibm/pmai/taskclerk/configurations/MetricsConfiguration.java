@@ -0,0 +1,54 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.taskclerk.configurations;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.ibm.pmai.taskclerk.utils.JdbcBatchStatisticsListener;
+import com.ibm.pmai.taskclerk.utils.TaskClerkMetrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Meters that are not recorded where the work happens. Request, Hikari pool, JVM and Spring Batch reader, processor
+ * and writer meters are registered by Spring Boot and Spring Batch, the application timers by the instrumented
+ * classes.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    /**
+     * JDBC batching totals of all the Hibernate sessions
+     * @return
+     */
+    @Bean
+    public MeterBinder jdbcBatchMetrics() {
+        return registry -> {
+            FunctionCounter.builder(TaskClerkMetrics.PREFIX + ".jdbc.batches", JdbcBatchStatisticsListener.class, type -> JdbcBatchStatisticsListener.getTotalBatches())
+                .description("JDBC batches executed by Hibernate")
+                .register(registry);
+            FunctionCounter.builder(TaskClerkMetrics.PREFIX + ".jdbc.statements", JdbcBatchStatisticsListener.class, type -> JdbcBatchStatisticsListener.getTotalStatements())
+                .description("JDBC statements executed one by one by Hibernate")
+                .register(registry);
+            FunctionCounter.builder(TaskClerkMetrics.PREFIX + ".hibernate.flushed.entities", JdbcBatchStatisticsListener.class, type -> JdbcBatchStatisticsListener.getTotalFlushedEntities())
+                .description("Entities flushed by Hibernate")
+                .register(registry);
+        };
+    }
+}
@@ -19,6 +19,7 @@ package com.ibm.pmai.taskclerk.controllers;
 import java.util.Date;
 import java.util.List;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.ws.rs.core.Response;
 
@@ -31,11 +32,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.ibm.pmai.models.core.Algorithm;
 import com.ibm.pmai.models.repositories.AlgorithmsRepository;
 import com.ibm.pmai.taskclerk.exceptions.ApiException;
+import com.ibm.pmai.taskclerk.utils.KeysetPaginator;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -55,9 +58,15 @@ public class AlgorithmsController {
 
     private final AlgorithmsRepository algorithmsRepository;
 
+    /**
+     * Pages through the collection
+     */
+    private KeysetPaginator keysetPaginator;
+
     @Autowired
-    public AlgorithmsController(AlgorithmsRepository algorithmsRepository) {
+    public AlgorithmsController(AlgorithmsRepository algorithmsRepository, KeysetPaginator keysetPaginator) {
         this.algorithmsRepository = algorithmsRepository;
+        this.keysetPaginator = keysetPaginator;
     }
 
     /**
@@ -179,15 +188,16 @@ public class AlgorithmsController {
     }
 
     /**
-     * Returns all algorithm
-     *
+     * Returns a page of algorithm in creation order. A request without limit returns at most the default page size
+     * (app.page_size_default), the whole collection is read by following the cursor in the X-Next-Cursor header until
+     * the header is absent. includeTotal adds the number of all items in the X-Total-Count header.
      * @return {@link Response}
      * @throws Exception
      */
     @GetMapping()
     @Operation(summary = "Returns all algorithm",
         tags = {"Algorithm"},
-        description = "Returns all algorithm ",
+        description = "Returns a page of algorithm in creation order. Without limit at most the default page size of 100 items is returned, follow the cursor in the X-Next-Cursor header to read the rest",
         responses = {
             @ApiResponse(description = "Algorithm", content = @Content(schema = @Schema(implementation = Algorithm.class))),
             @ApiResponse(responseCode = "200", description = "OK"),
@@ -197,10 +207,16 @@ public class AlgorithmsController {
             @ApiResponse(responseCode = "404", description = "Not found"),
             @ApiResponse(responseCode = "405", description = "Validation exception")
         })
-    public Response retrieveAll() throws Exception {
-
-        // Retrieve all algorithm
-        List<Algorithm> savedAlgorithm = algorithmsRepository.findAll();
+    public Response retrieveAll(
+        @Parameter(description = "Maximum number of items to return, 100 when omitted and at most 1000") @RequestParam(value = "limit", required = false) Integer limit,
+        @Parameter(description = "Cursor from the X-Next-Cursor header of the previous page") @RequestParam(value = "cursor", required = false) String cursor,
+        @Parameter(description = "Whether to return the total number of items in the X-Total-Count header") @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal,
+        @Parameter(hidden = true) HttpServletResponse httpServletResponse) throws Exception {
+
+        // Retrieve a page of algorithm in creation order
+        KeysetPaginator.Page<Algorithm> page = keysetPaginator.getPage(Algorithm.class, limit, cursor, includeTotal);
+        page.applyHeaders(httpServletResponse);
+        List<Algorithm> savedAlgorithm = page.getItems();
 
         // Check if the returned object is not null
         if (null != savedAlgorithm) {
@@ -19,6 +19,7 @@ package com.ibm.pmai.taskclerk.controllers;
 import java.util.List;
 import java.util.Optional;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.ws.rs.core.Response;
 
@@ -31,6 +32,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.ibm.pmai.models.core.DataPush;
@@ -38,6 +40,7 @@ import com.ibm.pmai.models.repositories.DataPushRepository;
 import com.ibm.pmai.taskclerk.configurations.ApplicationConfigurations;
 import com.ibm.pmai.taskclerk.exceptions.ApiException;
 import com.ibm.pmai.taskclerk.utils.PBEEncryption;
+import com.ibm.pmai.taskclerk.utils.KeysetPaginator;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -73,15 +76,21 @@ public class DataPushController {
      */
     private static final Logger logger = LoggerFactory.getLogger(DataPushController.class);
 
+    /**
+     * Pages through the collection
+     */
+    private KeysetPaginator keysetPaginator;
+
     /**
      * DataPush controller
      * @param dataPushRepository
      */
     @Autowired
-    public DataPushController(DataPushRepository dataPushRepository,PBEEncryption pbeEncryption,ApplicationConfigurations applicationConfigurations) {
+    public DataPushController(DataPushRepository dataPushRepository,PBEEncryption pbeEncryption,ApplicationConfigurations applicationConfigurations,KeysetPaginator keysetPaginator) {
         this.dataPushRepository = dataPushRepository;
         this.pbeEncryption =pbeEncryption;
         this.applicationConfigurations = applicationConfigurations;
+        this.keysetPaginator = keysetPaginator;
     }
 
     /**
@@ -173,14 +182,16 @@ public class DataPushController {
 
 
     /**
-     * Returns all dataPush:  TODO: ADD PAGINATION
+     * Returns a page of dataPush in creation order. A request without limit returns at most the default page size
+     * (app.page_size_default), the whole collection is read by following the cursor in the X-Next-Cursor header until
+     * the header is absent. includeTotal adds the number of all items in the X-Total-Count header.
      * @return {@link Response}
      * @throws Exception
      */
     @GetMapping(   )
     @Operation(summary = "Returns all dataPush",
         tags = {"DataPush"},
-        description = "Returns all dataPush ",
+        description = "Returns a page of dataPush in creation order. Without limit at most the default page size of 100 items is returned, follow the cursor in the X-Next-Cursor header to read the rest",
         responses = {
             @ApiResponse(description = "DataPush", content = @Content(schema = @Schema(implementation = DataPush.class))),
             @ApiResponse(responseCode = "200", description = "OK"),
@@ -190,10 +201,16 @@ public class DataPushController {
             @ApiResponse(responseCode = "404", description = "Not found"),
             @ApiResponse(responseCode = "405", description = "Validation exception")
         })
-    public Response retrieveAll() throws Exception {
-
-        // Retrieve all dataPush
-        List<DataPush> savedDataPush = dataPushRepository.findAll();
+    public Response retrieveAll(
+        @Parameter(description = "Maximum number of items to return, 100 when omitted and at most 1000") @RequestParam(value = "limit", required = false) Integer limit,
+        @Parameter(description = "Cursor from the X-Next-Cursor header of the previous page") @RequestParam(value = "cursor", required = false) String cursor,
+        @Parameter(description = "Whether to return the total number of items in the X-Total-Count header") @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal,
+        @Parameter(hidden = true) HttpServletResponse httpServletResponse) throws Exception {
+
+        // Retrieve a page of dataPush in creation order
+        KeysetPaginator.Page<DataPush> page = keysetPaginator.getPage(DataPush.class, limit, cursor, includeTotal);
+        page.applyHeaders(httpServletResponse);
+        List<DataPush> savedDataPush = page.getItems();
 
         // Check if the returned object is not null
         if (null != savedDataPush) {
@@ -20,6 +20,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.ws.rs.core.Response;
 
@@ -32,13 +33,17 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.ibm.pmai.models.core.DataRepositoryConfiguration;
 import com.ibm.pmai.models.repositories.DataRepositoryConfigurationRepository;
 import com.ibm.pmai.taskclerk.configurations.ApplicationConfigurations;
 import com.ibm.pmai.taskclerk.exceptions.ApiException;
+import com.ibm.pmai.taskclerk.utils.CosClientRegistry;
+import com.ibm.pmai.taskclerk.utils.CredentialsCache;
 import com.ibm.pmai.taskclerk.utils.PBEEncryption;
+import com.ibm.pmai.taskclerk.utils.KeysetPaginator;
 
 import io.swagger.v3.oas.annotations.Hidden;
 import io.swagger.v3.oas.annotations.Operation;
@@ -61,6 +66,16 @@ public class DataRepositoryConfigurationsController {
      */
     private PBEEncryption pbeEncryption;
 
+    /**
+     * Shared COS clients
+     */
+    private CosClientRegistry cosClientRegistry;
+
+    /**
+     * Decrypted credentials
+     */
+    private CredentialsCache credentialsCache;
+
 
     /**
      * Application configurations to access property values
@@ -78,15 +93,23 @@ public class DataRepositoryConfigurationsController {
      */
     private static final Logger logger = LoggerFactory.getLogger(DataRepositoryConfigurationsController.class);
 
+    /**
+     * Pages through the collection
+     */
+    private KeysetPaginator keysetPaginator;
+
     /**
      * DataRepositoryConfigurationRepository controller
      * @param dataRepositoryConfigurationRepository
      */
     @Autowired
-    public DataRepositoryConfigurationsController(DataRepositoryConfigurationRepository dataRepositoryConfigurationRepository,PBEEncryption pbeEncryption,ApplicationConfigurations applicationConfigurations) {
+    public DataRepositoryConfigurationsController(DataRepositoryConfigurationRepository dataRepositoryConfigurationRepository,PBEEncryption pbeEncryption,ApplicationConfigurations applicationConfigurations,CosClientRegistry cosClientRegistry,CredentialsCache credentialsCache,KeysetPaginator keysetPaginator) {
         this.dataRepositoryConfigurationRepository = dataRepositoryConfigurationRepository;
         this.pbeEncryption =pbeEncryption;
         this.applicationConfigurations = applicationConfigurations;
+        this.cosClientRegistry = cosClientRegistry;
+        this.credentialsCache = credentialsCache;
+        this.keysetPaginator = keysetPaginator;
     }
 
     /**
@@ -155,8 +178,7 @@ public class DataRepositoryConfigurationsController {
         // Check if the returned object is not null
         if (null != dataRepositoryConfigurationRepositoryObject) {
 
-            String decryptedCredentials = pbeEncryption
-                .decrypt(applicationConfigurations.getAuthenticationEncryptionKey().toCharArray(), dataRepositoryConfigurationRepositoryObject.get().getCredentials());
+            String decryptedCredentials = credentialsCache.getCredentials(dataRepositoryConfigurationRepositoryObject.get());
 
             // Set DataRepositoryConfigurationRepository as entity in response object
             return Response.ok().entity(decryptedCredentials).build();
@@ -195,8 +217,7 @@ public class DataRepositoryConfigurationsController {
         // Check if the returned object is not null
         if (null != dataRepositoryConfigurationRepositoryObject) {
 
-            String decryptedCredentials = pbeEncryption
-                .decrypt(applicationConfigurations.getAuthenticationEncryptionKey().toCharArray(), dataRepositoryConfigurationRepositoryObject.getCredentials());
+            String decryptedCredentials = credentialsCache.getCredentials(dataRepositoryConfigurationRepositoryObject);
 
             // Set DataRepositoryConfigurationRepository as entity in response object
             return Response.ok().entity(decryptedCredentials).build();
@@ -302,6 +323,10 @@ public class DataRepositoryConfigurationsController {
         // Check if the returned object is not null
         if (null != dataRepositoryConfigurationSaved) {
 
+            // clients and secrets of the previous credentials must not be reused
+            cosClientRegistry.invalidate(dataRepositoryConfigurationId);
+            credentialsCache.invalidate(dataRepositoryConfigurationId);
+
             // Set DataRepositoryConfigurationRepository as entity in response object
             return Response.ok().entity(dataRepositoryConfigurationSaved).build();
 
@@ -351,14 +376,16 @@ public class DataRepositoryConfigurationsController {
 
 
     /**
-     * Returns all dataRepositoryconfigurations:  TODO: ADD PAGINATION
+     * Returns a page of dataRepositoryconfigurations in creation order. A request without limit returns at most the default page size
+     * (app.page_size_default), the whole collection is read by following the cursor in the X-Next-Cursor header until
+     * the header is absent. includeTotal adds the number of all items in the X-Total-Count header.
      * @return {@link Response}
      * @throws Exception
      */
     @GetMapping( )
     @Operation(summary = "Returns all dataRepositoryconfigurations",
         tags = {"DataRepositoryConfigurations"},
-        description = "Returns all dataRepositoryconfigurations",
+        description = "Returns a page of dataRepositoryconfigurations in creation order. Without limit at most the default page size of 100 items is returned, follow the cursor in the X-Next-Cursor header to read the rest",
         responses = {
             @ApiResponse(description = "DataRepositoryConfigurations", content = @Content(schema = @Schema(implementation = DataRepositoryConfiguration.class))),
             @ApiResponse(responseCode = "200", description = "OK"),
@@ -368,10 +395,16 @@ public class DataRepositoryConfigurationsController {
             @ApiResponse(responseCode = "404", description = "Not found"),
             @ApiResponse(responseCode = "405", description = "Validation exception")
         })
-    public Response retrieveAllDataRepositoryConfigurations() throws Exception {
-
-        // Retrieve all dataRepositoryconfigurations
-        List<DataRepositoryConfiguration> dataRepositoryConfigurationList = dataRepositoryConfigurationRepository.findAll();
+    public Response retrieveAllDataRepositoryConfigurations(
+        @Parameter(description = "Maximum number of items to return, 100 when omitted and at most 1000") @RequestParam(value = "limit", required = false) Integer limit,
+        @Parameter(description = "Cursor from the X-Next-Cursor header of the previous page") @RequestParam(value = "cursor", required = false) String cursor,
+        @Parameter(description = "Whether to return the total number of items in the X-Total-Count header") @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal,
+        @Parameter(hidden = true) HttpServletResponse httpServletResponse) throws Exception {
+
+        // Retrieve a page of dataRepositoryconfigurations in creation order
+        KeysetPaginator.Page<DataRepositoryConfiguration> page = keysetPaginator.getPage(DataRepositoryConfiguration.class, limit, cursor, includeTotal);
+        page.applyHeaders(httpServletResponse);
+        List<DataRepositoryConfiguration> dataRepositoryConfigurationList = page.getItems();
 
         // Check if the returned object is not null
         if (null != dataRepositoryConfigurationList) {
@@ -19,6 +19,7 @@ package com.ibm.pmai.taskclerk.controllers;
 import com.ibm.pmai.models.core.ExecutionEnvironmentCommand;
 import com.ibm.pmai.models.repositories.ExecutionEnvironmentCommandRepository;
 import com.ibm.pmai.taskclerk.exceptions.ApiException;
+import com.ibm.pmai.taskclerk.utils.KeysetPaginator;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -29,6 +30,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.ws.rs.core.Response;
 import java.util.Date;
@@ -53,13 +55,19 @@ public class ExecutionEnvironmentCommandController {
      */
     private static final Logger logger = LoggerFactory.getLogger(ExecutionEnvironmentCommandController.class);
 
+    /**
+     * Pages through the collection
+     */
+    private KeysetPaginator keysetPaginator;
+
     /**
      * ExecutionEnvironmentCommand controller
      * @param executionEnvironmentCommandRepository
      */
     @Autowired
-    public ExecutionEnvironmentCommandController(ExecutionEnvironmentCommandRepository executionEnvironmentCommandRepository) {
+    public ExecutionEnvironmentCommandController(ExecutionEnvironmentCommandRepository executionEnvironmentCommandRepository, KeysetPaginator keysetPaginator) {
         this.executionEnvironmentCommandRepository = executionEnvironmentCommandRepository;
+        this.keysetPaginator = keysetPaginator;
     }
 
     /**
@@ -185,14 +193,16 @@ public class ExecutionEnvironmentCommandController {
     }
 
     /**
-     * Returns all executionenvironmentcommand:  TODO: ADD PAGINATION
+     * Returns a page of executionenvironmentcommand in creation order. A request without limit returns at most the default page size
+     * (app.page_size_default), the whole collection is read by following the cursor in the X-Next-Cursor header until
+     * the header is absent. includeTotal adds the number of all items in the X-Total-Count header.
      * @return {@link Response}
      * @throws Exception
      */
     @GetMapping(   )
     @Operation(summary = "Returns all executionenvironmentcommand",
         tags = {"ExecutionEnvironmentCommand"},
-        description = "Returns all executionenvironmentcommand ",
+        description = "Returns a page of executionenvironmentcommand in creation order. Without limit at most the default page size of 100 items is returned, follow the cursor in the X-Next-Cursor header to read the rest",
         responses = {
             @ApiResponse(description = "ExecutionEnvironmentCommand", content = @Content(schema = @Schema(implementation = ExecutionEnvironmentCommand.class))),
             @ApiResponse(responseCode = "200", description = "OK"),
@@ -202,10 +212,16 @@ public class ExecutionEnvironmentCommandController {
             @ApiResponse(responseCode = "404", description = "Not found"),
             @ApiResponse(responseCode = "405", description = "Validation exception")
         })
-    public Response retrieveAll() throws Exception {
-
-        // Retrieve all executionenvironmentcommand
-        List<ExecutionEnvironmentCommand> executionEnvironmentCommands = executionEnvironmentCommandRepository.findAll();
+    public Response retrieveAll(
+        @Parameter(description = "Maximum number of items to return, 100 when omitted and at most 1000") @RequestParam(value = "limit", required = false) Integer limit,
+        @Parameter(description = "Cursor from the X-Next-Cursor header of the previous page") @RequestParam(value = "cursor", required = false) String cursor,
+        @Parameter(description = "Whether to return the total number of items in the X-Total-Count header") @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal,
+        @Parameter(hidden = true) HttpServletResponse httpServletResponse) throws Exception {
+
+        // Retrieve a page of executionenvironmentcommand in creation order
+        KeysetPaginator.Page<ExecutionEnvironmentCommand> page = keysetPaginator.getPage(ExecutionEnvironmentCommand.class, limit, cursor, includeTotal);
+        page.applyHeaders(httpServletResponse);
+        List<ExecutionEnvironmentCommand> executionEnvironmentCommands = page.getItems();
 
         // Check if the returned object is not null
         if (null != executionEnvironmentCommands) {
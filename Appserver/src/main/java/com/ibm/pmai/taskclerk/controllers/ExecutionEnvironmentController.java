@@ -21,6 +21,7 @@ import com.ibm.pmai.models.repositories.ExecutionEnvironmentRepository;
 import com.ibm.pmai.taskclerk.configurations.ApplicationConfigurations;
 import com.ibm.pmai.taskclerk.exceptions.ApiException;
 import com.ibm.pmai.taskclerk.utils.PBEEncryption;
+import com.ibm.pmai.taskclerk.utils.KeysetPaginator;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -31,6 +32,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.ws.rs.core.Response;
 import java.util.Date;
@@ -67,15 +69,21 @@ public class ExecutionEnvironmentController {
      */
     private ApplicationConfigurations applicationConfigurations;
 
+    /**
+     * Pages through the collection
+     */
+    private KeysetPaginator keysetPaginator;
+
     /**
      * ExecutionEnvironment controller
      * @param executionEnvironmentRepository
      */
     @Autowired
-    public ExecutionEnvironmentController(ExecutionEnvironmentRepository executionEnvironmentRepository,PBEEncryption pbeEncryption,ApplicationConfigurations applicationConfigurations) {
+    public ExecutionEnvironmentController(ExecutionEnvironmentRepository executionEnvironmentRepository,PBEEncryption pbeEncryption,ApplicationConfigurations applicationConfigurations,KeysetPaginator keysetPaginator) {
         this.executionEnvironmentRepository = executionEnvironmentRepository;
         this.pbeEncryption =pbeEncryption;
         this.applicationConfigurations = applicationConfigurations;
+        this.keysetPaginator = keysetPaginator;
     }
 
     /**
@@ -209,14 +217,16 @@ public class ExecutionEnvironmentController {
     }
 
     /**
-     * Returns all executionenvironment:  TODO: ADD PAGINATION
+     * Returns a page of executionenvironment in creation order. A request without limit returns at most the default page size
+     * (app.page_size_default), the whole collection is read by following the cursor in the X-Next-Cursor header until
+     * the header is absent. includeTotal adds the number of all items in the X-Total-Count header.
      * @return {@link Response}
      * @throws Exception
      */
     @GetMapping(   )
     @Operation(summary = "Returns all executionenvironment",
         tags = {"ExecutionEnvironment"},
-        description = "Returns all executionenvironment ",
+        description = "Returns a page of executionenvironment in creation order. Without limit at most the default page size of 100 items is returned, follow the cursor in the X-Next-Cursor header to read the rest",
         responses = {
             @ApiResponse(description = "ExecutionEnvironment", content = @Content(schema = @Schema(implementation = ExecutionEnvironment.class))),
             @ApiResponse(responseCode = "200", description = "OK"),
@@ -226,10 +236,16 @@ public class ExecutionEnvironmentController {
             @ApiResponse(responseCode = "404", description = "Not found"),
             @ApiResponse(responseCode = "405", description = "Validation exception")
         })
-    public Response retrieveAll() throws Exception {
-
-        // Retrieve all executionenvironment
-        List<ExecutionEnvironment> executionenvironments = executionEnvironmentRepository.findAll();
+    public Response retrieveAll(
+        @Parameter(description = "Maximum number of items to return, 100 when omitted and at most 1000") @RequestParam(value = "limit", required = false) Integer limit,
+        @Parameter(description = "Cursor from the X-Next-Cursor header of the previous page") @RequestParam(value = "cursor", required = false) String cursor,
+        @Parameter(description = "Whether to return the total number of items in the X-Total-Count header") @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal,
+        @Parameter(hidden = true) HttpServletResponse httpServletResponse) throws Exception {
+
+        // Retrieve a page of executionenvironment in creation order
+        KeysetPaginator.Page<ExecutionEnvironment> page = keysetPaginator.getPage(ExecutionEnvironment.class, limit, cursor, includeTotal);
+        page.applyHeaders(httpServletResponse);
+        List<ExecutionEnvironment> executionenvironments = page.getItems();
 
         // Check if the returned object is not null
         if (null != executionenvironments) {
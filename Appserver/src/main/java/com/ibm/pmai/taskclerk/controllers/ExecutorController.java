@@ -16,11 +16,11 @@
 
 package com.ibm.pmai.taskclerk.controllers;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.ws.rs.core.Response;
 
@@ -39,18 +39,16 @@ import org.springframework.web.bind.annotation.RestController;
 import com.ibm.pmai.models.core.DataRepositoryConfiguration;
 import com.ibm.pmai.models.core.ExecutionEnvironmentCommand;
 import com.ibm.pmai.models.core.Executor;
-import com.ibm.pmai.models.core.ExecutorRequirement;
 import com.ibm.pmai.models.core.ExecutorType;
-import com.ibm.pmai.models.core.OptimizationEnvelope;
 import com.ibm.pmai.models.repositories.DataRepositoryConfigurationRepository;
 import com.ibm.pmai.models.repositories.ExecutionEnvironmentCommandRepository;
 import com.ibm.pmai.models.repositories.ExecutorRepository;
-import com.ibm.pmai.models.repositories.ExecutorRequirementRepository;
 import com.ibm.pmai.models.repositories.ExecutorTypeRepository;
-import com.ibm.pmai.models.repositories.OptimizationEnvelopeRepository;
 import com.ibm.pmai.taskclerk.configurations.ApplicationConfigurations;
 import com.ibm.pmai.taskclerk.exceptions.ApiException;
+import com.ibm.pmai.taskclerk.services.interfaces.ExecutorRequirementService;
 import com.ibm.pmai.taskclerk.utils.Constants;
+import com.ibm.pmai.taskclerk.utils.KeysetPaginator;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -95,30 +93,33 @@ public class ExecutorController {
     private ExecutionEnvironmentCommandRepository executionEnvironmentCommandRepository;
 
     /**
-     * ExecutorRequirement repository declaration
+     * Saves executors together with their requirements
      */
-    private ExecutorRequirementRepository executorRequirementRepository;
-
-    private OptimizationEnvelopeRepository optimizationEnvelopeRepository;
+    private ExecutorRequirementService executorRequirementService;
 
     /**
      * Logger declaration
      */
     private static final Logger logger = LoggerFactory.getLogger(ExecutorController.class);
 
+    /**
+     * Pages through the collection
+     */
+    private KeysetPaginator keysetPaginator;
+
     /**
      * Executor controller
      * @param executorRepository
      */
     @Autowired
-    public ExecutorController(ExecutionEnvironmentCommandRepository executionEnvironmentCommandRepository,DataRepositoryConfigurationRepository dataRepositoryConfigurationRepository,ApplicationConfigurations applicationConfigurations,ExecutorRepository executorRepository,ExecutorTypeRepository executorTypeRepository, ExecutorRequirementRepository executorRequirementRepository, OptimizationEnvelopeRepository optimizationEnvelopeRepository) {
+    public ExecutorController(ExecutionEnvironmentCommandRepository executionEnvironmentCommandRepository,DataRepositoryConfigurationRepository dataRepositoryConfigurationRepository,ApplicationConfigurations applicationConfigurations,ExecutorRepository executorRepository,ExecutorTypeRepository executorTypeRepository, ExecutorRequirementService executorRequirementService, KeysetPaginator keysetPaginator) {
         this.executorRepository = executorRepository;
         this.executorTypeRepository = executorTypeRepository;
         this.applicationConfigurations = applicationConfigurations;
         this.dataRepositoryConfigurationRepository =  dataRepositoryConfigurationRepository;
         this.executionEnvironmentCommandRepository = executionEnvironmentCommandRepository;
-        this.executorRequirementRepository = executorRequirementRepository;
-        this.optimizationEnvelopeRepository = optimizationEnvelopeRepository;
+        this.executorRequirementService = executorRequirementService;
+        this.keysetPaginator = keysetPaginator;
     }
 
     /**
@@ -210,41 +211,8 @@ public class ExecutorController {
         // set audit details: created and updated at values
         executor.setAuditValues();
 
-        // Save executor requirements for the executor of type environment
-        List<ExecutorRequirement> executorRequirementList = executor.getExecutorRequirement();
-        if (executorRequirementList != null && !executorRequirementList.isEmpty()) {
-            List<ExecutorRequirement> executorRequirementListIds=   new ArrayList<>();
-            for (ExecutorRequirement executorRequirement: executorRequirementList) {
-                executorRequirement.setAuditValues();
-                ExecutorRequirement savedExecutorRequirement;
-
-                // save OptimizationEnvelope first
-                OptimizationEnvelope optimizationEnvelope = executorRequirement.getOptimizationEnvelope();
-                if (optimizationEnvelope != null) {
-                    OptimizationEnvelope savedOptimizationEnvelope;
-                    if (optimizationEnvelope.getId() != null && !optimizationEnvelope.getId().isEmpty()) {
-                        savedOptimizationEnvelope = optimizationEnvelopeRepository.save(optimizationEnvelope);
-                    } else {
-                        savedOptimizationEnvelope = optimizationEnvelopeRepository.save(optimizationEnvelope);
-                    }
-                    executorRequirement.setOptimizationEnvelope(savedOptimizationEnvelope);
-                }
-
-                if (executorRequirement.getId() == null || executorRequirement.getId().isEmpty())
-                    savedExecutorRequirement = executorRequirementRepository.save(executorRequirement);
-                else  {
-                    savedExecutorRequirement = executorRequirementRepository.getOne(executorRequirement.getId());
-                    if (savedExecutorRequirement == null)
-                        savedExecutorRequirement = executorRequirementRepository.save(executorRequirement);
-                }
-                executorRequirementListIds.add(savedExecutorRequirement);
-            }
-
-            executor.setExecutorRequirement(executorRequirementListIds);
-        }
-
-        // save Executor
-        Executor savedExecutor = executorRepository.save(executor);
+        // save Executor together with its requirements, batched in one transaction
+        Executor savedExecutor = executorRequirementService.saveWithRequirements(executor, false);
         
 
         // Check if the returned object is not null
@@ -357,44 +325,8 @@ public class ExecutorController {
         // set audit details: created and updated at values
         executor.setAuditValues();
 
-        // Save executor requirements for the executor of type environment
-        List<ExecutorRequirement> executorRequirementList = executor.getExecutorRequirement();
-        if (executorRequirementList != null && !executorRequirementList.isEmpty()) {
-            List<ExecutorRequirement> executorRequirementListIds=   new ArrayList<>();
-            for (ExecutorRequirement executorRequirement: executorRequirementList) {
-                ExecutorRequirement savedExecutorRequirement;
-
-                // save OptimizationEnvelope first
-                OptimizationEnvelope optimizationEnvelope = executorRequirement.getOptimizationEnvelope();
-                if (optimizationEnvelope != null) {
-                    OptimizationEnvelope savedOptimizationEnvelope;
-                    if (optimizationEnvelope.getId() != null && !optimizationEnvelope.getId().isEmpty()) {
-                        savedOptimizationEnvelope = optimizationEnvelopeRepository.save(optimizationEnvelope);
-                    } else {
-                        savedOptimizationEnvelope = optimizationEnvelopeRepository.save(optimizationEnvelope);
-                    }
-                    executorRequirement.setOptimizationEnvelope(savedOptimizationEnvelope);
-                }
-
-                if (executorRequirement.getId() == null || executorRequirement.getId().isEmpty()) {
-                    executorRequirement.setAuditValues();
-                    savedExecutorRequirement = executorRequirementRepository.save(executorRequirement);
-                } else  {
-                    savedExecutorRequirement = executorRequirementRepository.getOne(executorRequirement.getId());
-                    if (savedExecutorRequirement == null)
-                        savedExecutorRequirement = executorRequirementRepository.save(executorRequirement);
-                    else 
-                        savedExecutorRequirement = executorRequirementRepository.save(executorRequirement);
-
-                }
-                executorRequirementListIds.add(savedExecutorRequirement);
-            }
-
-            executor.setExecutorRequirement(executorRequirementListIds);
-        }
-
-        // updated Executor
-        Executor executorSaved = executorRepository.save(executor);
+        // updated Executor together with its requirements, batched in one transaction
+        Executor executorSaved = executorRequirementService.saveWithRequirements(executor, true);
 
         // Check if the returned object is not null
         if (null != executorSaved) {
@@ -481,14 +413,16 @@ public class ExecutorController {
 
 
     /**
-     * Returns all executor:  TODO: ADD PAGINATION
+     * Returns a page of executor in creation order. A request without limit returns at most the default page size
+     * (app.page_size_default), the whole collection is read by following the cursor in the X-Next-Cursor header until
+     * the header is absent. includeTotal adds the number of all items in the X-Total-Count header.
      * @return {@link Response}
      * @throws Exception
      */
     @GetMapping(   )
     @Operation(summary = "Returns all executor",
         tags = {"Executor"},
-        description = "Returns all executor ",
+        description = "Returns a page of executor in creation order. Without limit at most the default page size of 100 items is returned, follow the cursor in the X-Next-Cursor header to read the rest",
         responses = {
             @ApiResponse(description = "Executor", content = @Content(schema = @Schema(implementation = Executor.class))),
             @ApiResponse(responseCode = "200", description = "OK"),
@@ -498,10 +432,16 @@ public class ExecutorController {
             @ApiResponse(responseCode = "404", description = "Not found"),
             @ApiResponse(responseCode = "405", description = "Validation exception")
         })
-    public Response retrieveAll() throws Exception {
-
-        // Retrieve all executor
-        List<Executor> executors = executorRepository.findAll();
+    public Response retrieveAll(
+        @Parameter(description = "Maximum number of items to return, 100 when omitted and at most 1000") @RequestParam(value = "limit", required = false) Integer limit,
+        @Parameter(description = "Cursor from the X-Next-Cursor header of the previous page") @RequestParam(value = "cursor", required = false) String cursor,
+        @Parameter(description = "Whether to return the total number of items in the X-Total-Count header") @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal,
+        @Parameter(hidden = true) HttpServletResponse httpServletResponse) throws Exception {
+
+        // Retrieve a page of executor in creation order
+        KeysetPaginator.Page<Executor> page = keysetPaginator.getPage(Executor.class, limit, cursor, includeTotal);
+        page.applyHeaders(httpServletResponse);
+        List<Executor> executors = page.getItems();
 
         // Check if the returned object is not null
         if (null != executors) {
@@ -19,6 +19,7 @@ package com.ibm.pmai.taskclerk.controllers;
 import java.util.Date;
 import java.util.List;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.ws.rs.core.Response;
 
@@ -31,11 +32,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.ibm.pmai.models.core.ExecutorDomain;
 import com.ibm.pmai.models.repositories.ExecutorDomainRepository;
 import com.ibm.pmai.taskclerk.exceptions.ApiException;
+import com.ibm.pmai.taskclerk.utils.KeysetPaginator;
 
 import io.swagger.v3.oas.annotations.Hidden;
 import io.swagger.v3.oas.annotations.Operation;
@@ -62,13 +65,19 @@ public class ExecutorDomainController {
     private static final Logger logger = LoggerFactory.getLogger(ExecutorDomainController.class);
 
 
+    /**
+     * Pages through the collection
+     */
+    private KeysetPaginator keysetPaginator;
+
     /**
      * Executor controller
      * @param executorDomainRepository
      */
     @Autowired
-    public ExecutorDomainController(ExecutorDomainRepository executorDomainRepository) {
+    public ExecutorDomainController(ExecutorDomainRepository executorDomainRepository, KeysetPaginator keysetPaginator) {
         this.executorDomainRepository = executorDomainRepository;
+        this.keysetPaginator = keysetPaginator;
     }
 
     /**
@@ -230,14 +239,16 @@ public class ExecutorDomainController {
     }
 
     /**
-     * Returns all executorDomain:  TODO: ADD PAGINATION
+     * Returns a page of executorDomain in creation order. A request without limit returns at most the default page size
+     * (app.page_size_default), the whole collection is read by following the cursor in the X-Next-Cursor header until
+     * the header is absent. includeTotal adds the number of all items in the X-Total-Count header.
      * @return {@link Response}
      * @throws Exception
      */
     @GetMapping( )
     @Operation(summary = "Returns all executorDomain",
         tags = {"ExecutorDomain"},
-        description = "Returns all executorDomain ",
+        description = "Returns a page of executorDomain in creation order. Without limit at most the default page size of 100 items is returned, follow the cursor in the X-Next-Cursor header to read the rest",
         responses = {
             @ApiResponse(description = "ExecutorDomain", content = @Content(schema = @Schema(implementation = ExecutorDomain.class))),
             @ApiResponse(responseCode = "200", description = "OK"),
@@ -247,10 +258,16 @@ public class ExecutorDomainController {
             @ApiResponse(responseCode = "404", description = "Not found"),
             @ApiResponse(responseCode = "405", description = "Validation exception")
         })
-    public Response retrieveAll() throws Exception {
-
-        // Retrieve all executorDomain
-        List<ExecutorDomain> savedExecutorDomain = executorDomainRepository.findAll();
+    public Response retrieveAll(
+        @Parameter(description = "Maximum number of items to return, 100 when omitted and at most 1000") @RequestParam(value = "limit", required = false) Integer limit,
+        @Parameter(description = "Cursor from the X-Next-Cursor header of the previous page") @RequestParam(value = "cursor", required = false) String cursor,
+        @Parameter(description = "Whether to return the total number of items in the X-Total-Count header") @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal,
+        @Parameter(hidden = true) HttpServletResponse httpServletResponse) throws Exception {
+
+        // Retrieve a page of executorDomain in creation order
+        KeysetPaginator.Page<ExecutorDomain> page = keysetPaginator.getPage(ExecutorDomain.class, limit, cursor, includeTotal);
+        page.applyHeaders(httpServletResponse);
+        List<ExecutorDomain> savedExecutorDomain = page.getItems();
 
         // Check if the returned object is not null
         if (null != savedExecutorDomain) {
@@ -19,6 +19,7 @@ package com.ibm.pmai.taskclerk.controllers;
 import com.ibm.pmai.models.core.ExecutorType;
 import com.ibm.pmai.models.repositories.ExecutorTypeRepository;
 import com.ibm.pmai.taskclerk.exceptions.ApiException;
+import com.ibm.pmai.taskclerk.utils.KeysetPaginator;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -29,6 +30,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.ws.rs.core.Response;
 import java.util.List;
@@ -52,13 +54,19 @@ public class ExecutorTypeController {
      */
     private static final Logger logger = LoggerFactory.getLogger(ExecutorTypeController.class);
 
+    /**
+     * Pages through the collection
+     */
+    private KeysetPaginator keysetPaginator;
+
     /**
      * ExecutorType controller
      * @param executorTypeRepository
      */
     @Autowired
-    public ExecutorTypeController(ExecutorTypeRepository executorTypeRepository) {
+    public ExecutorTypeController(ExecutorTypeRepository executorTypeRepository, KeysetPaginator keysetPaginator) {
         this.executorTypeRepository = executorTypeRepository;
+        this.keysetPaginator = keysetPaginator;
     }
 
     /**
@@ -186,14 +194,16 @@ public class ExecutorTypeController {
     }
 
     /**
-     * Returns all executorType:  TODO: ADD PAGINATION
+     * Returns a page of executorType in creation order. A request without limit returns at most the default page size
+     * (app.page_size_default), the whole collection is read by following the cursor in the X-Next-Cursor header until
+     * the header is absent. includeTotal adds the number of all items in the X-Total-Count header.
      * @return {@link Response}
      * @throws Exception
      */
     @GetMapping(   )
     @Operation(summary = "Returns all executorType",
         tags = {"ExecutorType"},
-        description = "Returns all executorType ",
+        description = "Returns a page of executorType in creation order. Without limit at most the default page size of 100 items is returned, follow the cursor in the X-Next-Cursor header to read the rest",
         responses = {
             @ApiResponse(description = "ExecutorType", content = @Content(schema = @Schema(implementation = ExecutorType.class))),
             @ApiResponse(responseCode = "200", description = "OK"),
@@ -203,10 +213,16 @@ public class ExecutorTypeController {
             @ApiResponse(responseCode = "404", description = "Not found"),
             @ApiResponse(responseCode = "405", description = "Validation exception")
         })
-    public Response retrieveAll() throws Exception {
-
-        // Retrieve all executorType
-        List<ExecutorType> executors = executorTypeRepository.findAll();
+    public Response retrieveAll(
+        @Parameter(description = "Maximum number of items to return, 100 when omitted and at most 1000") @RequestParam(value = "limit", required = false) Integer limit,
+        @Parameter(description = "Cursor from the X-Next-Cursor header of the previous page") @RequestParam(value = "cursor", required = false) String cursor,
+        @Parameter(description = "Whether to return the total number of items in the X-Total-Count header") @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal,
+        @Parameter(hidden = true) HttpServletResponse httpServletResponse) throws Exception {
+
+        // Retrieve a page of executorType in creation order
+        KeysetPaginator.Page<ExecutorType> page = keysetPaginator.getPage(ExecutorType.class, limit, cursor, includeTotal);
+        page.applyHeaders(httpServletResponse);
+        List<ExecutorType> executors = page.getItems();
 
         // Check if the returned object is not null
         if (null != executors) {
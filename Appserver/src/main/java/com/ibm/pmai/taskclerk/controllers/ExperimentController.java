@@ -22,22 +22,27 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.ws.rs.core.Response;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.ibm.pmai.models.core.APIResponse;
 import com.ibm.pmai.models.core.Action;
 import com.ibm.pmai.models.core.Algorithm;
 import com.ibm.pmai.models.core.Executor;
@@ -52,11 +57,13 @@ import com.ibm.pmai.models.repositories.LocationRepository;
 import com.ibm.pmai.models.repositories.TaskRepository;
 import com.ibm.pmai.models.request.JobDeploymentRequest;
 import com.ibm.pmai.models.response.ExperimentStatusResponse;
-import com.ibm.pmai.models.response.JobDeploymentResponse;
-import com.ibm.pmai.models.response.JobDeploymentServiceStatusResponse;
 import com.ibm.pmai.taskclerk.configurations.ApplicationConfigurations;
 import com.ibm.pmai.taskclerk.exceptions.ApiException;
-import com.ibm.pmai.taskclerk.services.interfaces.ExperimentService;
+import com.ibm.pmai.taskclerk.services.interfaces.ExperimentJobStatusService;
+import com.ibm.pmai.taskclerk.services.interfaces.ExperimentSubmissionService;
+import com.ibm.pmai.taskclerk.utils.JsonStreamExporter;
+import com.ibm.pmai.taskclerk.utils.KeysetPaginator;
+import com.ibm.pmai.taskclerk.utils.LocationDataAvailabilityVerifier;
 import com.ibm.pmai.taskclerk.utils.Sha256DocumentHasher;
 import com.ibm.pmai.taskclerk.utils.Utils;
 
@@ -88,9 +95,19 @@ public class ExperimentController {
 
 
     /**
-     * TaskService declaration
+     * Job states kept in sync with the JDS
      */
-    private ExperimentService experimentService;
+    private ExperimentJobStatusService experimentJobStatusService;
+
+    /**
+     * Submits experiments to the JDS in the background
+     */
+    private ExperimentSubmissionService experimentSubmissionService;
+
+    /**
+     * Cached checks of the location data required by the experiments
+     */
+    private LocationDataAvailabilityVerifier locationDataAvailabilityVerifier;
 
     private LocationRepository locationRepository;
 
@@ -112,18 +129,32 @@ public class ExperimentController {
      */
     private static final Logger logger = LoggerFactory.getLogger(ExperimentController.class);
 
+    /**
+     * Pages through the collection
+     */
+    private KeysetPaginator keysetPaginator;
+
+    /**
+     * Streams the collection to the response
+     */
+    private JsonStreamExporter jsonStreamExporter;
+
     /**
      * Experiment controller
      *
      * @param experimentRepository
      */
     @Autowired
-    public ExperimentController(ApplicationConfigurations applicationConfigurations, ExperimentService experimentService, TaskRepository taskRepository, Sha256DocumentHasher sha256DocumentHasher, ExecutorRepository executorRepository, ExperimentRepository experimentRepository, ExecutionEnvironmentCommandRepository executionEnvironmentCommandRepository, LocationRepository locationRepository) {
+    public ExperimentController(ApplicationConfigurations applicationConfigurations, ExperimentJobStatusService experimentJobStatusService, TaskRepository taskRepository, Sha256DocumentHasher sha256DocumentHasher, ExecutorRepository executorRepository, ExperimentRepository experimentRepository, ExecutionEnvironmentCommandRepository executionEnvironmentCommandRepository, LocationRepository locationRepository, ExperimentSubmissionService experimentSubmissionService, KeysetPaginator keysetPaginator, JsonStreamExporter jsonStreamExporter, LocationDataAvailabilityVerifier locationDataAvailabilityVerifier) {
         this.experimentRepository = experimentRepository;
         this.executorRepository = executorRepository;
         this.sha256DocumentHasher = sha256DocumentHasher;
-        this.experimentService = experimentService;
+        this.experimentJobStatusService = experimentJobStatusService;
         this.locationRepository = locationRepository;
+        this.experimentSubmissionService = experimentSubmissionService;
+        this.keysetPaginator = keysetPaginator;
+        this.jsonStreamExporter = jsonStreamExporter;
+        this.locationDataAvailabilityVerifier = locationDataAvailabilityVerifier;
     }
 
     /**
@@ -178,6 +209,7 @@ public class ExperimentController {
         responses = {
             @ApiResponse(description = "Experiment", content = @Content(schema = @Schema(implementation = Experiment.class))),
             @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "202", description = "Experiment saved and queued for submission"),
             @ApiResponse(responseCode = "400", description = "Invalid request"),
             @ApiResponse(responseCode = "401", description = "Authorization information is missing or invalid."),
             @ApiResponse(responseCode = "5XX", description = "Unexpected error."),
@@ -185,7 +217,8 @@ public class ExperimentController {
             @ApiResponse(responseCode = "405", description = "Validation exception")
         })
     public Response add(@Parameter(description = "Return duplicates", required = true) @Valid @PathVariable boolean returnDuplicates,
-                        @Parameter(description = "Experiment object to be saved", required = true) @Valid @RequestBody Experiment experiment) throws Exception {
+                        @Parameter(description = "Experiment object to be saved", required = true) @Valid @RequestBody Experiment experiment,
+                        @Parameter(hidden = true) HttpServletResponse httpServletResponse) throws Exception {
 
         // set audit details: created and updated at values
         experiment.setAuditValues();
@@ -229,13 +262,14 @@ public class ExperimentController {
         }
         experiment.setLocation(location);
 
-        // compute hash
-        String experimentHash = sha256DocumentHasher.getHash(Utils.getExperimentHash(experiment).getBytes());
-        experiment.setExperimentHash(experimentHash);
+        // compute hash, duplicates stored before the current hash format are matched by their older hash
+        List<String> experimentHashes = sha256DocumentHasher.getLookupHashes(Utils.getExperimentHash(experiment).getBytes());
+        experiment.setExperimentHash(experimentHashes.get(0));
+        experiment.setExperimentHashVersion(sha256DocumentHasher.getVersion());
 
         // check if hash exists if duplicates are to be returned
         if (returnDuplicates) {
-            List<Experiment> experimentCopies = experimentRepository.getByExperimentHash(experimentHash);
+            List<Experiment> experimentCopies = experimentRepository.getByExperimentHashIn(experimentHashes);
 
             // if the hash exists return the duplicate experiment
             if (experimentCopies != null && !experimentCopies.isEmpty()) {
@@ -254,9 +288,11 @@ public class ExperimentController {
             throw new ApiException(Response.Status.BAD_REQUEST.getStatusCode(), "Model lacks data requements");
         }
 
-        String dataUrl = executorRequirements.get(0).getValue() + "casedata/csv/" + iso2code + "/?startDate=2020-01-01";
-        if (!Utils.validateLocationData(dataUrl)) {
-            throw new ApiException(Response.Status.BAD_REQUEST.getStatusCode(), "Model data for location " + iso2code + " missing");
+        // missing data is final, a data service that cannot be reached is retried by the submission dispatcher
+        if (locationDataAvailabilityVerifier.check(executorRequirements.get(0).getValue(), iso2code) == LocationDataAvailabilityVerifier.Availability.MISSING) {
+            String message = "Model data for location " + iso2code + " missing";
+            httpServletResponse.setStatus(Response.Status.BAD_REQUEST.getStatusCode());
+            return Response.status(Response.Status.BAD_REQUEST).entity(new APIResponse<>(message, Response.Status.BAD_REQUEST.getStatusCode(), false, null)).build();
         }
 
         // update data
@@ -313,46 +349,24 @@ public class ExperimentController {
 
         experiment.setData(data.toString());
 
-        // save the experiment
-        Experiment savedExperiment = experimentRepository.save(experiment);
-        if (savedExperiment == null) {
-            // Handle where Experiment is not save - most probably due to bad request
-            throw new ApiException(Response.Status.BAD_REQUEST.getStatusCode(), "Experiment not saved");
-        }
-
-        data.addProperty("experimentID", savedExperiment.getId());
-        JsonObject dataHolder = new JsonObject();
-        dataHolder.addProperty("name", "data");
-        dataHolder.add("value", data);
-        args.put("data", dataHolder.toString());
-        
         JobDeploymentRequest jobDeploymentRequest = new JobDeploymentRequest();
         jobDeploymentRequest.setArgs(args);
         jobDeploymentRequest.setType(experiment.getExperimentType().toLowerCase());
 
-        // post the experiment to the JDS
-        JobDeploymentResponse jobDeploymentResponse = experimentService.postJDS(jobDeploymentRequest, executor.getExecutionEnvironmentCommand().getExecutionEnvironment().getHostEndpoint() + "/submit").getBody();
-
-        // update saved experiment with job id
-        savedExperiment.setJobId(jobDeploymentResponse.getJob_id());
-        // set audit details: created and updated at values
-        savedExperiment.setUpdatedAt(new Date());
-
-        // updated Experiment
-        Experiment updatedExperiment = experimentRepository.save(savedExperiment);
+        // save the experiment together with its submission, the JDS is called in the background
+        Experiment savedExperiment = experimentSubmissionService.submit(experiment, data, jobDeploymentRequest, executorRequirements.get(0).getValue(), iso2code,
+            executor.getExecutionEnvironmentCommand().getExecutionEnvironment().getHostEndpoint() + "/submit");
+        if (savedExperiment == null) {
+            // Handle where Experiment is not save - most probably due to bad request
+            throw new ApiException(Response.Status.BAD_REQUEST.getStatusCode(), "Experiment not saved");
+        }
 
         // Return as a list of experiment for consistency with duplicated experiments
         List<Experiment> savedExperimentList = new ArrayList<>();
-        // Check if the returned object is not null
-        if (null != updatedExperiment) {
-            // Set Experiment as entity in response object
-            savedExperimentList.add(updatedExperiment);
-        } else {
-            savedExperimentList.add(savedExperiment);
-        }
+        savedExperimentList.add(savedExperiment);
 
-        // Set Experiment as entity in response object
-        return Response.status(201).entity(savedExperimentList).build();
+        // Set Experiment as entity in response object, the job id is set once the submission has been dispatched
+        return Response.status(202).entity(savedExperimentList).build();
     }
 
 
@@ -402,15 +416,16 @@ public class ExperimentController {
     }
 
     /**
-     * Returns all experiment
-     *
+     * Returns a page of experiment in creation order. A request without limit returns at most the default page size
+     * (app.page_size_default), the whole collection is read by following the cursor in the X-Next-Cursor header until
+     * the header is absent. includeTotal adds the number of all items in the X-Total-Count header.
      * @return {@link Response}
      * @throws Exception
      */
     @GetMapping()
     @Operation(summary = "Returns all experiment",
         tags = {"Experiment"},
-        description = "Returns all experiment ",
+        description = "Returns a page of experiment in creation order. Without limit at most the default page size of 100 items is returned, follow the cursor in the X-Next-Cursor header to read the rest",
         responses = {
             @ApiResponse(description = "Experiment", content = @Content(schema = @Schema(implementation = Experiment.class))),
             @ApiResponse(responseCode = "200", description = "OK"),
@@ -420,10 +435,16 @@ public class ExperimentController {
             @ApiResponse(responseCode = "404", description = "Not found"),
             @ApiResponse(responseCode = "405", description = "Validation exception")
         })
-    public Response retrieveAll() throws Exception {
+    public Response retrieveAll(
+        @Parameter(description = "Maximum number of items to return, 100 when omitted and at most 1000") @RequestParam(value = "limit", required = false) Integer limit,
+        @Parameter(description = "Cursor from the X-Next-Cursor header of the previous page") @RequestParam(value = "cursor", required = false) String cursor,
+        @Parameter(description = "Whether to return the total number of items in the X-Total-Count header") @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal,
+        @Parameter(hidden = true) HttpServletResponse httpServletResponse) throws Exception {
 
-        // Retrieve all experiment
-        List<Experiment> savedExperiment = experimentRepository.findAll();
+        // Retrieve a page of experiment in creation order
+        KeysetPaginator.Page<Experiment> page = keysetPaginator.getPage(Experiment.class, limit, cursor, includeTotal);
+        page.applyHeaders(httpServletResponse);
+        List<Experiment> savedExperiment = page.getItems();
 
         // Check if the returned object is not null
         if (null != savedExperiment) {
@@ -437,6 +458,30 @@ public class ExperimentController {
         }
     }
 
+    /**
+     * Streams all experiment
+     * @return {@link ResponseEntity}
+     * @throws Exception
+     */
+    @GetMapping(value = "/export")
+    @Operation(summary = "Streams all experiments",
+        tags = {"Experiment"},
+        description = "Streams all experiments as NDJSON or as a JSON array",
+        responses = {
+            @ApiResponse(description = "Experiment", content = @Content(schema = @Schema(implementation = Experiment.class))),
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Invalid request"),
+            @ApiResponse(responseCode = "401", description = "Authorization information is missing or invalid."),
+            @ApiResponse(responseCode = "5XX", description = "Unexpected error."),
+            @ApiResponse(responseCode = "405", description = "Validation exception")
+        })
+    public ResponseEntity<StreamingResponseBody> export(
+        @Parameter(description = "NDJSON for one object per line, JSON for a single array") @RequestParam(value = "format", defaultValue = "NDJSON") JsonStreamExporter.Format format) throws Exception {
+
+        // Rows are written as they are read from the database
+        return jsonStreamExporter.export("experiments", format, () -> experimentRepository.streamAll());
+    }
+
         /**
      * Returns all experiment for a user
      *
@@ -456,7 +501,15 @@ public class ExperimentController {
             @ApiResponse(responseCode = "404", description = "Not found"),
             @ApiResponse(responseCode = "405", description = "Validation exception")
         })
-    public Response retrieveAllForUser(@Parameter(description = "userId of Experiments to be retrieved", required = true) @Valid @PathVariable String userId) throws Exception {
+    public Response retrieveAllForUser(@Parameter(description = "userId of Experiments to be retrieved", required = true) @Valid @PathVariable String userId,
+        @Parameter(description = "summary for the experiment fields only, full to include the tasks") @RequestParam(value = "view", defaultValue = "full") String view) throws Exception {
+
+        if ("summary".equalsIgnoreCase(view)) {
+            // Flat projection read with a single query
+            return Response.ok().entity(experimentRepository.findSummariesByUserId(userId)).build();
+        } else if (!"full".equalsIgnoreCase(view)) {
+            throw new ApiException(Response.Status.BAD_REQUEST.getStatusCode(), "Unknown view " + view);
+        }
 
         // Retrieve all experiment
         List<Experiment> savedExperiment = experimentRepository.getByUserId(userId);
@@ -506,10 +559,12 @@ public class ExperimentController {
         }
 
         experimentStatusResponse.setStatus(experiment.getStatus());
-        if (!experiment.getStatus()) {
-            String jobId = experiment.getJobId();
-            JobDeploymentServiceStatusResponse checkJobResponse = experimentService.jobStatus(jobId, experiment.getExecutor().getExecutionEnvironmentCommand().getExecutionEnvironment().getHostEndpoint() + "/check/").getBody();
-            experimentStatusResponse.setJob(checkJobResponse);
+        if (!experiment.getStatus() && experiment.getJobId() == null) {
+            // not yet accepted by the JDS
+            experimentStatusResponse.setJob(experimentSubmissionService.getSubmissionStatus(id));
+        } else if (experiment.getJobId() != null) {
+            // answered from the state stored by the job status synchroniser instead of asking the JDS
+            experimentStatusResponse.setJob(experimentJobStatusService.getJobStatus(experiment));
         }
         return Response.ok().entity(experimentStatusResponse).build();
     }
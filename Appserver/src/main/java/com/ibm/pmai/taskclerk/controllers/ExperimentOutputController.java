@@ -16,40 +16,57 @@
 
 package com.ibm.pmai.taskclerk.controllers;
 
+import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.ws.rs.core.Response;
 
-import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import com.ibm.cloud.objectstorage.services.s3.model.S3Object;
 import com.ibm.cloud.objectstorage.services.s3.model.S3ObjectInputStream;
+import com.ibm.pmai.models.core.DataRepositoryConfiguration;
 import com.ibm.pmai.models.core.ExperimentOutput;
 import com.ibm.pmai.models.repositories.ExperimentOutputRepository;
 import com.ibm.pmai.taskclerk.configurations.ApplicationConfigurations;
 import com.ibm.pmai.taskclerk.exceptions.ApiException;
+import com.ibm.pmai.taskclerk.services.interfaces.ObjectStorageService;
 import com.ibm.pmai.taskclerk.utils.Constants;
-import com.ibm.pmai.taskclerk.utils.PBEEncryption;
+import com.ibm.pmai.taskclerk.utils.ExperimentOutputCache;
+import com.ibm.pmai.taskclerk.utils.JsonFieldExtractor;
+import com.ibm.pmai.taskclerk.utils.JsonPassthrough;
+import com.ibm.pmai.taskclerk.utils.JsonStreamExporter;
+import com.ibm.pmai.taskclerk.utils.KeysetPaginator;
 import com.ibm.pmai.taskclerk.utils.Sha256DocumentHasher;
 import com.ibm.pmai.taskclerk.utils.Utils;
 
@@ -73,9 +90,14 @@ public class ExperimentOutputController {
     private ExperimentOutputRepository experimentOutputRepository;
 
     /**
-     * Encryption key
+     * Object storage access
      */
-    private PBEEncryption pbeEncryption;
+    private ObjectStorageService objectStorageService;
+
+    /**
+     * Local cache of experiment output files
+     */
+    private ExperimentOutputCache experimentOutputCache;
 
         /**
      * Hashing util
@@ -92,16 +114,34 @@ public class ExperimentOutputController {
      */
     private static final Logger logger = LoggerFactory.getLogger(ExperimentOutputController.class);
 
+    /**
+     * Stored outputs never change, browsers may keep them for a year without revalidating
+     */
+    private static final String IMMUTABLE_CACHE_CONTROL = "private, max-age=31536000, immutable";
+
+    /**
+     * Pages through the collection
+     */
+    private KeysetPaginator keysetPaginator;
+
+    /**
+     * Streams the collection to the response
+     */
+    private JsonStreamExporter jsonStreamExporter;
+
     /**
      * ExperimentOutput controller
      * @param experimentOutputRepository
      */
     @Autowired
-    public ExperimentOutputController(ExperimentOutputRepository experimentOutputRepository,PBEEncryption pbeEncryption,ApplicationConfigurations applicationConfigurations,Sha256DocumentHasher sha256DocumentHasher) {
+    public ExperimentOutputController(ExperimentOutputRepository experimentOutputRepository,ObjectStorageService objectStorageService,ExperimentOutputCache experimentOutputCache,ApplicationConfigurations applicationConfigurations,Sha256DocumentHasher sha256DocumentHasher,KeysetPaginator keysetPaginator, JsonStreamExporter jsonStreamExporter) {
         this.experimentOutputRepository = experimentOutputRepository;
-        this.pbeEncryption =pbeEncryption;
+        this.objectStorageService = objectStorageService;
+        this.experimentOutputCache = experimentOutputCache;
         this.applicationConfigurations = applicationConfigurations;
         this.sha256DocumentHasher = sha256DocumentHasher;
+        this.keysetPaginator = keysetPaginator;
+        this.jsonStreamExporter = jsonStreamExporter;
     }
 
     /**
@@ -185,6 +225,9 @@ public class ExperimentOutputController {
             // Check if the returned object is not null
             if (null != savedExperimentOutput) {
 
+                // warm the disk cache so the first read does not wait for COS
+                experimentOutputCache.prefetch(savedExperimentOutput);
+
                 // Set ExperimentOutput as entity in response object
                 return Response.ok().entity(savedExperimentOutput).build();
 
@@ -202,14 +245,16 @@ public class ExperimentOutputController {
 
 
     /**
-     * Returns all experimentOutput:  TODO: ADD PAGINATION
+     * Returns a page of experimentOutput in creation order. A request without limit returns at most the default page size
+     * (app.page_size_default), the whole collection is read by following the cursor in the X-Next-Cursor header until
+     * the header is absent. includeTotal adds the number of all items in the X-Total-Count header.
      * @return {@link Response}
      * @throws Exception
      */
     @GetMapping(   )
     @Operation(summary = "Returns all experimentOutput",
         tags = {"ExperimentOutput"},
-        description = "Returns all experimentOutput ",
+        description = "Returns a page of experimentOutput in creation order. Without limit at most the default page size of 100 items is returned, follow the cursor in the X-Next-Cursor header to read the rest",
         responses = {
             @ApiResponse(description = "ExperimentOutput", content = @Content(schema = @Schema(implementation = ExperimentOutput.class))),
             @ApiResponse(responseCode = "200", description = "OK"),
@@ -219,10 +264,16 @@ public class ExperimentOutputController {
             @ApiResponse(responseCode = "404", description = "Not found"),
             @ApiResponse(responseCode = "405", description = "Validation exception")
         })
-    public Response retrieveAll() throws Exception {
+    public Response retrieveAll(
+        @Parameter(description = "Maximum number of items to return, 100 when omitted and at most 1000") @RequestParam(value = "limit", required = false) Integer limit,
+        @Parameter(description = "Cursor from the X-Next-Cursor header of the previous page") @RequestParam(value = "cursor", required = false) String cursor,
+        @Parameter(description = "Whether to return the total number of items in the X-Total-Count header") @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal,
+        @Parameter(hidden = true) HttpServletResponse httpServletResponse) throws Exception {
 
-        // Retrieve all experimentOutput
-        List<ExperimentOutput> savedExperimentOutput = experimentOutputRepository.findAll();
+        // Retrieve a page of experimentOutput in creation order
+        KeysetPaginator.Page<ExperimentOutput> page = keysetPaginator.getPage(ExperimentOutput.class, limit, cursor, includeTotal);
+        page.applyHeaders(httpServletResponse);
+        List<ExperimentOutput> savedExperimentOutput = page.getItems();
 
         // Check if the returned object is not null
         if (null != savedExperimentOutput) {
@@ -236,6 +287,30 @@ public class ExperimentOutputController {
         }
     }
 
+    /**
+     * Streams all experimentOutput
+     * @return {@link ResponseEntity}
+     * @throws Exception
+     */
+    @GetMapping(value = "/export")
+    @Operation(summary = "Streams all experimentOutput",
+        tags = {"ExperimentOutput"},
+        description = "Streams all experimentOutput as NDJSON or as a JSON array",
+        responses = {
+            @ApiResponse(description = "ExperimentOutput", content = @Content(schema = @Schema(implementation = ExperimentOutput.class))),
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Invalid request"),
+            @ApiResponse(responseCode = "401", description = "Authorization information is missing or invalid."),
+            @ApiResponse(responseCode = "5XX", description = "Unexpected error."),
+            @ApiResponse(responseCode = "405", description = "Validation exception")
+        })
+    public ResponseEntity<StreamingResponseBody> export(
+        @Parameter(description = "NDJSON for one object per line, JSON for a single array") @RequestParam(value = "format", defaultValue = "NDJSON") JsonStreamExporter.Format format) throws Exception {
+
+        // Rows are written as they are read from the database
+        return jsonStreamExporter.export("experimentOutputs", format, () -> experimentOutputRepository.streamAll());
+    }
+
     /**
      * get experiment output by experiment id
      * @return {@link Response}
@@ -290,9 +365,10 @@ public class ExperimentOutputController {
             @ApiResponse(responseCode = "404", description = "Not found"),
             @ApiResponse(responseCode = "405", description = "Validation exception")
         })
-    public ResponseEntity<InputStreamResource> getExperimentOutputFileByExperimentIdAndExperimentOutputType(
+    public ResponseEntity<StreamingResponseBody> getExperimentOutputFileByExperimentIdAndExperimentOutputType(
         @Parameter(description = "experiment output type", required = true)  @Valid @PathVariable("experimentOutputType") Constants.TASK_OUTPUTS_TYPES experimentOutputType,
-        @Parameter(description = "experiment Id", required = true)  @Valid @PathVariable("experimentId") String experimentId) throws Exception {
+        @Parameter(description = "experiment Id", required = true)  @Valid @PathVariable("experimentId") String experimentId,
+        @Parameter(hidden = true)  @RequestHeader HttpHeaders requestHeaders) throws Exception {
         // get output by experiment id
         List<ExperimentOutput> experimentOutputList =  experimentOutputRepository.getByExperiment_IdAndAndTypeOrderByUpdatedAt(experimentId, experimentOutputType.toString());
         ExperimentOutput experimentOutput = null;
@@ -301,22 +377,8 @@ public class ExperimentOutputController {
             experimentOutput = experimentOutputList.get(0);
         }
         if (experimentOutput!=null && experimentOutput.getMetadataDetails()!=null && experimentOutput.getMetadataDetails().getDataRepositoryConfiguration()!=null) {
-            // decrypt credentials
-            String decryptedCredentials = pbeEncryption
-                .decrypt(applicationConfigurations.getAuthenticationEncryptionKey().toCharArray(), experimentOutput.getMetadataDetails().getDataRepositoryConfiguration().getCredentials());
-
-            JsonObject jsonObject = new JsonParser().parse(decryptedCredentials).getAsJsonObject();
-
-            String fileName =  experimentOutput.getMetadataDetails().getName();
-
-            S3ObjectInputStream s3ObjectInputStream = Utils.downloadFileFromCos(jsonObject.get("apikey").getAsString(),jsonObject.get("resource_instance_id").getAsString(),jsonObject.get("endpointUrl").getAsString()
-                ,jsonObject.get("bucketName").getAsString(),jsonObject.get("bucketRegion").getAsString(),jsonObject.get("iamEndpoint").getAsString(),fileName);
-
-            return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_JSON)
-                .cacheControl(CacheControl.noCache())
-                .header("Content-Disposition", "attachment; filename=" + fileName)
-                .body(new InputStreamResource(s3ObjectInputStream));
+            // the latest output changes over time and may be served from an older cached copy while COS is unreachable
+            return getFileResponse(experimentOutput, true, requestHeaders);
 
         } else  // Handle where Experiment is not save - most probably due to bad request
             throw new ApiException(Response.Status.BAD_REQUEST.getStatusCode(), "Missing experiment metadata details or data repository configurations");
@@ -375,8 +437,9 @@ public class ExperimentOutputController {
             @ApiResponse(responseCode = "404", description = "Not found"),
             @ApiResponse(responseCode = "405", description = "Validation exception")
         })
-    public ResponseEntity<InputStreamResource> getExperimentOutputFileByExperimentOutputId(
-        @Parameter(description = "experiment output Id", required = true)  @Valid @PathVariable("experimentOutputId") String experimentOutputId) throws Exception {
+    public ResponseEntity<StreamingResponseBody> getExperimentOutputFileByExperimentOutputId(
+        @Parameter(description = "experiment output Id", required = true)  @Valid @PathVariable("experimentOutputId") String experimentOutputId,
+        @Parameter(hidden = true)  @RequestHeader HttpHeaders requestHeaders) throws Exception {
 
         // get output by experiment id
         List<ExperimentOutput> experimentOutputList =  experimentOutputRepository.getById(experimentOutputId);
@@ -387,22 +450,7 @@ public class ExperimentOutputController {
             experimentOutput = experimentOutputList.get(0);
         }
         if (experimentOutput!=null && experimentOutput.getMetadataDetails()!=null && experimentOutput.getMetadataDetails().getDataRepositoryConfiguration()!=null) {
-            // decrypt credentials
-            String decryptedCredentials = pbeEncryption
-                .decrypt(applicationConfigurations.getAuthenticationEncryptionKey().toCharArray(), experimentOutput.getMetadataDetails().getDataRepositoryConfiguration().getCredentials());
-
-            JsonObject jsonObject = new JsonParser().parse(decryptedCredentials).getAsJsonObject();
-
-            String fileName =  experimentOutput.getMetadataDetails().getName();
-
-            S3ObjectInputStream s3ObjectInputStream = Utils.downloadFileFromCos(jsonObject.get("apikey").getAsString(),jsonObject.get("resource_instance_id").getAsString(),jsonObject.get("endpointUrl").getAsString()
-                ,jsonObject.get("bucketName").getAsString(),jsonObject.get("bucketRegion").getAsString(),jsonObject.get("iamEndpoint").getAsString(),fileName);
-
-            return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_JSON)
-                .cacheControl(CacheControl.noCache())
-                .header("Content-Disposition", "attachment; filename=" + fileName)
-                .body(new InputStreamResource(s3ObjectInputStream));
+            return getFileResponse(experimentOutput, false, requestHeaders);
 
         } else  // Handle where Experiment is not save - most probably due to bad request
             throw new ApiException(Response.Status.BAD_REQUEST.getStatusCode(), "Missing experiment metadata details or data repository configurations");
@@ -477,9 +525,9 @@ public class ExperimentOutputController {
         @Parameter(description = "post executor id", required = true)  @Valid @PathVariable("postExecutorId") String postExecutorId) throws Exception {
 
         // get experiment output by locationId and postExecutorId
-        String experimentHash = sha256DocumentHasher.getHash(Utils.getExperimentHash(locationId, postExecutorId).getBytes());
-        logger.info(experimentHash);
-        List<ExperimentOutput> experimentOutputList =  experimentOutputRepository.getByExperiment_ExperimentHash(experimentHash);
+        List<String> experimentHashes = sha256DocumentHasher.getLookupHashes(Utils.getExperimentHash(locationId, postExecutorId).getBytes());
+        logger.info(experimentHashes.get(0));
+        List<ExperimentOutput> experimentOutputList =  experimentOutputRepository.getByExperiment_ExperimentHashIn(experimentHashes);
         if (experimentOutputList!=null) {
             // Set ExperimentOutput as entity in response object
             return Response.ok().entity(experimentOutputList).build();
@@ -508,7 +556,10 @@ public class ExperimentOutputController {
             @ApiResponse(responseCode = "405", description = "Validation exception")
         })
     public Response getExperimentOutputByExperimentOutputId(
-        @Parameter(description = "experiment output Id", required = true)  @Valid @PathVariable("experimentOutputId") String experimentOutputId) throws Exception {
+        @Parameter(description = "experiment output Id", required = true)  @Valid @PathVariable("experimentOutputId") String experimentOutputId,
+        @Parameter(description = "top level fields to return, the whole output is returned when omitted")  @RequestParam(value = "fields", required = false) List<String> fields,
+        @Parameter(description = "copy the stored output into the response without parsing it, memory use no longer grows with the output; ignored when fields are given")  @RequestParam(value = "stream", required = false, defaultValue = "false") boolean stream,
+        @Parameter(description = "when streaming, check that the output is well formed JSON and cut the response short if it is not")  @RequestParam(value = "validate", required = false, defaultValue = "false") boolean validate) throws Exception {
 
         // get output by experiment id
         List<ExperimentOutput> experimentOutputList =  experimentOutputRepository.getById(experimentOutputId);
@@ -519,24 +570,26 @@ public class ExperimentOutputController {
             experimentOutput = experimentOutputList.get(0);
         }
         if (experimentOutput!=null && experimentOutput.getMetadataDetails()!=null && experimentOutput.getMetadataDetails().getDataRepositoryConfiguration()!=null) {
-            // decrypt credentials
-            String decryptedCredentials = pbeEncryption
-                .decrypt(applicationConfigurations.getAuthenticationEncryptionKey().toCharArray(), experimentOutput.getMetadataDetails().getDataRepositoryConfiguration().getCredentials());
-
-            JsonObject jsonObject = new JsonParser().parse(decryptedCredentials).getAsJsonObject();
-
-            String fileName =  experimentOutput.getMetadataDetails().getName();
-
-            S3ObjectInputStream s3ObjectInputStream = Utils.downloadFileFromCos(jsonObject.get("apikey").getAsString(),jsonObject.get("resource_instance_id").getAsString(),jsonObject.get("endpointUrl").getAsString()
-                ,jsonObject.get("bucketName").getAsString(),jsonObject.get("bucketRegion").getAsString(),jsonObject.get("iamEndpoint").getAsString(),fileName);
+            if (stream && (fields == null || fields.isEmpty())) {
+                // the cached file or the COS object is copied into the same envelope while the response is written
+                ExperimentOutput streamedOutput = experimentOutput;
+                return Response.ok().entity(new JsonPassthrough(() -> experimentOutputCache.open(streamedOutput, 0, false), validate)).build();
+            }
 
-            InputStream inputStream = s3ObjectInputStream.getDelegateStream();
-            String text = IOUtils.toString(inputStream, StandardCharsets.UTF_8.name());
             ObjectMapper objectMapper = new ObjectMapper();
+            JsonNode output;
+            try (InputStream inputStream = experimentOutputCache.open(experimentOutput, 0, false)) {
+                if (fields != null && !fields.isEmpty()) {
+                    // stream through the output and keep only the requested fields
+                    output = objectMapper.readTree(JsonFieldExtractor.extract(inputStream, fields).toString());
+                } else {
+                    output = objectMapper.readTree(inputStream);
+                }
+            }
 
-            if (text!=null) {
+            if (output!=null && !output.isMissingNode()) {
                 // Set ExperimentOutput as entity in response object
-                return Response.ok().entity(objectMapper.readTree(text)).build();
+                return Response.ok().entity(output).build();
     
             } else  // Handle where ExperimentOutput is not available
                 throw new ApiException(Response.Status.BAD_REQUEST.getStatusCode(), "Missing experiment output");
@@ -545,4 +598,183 @@ public class ExperimentOutputController {
             throw new ApiException(Response.Status.BAD_REQUEST.getStatusCode(), "Missing experiment metadata details or data repository configurations");
 
     }
+
+    /**
+     * Builds the download response of an output. Responses carry a strong ETag derived from the output hash, or from
+     * the COS ETag for outputs without a hash, so unchanged files are answered with 304. A single byte range is
+     * answered with 206; other range requests get the whole file. Outputs that are not cached are read with a single
+     * COS request, whose metadata gives the tag and length.
+     * A stale cached copy served while COS is unreachable carries a Warning header.
+     * @param experimentOutput
+     * @param latest whether the URL addresses the latest output of an experiment rather than a fixed output
+     * @param requestHeaders
+     * @return
+     * @throws Exception
+     */
+    private ResponseEntity<StreamingResponseBody> getFileResponse(ExperimentOutput experimentOutput, boolean latest, HttpHeaders requestHeaders) throws Exception {
+        String fileName =  experimentOutput.getMetadataDetails().getName();
+        DataRepositoryConfiguration dataRepositoryConfiguration = experimentOutput.getMetadataDetails().getDataRepositoryConfiguration();
+
+        HttpHeaders responseHeaders = new HttpHeaders();
+        responseHeaders.setContentType(MediaType.APPLICATION_JSON);
+        responseHeaders.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName);
+        responseHeaders.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // an output never changes once stored, only the latest output of an experiment has to be revalidated
+        responseHeaders.setCacheControl(latest ? CacheControl.noCache().cachePrivate().getHeaderValue() : IMMUTABLE_CACHE_CONTROL);
+
+        // answer revalidations of hashed outputs before touching the cache or COS
+        String eTag = null;
+        boolean hashed = experimentOutput.getHash() != null && !experimentOutput.getHash().isEmpty();
+        if (hashed) {
+            eTag = "\"" + ExperimentOutputCache.getKey(experimentOutput.getHash()) + "\"";
+            if (isNotModified(requestHeaders, eTag)) {
+                responseHeaders.setETag(eTag);
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(responseHeaders).build();
+            }
+        }
+
+        ExperimentOutputCache.CachedFile cachedFile = experimentOutputCache.openFile(experimentOutput, 0, latest);
+        S3Object s3Object = null;
+        long length;
+        if (cachedFile != null) {
+            // a stale copy has its own tag
+            eTag = "\"" + cachedFile.getKey() + "\"";
+            length = cachedFile.size();
+            if (cachedFile.isStale()) {
+                responseHeaders.set(HttpHeaders.WARNING, "110 - \"Response is Stale\"");
+            }
+        } else {
+            s3Object = objectStorageService.getObject(dataRepositoryConfiguration, fileName);
+            if (!hashed) {
+                eTag = "\"" + s3Object.getObjectMetadata().getETag() + "\"";
+            }
+            length = s3Object.getObjectMetadata().getContentLength();
+        }
+        responseHeaders.setETag(eTag);
+        if (isNotModified(requestHeaders, eTag)) {
+            closeQuietly(cachedFile);
+            abort(s3Object);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(responseHeaders).build();
+        }
+
+        // honour a single range, unless If-Range names another version
+        long start = 0;
+        long end = length - 1;
+        HttpStatus status = HttpStatus.OK;
+        List<HttpRange> ranges = getRanges(requestHeaders);
+        String ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+        if (ranges.size() == 1 && (ifRange == null || ifRange.equals(eTag))) {
+            HttpRange range = ranges.get(0);
+            if (length == 0 || range.getRangeStart(length) >= length) {
+                responseHeaders.set(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                closeQuietly(cachedFile);
+                abort(s3Object);
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(responseHeaders).build();
+            }
+            start = range.getRangeStart(length);
+            end = Math.min(range.getRangeEnd(length), length - 1);
+            status = HttpStatus.PARTIAL_CONTENT;
+            responseHeaders.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        long count = end - start + 1;
+        responseHeaders.setContentLength(Math.max(count, 0));
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(status).headers(responseHeaders);
+
+        if (cachedFile != null) {
+            long position = start;
+            return builder.body(outputStream -> {
+                try (ExperimentOutputCache.CachedFile file = cachedFile) {
+                    transfer(file.getChannel(), position, count, outputStream);
+                }
+            });
+        }
+
+        S3ObjectInputStream inputStream = s3Object.getObjectContent();
+        if (count <= 0) {
+            abort(s3Object);
+            return builder.body(outputStream -> { });
+        }
+        long first = start;
+        long last = end;
+        boolean partial = last < length - 1;
+        return builder.body(outputStream -> {
+            try (InputStream stream = inputStream) {
+                StreamUtils.copyRange(stream, outputStream, first, last);
+                if (partial) {
+                    // do not drain the rest of the object
+                    inputStream.abort();
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns whether If-None-Match names the given tag
+     * @param requestHeaders
+     * @param eTag
+     * @return
+     */
+    private static boolean isNotModified(HttpHeaders requestHeaders, String eTag) {
+        for (String ifNoneMatch : requestHeaders.getIfNoneMatch()) {
+            for (String candidate : ifNoneMatch.split(",")) {
+                candidate = candidate.trim();
+                if (candidate.equals("*") || candidate.equals(eTag) || candidate.equals("W/" + eTag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses the Range header, malformed headers are ignored
+     * @param requestHeaders
+     * @return
+     */
+    private static List<HttpRange> getRanges(HttpHeaders requestHeaders) {
+        try {
+            return requestHeaders.getRange();
+        } catch (IllegalArgumentException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    private static void abort(S3Object s3Object) {
+        if (s3Object != null) {
+            s3Object.getObjectContent().abort();
+        }
+    }
+
+    private static void closeQuietly(ExperimentOutputCache.CachedFile cachedFile) {
+        if (cachedFile != null) {
+            try {
+                cachedFile.close();
+            } catch (IOException e) {
+                logger.warn("======CACHED FILE NOT CLOSED====" + cachedFile.getKey() + " " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes part of a file channel to an output stream. The servlet stream is not a channel, so the bytes are
+     * copied through a buffer of the wrapping channel rather than sent by the kernel.
+     * @param channel
+     * @param position first byte to write
+     * @param count number of bytes to write
+     * @param outputStream
+     * @return number of bytes written
+     * @throws IOException
+     */
+    private static long transfer(FileChannel channel, long position, long count, OutputStream outputStream) throws IOException {
+        WritableByteChannel target = Channels.newChannel(outputStream);
+        long written = 0;
+        while (written < count) {
+            long transferred = channel.transferTo(position + written, count - written, target);
+            if (transferred <= 0) {
+                break;
+            }
+            written += transferred;
+        }
+        return written;
+    }
 }
@@ -19,6 +19,7 @@ package com.ibm.pmai.taskclerk.controllers;
 import com.ibm.pmai.models.core.Favourite;
 import com.ibm.pmai.models.repositories.FavouriteRepository;
 import com.ibm.pmai.taskclerk.exceptions.ApiException;
+import com.ibm.pmai.taskclerk.utils.KeysetPaginator;
 
 import io.swagger.v3.oas.annotations.Hidden;
 import io.swagger.v3.oas.annotations.Operation;
@@ -31,6 +32,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.ws.rs.core.Response;
 import java.util.List;
@@ -55,13 +57,19 @@ public class FavouritesController {
      */
     private static final Logger logger = LoggerFactory.getLogger(FavouritesController.class);
 
+    /**
+     * Pages through the collection
+     */
+    private KeysetPaginator keysetPaginator;
+
     /**
      * Favourite controller
      * @param favouriteRepository
      */
     @Autowired
-    public FavouritesController(FavouriteRepository favouriteRepository) {
+    public FavouritesController(FavouriteRepository favouriteRepository, KeysetPaginator keysetPaginator) {
         this.favouriteRepository = favouriteRepository;
+        this.keysetPaginator = keysetPaginator;
     }
 
     /**
@@ -188,14 +196,16 @@ public class FavouritesController {
     }
 
     /**
-     * Returns all favourite:  TODO: ADD PAGINATION
+     * Returns a page of favourite in creation order. A request without limit returns at most the default page size
+     * (app.page_size_default), the whole collection is read by following the cursor in the X-Next-Cursor header until
+     * the header is absent. includeTotal adds the number of all items in the X-Total-Count header.
      * @return {@link Response}
      * @throws Exception
      */
     @GetMapping(   )
     @Operation(summary = "Returns all favourite",
         tags = {"Favourite"},
-        description = "Returns all favourite ",
+        description = "Returns a page of favourite in creation order. Without limit at most the default page size of 100 items is returned, follow the cursor in the X-Next-Cursor header to read the rest",
         responses = {
             @ApiResponse(description = "Favourite", content = @Content(schema = @Schema(implementation = Favourite.class))),
             @ApiResponse(responseCode = "200", description = "OK"),
@@ -205,10 +215,16 @@ public class FavouritesController {
             @ApiResponse(responseCode = "404", description = "Not found"),
             @ApiResponse(responseCode = "405", description = "Validation exception")
         })
-    public Response retrieveAll() throws Exception {
-
-        // Retrieve all favourite
-        List<Favourite> favourites = favouriteRepository.findAll();
+    public Response retrieveAll(
+        @Parameter(description = "Maximum number of items to return, 100 when omitted and at most 1000") @RequestParam(value = "limit", required = false) Integer limit,
+        @Parameter(description = "Cursor from the X-Next-Cursor header of the previous page") @RequestParam(value = "cursor", required = false) String cursor,
+        @Parameter(description = "Whether to return the total number of items in the X-Total-Count header") @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal,
+        @Parameter(hidden = true) HttpServletResponse httpServletResponse) throws Exception {
+
+        // Retrieve a page of favourite in creation order
+        KeysetPaginator.Page<Favourite> page = keysetPaginator.getPage(Favourite.class, limit, cursor, includeTotal);
+        page.applyHeaders(httpServletResponse);
+        List<Favourite> favourites = page.getItems();
 
         // Check if the returned object is not null
         if (null != favourites) {
@@ -18,6 +18,7 @@ package com.ibm.pmai.taskclerk.controllers;
 
 import java.util.List;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.ws.rs.core.Response;
 
@@ -30,11 +31,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.ibm.pmai.models.core.Feedback;
 import com.ibm.pmai.models.repositories.FeedbackRepository;
 import com.ibm.pmai.taskclerk.exceptions.ApiException;
+import com.ibm.pmai.taskclerk.utils.KeysetPaginator;
 
 import io.swagger.v3.oas.annotations.Hidden;
 import io.swagger.v3.oas.annotations.Operation;
@@ -63,13 +66,19 @@ public class FeedbackController {
      */
     private static final Logger logger = LoggerFactory.getLogger(FeedbackController.class);
 
+    /**
+     * Pages through the collection
+     */
+    private KeysetPaginator keysetPaginator;
+
     /**
      * Feedback controller
      * @param feedbackRepository
      */
     @Autowired
-    public FeedbackController(FeedbackRepository feedbackRepository) {
+    public FeedbackController(FeedbackRepository feedbackRepository, KeysetPaginator keysetPaginator) {
         this.feedbackRepository = feedbackRepository;
+        this.keysetPaginator = keysetPaginator;
     }
 
     /**
@@ -195,14 +204,16 @@ public class FeedbackController {
     }
 
     /**
-     * Returns all feedback:  TODO: ADD PAGINATION
+     * Returns a page of feedback in creation order. A request without limit returns at most the default page size
+     * (app.page_size_default), the whole collection is read by following the cursor in the X-Next-Cursor header until
+     * the header is absent. includeTotal adds the number of all items in the X-Total-Count header.
      * @return {@link Response}
      * @throws Exception
      */
     @GetMapping(   )
     @Operation(summary = "Returns all feedback",
         tags = {"Feedback"},
-        description = "Returns all feedback ",
+        description = "Returns a page of feedback in creation order. Without limit at most the default page size of 100 items is returned, follow the cursor in the X-Next-Cursor header to read the rest",
         responses = {
             @ApiResponse(description = "Feedback", content = @Content(schema = @Schema(implementation = Feedback.class))),
             @ApiResponse(responseCode = "200", description = "OK"),
@@ -212,10 +223,16 @@ public class FeedbackController {
             @ApiResponse(responseCode = "404", description = "Not found"),
             @ApiResponse(responseCode = "405", description = "Validation exception")
         })
-    public Response retrieveAll() throws Exception {
-
-        // Retrieve all feedback
-        List<Feedback> savedFeedback = feedbackRepository.findAll();
+    public Response retrieveAll(
+        @Parameter(description = "Maximum number of items to return, 100 when omitted and at most 1000") @RequestParam(value = "limit", required = false) Integer limit,
+        @Parameter(description = "Cursor from the X-Next-Cursor header of the previous page") @RequestParam(value = "cursor", required = false) String cursor,
+        @Parameter(description = "Whether to return the total number of items in the X-Total-Count header") @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal,
+        @Parameter(hidden = true) HttpServletResponse httpServletResponse) throws Exception {
+
+        // Retrieve a page of feedback in creation order
+        KeysetPaginator.Page<Feedback> page = keysetPaginator.getPage(Feedback.class, limit, cursor, includeTotal);
+        page.applyHeaders(httpServletResponse);
+        List<Feedback> savedFeedback = page.getItems();
 
         // Check if the returned object is not null
         if (null != savedFeedback) {
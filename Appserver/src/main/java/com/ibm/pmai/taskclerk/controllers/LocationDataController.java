@@ -16,12 +16,13 @@
 
 package com.ibm.pmai.taskclerk.controllers;
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
+import java.io.File;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.ws.rs.core.Response;
 
@@ -34,14 +35,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-import com.ibm.cloud.objectstorage.services.s3.model.PutObjectResult;
 import com.ibm.pmai.models.core.DataRepositoryConfiguration;
 import com.ibm.pmai.models.core.Executor;
 import com.ibm.pmai.models.core.ExecutorRequirement;
@@ -55,8 +54,9 @@ import com.ibm.pmai.models.repositories.LocationRepository;
 import com.ibm.pmai.models.repositories.MetadataDetailsRepository;
 import com.ibm.pmai.taskclerk.configurations.ApplicationConfigurations;
 import com.ibm.pmai.taskclerk.exceptions.ApiException;
-import com.ibm.pmai.taskclerk.utils.PBEEncryption;
-import com.ibm.pmai.taskclerk.utils.Utils;
+import com.ibm.pmai.taskclerk.services.interfaces.ObjectStorageService;
+import com.ibm.pmai.taskclerk.utils.LocationDataAvailabilityVerifier;
+import com.ibm.pmai.taskclerk.utils.KeysetPaginator;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -103,9 +103,9 @@ public class LocationDataController {
 
 
     /**
-     * Encryption key
+     * Object storage access
      */
-    private PBEEncryption pbeEncryption;
+    private ObjectStorageService objectStorageService;
 
 
     /**
@@ -113,24 +113,36 @@ public class LocationDataController {
      */
     private ApplicationConfigurations applicationConfigurations;
 
+    /**
+     * Cached checks of the location data required by the models
+     */
+    private LocationDataAvailabilityVerifier locationDataAvailabilityVerifier;
+
     /**
      * Logger declaration
      */
     private static final Logger logger = LoggerFactory.getLogger(LocationDataController.class);
 
+    /**
+     * Pages through the collection
+     */
+    private KeysetPaginator keysetPaginator;
+
     /**
      * locationData controller
      * @param locationDataRepository
      */
     @Autowired
-    public LocationDataController(MetadataDetailsRepository metadataDetailsRepository,LocationRepository locationRepository,PBEEncryption pbeEncryption, LocationDataRepository locationDataRepository, ExecutorRepository executorRepository, DataRepositoryConfigurationRepository dataRepositoryConfigurationRepository, ApplicationConfigurations applicationConfigurations ) {
+    public LocationDataController(MetadataDetailsRepository metadataDetailsRepository,LocationRepository locationRepository,ObjectStorageService objectStorageService, LocationDataRepository locationDataRepository, ExecutorRepository executorRepository, DataRepositoryConfigurationRepository dataRepositoryConfigurationRepository, ApplicationConfigurations applicationConfigurations, LocationDataAvailabilityVerifier locationDataAvailabilityVerifier, KeysetPaginator keysetPaginator) {
         this.locationDataRepository = locationDataRepository;
         this.executorRepository =executorRepository;
         this.dataRepositoryConfigurationRepository = dataRepositoryConfigurationRepository;
         this.applicationConfigurations = applicationConfigurations;
-        this.pbeEncryption =pbeEncryption;
+        this.objectStorageService = objectStorageService;
         this.locationRepository = locationRepository;
         this.metadataDetailsRepository = metadataDetailsRepository;
+        this.locationDataAvailabilityVerifier = locationDataAvailabilityVerifier;
+        this.keysetPaginator = keysetPaginator;
     }
 
     /**
@@ -195,6 +207,7 @@ public class LocationDataController {
 
         // save locationData
         LocationData savedLocation= locationDataRepository.save(locationData);
+        invalidateAvailability(locationData.getLocation());
 
         // Check if the returned object is not null
         if (null != savedLocation) {
@@ -240,6 +253,7 @@ public class LocationDataController {
 
         // updated locationData
         LocationData updatedLocation = locationDataRepository.save(locationData);
+        invalidateAvailability(locationData.getLocation());
 
         // Check if the returned object is not null
         if (null != updatedLocation) {
@@ -290,8 +304,7 @@ public class LocationDataController {
             throw new ApiException(Response.Status.BAD_REQUEST.getStatusCode(), "Model lacks data requements");
         }
 
-        String dataUrl = executorRequirements.get(0).getValue() + "casedata/csv/" + iso2code + "/?startDate=2020-01-01";
-        if (!Utils.validateLocationData(dataUrl)) {
+        if (!locationDataAvailabilityVerifier.isAvailable(executorRequirements.get(0).getValue(), iso2code)) {
             throw new ApiException(Response.Status.BAD_REQUEST.getStatusCode(), "Model data for location " + iso2code + " missing");
         }
 
@@ -372,18 +385,17 @@ public class LocationDataController {
         LocationData locationData = new LocationData();
 
         DataRepositoryConfiguration dataRepositoryConfiguration= dataRepositoryConfigurationRepository.getOne(datarepositoryid);
-        // decrypt credentials
-        String decryptedCredentials = pbeEncryption
-            .decrypt(applicationConfigurations.getAuthenticationEncryptionKey().toCharArray(), dataRepositoryConfiguration.getCredentials());
-
-        JsonObject jsonObject = new JsonParser().parse(decryptedCredentials).getAsJsonObject();
-
         String fileName =  multipartFile.getOriginalFilename();
         String contentType =  multipartFile.getContentType();
-        InputStream inputStream = new ByteArrayInputStream(multipartFile.getBytes());
 
-        PutObjectResult putObjectResult = Utils.putObject(jsonObject.get("apikey").getAsString(),jsonObject.get("resource_instance_id").getAsString(),jsonObject.get("endpointUrl").getAsString()
-            ,jsonObject.get("bucketName").getAsString(),jsonObject.get("bucketRegion").getAsString(),jsonObject.get("iamEndpoint").getAsString(),contentType,multipartFile.getInputStream(),locationId+"."+fileName);
+        // spool the upload to a temporary file, COS reads the parts from there instead of the heap
+        File spooledFile = File.createTempFile("location-data", ".upload");
+        try {
+            multipartFile.transferTo(spooledFile);
+            objectStorageService.upload(dataRepositoryConfiguration, locationId+"."+fileName, contentType, spooledFile);
+        } finally {
+            Files.deleteIfExists(spooledFile.toPath());
+        }
 
         MetadataDetails metadataDetails =new MetadataDetails();
         metadataDetails.setKey(locationId+"."+fileName);
@@ -425,6 +437,7 @@ public class LocationDataController {
         locationData.setLocation(location);
 
         LocationData locationSaved=  locationDataRepository.save(locationData);
+        invalidateAvailability(location);
 
         // Check if the returned object is not null
         if (null != locationSaved) {
@@ -446,14 +459,16 @@ public class LocationDataController {
 
 
     /**
-     * Returns all location data:  TODO: ADD PAGINATION
+     * Returns a page of location data in creation order. A request without limit returns at most the default page size
+     * (app.page_size_default), the whole collection is read by following the cursor in the X-Next-Cursor header until
+     * the header is absent. includeTotal adds the number of all items in the X-Total-Count header.
      * @return {@link Response}
      * @throws Exception
      */
     @GetMapping( )
     @Operation(summary = "Returns all location data",
         tags = {"LocationData"},
-        description = "Returns all location data ",
+        description = "Returns a page of location data in creation order. Without limit at most the default page size of 100 items is returned, follow the cursor in the X-Next-Cursor header to read the rest",
         responses = {
             @ApiResponse(description = "LocationData", content = @Content(schema = @Schema(implementation = LocationData.class))),
             @ApiResponse(responseCode = "200", description = "OK"),
@@ -463,10 +478,16 @@ public class LocationDataController {
             @ApiResponse(responseCode = "404", description = "Not found"),
             @ApiResponse(responseCode = "405", description = "Validation exception")
         })
-    public Response retrieveAllLocations() throws Exception {
+    public Response retrieveAllLocations(
+        @Parameter(description = "Maximum number of items to return, 100 when omitted and at most 1000") @RequestParam(value = "limit", required = false) Integer limit,
+        @Parameter(description = "Cursor from the X-Next-Cursor header of the previous page") @RequestParam(value = "cursor", required = false) String cursor,
+        @Parameter(description = "Whether to return the total number of items in the X-Total-Count header") @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal,
+        @Parameter(hidden = true) HttpServletResponse httpServletResponse) throws Exception {
 
-        // Retrieve all location data
-        List<LocationData> locationList = locationDataRepository.findAll();
+        // Retrieve a page of location data in creation order
+        KeysetPaginator.Page<LocationData> page = keysetPaginator.getPage(LocationData.class, limit, cursor, includeTotal);
+        page.applyHeaders(httpServletResponse);
+        List<LocationData> locationList = page.getItems();
 
         // Check if the returned object is not null
         if (null != locationList) {
@@ -568,4 +589,20 @@ public class LocationDataController {
             throw new ApiException(Response.Status.BAD_REQUEST.getStatusCode(), "No matching combination to the values passed");
         }
     }
+
+    /**
+     * Forgets the cached data availability of a location whose data was written, so new experiments see it right away
+     * @param location
+     */
+    private void invalidateAvailability(Location location) {
+        if (location != null && location.getCountry() == null && location.getId() != null) {
+            location = locationRepository.findById(location.getId()).orElse(null);
+        }
+        if (location == null || location.getCountry() == null || location.getCountry().isEmpty()) {
+            locationDataAvailabilityVerifier.invalidateAll();
+        } else {
+            // the iso2 code is the country without its trailing character, as for the experiments
+            locationDataAvailabilityVerifier.invalidate(location.getCountry().substring(0, location.getCountry().length() - 1));
+        }
+    }
 }
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.ws.rs.core.Response;
 
@@ -32,6 +33,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.ibm.pmai.models.core.AdminLevel;
@@ -39,6 +41,7 @@ import com.ibm.pmai.models.core.Location;
 import com.ibm.pmai.models.repositories.AdminLevelRepository;
 import com.ibm.pmai.models.repositories.LocationRepository;
 import com.ibm.pmai.taskclerk.exceptions.ApiException;
+import com.ibm.pmai.taskclerk.utils.KeysetPaginator;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -72,14 +75,20 @@ public class LocationsController {
      */
     private static final Logger logger = LoggerFactory.getLogger(LocationsController.class);
 
+    /**
+     * Pages through the collection
+     */
+    private KeysetPaginator keysetPaginator;
+
     /**
      * location controller
      * @param locationRepository
      */
     @Autowired
-    public LocationsController(AdminLevelRepository adminLevelRepository,LocationRepository locationRepository) {
+    public LocationsController(AdminLevelRepository adminLevelRepository,LocationRepository locationRepository,KeysetPaginator keysetPaginator) {
         this.locationRepository = locationRepository;
         this.adminLevelRepository =adminLevelRepository;
+        this.keysetPaginator = keysetPaginator;
     }
 
     /**
@@ -217,14 +226,16 @@ public class LocationsController {
     }
 
     /**
-     * Returns all locations:  TODO: ADD PAGINATION
+     * Returns a page of locations in creation order. A request without limit returns at most the default page size
+     * (app.page_size_default), the whole collection is read by following the cursor in the X-Next-Cursor header until
+     * the header is absent. includeTotal adds the number of all items in the X-Total-Count header.
      * @return {@link Response}
      * @throws Exception
      */
     @GetMapping( )
     @Operation(summary = "Returns all locations",
         tags = {"Location"},
-        description = "Returns all locations ",
+        description = "Returns a page of locations in creation order. Without limit at most the default page size of 100 items is returned, follow the cursor in the X-Next-Cursor header to read the rest",
         responses = {
             @ApiResponse(description = "Location", content = @Content(schema = @Schema(implementation = Location.class))),
             @ApiResponse(responseCode = "200", description = "OK"),
@@ -234,10 +245,16 @@ public class LocationsController {
             @ApiResponse(responseCode = "404", description = "Not found"),
             @ApiResponse(responseCode = "405", description = "Validation exception")
         })
-    public Response retrieveAllLocations() throws Exception {
-
-        // Retrieve all locations
-        List<Location> locationList = locationRepository.findAll();
+    public Response retrieveAllLocations(
+        @Parameter(description = "Maximum number of items to return, 100 when omitted and at most 1000") @RequestParam(value = "limit", required = false) Integer limit,
+        @Parameter(description = "Cursor from the X-Next-Cursor header of the previous page") @RequestParam(value = "cursor", required = false) String cursor,
+        @Parameter(description = "Whether to return the total number of items in the X-Total-Count header") @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal,
+        @Parameter(hidden = true) HttpServletResponse httpServletResponse) throws Exception {
+
+        // Retrieve a page of locations in creation order
+        KeysetPaginator.Page<Location> page = keysetPaginator.getPage(Location.class, limit, cursor, includeTotal);
+        page.applyHeaders(httpServletResponse);
+        List<Location> locationList = page.getItems();
 
         // Check if the returned object is not null
         if (null != locationList) {
@@ -16,14 +16,13 @@
 
 package com.ibm.pmai.taskclerk.controllers;
 
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.ibm.cloud.objectstorage.services.s3.model.S3ObjectInputStream;
-import com.ibm.pmai.taskclerk.utils.PBEEncryption;
 import com.ibm.pmai.taskclerk.configurations.ApplicationConfigurations;
 import com.ibm.pmai.models.core.MetadataDetails;
 import com.ibm.pmai.models.repositories.MetadataDetailsRepository;
 import com.ibm.pmai.taskclerk.exceptions.ApiException;
+import com.ibm.pmai.taskclerk.services.interfaces.ObjectStorageService;
+import com.ibm.pmai.taskclerk.utils.KeysetPaginator;
 
 import io.swagger.v3.oas.annotations.Hidden;
 import io.swagger.v3.oas.annotations.Operation;
@@ -36,11 +35,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.ws.rs.core.Response;
 import java.util.List;
 import java.util.Optional;
-import com.ibm.pmai.taskclerk.utils.Utils;
 import org.springframework.http.ResponseEntity;
 import org.springframework.core.io.InputStreamResource;
 
@@ -55,9 +54,9 @@ public class MetadataDetailsController {
 
 
     /**
-     * Encryption key
+     * Object storage access
      */
-    private PBEEncryption pbeEncryption;
+    private ObjectStorageService objectStorageService;
 
     /**
      * Application configurations to access property values
@@ -75,15 +74,21 @@ public class MetadataDetailsController {
      */
     private static final Logger logger = LoggerFactory.getLogger(MetadataDetailsController.class);
 
+    /**
+     * Pages through the collection
+     */
+    private KeysetPaginator keysetPaginator;
+
     /**
      * metadataDetails controller
      * @param metadataDetailsRepository
      */
     @Autowired
-    public MetadataDetailsController(MetadataDetailsRepository metadataDetailsRepository,PBEEncryption pbeEncryption,ApplicationConfigurations applicationConfigurations) {
+    public MetadataDetailsController(MetadataDetailsRepository metadataDetailsRepository,ObjectStorageService objectStorageService,ApplicationConfigurations applicationConfigurations,KeysetPaginator keysetPaginator) {
         this.metadataDetailsRepository = metadataDetailsRepository;
-        this.pbeEncryption =pbeEncryption;
+        this.objectStorageService = objectStorageService;
         this.applicationConfigurations = applicationConfigurations;
+        this.keysetPaginator = keysetPaginator;
     }
     
 
@@ -246,14 +251,16 @@ public class MetadataDetailsController {
     }
 
     /**
-     * Returns all metadataDetailss:  TODO: ADD PAGINATION
+     * Returns a page of metadataDetailss in creation order. A request without limit returns at most the default page size
+     * (app.page_size_default), the whole collection is read by following the cursor in the X-Next-Cursor header until
+     * the header is absent. includeTotal adds the number of all items in the X-Total-Count header.
      * @return {@link Response}
      * @throws Exception
      */
     @GetMapping( )
     @Operation(summary = "Returns all metadataDetailss",
         tags = {"MetadataDetails"},
-        description = "Returns all metadataDetailss ",
+        description = "Returns a page of metadataDetailss in creation order. Without limit at most the default page size of 100 items is returned, follow the cursor in the X-Next-Cursor header to read the rest",
         responses = {
             @ApiResponse(description = "MetadataDetails", content = @Content(schema = @Schema(implementation = MetadataDetails.class))),
             @ApiResponse(responseCode = "200", description = "OK"),
@@ -263,10 +270,16 @@ public class MetadataDetailsController {
             @ApiResponse(responseCode = "404", description = "Not found"),
             @ApiResponse(responseCode = "405", description = "Validation exception")
         })
-    public Response retrieveAllMetadataDetailss() throws Exception {
+    public Response retrieveAllMetadataDetailss(
+        @Parameter(description = "Maximum number of items to return, 100 when omitted and at most 1000") @RequestParam(value = "limit", required = false) Integer limit,
+        @Parameter(description = "Cursor from the X-Next-Cursor header of the previous page") @RequestParam(value = "cursor", required = false) String cursor,
+        @Parameter(description = "Whether to return the total number of items in the X-Total-Count header") @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal,
+        @Parameter(hidden = true) HttpServletResponse httpServletResponse) throws Exception {
 
-        // Retrieve all metadataDetailss
-        List<MetadataDetails> metadataDetailsList = metadataDetailsRepository.findAll();
+        // Retrieve a page of metadataDetailss in creation order
+        KeysetPaginator.Page<MetadataDetails> page = keysetPaginator.getPage(MetadataDetails.class, limit, cursor, includeTotal);
+        page.applyHeaders(httpServletResponse);
+        List<MetadataDetails> metadataDetailsList = page.getItems();
 
         // Check if the returned object is not null
         if (null != metadataDetailsList) {
@@ -307,17 +320,10 @@ public class MetadataDetailsController {
             if (MonthlyDataList!=null) {
                MetadataDetails dataPush = MonthlyDataList.get(0);
 
-                // decrypt credentials
-                String decryptedCredentials = pbeEncryption
-                    .decrypt(applicationConfigurations.getAuthenticationEncryptionKey().toCharArray(), dataPush.getDataRepositoryConfiguration().getCredentials());
-
-                JsonObject jsonObject = new JsonParser().parse(decryptedCredentials).getAsJsonObject();
-
                 String data_filename =  dataPush.getName();
                 //String cosCredentials = dataPush.getMetadataDetails().getDataRepositoryConfiguration().getCredentials();
 
-                S3ObjectInputStream s3ObjectInputStream = Utils.downloadFileFromCos(jsonObject.get("apikey").getAsString(),jsonObject.get("resource_instance_id").getAsString(),jsonObject.get("endpointUrl").getAsString()
-                    ,jsonObject.get("bucketName").getAsString(),jsonObject.get("bucketRegion").getAsString(),jsonObject.get("iamEndpoint").getAsString(),data_filename);
+                S3ObjectInputStream s3ObjectInputStream = objectStorageService.download(dataPush.getDataRepositoryConfiguration(), data_filename);
                 
                 return ResponseEntity.ok()
                     .body(new InputStreamResource(s3ObjectInputStream));
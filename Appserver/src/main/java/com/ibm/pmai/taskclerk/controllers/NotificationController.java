@@ -19,6 +19,7 @@ package com.ibm.pmai.taskclerk.controllers;
 import com.ibm.pmai.models.core.Notification;
 import com.ibm.pmai.models.repositories.NotificationRepository;
 import com.ibm.pmai.taskclerk.exceptions.ApiException;
+import com.ibm.pmai.taskclerk.utils.KeysetPaginator;
 
 import io.swagger.v3.oas.annotations.Hidden;
 import io.swagger.v3.oas.annotations.Operation;
@@ -31,6 +32,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.ws.rs.core.Response;
 import java.util.List;
@@ -55,13 +57,19 @@ public class NotificationController {
      */
     private static final Logger logger = LoggerFactory.getLogger(NotificationController.class);
 
+    /**
+     * Pages through the collection
+     */
+    private KeysetPaginator keysetPaginator;
+
     /**
      * Notification controller
      * @param notificationRepository
      */
     @Autowired
-    public NotificationController(NotificationRepository notificationRepository) {
+    public NotificationController(NotificationRepository notificationRepository, KeysetPaginator keysetPaginator) {
         this.notificationRepository = notificationRepository;
+        this.keysetPaginator = keysetPaginator;
     }
 
     /**
@@ -187,14 +195,16 @@ public class NotificationController {
     }
 
     /**
-     * Returns all notification:  TODO: ADD PAGINATION
+     * Returns a page of notification in creation order. A request without limit returns at most the default page size
+     * (app.page_size_default), the whole collection is read by following the cursor in the X-Next-Cursor header until
+     * the header is absent. includeTotal adds the number of all items in the X-Total-Count header.
      * @return {@link Response}
      * @throws Exception
      */
     @GetMapping(   )
     @Operation(summary = "Returns all notification",
         tags = {"Notification"},
-        description = "Returns all notification ",
+        description = "Returns a page of notification in creation order. Without limit at most the default page size of 100 items is returned, follow the cursor in the X-Next-Cursor header to read the rest",
         responses = {
             @ApiResponse(description = "Notification", content = @Content(schema = @Schema(implementation = Notification.class))),
             @ApiResponse(responseCode = "200", description = "OK"),
@@ -204,10 +214,16 @@ public class NotificationController {
             @ApiResponse(responseCode = "404", description = "Not found"),
             @ApiResponse(responseCode = "405", description = "Validation exception")
         })
-    public Response retrieveAll() throws Exception {
-
-        // Retrieve all notification
-        List<Notification> savedNotification = notificationRepository.findAll();
+    public Response retrieveAll(
+        @Parameter(description = "Maximum number of items to return, 100 when omitted and at most 1000") @RequestParam(value = "limit", required = false) Integer limit,
+        @Parameter(description = "Cursor from the X-Next-Cursor header of the previous page") @RequestParam(value = "cursor", required = false) String cursor,
+        @Parameter(description = "Whether to return the total number of items in the X-Total-Count header") @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal,
+        @Parameter(hidden = true) HttpServletResponse httpServletResponse) throws Exception {
+
+        // Retrieve a page of notification in creation order
+        KeysetPaginator.Page<Notification> page = keysetPaginator.getPage(Notification.class, limit, cursor, includeTotal);
+        page.applyHeaders(httpServletResponse);
+        List<Notification> savedNotification = page.getItems();
 
         // Check if the returned object is not null
         if (null != savedNotification) {
@@ -19,33 +19,45 @@ package com.ibm.pmai.taskclerk.controllers;
 import java.util.Date;
 import java.util.List;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.ws.rs.core.Response;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
 import org.springframework.batch.core.Job;
-import org.springframework.batch.core.JobParameters;
-import org.springframework.batch.core.JobParametersBuilder;
-import org.springframework.batch.core.JobParametersInvalidException;
-import org.springframework.batch.core.launch.JobLauncher;
-import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
-import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
-import org.springframework.batch.core.repository.JobRestartException;
+import org.springframework.batch.core.explore.JobExplorer;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.ibm.pmai.models.core.APIResponse;
 import com.ibm.pmai.models.core.ResultsRequest;
+import com.ibm.pmai.models.core.ResultsResponse;
 import com.ibm.pmai.models.repositories.ResultsRequestRepository;
+import com.ibm.pmai.models.repositories.ResultsResponseRepository;
+import com.ibm.pmai.taskclerk.batch.results.ResultsProgressPublisher;
 import com.ibm.pmai.taskclerk.exceptions.ApiException;
+import com.ibm.pmai.taskclerk.exceptions.ResultsJobRejectedException;
+import com.ibm.pmai.taskclerk.services.interfaces.ResultsJobService;
+import com.ibm.pmai.taskclerk.utils.Constants;
+import com.ibm.pmai.taskclerk.utils.JsonStreamExporter;
+import com.ibm.pmai.taskclerk.utils.KeysetPaginator;
 import com.ibm.pmai.taskclerk.utils.Utils;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -62,10 +74,6 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 public class ResultsRequestController {
 
 
-    @Autowired
-    @Qualifier("myJobLauncher")
-    private JobLauncher jobLauncher;
-
     @Autowired
     private Job fetchTaskExecutionResult;
 
@@ -74,18 +82,54 @@ public class ResultsRequestController {
      */
     private ResultsRequestRepository resultsRequestRepository;
 
+    /**
+     * Progress events of the results requests
+     */
+    private ResultsProgressPublisher resultsProgressPublisher;
+
+    /**
+     * Used to find the running results jobs
+     */
+    private JobExplorer jobExplorer;
+
     /**
      * Logger declaration
      */
     private static final Logger logger = LoggerFactory.getLogger(ResultsRequestController.class);
 
+    /**
+     * Pages through the collection
+     */
+    private KeysetPaginator keysetPaginator;
+
+    /**
+     * ResultsResponse repository declaration
+     */
+    private ResultsResponseRepository resultsResponseRepository;
+
+    /**
+     * Streams the collection to the response
+     */
+    private JsonStreamExporter jsonStreamExporter;
+
+    /**
+     * Queues and runs the results jobs
+     */
+    private ResultsJobService resultsJobService;
+
     /**
      * ResultsRequest controller
      * @param resultsRequestRepository
      */
     @Autowired
-    public ResultsRequestController(ResultsRequestRepository resultsRequestRepository) {
+    public ResultsRequestController(ResultsRequestRepository resultsRequestRepository, ResultsProgressPublisher resultsProgressPublisher, JobExplorer jobExplorer, KeysetPaginator keysetPaginator, ResultsResponseRepository resultsResponseRepository, JsonStreamExporter jsonStreamExporter, ResultsJobService resultsJobService) {
         this.resultsRequestRepository = resultsRequestRepository;
+        this.resultsProgressPublisher = resultsProgressPublisher;
+        this.jobExplorer = jobExplorer;
+        this.keysetPaginator = keysetPaginator;
+        this.resultsResponseRepository = resultsResponseRepository;
+        this.jsonStreamExporter = jsonStreamExporter;
+        this.resultsJobService = resultsJobService;
     }
 
     /**
@@ -162,6 +206,46 @@ public class ResultsRequestController {
     }
 
 
+    /**
+     * Streams the progress of a ResultsRequest until its results job has finished
+     * @param id
+     * @return {@link SseEmitter}
+     * @throws Exception
+     */
+    @GetMapping(value = "/events/{id}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream the progress of a ResultsRequest",
+        tags = {"ResultsRequest"},
+        description = "Server-sent events: 'progress' events with the number of experiments fetched out of the total and a final 'completed' event with the status of the ResultsRequest",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "401", description = "Authorization information is missing or invalid."),
+            @ApiResponse(responseCode = "5XX", description = "Unexpected error."),
+            @ApiResponse(responseCode = "404", description = "Not found")
+        })
+    public SseEmitter streamEvents(@Parameter(description = "id of a ResultsRequest to be followed",required = true) @Valid @PathVariable String id) throws Exception {
+
+        // Retrieve the completion flag only
+        Boolean status = resultsRequestRepository.findStatusById(id);
+        if (null == status) {
+            throw new ApiException(404, "ResultsRequest not found");
+        }
+
+        // subscribe before looking at the job so a completion in between is not missed
+        SseEmitter emitter = new SseEmitter();
+        resultsProgressPublisher.subscribe(id, emitter);
+        if (status || !(resultsJobService.isPending(id) || isResultsJobRunning(id))) {
+            resultsProgressPublisher.completed(id, Boolean.TRUE.equals(resultsRequestRepository.findStatusById(id)),
+                (status ? BatchStatus.COMPLETED : BatchStatus.UNKNOWN).toString());
+        }
+        return emitter;
+    }
+
+    private boolean isResultsJobRunning(String resultRequestId) {
+        return jobExplorer.findRunningJobExecutions(fetchTaskExecutionResult.getName()).stream()
+            .anyMatch(jobExecution -> resultRequestId.equals(jobExecution.getJobParameters().getString("resultRequestId")));
+    }
+
+
     /**
      * Save ResultsRequest
      * @param resultsrequest
@@ -179,9 +263,14 @@ public class ResultsRequestController {
             @ApiResponse(responseCode = "401", description = "Authorization information is missing or invalid."),
             @ApiResponse(responseCode = "5XX", description = "Unexpected error."),
             @ApiResponse(responseCode = "404", description = "Not found"),
-            @ApiResponse(responseCode = "405", description = "Validation exception")
+            @ApiResponse(responseCode = "405", description = "Validation exception"),
+            @ApiResponse(responseCode = "429", description = "Too many queued results requests, retry after the number of seconds in the Retry-After header")
         })
-    public Response add(@Parameter(description = "ResultsRequest object to be saved",required = true) @Valid @RequestBody ResultsRequest resultsrequest) throws Exception {
+    public Response add(@Parameter(description = "ResultsRequest object to be saved",required = true) @Valid @RequestBody ResultsRequest resultsrequest,
+        @Parameter(description = "User the results job counts against when the request carries no valid bearer token") @RequestParam(value = "userId", required = false) String userId,
+        @Parameter(description = "INTERACTIVE for requests someone waits for, BULK for background requests") @RequestParam(value = "priority", defaultValue = "INTERACTIVE") Constants.RESULTS_JOB_LANES priority,
+        @Parameter(hidden = true) HttpServletRequest httpServletRequest,
+        @Parameter(hidden = true) HttpServletResponse httpServletResponse) throws Exception {
 
         // set audit details: created and updated at values
         resultsrequest.setAuditValues();
@@ -190,12 +279,28 @@ public class ResultsRequestController {
 
         resultsrequest.setTimeCreated(Utils.getDateTime(new Date()));
 
-        // save ResultsRequest
-        ResultsRequest savedResultsRequest = resultsRequestRepository.save(resultsrequest);
+        // the results job counts against the user of the token validated by the authentication interceptor
+        String authenticatedUser = (String) httpServletRequest.getAttribute(Constants.AUTHENTICATED_USER);
+        if (authenticatedUser != null) {
+            userId = authenticatedUser;
+        } else if (userId == null) {
+            userId = Constants.ANONYMOUS_USER;
+        }
+
+        // save ResultsRequest and queue its results job
+        ResultsRequest savedResultsRequest;
+        try {
+            savedResultsRequest = resultsJobService.submit(resultsrequest, userId, priority);
+        } catch (ResultsJobRejectedException e) {
+            // Handle overload, nothing was saved
+            httpServletResponse.setStatus(429);
+            httpServletResponse.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+            return Response.status(429).header(HttpHeaders.RETRY_AFTER, e.getRetryAfterSeconds())
+                .entity(new APIResponse<>(e.getMessage(), 429, false, null)).build();
+        }
 
         // Check if the returned object is not null
         if (null != savedResultsRequest) {
-            runResultsRequest(savedResultsRequest.getId());
 
             // Set ResultsRequest as entity in response object
             return Response.ok().entity(savedResultsRequest).build();
@@ -206,24 +311,6 @@ public class ResultsRequestController {
         }
     }
 
-    @Async
-    public void runResultsRequest(String resultRequestId){
-        JobParameters jobParameters = new JobParametersBuilder()
-            .addString("resultRequestId",resultRequestId).addLong("epoch", System.currentTimeMillis())
-            .toJobParameters();
-        try {
-            jobLauncher.run(fetchTaskExecutionResult, jobParameters);
-        } catch (JobExecutionAlreadyRunningException e) {
-            e.printStackTrace();
-        } catch (JobRestartException e) {
-            e.printStackTrace();
-        } catch (JobInstanceAlreadyCompleteException e) {
-            e.printStackTrace();
-        } catch (JobParametersInvalidException e) {
-            e.printStackTrace();
-        }
-    }
-
     /**
      * update ResultsRequest
      * @param resultsrequest
@@ -269,14 +356,16 @@ public class ResultsRequestController {
     }
 
     /**
-     * Returns all resultsrequest:  TODO: ADD PAGINATION
+     * Returns a page of resultsrequest in creation order. A request without limit returns at most the default page size
+     * (app.page_size_default), the whole collection is read by following the cursor in the X-Next-Cursor header until
+     * the header is absent. includeTotal adds the number of all items in the X-Total-Count header.
      * @return {@link Response}
      * @throws Exception
      */
     @GetMapping(   )
     @Operation(summary = "Returns all resultsrequest",
         tags = {"ResultsRequest"},
-        description = "Returns all resultsrequest ",
+        description = "Returns a page of resultsrequest in creation order. Without limit at most the default page size of 100 items is returned, follow the cursor in the X-Next-Cursor header to read the rest",
         responses = {
             @ApiResponse(description = "ResultsRequest", content = @Content(schema = @Schema(implementation = ResultsRequest.class))),
             @ApiResponse(responseCode = "200", description = "OK"),
@@ -286,10 +375,16 @@ public class ResultsRequestController {
             @ApiResponse(responseCode = "404", description = "Not found"),
             @ApiResponse(responseCode = "405", description = "Validation exception")
         })
-    public Response retrieveAll() throws Exception {
+    public Response retrieveAll(
+        @Parameter(description = "Maximum number of items to return, 100 when omitted and at most 1000") @RequestParam(value = "limit", required = false) Integer limit,
+        @Parameter(description = "Cursor from the X-Next-Cursor header of the previous page") @RequestParam(value = "cursor", required = false) String cursor,
+        @Parameter(description = "Whether to return the total number of items in the X-Total-Count header") @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal,
+        @Parameter(hidden = true) HttpServletResponse httpServletResponse) throws Exception {
 
-        // Retrieve all resultsrequest
-        List<ResultsRequest> savedResultsRequest = resultsRequestRepository.findAll();
+        // Retrieve a page of resultsrequest in creation order
+        KeysetPaginator.Page<ResultsRequest> page = keysetPaginator.getPage(ResultsRequest.class, limit, cursor, includeTotal);
+        page.applyHeaders(httpServletResponse);
+        List<ResultsRequest> savedResultsRequest = page.getItems();
 
         // Check if the returned object is not null
         if (null != savedResultsRequest) {
@@ -303,5 +398,87 @@ public class ResultsRequestController {
         }
     }
 
+    /**
+     * Returns the resultsrequest that reference all the given executors, locations, environments and experiments
+     * @return {@link Response}
+     * @throws Exception
+     */
+    @GetMapping(value = "/search")
+    @Operation(summary = "Search resultsrequest by the documents they reference",
+        tags = {"ResultsRequest"},
+        description = "Returns the most recent resultsrequest whose executors, locations, environments and experiments contain all the given ids",
+        responses = {
+            @ApiResponse(description = "ResultsRequest", content = @Content(schema = @Schema(implementation = ResultsRequest.class))),
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Invalid request"),
+            @ApiResponse(responseCode = "401", description = "Authorization information is missing or invalid."),
+            @ApiResponse(responseCode = "5XX", description = "Unexpected error."),
+            @ApiResponse(responseCode = "404", description = "Not found"),
+            @ApiResponse(responseCode = "405", description = "Validation exception")
+        })
+    public Response search(
+        @Parameter(description = "Executor ids the request must reference") @RequestParam(value = "executorId", required = false) List<String> executorIds,
+        @Parameter(description = "Location ids the request must reference") @RequestParam(value = "locationId", required = false) List<String> locationIds,
+        @Parameter(description = "Environment ids the request must reference") @RequestParam(value = "environmentId", required = false) List<String> environmentIds,
+        @Parameter(description = "Experiment ids the request must reference") @RequestParam(value = "experimentId", required = false) List<String> experimentIds,
+        @Parameter(description = "Maximum number of items to return, 100 when omitted and at most 1000") @RequestParam(value = "limit", required = false) Integer limit) throws Exception {
+
+        if (isEmpty(executorIds) && isEmpty(locationIds) && isEmpty(environmentIds) && isEmpty(experimentIds)) {
+            throw new ApiException(Response.Status.BAD_REQUEST.getStatusCode(), "At least one executorId, locationId, environmentId or experimentId is required");
+        }
+
+        // filter in the database on the jsonb columns instead of loading every request
+        List<ResultsRequest> resultsRequests = resultsRequestRepository.findByContainedDocuments(toIdDocuments(executorIds),
+            toIdDocuments(locationIds), toIdDocuments(environmentIds), toIdDocuments(experimentIds), keysetPaginator.getPageSize(limit));
+
+        return Response.ok().entity(resultsRequests).build();
+    }
+
+    private static boolean isEmpty(List<String> ids) {
+        return ids == null || ids.isEmpty();
+    }
+
+    /**
+     * Builds the JSON array of id objects the jsonb columns are matched against
+     * @param ids
+     * @return
+     */
+    private static String toIdDocuments(List<String> ids) {
+        JsonArray documents = new JsonArray();
+        if (ids != null) {
+            for (String id : ids) {
+                JsonObject document = new JsonObject();
+                document.addProperty("id", id);
+                documents.add(document);
+            }
+        }
+        return documents.toString();
+    }
+
+    /**
+     * Streams the responses of a ResultsRequest
+     * @return {@link ResponseEntity}
+     * @throws Exception
+     */
+    @GetMapping(value = "/{id}/responses/export")
+    @Operation(summary = "Streams the responses of a ResultsRequest",
+        tags = {"ResultsRequest"},
+        description = "Streams the responses of a ResultsRequest as NDJSON or as a JSON array",
+        responses = {
+            @ApiResponse(description = "ResultsResponse", content = @Content(schema = @Schema(implementation = ResultsResponse.class))),
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Invalid request"),
+            @ApiResponse(responseCode = "401", description = "Authorization information is missing or invalid."),
+            @ApiResponse(responseCode = "5XX", description = "Unexpected error."),
+            @ApiResponse(responseCode = "405", description = "Validation exception")
+        })
+    public ResponseEntity<StreamingResponseBody> export(
+        @Parameter(description = "id of the ResultsRequest whose responses are exported",required = true) @Valid @PathVariable String id,
+        @Parameter(description = "NDJSON for one object per line, JSON for a single array") @RequestParam(value = "format", defaultValue = "NDJSON") JsonStreamExporter.Format format) throws Exception {
+
+        // Rows are written as they are read from the database
+        return jsonStreamExporter.export("results-" + id, format, () -> resultsResponseRepository.streamByResultId(id));
+    }
+
 }
 
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ibm.pmai.taskclerk.exceptions;
+
+/**
+ * Raised when a results job is not admitted because its lane or its user has too many queued jobs
+ */
+public class ResultsJobRejectedException extends ApiException {
+
+    private static final long serialVersionUID = 1L;
+
+    // Seconds after which the request is likely to be admitted
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructor
+     * @param msg
+     * @param retryAfterSeconds
+     */
+    public ResultsJobRejectedException(final String msg, final long retryAfterSeconds) {
+        super(429, msg);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
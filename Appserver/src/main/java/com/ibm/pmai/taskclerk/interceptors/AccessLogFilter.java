@@ -0,0 +1,231 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.taskclerk.interceptors;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Map;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Records every request in the access log once its response is complete, including requests handled
+ * asynchronously. The work done on the request thread is limited to counting the response bytes and queueing the
+ * record.
+ */
+@Component
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private static final String ACTUATOR_PATH = "/actuator";
+
+    /**
+     * Access log pipeline
+     */
+    private AccessLogger accessLogger;
+
+    @Autowired
+    public AccessLogFilter(AccessLogger accessLogger) {
+        this.accessLogger = accessLogger;
+    }
+
+    /**
+     * Metrics scrapes and health checks are not logged
+     * @param request
+     * @return
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + ACTUATOR_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        long started = System.nanoTime();
+        CountingResponse countingResponse = new CountingResponse(response);
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, countingResponse);
+            failed = false;
+        } finally {
+            if (!failed && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        log(request, countingResponse, started, false);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                log(request, countingResponse, started, failed);
+            }
+        }
+    }
+
+    private void log(HttpServletRequest request, CountingResponse response, long started, boolean failed) {
+        int status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+        accessLogger.log(new AccessLogRecord(System.currentTimeMillis(), request.getMethod(), request.getRequestURI(),
+            pathTemplate(request, status), status, System.nanoTime() - started, response.getBytes(), user(request)));
+    }
+
+    /**
+     * Mapping pattern of the handler, so that path variables do not create a latency timer per resource
+     * @param request
+     * @param status
+     * @return
+     */
+    private static String pathTemplate(HttpServletRequest request, int status) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null) {
+            return pattern.toString();
+        }
+        return status == HttpServletResponse.SC_NOT_FOUND ? "NOT_FOUND" : "UNKNOWN";
+    }
+
+    /**
+     * Authenticated user or the user a request is made for
+     * @param request
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    private static String user(HttpServletRequest request) {
+        if (request.getRemoteUser() != null) {
+            return request.getRemoteUser();
+        }
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables instanceof Map && ((Map<String, String>) variables).get("userId") != null) {
+            return ((Map<String, String>) variables).get("userId");
+        }
+        return "-";
+    }
+
+    /**
+     * Counts the bytes written to the body. Output written through the writer is counted in characters.
+     */
+    private static class CountingResponse extends HttpServletResponseWrapper {
+
+        private volatile long bytes;
+
+        private ServletOutputStream outputStream;
+
+        private PrintWriter writer;
+
+        CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        long getBytes() {
+            return bytes;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                        bytes++;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        delegate.write(b, off, len);
+                        bytes += len;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        delegate.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        delegate.setWriteListener(writeListener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                PrintWriter delegate = super.getWriter();
+                writer = new PrintWriter(new Writer() {
+                    @Override
+                    public void write(char[] cbuf, int off, int len) {
+                        delegate.write(cbuf, off, len);
+                        bytes += len;
+                    }
+
+                    @Override
+                    public void write(String str, int off, int len) {
+                        delegate.write(str, off, len);
+                        bytes += len;
+                    }
+
+                    @Override
+                    public void flush() {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() {
+                        delegate.close();
+                    }
+                });
+            }
+            return writer;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.taskclerk.interceptors;
+
+/**
+ * A completed request as recorded by the access log
+ */
+public final class AccessLogRecord {
+
+    private final long timestamp;
+    private final String method;
+    private final String uri;
+    private final String pathTemplate;
+    private final int status;
+    private final long latencyNanos;
+    private final long bytes;
+    private final String user;
+
+    public AccessLogRecord(long timestamp, String method, String uri, String pathTemplate, int status, long latencyNanos, long bytes, String user) {
+        this.timestamp = timestamp;
+        this.method = method;
+        this.uri = uri;
+        this.pathTemplate = pathTemplate;
+        this.status = status;
+        this.latencyNanos = latencyNanos;
+        this.bytes = bytes;
+        this.user = user;
+    }
+
+    /**
+     * @return completion time in epoch milliseconds
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    /**
+     * @return mapping pattern of the handler, e.g. /api/experiments/{id}
+     */
+    public String getPathTemplate() {
+        return pathTemplate;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    /**
+     * @return bytes written to the response body
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    public String getUser() {
+        return user;
+    }
+}
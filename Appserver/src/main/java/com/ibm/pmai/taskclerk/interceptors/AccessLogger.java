@@ -0,0 +1,169 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.taskclerk.interceptors;
+
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.ibm.pmai.taskclerk.configurations.ApplicationConfigurations;
+import com.ibm.pmai.taskclerk.utils.MpscRingBuffer;
+import com.ibm.pmai.taskclerk.utils.TaskClerkMetrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Access log pipeline. Request threads only add records to a bounded ring buffer, records that do not fit are
+ * dropped instead of blocking the request. A single consumer thread drains the buffer, records the per endpoint
+ * latency timers and writes the access log file configured in logback-spring.xml.
+ */
+@Component
+public class AccessLogger {
+
+    /**
+     * Logger declaration
+     */
+    private static final Logger logger = LoggerFactory.getLogger(AccessLogger.class);
+
+    /**
+     * Access log, written to its own rolling files
+     */
+    private static final Logger accessLog = LoggerFactory.getLogger("access");
+
+    /**
+     * Consumer back off while the buffer is empty
+     */
+    private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final MpscRingBuffer<AccessLogRecord> buffer;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Thread consumer;
+
+    private volatile boolean running = true;
+
+    @Autowired
+    public AccessLogger(ApplicationConfigurations applicationConfigurations, MeterRegistry meterRegistry) {
+        this.buffer = new MpscRingBuffer<>(applicationConfigurations.getAccessLogBufferSize());
+        this.meterRegistry = meterRegistry;
+        this.consumer = new Thread(this::consume, "access-log");
+        this.consumer.setDaemon(true);
+
+        Gauge.builder(TaskClerkMetrics.PREFIX + ".access.log.queued", buffer, MpscRingBuffer::size)
+            .description("Access log records waiting to be written")
+            .register(meterRegistry);
+        FunctionCounter.builder(TaskClerkMetrics.PREFIX + ".access.log.dropped", buffer, MpscRingBuffer::getDropped)
+            .description("Access log records dropped because the buffer was full")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        consumer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(consumer);
+        consumer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Queues a record, never blocks
+     * @param record
+     * @return false if the record was dropped
+     */
+    public boolean log(AccessLogRecord record) {
+        return buffer.offer(record);
+    }
+
+    private void consume() {
+        long parkNanos = MIN_PARK_NANOS;
+        while (running) {
+            AccessLogRecord record = buffer.poll();
+            if (record == null) {
+                LockSupport.parkNanos(parkNanos);
+                parkNanos = Math.min(parkNanos * 2, MAX_PARK_NANOS);
+                continue;
+            }
+            parkNanos = MIN_PARK_NANOS;
+            write(record);
+        }
+
+        // write what was queued before the shutdown
+        AccessLogRecord record;
+        while ((record = buffer.poll()) != null) {
+            write(record);
+        }
+        if (buffer.getDropped() > 0) {
+            logger.info("======ACCESS LOG DROPPED " + buffer.getDropped() + " RECORDS====");
+        }
+    }
+
+    private void write(AccessLogRecord record) {
+        try {
+            Timer.builder("http.server.requests")
+                .description("Requests handled by the application")
+                .tag("method", record.getMethod())
+                .tag("uri", record.getPathTemplate())
+                .tag("status", String.valueOf(record.getStatus()))
+                .tag(TaskClerkMetrics.TAG_OUTCOME, outcome(record.getStatus()))
+                .register(meterRegistry)
+                .record(record.getLatencyNanos(), TimeUnit.NANOSECONDS);
+
+            if (accessLog.isInfoEnabled()) {
+                accessLog.info(Instant.ofEpochMilli(record.getTimestamp()) + " " + record.getMethod() + " " + record.getUri()
+                    + " " + record.getPathTemplate() + " " + record.getStatus() + " " + (record.getBytes() < 0 ? "-" : record.getBytes())
+                    + " " + String.format(Locale.ROOT, "%.3f", record.getLatencyNanos() / 1_000_000d) + "ms " + record.getUser());
+            }
+        } catch (RuntimeException e) {
+            logger.warn("======ACCESS LOG RECORD NOT WRITTEN====" + e.getMessage());
+        }
+    }
+
+    private static String outcome(int status) {
+        if (status < 200) {
+            return "INFORMATIONAL";
+        }
+        if (status < 300) {
+            return "SUCCESS";
+        }
+        if (status < 400) {
+            return "REDIRECTION";
+        }
+        if (status < 500) {
+            return "CLIENT_ERROR";
+        }
+        return "SERVER_ERROR";
+    }
+}
@@ -24,9 +24,16 @@ import javax.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
 
+import com.ibm.pmai.taskclerk.utils.Constants;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+
 /**
  * Used to intercept requests for authentication validation
  */
@@ -43,16 +50,26 @@ public class AuthenticationInterceptor extends HandlerInterceptorAdapter {
      */
     public WeakHashMap<String, String> session = new WeakHashMap<>();
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    /**
+     * Parser validating the token signatures against the authentication public key
+     */
+    private JwtParser parser;
+
     /**
      * Constructor class
      * @param parser
      */
     @Autowired
-    public AuthenticationInterceptor() {
+    public AuthenticationInterceptor(JwtParser parser) {
+        this.parser = parser;
     }
 
     /**
-     * Request prehandle for validations of all incoming requests
+     * Request prehandle for validations of all incoming requests. Requests are not rejected; when a bearer token is
+     * sent and its signature is valid, its subject is stored in the {@link Constants#AUTHENTICATED_USER} request
+     * attribute.
      * @param request
      * @param response
      * @param handler
@@ -61,6 +78,19 @@ public class AuthenticationInterceptor extends HandlerInterceptorAdapter {
      */
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            return true;
+        }
+
+        try {
+            Claims claims = parser.parseClaimsJws(authorization.substring(BEARER_PREFIX.length()).trim()).getBody();
+            if (claims.getSubject() != null && !claims.getSubject().isEmpty()) {
+                request.setAttribute(Constants.AUTHENTICATED_USER, claims.getSubject());
+            }
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.warn("======INVALID TOKEN====" + request.getRequestURI() + " " + e.getMessage());
+        }
         return true;
     }
 }
@@ -1,45 +0,0 @@
-/*
- * Copyright 2022 IBM Corporation
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-
-package com.ibm.pmai.taskclerk.interceptors;
-
-import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
-
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
-import org.springframework.stereotype.Component;
-import org.springframework.web.servlet.HandlerInterceptor;
-@Component
-public class LoggingInterceptor implements HandlerInterceptor {
-
-
-    @Autowired
-    private AsyncLogger asyncUserLogger;
-
-    @Override
-    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) throws Exception {
-        asyncUserLogger.logRequest(request, response, ex);
-    }
-
-    @Component
-    public class AsyncLogger {
-        @Async
-        public void logRequest(HttpServletRequest request, HttpServletResponse response, Exception ex) {
-        }
-    }
-
-}
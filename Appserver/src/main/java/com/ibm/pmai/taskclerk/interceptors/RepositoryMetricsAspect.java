@@ -0,0 +1,91 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.taskclerk.interceptors;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import com.ibm.pmai.taskclerk.utils.TaskClerkMetrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times every call of a Spring Data repository, tagged with the repository interface. Method names are left out so
+ * the number of series stays bounded by the number of repositories.
+ */
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+    /**
+     * Registry of the repository timers
+     */
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Repository interface names by proxy class
+     */
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RepositoryMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = TaskClerkMetrics.ERROR;
+        try {
+            Object result = joinPoint.proceed();
+            outcome = TaskClerkMetrics.SUCCESS;
+            return result;
+        } finally {
+            sample.stop(Timer.builder(TaskClerkMetrics.REPOSITORY_INVOCATIONS)
+                .description("Calls of the Spring Data repositories")
+                .tag("repository", repositoryName(joinPoint.getThis()))
+                .tag(TaskClerkMetrics.TAG_OUTCOME, outcome)
+                .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Name of the application interface a repository proxy implements, methods inherited from the Spring Data
+     * interfaces are reported under the repository they were called on
+     * @param proxy
+     * @return
+     */
+    private String repositoryName(Object proxy) {
+        return repositoryNames.computeIfAbsent(proxy.getClass(), proxyClass -> {
+            for (Class<?> proxiedInterface : AopProxyUtils.proxiedUserInterfaces(proxy)) {
+                if (Repository.class.isAssignableFrom(proxiedInterface)) {
+                    return proxiedInterface.getSimpleName();
+                }
+            }
+            return proxyClass.getSimpleName();
+        });
+    }
+}
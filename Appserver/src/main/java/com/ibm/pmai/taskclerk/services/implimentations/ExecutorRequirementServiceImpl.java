@@ -0,0 +1,102 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.taskclerk.services.implimentations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ibm.pmai.models.core.Executor;
+import com.ibm.pmai.models.core.ExecutorRequirement;
+import com.ibm.pmai.models.core.OptimizationEnvelope;
+import com.ibm.pmai.models.repositories.ExecutorRepository;
+import com.ibm.pmai.models.repositories.ExecutorRequirementRepository;
+import com.ibm.pmai.models.repositories.OptimizationEnvelopeRepository;
+import com.ibm.pmai.taskclerk.services.interfaces.ExecutorRequirementService;
+
+/**
+ * Saves an executor and the entities it owns in a single transaction. Ids are generated by the application, so the
+ * inserts are only queued while the entities are saved and sent in JDBC batches, ordered by table, when the
+ * transaction flushes.
+ */
+@Service
+public class ExecutorRequirementServiceImpl implements ExecutorRequirementService {
+
+    private ExecutorRepository executorRepository;
+
+    private ExecutorRequirementRepository executorRequirementRepository;
+
+    private OptimizationEnvelopeRepository optimizationEnvelopeRepository;
+
+    @Autowired
+    public ExecutorRequirementServiceImpl(ExecutorRepository executorRepository, ExecutorRequirementRepository executorRequirementRepository, OptimizationEnvelopeRepository optimizationEnvelopeRepository) {
+        this.executorRepository = executorRepository;
+        this.executorRequirementRepository = executorRequirementRepository;
+        this.optimizationEnvelopeRepository = optimizationEnvelopeRepository;
+    }
+
+    @Override
+    @Transactional
+    public Executor saveWithRequirements(Executor executor, boolean updateExisting) {
+        List<ExecutorRequirement> executorRequirementList = executor.getExecutorRequirement();
+        if (executorRequirementList != null && !executorRequirementList.isEmpty()) {
+
+            // save OptimizationEnvelopes first
+            List<ExecutorRequirement> withEnvelope = new ArrayList<>();
+            List<OptimizationEnvelope> optimizationEnvelopes = new ArrayList<>();
+            for (ExecutorRequirement executorRequirement : executorRequirementList) {
+                if (executorRequirement.getOptimizationEnvelope() != null) {
+                    withEnvelope.add(executorRequirement);
+                    optimizationEnvelopes.add(executorRequirement.getOptimizationEnvelope());
+                }
+            }
+            List<OptimizationEnvelope> savedOptimizationEnvelopes = optimizationEnvelopeRepository.saveAll(optimizationEnvelopes);
+            for (int i = 0; i < withEnvelope.size(); i++) {
+                withEnvelope.get(i).setOptimizationEnvelope(savedOptimizationEnvelopes.get(i));
+            }
+
+            // save new requirements, and existing ones when updating, keeping their position
+            List<ExecutorRequirement> toSave = new ArrayList<>();
+            List<Integer> positions = new ArrayList<>();
+            List<ExecutorRequirement> executorRequirementListIds = new ArrayList<>(executorRequirementList.size());
+            for (ExecutorRequirement executorRequirement : executorRequirementList) {
+                boolean isNew = executorRequirement.getId() == null || executorRequirement.getId().isEmpty();
+                if (isNew) {
+                    executorRequirement.setAuditValues();
+                }
+                if (isNew || updateExisting) {
+                    positions.add(executorRequirementListIds.size());
+                    toSave.add(executorRequirement);
+                    executorRequirementListIds.add(executorRequirement);
+                } else {
+                    executorRequirementListIds.add(executorRequirementRepository.getOne(executorRequirement.getId()));
+                }
+            }
+            List<ExecutorRequirement> savedExecutorRequirements = executorRequirementRepository.saveAll(toSave);
+            for (int i = 0; i < positions.size(); i++) {
+                executorRequirementListIds.set(positions.get(i), savedExecutorRequirements.get(i));
+            }
+
+            executor.setExecutorRequirement(executorRequirementListIds);
+        }
+
+        return executorRepository.save(executor);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.taskclerk.services.implimentations;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ibm.pmai.models.core.Executor;
+import com.ibm.pmai.models.core.Experiment;
+import com.ibm.pmai.models.repositories.ExperimentRepository;
+import com.ibm.pmai.taskclerk.configurations.ApplicationConfigurations;
+import com.ibm.pmai.taskclerk.services.interfaces.ExperimentHashMigrationService;
+import com.ibm.pmai.taskclerk.utils.Sha256DocumentHasher;
+import com.ibm.pmai.taskclerk.utils.Utils;
+
+/**
+ * Re-hashes the experiments stored before the hash format was versioned. A version 1 hash cannot be converted, so
+ * the hash inputs are rebuilt from the experiment and only replaced when they reproduce the stored hash. Experiments
+ * whose inputs cannot be rebuilt keep their hash, marked as version 1, and are still found by the lookups that
+ * query every format.
+ */
+@Service
+public class ExperimentHashMigrationServiceImpl implements ExperimentHashMigrationService {
+
+    // Logger
+    private static final Logger logger = LoggerFactory.getLogger(ExperimentHashMigrationServiceImpl.class);
+
+    private ExperimentRepository experimentRepository;
+
+    private Sha256DocumentHasher sha256DocumentHasher;
+
+    /**
+     * Application configurations to access property values
+     */
+    private ApplicationConfigurations applicationConfigurations;
+
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public ExperimentHashMigrationServiceImpl(ExperimentRepository experimentRepository, Sha256DocumentHasher sha256DocumentHasher, ApplicationConfigurations applicationConfigurations, PlatformTransactionManager transactionManager) {
+        this.experimentRepository = experimentRepository;
+        this.sha256DocumentHasher = sha256DocumentHasher;
+        this.applicationConfigurations = applicationConfigurations;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.hash_migration_interval_ms:60000}")
+    public void migrateUnversionedHashes() {
+        int batchSize = applicationConfigurations.getHashMigrationBatchSize();
+        int[] counts;
+        do {
+            // each batch is locked and updated in its own transaction so instances share the work
+            counts = transactionTemplate.execute(status -> migrateBatch(batchSize));
+            if (counts[0] > 0) {
+                logger.info("======RE-HASHED " + counts[1] + "/" + counts[0] + " EXPERIMENTS (" + (counts[0] - counts[1]) + " kept in version " + Sha256DocumentHasher.LEGACY_VERSION + " format)====");
+            }
+        } while (counts[0] >= batchSize);
+    }
+
+    /**
+     * Checks a batch of experiments
+     * @param batchSize
+     * @return number of experiments checked and number of experiments moved to the current format
+     */
+    private int[] migrateBatch(int batchSize) {
+        List<Experiment> experiments = experimentRepository.findUnversionedHashes(batchSize);
+        int migrated = 0;
+        for (Experiment experiment : experiments) {
+            String hash = getCurrentHash(experiment);
+            if (hash != null) {
+                experimentRepository.updateExperimentHash(experiment.getId(), hash, sha256DocumentHasher.getVersion());
+                migrated++;
+            } else {
+                experimentRepository.updateExperimentHash(experiment.getId(), experiment.getExperimentHash(), Sha256DocumentHasher.LEGACY_VERSION);
+            }
+        }
+        return new int[]{experiments.size(), migrated};
+    }
+
+    /**
+     * Rebuilds the hash inputs of an experiment, its location and one of its environments, and returns their hash in
+     * the current format if they match the stored hash
+     * @param experiment
+     * @return null if the stored hash cannot be reproduced
+     */
+    private String getCurrentHash(Experiment experiment) {
+        String storedHash = experiment.getExperimentHash();
+        if (storedHash == null || experiment.getLocation() == null || experiment.getSelectedPostExecutor() == null) {
+            return null;
+        }
+        // the environment link is kept on the executor and may point to a later experiment, so every candidate is verified
+        for (Executor environment : experiment.getSelectedPostExecutor()) {
+            byte[] data = Utils.getExperimentHash(experiment.getLocation().getId(), environment.getId()).getBytes();
+            if (storedHash.equals(sha256DocumentHasher.getLegacyHash(data))) {
+                try {
+                    return sha256DocumentHasher.getHash(data);
+                } catch (Exception e) {
+                    logger.warn("======EXPERIMENT NOT RE-HASHED====" + experiment.getId() + " " + e.getMessage());
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.taskclerk.services.implimentations;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ibm.pmai.models.core.Experiment;
+import com.ibm.pmai.models.repositories.ExperimentRepository;
+import com.ibm.pmai.models.response.JobDeploymentServiceStatusResponse;
+import com.ibm.pmai.taskclerk.configurations.ApplicationConfigurations;
+import com.ibm.pmai.taskclerk.services.interfaces.ExperimentJobStatusService;
+import com.ibm.pmai.taskclerk.services.interfaces.ExperimentService;
+import com.ibm.pmai.taskclerk.utils.Constants;
+
+/**
+ * Keeps the job state stored on the experiments in sync with the JDS. Experiments whose job has not reached a final
+ * state are polled in batches on a bounded pool; a job is checked often right after its state changed and less often
+ * the longer it stays in the same state, so the load on the JDS follows the number of running jobs and not the number
+ * of clients asking for their status.
+ */
+@Service
+public class ExperimentJobStatusServiceImpl implements ExperimentJobStatusService {
+
+    // Logger
+    private static final Logger logger = LoggerFactory.getLogger(ExperimentJobStatusServiceImpl.class);
+
+    /**
+     * Claimed experiments are checked again after this time if the instance checking them dies
+     */
+    private static final long LEASE_MINUTES = 5;
+
+    /**
+     * A job is checked again after this fraction of the time it has spent in its current state
+     */
+    private static final int BACKOFF_DIVISOR = 4;
+
+    private ExperimentRepository experimentRepository;
+
+    private ExperimentService experimentService;
+
+    /**
+     * Application configurations to access property values
+     */
+    private ApplicationConfigurations applicationConfigurations;
+
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Bounds the number of concurrent requests to the JDS
+     */
+    private final ExecutorService checkExecutor;
+
+    /**
+     * One permit per check pool thread, only as many experiments are claimed as there are idle threads
+     */
+    private final Semaphore idleChecks;
+
+    @Autowired
+    public ExperimentJobStatusServiceImpl(ExperimentRepository experimentRepository, ExperimentService experimentService, ApplicationConfigurations applicationConfigurations, PlatformTransactionManager transactionManager) {
+        this.experimentRepository = experimentRepository;
+        this.experimentService = experimentService;
+        this.applicationConfigurations = applicationConfigurations;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.checkExecutor = Executors.newFixedThreadPool(applicationConfigurations.getJobStatusSyncConcurrency(), runnable -> {
+            Thread thread = new Thread(runnable, "job-status-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.idleChecks = new Semaphore(applicationConfigurations.getJobStatusSyncConcurrency());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        checkExecutor.shutdownNow();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.job_status_sync_interval_ms:5000}")
+    public void synchroniseDueJobStatuses() {
+        // the checks finish on the check pool, the scheduler thread only claims and hands them over
+        int limit;
+        while ((limit = Math.min(applicationConfigurations.getJobStatusSyncBatchSize(), idleChecks.availablePermits())) > 0) {
+            List<JobCheck> due = claimDueChecks(limit);
+            for (JobCheck jobCheck : due) {
+                if (!idleChecks.tryAcquire()) {
+                    // not possible while this is the only caller, the lease brings the experiment back otherwise
+                    return;
+                }
+                try {
+                    checkExecutor.execute(() -> {
+                        try {
+                            check(jobCheck);
+                        } catch (Exception e) {
+                            logger.warn("======JOB STATUS CHECK FAILED====" + jobCheck.experimentId + " " + e.getMessage());
+                        } finally {
+                            idleChecks.release();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    // shutting down, the lease brings the experiment back
+                    idleChecks.release();
+                    return;
+                }
+            }
+            if (due.size() < limit) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public JobDeploymentServiceStatusResponse getJobStatus(Experiment experiment) {
+        if (experiment.getJobState() == null) {
+            // not seen by the synchroniser yet, it checks new jobs first
+            return new JobDeploymentServiceStatusResponse(Collections.singletonList("Waiting for the first job status check."),
+                Collections.singletonList(Constants.JOB_STATE_PENDING), Collections.singletonList(202));
+        }
+        return new JobDeploymentServiceStatusResponse(Collections.singletonList(experiment.getJobMessage()),
+            Collections.singletonList(experiment.getJobState()), Collections.singletonList(experiment.getJobStatusCode()));
+    }
+
+    /**
+     * Locks a batch of experiments that are due for a check and leases them to this instance
+     * @param limit
+     * @return
+     */
+    private List<JobCheck> claimDueChecks(int limit) {
+        return transactionTemplate.execute(status -> {
+            Date now = new Date();
+            List<JobCheck> due = experimentRepository.findDueForJobStatusCheck(Constants.FINAL_JOB_STATES, now, limit)
+                .stream()
+                .map(JobCheck::new)
+                .collect(Collectors.toList());
+            if (!due.isEmpty()) {
+                experimentRepository.updateJobStatusNextCheck(due.stream().map(jobCheck -> jobCheck.experimentId).collect(Collectors.toList()),
+                    new Date(now.getTime() + TimeUnit.MINUTES.toMillis(LEASE_MINUTES)));
+            }
+            return due;
+        });
+    }
+
+    /**
+     * Asks the JDS for the state of a job and stores it on the experiment
+     * @param jobCheck
+     */
+    private void check(JobCheck jobCheck) {
+        JobDeploymentServiceStatusResponse statusResponse = null;
+        try {
+            statusResponse = experimentService.jobStatus(jobCheck.jobId, jobCheck.jobDeploymentServiceUrl).getBody();
+        } catch (Exception e) {
+            logger.warn("======JOB STATUS NOT RETRIEVED====" + jobCheck.experimentId + " " + e.getMessage());
+        }
+
+        Date now = new Date();
+        if (statusResponse == null || statusResponse.getState() == null || statusResponse.getState().isEmpty()) {
+            // keep the last known state and try again later
+            experimentRepository.updateJobStatusNextCheck(Collections.singletonList(jobCheck.experimentId), getNextCheck(now, jobCheck.stateChangedAt));
+            return;
+        }
+
+        String jobState = statusResponse.getState().get(0);
+        Integer jobStatusCode = statusResponse.getStatus() != null && !statusResponse.getStatus().isEmpty() ? statusResponse.getStatus().get(0) : null;
+        String jobMessage = statusResponse.getMessage() != null && !statusResponse.getMessage().isEmpty() ? statusResponse.getMessage().get(0) : null;
+
+        Date stateChangedAt = jobCheck.stateChangedAt;
+        if (!jobState.equals(jobCheck.jobState) || stateChangedAt == null) {
+            logger.info("======JOB STATE CHANGED====" + jobCheck.experimentId + " " + jobCheck.jobState + " -> " + jobState);
+            stateChangedAt = now;
+        }
+
+        experimentRepository.updateJobStatus(jobCheck.experimentId, jobState, jobStatusCode, jobMessage, now, stateChangedAt,
+            getNextCheck(now, stateChangedAt));
+    }
+
+    /**
+     * Next check of a job, a fraction of the time spent in its current state within the configured bounds
+     * @param now
+     * @param stateChangedAt
+     * @return
+     */
+    private Date getNextCheck(Date now, Date stateChangedAt) {
+        long unchangedMillis = stateChangedAt != null ? now.getTime() - stateChangedAt.getTime() : 0;
+        long delayMillis = Math.max(TimeUnit.SECONDS.toMillis(applicationConfigurations.getJobStatusPollMinSeconds()),
+            Math.min(TimeUnit.SECONDS.toMillis(applicationConfigurations.getJobStatusPollMaxSeconds()), unchangedMillis / BACKOFF_DIVISOR));
+        return new Date(now.getTime() + delayMillis);
+    }
+
+    /**
+     * What is needed to check the job of an experiment outside of the transaction that loaded it
+     */
+    private static class JobCheck {
+        private final String experimentId;
+        private final String jobId;
+        private final String jobDeploymentServiceUrl;
+        private final String jobState;
+        private final Date stateChangedAt;
+
+        JobCheck(Experiment experiment) {
+            this.experimentId = experiment.getId();
+            this.jobId = experiment.getJobId();
+            this.jobDeploymentServiceUrl = experiment.getExecutor().getExecutionEnvironmentCommand().getExecutionEnvironment().getHostEndpoint() + "/check/";
+            this.jobState = experiment.getJobState();
+            this.stateChangedAt = experiment.getJobStateChangedAt();
+        }
+    }
+}
@@ -36,6 +36,10 @@ import com.ibm.pmai.models.request.JobDeploymentRequest;
 import com.ibm.pmai.models.response.JobDeploymentResponse;
 import com.ibm.pmai.models.response.JobDeploymentServiceStatusResponse;
 import com.ibm.pmai.taskclerk.services.interfaces.ExperimentService;
+import com.ibm.pmai.taskclerk.utils.TaskClerkMetrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 @Service
 public class ExperimentServiceImpl implements ExperimentService {
@@ -43,6 +47,9 @@ public class ExperimentServiceImpl implements ExperimentService {
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     // Logger
     private static final Logger logger = LoggerFactory.getLogger(ExperimentServiceImpl.class);
 
@@ -53,7 +60,14 @@ public class ExperimentServiceImpl implements ExperimentService {
         headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
         HttpEntity<JobDeploymentRequest> entity = new HttpEntity<>(jobDeploymentRequest, headers);
         restTemplate.setErrorHandler(new MyErrorHandler());
-        return restTemplate.exchange(jobDeploymentServiceUrl, HttpMethod.POST, entity, JobDeploymentResponse.class);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        ResponseEntity<JobDeploymentResponse> response = null;
+        try {
+            response = restTemplate.exchange(jobDeploymentServiceUrl, HttpMethod.POST, entity, JobDeploymentResponse.class);
+            return response;
+        } finally {
+            record(sample, "submit", jobDeploymentServiceUrl, response);
+        }
     }
 
     private static class MyErrorHandler extends DefaultResponseErrorHandler {
@@ -71,6 +85,31 @@ public class ExperimentServiceImpl implements ExperimentService {
         headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
         HttpEntity<String> entity = new HttpEntity<>("parameters", headers);
         restTemplate.setErrorHandler(new MyErrorHandler());
-        return restTemplate.exchange(jobDeploymentServiceUrl + jobId , HttpMethod.GET, entity, JobDeploymentServiceStatusResponse.class);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        ResponseEntity<JobDeploymentServiceStatusResponse> response = null;
+        try {
+            response = restTemplate.exchange(jobDeploymentServiceUrl + jobId , HttpMethod.GET, entity, JobDeploymentServiceStatusResponse.class);
+            return response;
+        } finally {
+            record(sample, "status", jobDeploymentServiceUrl, response);
+        }
+    }
+
+    /**
+     * Records a request to the job deployment service, tagged with the endpoint and the response status or CLIENT_ERROR
+     * when no response was received
+     * @param sample
+     * @param operation
+     * @param jobDeploymentServiceUrl
+     * @param response
+     */
+    private void record(Timer.Sample sample, String operation, String jobDeploymentServiceUrl, ResponseEntity<?> response) {
+        sample.stop(Timer.builder(TaskClerkMetrics.JDS_REQUESTS)
+            .description("Requests to the job deployment service")
+            .tag(TaskClerkMetrics.TAG_OPERATION, operation)
+            .tag(TaskClerkMetrics.TAG_ENDPOINT, TaskClerkMetrics.endpoint(jobDeploymentServiceUrl))
+            .tag("status", response != null ? String.valueOf(response.getStatusCodeValue()) : "CLIENT_ERROR")
+            .tag(TaskClerkMetrics.TAG_OUTCOME, response != null && response.getStatusCode().is2xxSuccessful() ? TaskClerkMetrics.SUCCESS : TaskClerkMetrics.ERROR)
+            .register(meterRegistry));
     }
 }
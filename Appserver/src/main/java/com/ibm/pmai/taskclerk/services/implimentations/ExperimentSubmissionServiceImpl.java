@@ -0,0 +1,256 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.taskclerk.services.implimentations;
+
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
+import com.ibm.pmai.models.core.Experiment;
+import com.ibm.pmai.models.core.ExperimentSubmission;
+import com.ibm.pmai.models.repositories.ExperimentRepository;
+import com.ibm.pmai.models.repositories.ExperimentSubmissionRepository;
+import com.ibm.pmai.models.request.JobDeploymentRequest;
+import com.ibm.pmai.models.response.JobDeploymentResponse;
+import com.ibm.pmai.models.response.JobDeploymentServiceStatusResponse;
+import com.ibm.pmai.taskclerk.configurations.ApplicationConfigurations;
+import com.ibm.pmai.taskclerk.services.interfaces.ExperimentService;
+import com.ibm.pmai.taskclerk.services.interfaces.ExperimentSubmissionService;
+import com.ibm.pmai.taskclerk.utils.Constants;
+import com.ibm.pmai.taskclerk.utils.LocationDataAvailabilityVerifier;
+
+@Service
+public class ExperimentSubmissionServiceImpl implements ExperimentSubmissionService {
+
+    // Logger
+    private static final Logger logger = LoggerFactory.getLogger(ExperimentSubmissionServiceImpl.class);
+
+    private static final Type ARGS_TYPE = new TypeToken<HashMap<String, String>>() { }.getType();
+
+    /**
+     * Claimed submissions are retried after this time if the instance dispatching them dies
+     */
+    private static final long LEASE_MINUTES = 5;
+
+    private ExperimentRepository experimentRepository;
+
+    private ExperimentSubmissionRepository experimentSubmissionRepository;
+
+    private ExperimentService experimentService;
+
+    /**
+     * Application configurations to access property values
+     */
+    private ApplicationConfigurations applicationConfigurations;
+
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Cached checks of the location data required by the experiments
+     */
+    private LocationDataAvailabilityVerifier locationDataAvailabilityVerifier;
+
+    /**
+     * Dispatches right after a submission is committed instead of waiting for the next scheduled run
+     */
+    private final ExecutorService dispatchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "experiment-submission-dispatch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public ExperimentSubmissionServiceImpl(ExperimentRepository experimentRepository, ExperimentSubmissionRepository experimentSubmissionRepository, ExperimentService experimentService, ApplicationConfigurations applicationConfigurations, PlatformTransactionManager transactionManager, LocationDataAvailabilityVerifier locationDataAvailabilityVerifier) {
+        this.experimentRepository = experimentRepository;
+        this.experimentSubmissionRepository = experimentSubmissionRepository;
+        this.experimentService = experimentService;
+        this.applicationConfigurations = applicationConfigurations;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.locationDataAvailabilityVerifier = locationDataAvailabilityVerifier;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatchExecutor.shutdownNow();
+    }
+
+    @Override
+    @Transactional
+    public Experiment submit(Experiment experiment, JsonObject data, JobDeploymentRequest jobDeploymentRequest, String dataBaseUri, String iso2code, String jobDeploymentServiceUrl) {
+        Experiment savedExperiment = experimentRepository.save(experiment);
+
+        // the job needs the id of the experiment it reports its outputs for
+        data.addProperty("experimentID", savedExperiment.getId());
+        JsonObject dataHolder = new JsonObject();
+        dataHolder.addProperty("name", "data");
+        dataHolder.add("value", data);
+        jobDeploymentRequest.getArgs().put("data", dataHolder.toString());
+
+        ExperimentSubmission experimentSubmission = new ExperimentSubmission();
+        experimentSubmission.setAuditValues();
+        experimentSubmission.setExperimentId(savedExperiment.getId());
+        experimentSubmission.setStatus(Constants.TASK_EXECUTION_STATUS.PENDING.toString());
+        experimentSubmission.setDataBaseUri(dataBaseUri);
+        experimentSubmission.setLocationCode(iso2code);
+        experimentSubmission.setJobDeploymentServiceUrl(jobDeploymentServiceUrl);
+        experimentSubmission.setJobType(jobDeploymentRequest.getType());
+        experimentSubmission.setArgs(new Gson().toJson(jobDeploymentRequest.getArgs()));
+        experimentSubmission.setNextAttemptAt(new Date());
+        experimentSubmissionRepository.save(experimentSubmission);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                dispatchExecutor.execute(() -> dispatchDueSubmissions());
+            }
+        });
+        return savedExperiment;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.submission_dispatch_interval_ms:5000}")
+    public void dispatchDueSubmissions() {
+        for (int dispatched = 0; dispatched < applicationConfigurations.getSubmissionBatchSize(); dispatched++) {
+            ExperimentSubmission experimentSubmission = claimNextDueSubmission();
+            if (experimentSubmission == null) {
+                return;
+            }
+            dispatch(experimentSubmission);
+        }
+        // more submissions may be due, keep going off the scheduler thread
+        if (!dispatchExecutor.isShutdown()) {
+            dispatchExecutor.execute(this::dispatchDueSubmissions);
+        }
+    }
+
+    @Override
+    public JobDeploymentServiceStatusResponse getSubmissionStatus(String experimentId) {
+        ExperimentSubmission experimentSubmission = experimentSubmissionRepository.getByExperimentId(experimentId);
+        if (experimentSubmission == null) {
+            return null;
+        }
+        JobDeploymentServiceStatusResponse statusResponse = new JobDeploymentServiceStatusResponse();
+        if (experimentSubmission.getStatus().equals(Constants.TASK_EXECUTION_STATUS.FAILED.toString())) {
+            statusResponse.setStatus(Collections.singletonList(500));
+            statusResponse.setState(Collections.singletonList("failed"));
+            statusResponse.setMessage(Collections.singletonList("Submission failed: " + experimentSubmission.getLastError()));
+        } else {
+            statusResponse.setStatus(Collections.singletonList(202));
+            statusResponse.setState(Collections.singletonList("pending"));
+            statusResponse.setMessage(Collections.singletonList("Experiment is queued for submission ("
+                + experimentSubmission.getAttempts() + " attempts so far)."));
+        }
+        return statusResponse;
+    }
+
+    /**
+     * Locks the next due submission and leases it to this instance. Only one submission is leased at a time, so a
+     * lease never has to outlast more than one call to the JDS.
+     * @return the claimed submission or null if none is due
+     */
+    private ExperimentSubmission claimNextDueSubmission() {
+        return transactionTemplate.execute(status -> {
+            Date now = new Date();
+            List<ExperimentSubmission> due = experimentSubmissionRepository.findDueForUpdate(
+                Constants.TASK_EXECUTION_STATUS.PENDING.toString(), now, 1);
+            if (due.isEmpty()) {
+                return null;
+            }
+            ExperimentSubmission experimentSubmission = due.get(0);
+            experimentSubmission.setNextAttemptAt(new Date(now.getTime() + TimeUnit.MINUTES.toMillis(LEASE_MINUTES)));
+            return experimentSubmissionRepository.save(experimentSubmission);
+        });
+    }
+
+    /**
+     * Validates and submits a claimed submission, scheduling a retry with exponential backoff when it fails. Missing
+     * location data fails the submission right away, retrying cannot make it appear.
+     * @param experimentSubmission
+     */
+    private void dispatch(ExperimentSubmission experimentSubmission) {
+        experimentSubmission.setAttempts(experimentSubmission.getAttempts() + 1);
+        boolean permanent = false;
+        try {
+            LocationDataAvailabilityVerifier.Availability availability = locationDataAvailabilityVerifier.check(
+                experimentSubmission.getDataBaseUri(), experimentSubmission.getLocationCode());
+            if (availability != LocationDataAvailabilityVerifier.Availability.AVAILABLE) {
+                permanent = availability == LocationDataAvailabilityVerifier.Availability.MISSING;
+                throw new IllegalStateException("Model data for location " + experimentSubmission.getLocationCode()
+                    + (permanent ? " missing at " : " could not be checked at ")
+                    + LocationDataAvailabilityVerifier.getDataUrl(experimentSubmission.getDataBaseUri(), experimentSubmission.getLocationCode()));
+            }
+
+            JobDeploymentRequest jobDeploymentRequest = new JobDeploymentRequest();
+            jobDeploymentRequest.setType(experimentSubmission.getJobType());
+            jobDeploymentRequest.setArgs(new Gson().fromJson(experimentSubmission.getArgs(), ARGS_TYPE));
+
+            // post the experiment to the JDS
+            JobDeploymentResponse jobDeploymentResponse = experimentService.postJDS(jobDeploymentRequest, experimentSubmission.getJobDeploymentServiceUrl()).getBody();
+            if (jobDeploymentResponse == null || jobDeploymentResponse.getJob_id() == null) {
+                throw new IllegalStateException("Job deployment service returned no job id"
+                    + (jobDeploymentResponse != null ? ": " + jobDeploymentResponse.getMessage() : ""));
+            }
+
+            // update the experiment with the job id
+            Experiment experiment = experimentRepository.getById(experimentSubmission.getExperimentId());
+            if (experiment != null) {
+                experiment.setJobId(jobDeploymentResponse.getJob_id());
+                experiment.setUpdatedAt(new Date());
+                experimentRepository.save(experiment);
+            }
+
+            experimentSubmission.setStatus(Constants.TASK_EXECUTION_STATUS.SUBMITTED.toString());
+            experimentSubmission.setLastError(null);
+            logger.info("======EXPERIMENT SUBMITTED====" + experimentSubmission.getExperimentId() + " job " + jobDeploymentResponse.getJob_id());
+
+        } catch (Exception e) {
+            experimentSubmission.setLastError(e.getMessage());
+            if (permanent || experimentSubmission.getAttempts() >= applicationConfigurations.getSubmissionMaxAttempts()) {
+                experimentSubmission.setStatus(Constants.TASK_EXECUTION_STATUS.FAILED.toString());
+                logger.error("======EXPERIMENT SUBMISSION FAILED====" + experimentSubmission.getExperimentId() + " " + e.getMessage());
+            } else {
+                long delaySeconds = Math.min(applicationConfigurations.getSubmissionRetryMaxSeconds(),
+                    applicationConfigurations.getSubmissionRetryBaseSeconds() << Math.min(experimentSubmission.getAttempts() - 1, 20));
+                experimentSubmission.setNextAttemptAt(new Date(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(delaySeconds)));
+                logger.warn("======EXPERIMENT SUBMISSION RETRY IN " + delaySeconds + "s====" + experimentSubmission.getExperimentId() + " " + e.getMessage());
+            }
+        }
+        experimentSubmission.setUpdatedAt(new Date());
+        experimentSubmissionRepository.save(experimentSubmission);
+    }
+}
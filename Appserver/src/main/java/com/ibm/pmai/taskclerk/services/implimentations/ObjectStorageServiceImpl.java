@@ -0,0 +1,243 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.taskclerk.services.implimentations;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.ibm.cloud.objectstorage.services.s3.AmazonS3;
+import com.ibm.cloud.objectstorage.services.s3.model.AbortMultipartUploadRequest;
+import com.ibm.cloud.objectstorage.services.s3.model.CompleteMultipartUploadRequest;
+import com.ibm.cloud.objectstorage.services.s3.model.InitiateMultipartUploadRequest;
+import com.ibm.cloud.objectstorage.services.s3.model.ObjectMetadata;
+import com.ibm.cloud.objectstorage.services.s3.model.PartETag;
+import com.ibm.cloud.objectstorage.services.s3.model.PutObjectRequest;
+import com.ibm.cloud.objectstorage.services.s3.model.S3Object;
+import com.ibm.cloud.objectstorage.services.s3.model.S3ObjectInputStream;
+import com.ibm.cloud.objectstorage.services.s3.model.UploadPartRequest;
+import com.ibm.pmai.models.core.DataRepositoryConfiguration;
+import com.ibm.pmai.taskclerk.configurations.ApplicationConfigurations;
+import com.ibm.pmai.taskclerk.services.interfaces.ObjectStorageService;
+import com.ibm.pmai.taskclerk.utils.CosClientRegistry;
+import com.ibm.pmai.taskclerk.utils.TaskClerkMetrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@Service
+public class ObjectStorageServiceImpl implements ObjectStorageService {
+
+    /**
+     * Logger declaration
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ObjectStorageServiceImpl.class);
+
+    /**
+     * Largest number of parts COS accepts in a multipart upload
+     */
+    private static final long MAX_PARTS = 10000;
+
+    private CosClientRegistry cosClientRegistry;
+
+    /**
+     * Application configurations to access property values
+     */
+    private ApplicationConfigurations applicationConfigurations;
+
+    /**
+     * Uploads the parts of multipart uploads. Parts are read from the spooled file by the SDK, so the heap used by
+     * uploads is bounded by the number of threads rather than by the size of the files.
+     */
+    private ExecutorService partUploadExecutor;
+
+    /**
+     * Registry of the COS request timers
+     */
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    public ObjectStorageServiceImpl(CosClientRegistry cosClientRegistry, ApplicationConfigurations applicationConfigurations, MeterRegistry meterRegistry) {
+        this.cosClientRegistry = cosClientRegistry;
+        this.applicationConfigurations = applicationConfigurations;
+        this.meterRegistry = meterRegistry;
+        this.partUploadExecutor = Executors.newFixedThreadPool(Math.max(1, applicationConfigurations.getCosUploadConcurrency()), runnable -> {
+            Thread thread = new Thread(runnable, "cos-part-upload");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        partUploadExecutor.shutdownNow();
+    }
+
+    /**
+     * Downloads are timed until the response headers are received, the body is streamed by the caller
+     */
+    @Override
+    public S3ObjectInputStream download(DataRepositoryConfiguration dataRepositoryConfiguration, String key) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = TaskClerkMetrics.ERROR;
+        try {
+            CosClientRegistry.CosClient client = cosClientRegistry.getClient(dataRepositoryConfiguration);
+            S3ObjectInputStream inputStream = client.getAmazonS3().getObject(client.getBucketName(), key).getObjectContent();
+            outcome = TaskClerkMetrics.SUCCESS;
+            return inputStream;
+        } finally {
+            record(sample, "download", outcome);
+        }
+    }
+
+    @Override
+    public S3Object getObject(DataRepositoryConfiguration dataRepositoryConfiguration, String key) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = TaskClerkMetrics.ERROR;
+        try {
+            CosClientRegistry.CosClient client = cosClientRegistry.getClient(dataRepositoryConfiguration);
+            S3Object s3Object = client.getAmazonS3().getObject(client.getBucketName(), key);
+            outcome = TaskClerkMetrics.SUCCESS;
+            return s3Object;
+        } finally {
+            record(sample, "download", outcome);
+        }
+    }
+
+    @Override
+    public String upload(DataRepositoryConfiguration dataRepositoryConfiguration, String key, String contentType, File file) throws Exception {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = TaskClerkMetrics.ERROR;
+        String operation = "put";
+        try {
+            CosClientRegistry.CosClient client = cosClientRegistry.getClient(dataRepositoryConfiguration);
+            long length = file.length();
+            long partSize = Math.max(applicationConfigurations.getCosUploadPartSizeMb() * 1024L * 1024L, (length + MAX_PARTS - 1) / MAX_PARTS);
+            if (length > partSize) {
+                operation = "multipart_upload";
+            }
+            String eTag = upload(client, key, contentType, file, length, partSize);
+            outcome = TaskClerkMetrics.SUCCESS;
+            return eTag;
+        } finally {
+            record(sample, operation, outcome);
+        }
+    }
+
+    private String upload(CosClientRegistry.CosClient client, String key, String contentType, File file, long length, long partSize) throws Exception {
+        AmazonS3 amazonS3 = client.getAmazonS3();
+        String bucketName = client.getBucketName();
+
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentType(contentType);
+
+        if (length <= partSize) {
+            metadata.setContentLength(length);
+            return amazonS3.putObject(new PutObjectRequest(bucketName, key, file).withMetadata(metadata)).getETag();
+        }
+
+        String uploadId = amazonS3.initiateMultipartUpload(new InitiateMultipartUploadRequest(bucketName, key, metadata)).getUploadId();
+        logger.info("======MULTIPART UPLOAD OF " + key + " (" + length + " BYTES) STARTED====" + uploadId);
+
+        List<Future<PartETag>> parts = new ArrayList<>();
+        AtomicBoolean aborted = new AtomicBoolean(false);
+        try {
+            int partNumber = 1;
+            for (long offset = 0; offset < length; offset += partSize, partNumber++) {
+                UploadPartRequest uploadPartRequest = new UploadPartRequest()
+                    .withBucketName(bucketName)
+                    .withKey(key)
+                    .withUploadId(uploadId)
+                    .withPartNumber(partNumber)
+                    .withFile(file)
+                    .withFileOffset(offset)
+                    .withPartSize(Math.min(partSize, length - offset))
+                    .withLastPart(offset + partSize >= length);
+                parts.add(partUploadExecutor.submit(() -> aborted.get() ? null : amazonS3.uploadPart(uploadPartRequest).getPartETag()));
+            }
+
+            List<PartETag> partETags = new ArrayList<>(parts.size());
+            for (Future<PartETag> part : parts) {
+                partETags.add(part.get());
+            }
+            return amazonS3.completeMultipartUpload(new CompleteMultipartUploadRequest(bucketName, key, uploadId, partETags)).getETag();
+
+        } catch (Exception e) {
+            Exception failure = e instanceof ExecutionException && e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            boolean interrupted = e instanceof InterruptedException;
+
+            // parts not started yet are skipped, parts in flight could be stored after the abort so they are waited for
+            aborted.set(true);
+            logger.info("======MULTIPART UPLOAD OF " + key + " FAILED, ABORTING====" + uploadId);
+            interrupted |= awaitParts(parts);
+            try {
+                amazonS3.abortMultipartUpload(new AbortMultipartUploadRequest(bucketName, key, uploadId));
+            } catch (Exception abortFailure) {
+                logger.warn("======MULTIPART UPLOAD OF " + key + " NOT ABORTED====" + uploadId + " " + abortFailure.getMessage());
+                failure.addSuppressed(abortFailure);
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            throw failure;
+        }
+    }
+
+    /**
+     * Waits until every part upload has finished, whatever its outcome
+     * @param parts
+     * @return whether the wait was interrupted
+     */
+    private static boolean awaitParts(List<Future<PartETag>> parts) {
+        boolean interrupted = false;
+        for (Future<PartETag> part : parts) {
+            while (true) {
+                try {
+                    part.get();
+                    break;
+                } catch (InterruptedException e) {
+                    // the abort must not race the parts, keep waiting and restore the interrupt afterwards
+                    interrupted = true;
+                } catch (ExecutionException | CancellationException e) {
+                    break;
+                }
+            }
+        }
+        return interrupted;
+    }
+
+    private void record(Timer.Sample sample, String operation, String outcome) {
+        sample.stop(Timer.builder(TaskClerkMetrics.COS_REQUESTS)
+            .description("Requests to the cloud object storage")
+            .tag(TaskClerkMetrics.TAG_OPERATION, operation)
+            .tag(TaskClerkMetrics.TAG_OUTCOME, outcome)
+            .register(meterRegistry));
+    }
+}
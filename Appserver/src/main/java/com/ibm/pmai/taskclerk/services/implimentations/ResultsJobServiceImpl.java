@@ -0,0 +1,402 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ibm.pmai.taskclerk.services.implimentations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ibm.pmai.models.core.ResultsJob;
+import com.ibm.pmai.models.core.ResultsRequest;
+import com.ibm.pmai.models.repositories.ResultsJobRepository;
+import com.ibm.pmai.models.repositories.ResultsRequestRepository;
+import com.ibm.pmai.taskclerk.configurations.ApplicationConfigurations;
+import com.ibm.pmai.taskclerk.exceptions.ResultsJobRejectedException;
+import com.ibm.pmai.taskclerk.services.interfaces.ResultsJobService;
+import com.ibm.pmai.taskclerk.utils.Constants;
+import com.ibm.pmai.taskclerk.utils.TaskClerkMetrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Runs the results jobs from a queue stored in the database. Jobs are started on a bounded pool once a worker is
+ * free, interactive jobs ahead of bulk jobs, which may only take part of the workers, and never more than the
+ * configured number of jobs of a user at a time. Submissions are rejected while their lane or their user has too
+ * many queued jobs.
+ */
+@Service
+public class ResultsJobServiceImpl implements ResultsJobService {
+
+    // Logger
+    private static final Logger logger = LoggerFactory.getLogger(ResultsJobServiceImpl.class);
+
+    /**
+     * Claimed jobs are started again by any instance after this time if the instance running them dies
+     */
+    private static final long LEASE_MINUTES = 5;
+
+    /**
+     * The leases of the running jobs are renewed this often, well within the lease so a slow renewal does not lose them
+     */
+    private static final long LEASE_RENEWAL_MINUTES = 1;
+
+    /**
+     * Queued jobs looked at per lane and dispatch, enough to get past the jobs of users at their cap
+     */
+    private static final int CLAIM_SCAN_LIMIT = 100;
+
+    private static final String QUEUED = Constants.TASK_EXECUTION_STATUS.PENDING.toString();
+
+    private static final String RUNNING = Constants.TASK_EXECUTION_STATUS.IN_PROGRESS.toString();
+
+    private ResultsRequestRepository resultsRequestRepository;
+
+    private ResultsJobRepository resultsJobRepository;
+
+    private JobLauncher jobLauncher;
+
+    private Job fetchTaskExecutionResult;
+
+    /**
+     * Bounded pool the jobs run on
+     */
+    private TaskExecutor resultsJobExecutor;
+
+    /**
+     * Application configurations to access property values
+     */
+    private ApplicationConfigurations applicationConfigurations;
+
+    private TransactionTemplate transactionTemplate;
+
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Lanes of the jobs running on this instance by job id
+     */
+    private final Map<String, Constants.RESULTS_JOB_LANES> runningJobs = new ConcurrentHashMap<>();
+
+    /**
+     * Queued jobs per lane over all instances, refreshed on every dispatch
+     */
+    private final Map<Constants.RESULTS_JOB_LANES, AtomicLong> queuedJobs = new EnumMap<>(Constants.RESULTS_JOB_LANES.class);
+
+    /**
+     * Dispatches right after a submission is committed or a job finished instead of waiting for the next scheduled run
+     */
+    private final ExecutorService dispatchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "results-job-dispatch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Renews the leases of the running jobs on its own thread so they do not expire while the scheduler threads are busy
+     */
+    private final ScheduledExecutorService leaseRenewalExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "results-job-lease-renewal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public ResultsJobServiceImpl(ResultsRequestRepository resultsRequestRepository, ResultsJobRepository resultsJobRepository, @Qualifier("resultsJobLauncher") JobLauncher jobLauncher,
+                                 Job fetchTaskExecutionResult, @Qualifier("resultsJobExecutor") TaskExecutor resultsJobExecutor, ApplicationConfigurations applicationConfigurations,
+                                 PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.resultsRequestRepository = resultsRequestRepository;
+        this.resultsJobRepository = resultsJobRepository;
+        this.jobLauncher = jobLauncher;
+        this.fetchTaskExecutionResult = fetchTaskExecutionResult;
+        this.resultsJobExecutor = resultsJobExecutor;
+        this.applicationConfigurations = applicationConfigurations;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+
+        for (Constants.RESULTS_JOB_LANES lane : Constants.RESULTS_JOB_LANES.values()) {
+            queuedJobs.put(lane, new AtomicLong());
+            Gauge.builder(TaskClerkMetrics.RESULTS_JOBS_QUEUED, queuedJobs.get(lane), AtomicLong::get)
+                .description("Results jobs waiting for a worker on any instance")
+                .tag(TaskClerkMetrics.TAG_LANE, lane.name())
+                .register(meterRegistry);
+            Gauge.builder(TaskClerkMetrics.RESULTS_JOBS_RUNNING, runningJobs, jobs -> countRunning(lane))
+                .description("Results jobs running on this instance")
+                .tag(TaskClerkMetrics.TAG_LANE, lane.name())
+                .register(meterRegistry);
+        }
+
+        leaseRenewalExecutor.scheduleWithFixedDelay(this::renewLeases, LEASE_RENEWAL_MINUTES, LEASE_RENEWAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        leaseRenewalExecutor.shutdownNow();
+        dispatchExecutor.shutdownNow();
+    }
+
+    @Override
+    @Transactional
+    public ResultsRequest submit(ResultsRequest resultsRequest, String userId, Constants.RESULTS_JOB_LANES lane) throws ResultsJobRejectedException {
+        // admission is checked on committed rows, concurrent submissions may overshoot the limits by a few jobs
+        int queueMax = lane == Constants.RESULTS_JOB_LANES.BULK
+            ? applicationConfigurations.getResultsJobBulkQueueMax() : applicationConfigurations.getResultsJobInteractiveQueueMax();
+        if (resultsJobRepository.countByStatusAndLane(QUEUED, lane.name()) >= queueMax) {
+            throw reject(lane, "queue_full", "Too many queued " + lane.name().toLowerCase() + " results requests",
+                lane == Constants.RESULTS_JOB_LANES.BULK ? applicationConfigurations.getResultsJobBulkConcurrency() : applicationConfigurations.getResultsJobConcurrency());
+        }
+        if (resultsJobRepository.countByUserId(userId) >= applicationConfigurations.getResultsJobUserQueueMax()) {
+            throw reject(lane, "user_limit", "Too many pending results requests of user " + userId,
+                applicationConfigurations.getResultsJobUserConcurrency());
+        }
+
+        ResultsRequest savedResultsRequest = resultsRequestRepository.save(resultsRequest);
+
+        ResultsJob resultsJob = new ResultsJob();
+        resultsJob.setAuditValues();
+        resultsJob.setResultRequestId(savedResultsRequest.getId());
+        resultsJob.setUserId(userId);
+        resultsJob.setLane(lane.name());
+        resultsJob.setStatus(QUEUED);
+        resultsJob.setEnqueuedAt(new Date());
+        resultsJobRepository.save(resultsJob);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                dispatchExecutor.execute(() -> dispatchQueuedJobs());
+            }
+        });
+        return savedResultsRequest;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.results_job_dispatch_interval_ms:5000}")
+    public synchronized void dispatchQueuedJobs() {
+        Date now = new Date();
+        Date leaseUntil = new Date(now.getTime() + TimeUnit.MINUTES.toMillis(LEASE_MINUTES));
+
+        int requeued = resultsJobRepository.requeueExpired(RUNNING, QUEUED, now);
+        if (requeued > 0) {
+            logger.warn("======REQUEUED " + requeued + " RESULTS JOBS WITH AN EXPIRED LEASE====");
+        }
+
+        for (ResultsJob resultsJob : claimQueuedJobs(now, leaseUntil)) {
+            start(resultsJob);
+        }
+
+        for (Constants.RESULTS_JOB_LANES lane : Constants.RESULTS_JOB_LANES.values()) {
+            queuedJobs.get(lane).set(resultsJobRepository.countByStatusAndLane(QUEUED, lane.name()));
+        }
+    }
+
+    /**
+     * Extends the leases of the jobs running on this instance, an exception must not stop the renewals that follow
+     */
+    void renewLeases() {
+        if (runningJobs.isEmpty()) {
+            return;
+        }
+        try {
+            Date leaseUntil = new Date(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(LEASE_MINUTES));
+            resultsJobRepository.renewLeases(new ArrayList<>(runningJobs.keySet()), leaseUntil);
+        } catch (Exception e) {
+            logger.error("======RESULTS JOB LEASES NOT RENEWED====" + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isPending(String resultRequestId) {
+        return resultsJobRepository.existsByResultRequestId(resultRequestId);
+    }
+
+    /**
+     * Locks the oldest queued jobs of each lane and leases as many of them to this instance as there are free slots
+     * @param now
+     * @param leaseUntil
+     * @return
+     */
+    private List<ResultsJob> claimQueuedJobs(Date now, Date leaseUntil) {
+        int free = applicationConfigurations.getResultsJobConcurrency() - runningJobs.size();
+        if (free <= 0) {
+            return Collections.emptyList();
+        }
+        return transactionTemplate.execute(status -> {
+            // running jobs per user over all instances
+            Map<String, Long> userJobs = new HashMap<>();
+            for (Object[] row : resultsJobRepository.countByStatusGroupByUserId(RUNNING)) {
+                userJobs.put((String) row[0], ((Number) row[1]).longValue());
+            }
+
+            List<ResultsJob> claimed = new ArrayList<>();
+            for (Constants.RESULTS_JOB_LANES lane : Constants.RESULTS_JOB_LANES.values()) {
+                int laneFree = free - claimed.size();
+                if (lane == Constants.RESULTS_JOB_LANES.BULK) {
+                    laneFree = Math.min(laneFree, applicationConfigurations.getResultsJobBulkConcurrency() - countRunning(lane));
+                }
+                if (laneFree <= 0) {
+                    continue;
+                }
+                for (ResultsJob resultsJob : resultsJobRepository.findQueuedForUpdate(QUEUED, lane.name(), CLAIM_SCAN_LIMIT)) {
+                    long running = userJobs.getOrDefault(resultsJob.getUserId(), 0L);
+                    if (running >= applicationConfigurations.getResultsJobUserConcurrency()) {
+                        continue;
+                    }
+                    userJobs.put(resultsJob.getUserId(), running + 1);
+                    resultsJob.setStatus(RUNNING);
+                    resultsJob.setStartedAt(now);
+                    resultsJob.setLeaseUntil(leaseUntil);
+                    resultsJob.setUpdatedAt(now);
+                    claimed.add(resultsJob);
+                    if (--laneFree == 0) {
+                        break;
+                    }
+                }
+            }
+            return resultsJobRepository.saveAll(claimed);
+        });
+    }
+
+    /**
+     * Hands a claimed job to the pool, putting it back in the queue if the pool does not take it
+     * @param resultsJob
+     */
+    private void start(ResultsJob resultsJob) {
+        Constants.RESULTS_JOB_LANES lane = Constants.RESULTS_JOB_LANES.valueOf(resultsJob.getLane());
+        runningJobs.put(resultsJob.getId(), lane);
+        try {
+            resultsJobExecutor.execute(() -> run(resultsJob, lane));
+        } catch (TaskRejectedException e) {
+            runningJobs.remove(resultsJob.getId());
+            resultsJob.setStatus(QUEUED);
+            resultsJob.setStartedAt(null);
+            resultsJob.setLeaseUntil(null);
+            resultsJobRepository.save(resultsJob);
+            logger.warn("======RESULTS JOB REQUEUED====" + resultsJob.getResultRequestId() + " " + e.getMessage());
+            return;
+        }
+        Timer.builder(TaskClerkMetrics.RESULTS_JOBS_WAIT)
+            .description("Time the results jobs spent in the queue")
+            .tag(TaskClerkMetrics.TAG_LANE, lane.name())
+            .register(meterRegistry)
+            .record(resultsJob.getStartedAt().getTime() - resultsJob.getEnqueuedAt().getTime(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs the job of a results request on the calling worker and removes it from the queue
+     * @param resultsJob
+     * @param lane
+     */
+    private void run(ResultsJob resultsJob, Constants.RESULTS_JOB_LANES lane) {
+        long started = System.nanoTime();
+        String outcome = TaskClerkMetrics.ERROR;
+        try {
+            JobParameters jobParameters = new JobParametersBuilder()
+                .addString("resultRequestId", resultsJob.getResultRequestId()).addLong("epoch", System.currentTimeMillis())
+                .toJobParameters();
+            JobExecution jobExecution = jobLauncher.run(fetchTaskExecutionResult, jobParameters);
+            outcome = jobExecution.getStatus() == BatchStatus.COMPLETED ? TaskClerkMetrics.SUCCESS : jobExecution.getStatus().toString().toLowerCase();
+            logger.info("======RESULTS JOB " + jobExecution.getStatus() + "====" + resultsJob.getResultRequestId());
+        } catch (Exception e) {
+            logger.error("======RESULTS JOB NOT STARTED====" + resultsJob.getResultRequestId() + " " + e.getMessage());
+        } finally {
+            try {
+                resultsJobRepository.deleteById(resultsJob.getId());
+            } catch (Exception e) {
+                // the job runs again once its lease expired
+                logger.error("======RESULTS JOB NOT DEQUEUED====" + resultsJob.getResultRequestId() + " " + e.getMessage());
+            }
+            runningJobs.remove(resultsJob.getId());
+            Timer.builder(TaskClerkMetrics.RESULTS_JOBS_DURATION)
+                .description("Run time of the results jobs")
+                .tag(TaskClerkMetrics.TAG_LANE, lane.name())
+                .tag(TaskClerkMetrics.TAG_OUTCOME, outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            if (!dispatchExecutor.isShutdown()) {
+                dispatchExecutor.execute(() -> dispatchQueuedJobs());
+            }
+        }
+    }
+
+    /**
+     * Counts the rejection and estimates when a slot frees up from the average run time of the jobs
+     * @param lane
+     * @param reason
+     * @param message
+     * @param slots jobs that run in parallel and free up the rejected slot
+     * @return
+     */
+    private ResultsJobRejectedException reject(Constants.RESULTS_JOB_LANES lane, String reason, String message, int slots) {
+        meterRegistry.counter(TaskClerkMetrics.RESULTS_JOBS_REJECTED, TaskClerkMetrics.TAG_LANE, lane.name(), "reason", reason).increment();
+
+        double totalSeconds = 0;
+        long count = 0;
+        for (Timer timer : meterRegistry.find(TaskClerkMetrics.RESULTS_JOBS_DURATION).timers()) {
+            totalSeconds += timer.totalTime(TimeUnit.SECONDS);
+            count += timer.count();
+        }
+        long estimate = count == 0 ? 0 : (long) Math.ceil(totalSeconds / count / Math.max(1, slots));
+        long retryAfterSeconds = Math.max(applicationConfigurations.getResultsJobRetryAfterSeconds(), estimate);
+
+        logger.warn("======RESULTS JOB REJECTED, RETRY AFTER " + retryAfterSeconds + "s====" + message);
+        return new ResultsJobRejectedException(message + ", retry after " + retryAfterSeconds + " seconds", retryAfterSeconds);
+    }
+
+    private int countRunning(Constants.RESULTS_JOB_LANES lane) {
+        int running = 0;
+        for (Constants.RESULTS_JOB_LANES runningLane : runningJobs.values()) {
+            if (runningLane == lane) {
+                running++;
+            }
+        }
+        return running;
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.taskclerk.services.interfaces;
+
+import com.ibm.pmai.models.core.Experiment;
+import com.ibm.pmai.models.response.JobDeploymentServiceStatusResponse;
+
+public interface ExperimentJobStatusService {
+    // poll the JDS for the jobs that are due for a status check and store their state on the experiments
+    void synchroniseDueJobStatuses();
+
+    // last known status of the job of an experiment, in the format of the JDS status
+    JobDeploymentServiceStatusResponse getJobStatus(Experiment experiment);
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.taskclerk.services.interfaces;
+
+import com.google.gson.JsonObject;
+import com.ibm.pmai.models.core.Experiment;
+import com.ibm.pmai.models.request.JobDeploymentRequest;
+import com.ibm.pmai.models.response.JobDeploymentServiceStatusResponse;
+
+public interface ExperimentSubmissionService {
+    // save an experiment together with the outbox entry that submits it to the JDS in the background
+    Experiment submit(Experiment experiment, JsonObject data, JobDeploymentRequest jobDeploymentRequest, String dataBaseUri, String iso2code, String jobDeploymentServiceUrl);
+
+    // submit the outbox entries that are due
+    void dispatchDueSubmissions();
+
+    // state of the submission of an experiment that has no job yet, in the format of the JDS status
+    JobDeploymentServiceStatusResponse getSubmissionStatus(String experimentId);
+}
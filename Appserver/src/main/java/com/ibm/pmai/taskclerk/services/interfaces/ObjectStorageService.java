@@ -0,0 +1,34 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.taskclerk.services.interfaces;
+
+import java.io.File;
+
+import com.ibm.cloud.objectstorage.services.s3.model.S3Object;
+import com.ibm.cloud.objectstorage.services.s3.model.S3ObjectInputStream;
+import com.ibm.pmai.models.core.DataRepositoryConfiguration;
+
+public interface ObjectStorageService {
+    // download an object from the bucket of a data repository
+    S3ObjectInputStream download(DataRepositoryConfiguration dataRepositoryConfiguration, String key);
+
+    // download an object together with its length and etag
+    S3Object getObject(DataRepositoryConfiguration dataRepositoryConfiguration, String key);
+
+    // upload a file to the bucket of a data repository, large files are sent as parallel multipart uploads; returns the etag
+    String upload(DataRepositoryConfiguration dataRepositoryConfiguration, String key, String contentType, File file) throws Exception;
+}
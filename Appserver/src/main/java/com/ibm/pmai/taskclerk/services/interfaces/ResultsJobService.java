@@ -0,0 +1,33 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ibm.pmai.taskclerk.services.interfaces;
+
+import com.ibm.pmai.models.core.ResultsRequest;
+import com.ibm.pmai.taskclerk.exceptions.ResultsJobRejectedException;
+import com.ibm.pmai.taskclerk.utils.Constants;
+
+public interface ResultsJobService {
+    // save a results request together with the queue entry of the job that fetches its results, unless its lane or its user has too many queued jobs
+    ResultsRequest submit(ResultsRequest resultsRequest, String userId, Constants.RESULTS_JOB_LANES lane) throws ResultsJobRejectedException;
+
+    // start the queued jobs that have a free worker, lane and user slot
+    void dispatchQueuedJobs();
+
+    // whether the job of a results request is queued or running
+    boolean isPending(String resultRequestId);
+}
@@ -16,6 +16,8 @@
 
 package com.ibm.pmai.taskclerk.utils;
 
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Used to store constants in the project
@@ -124,6 +126,42 @@ public class Constants {
         _DATA_BOUNDARY_TWO,
     }
 
+    /**
+     * Priority lanes of the results jobs, interactive jobs are dispatched before bulk jobs
+     */
+    public enum RESULTS_JOB_LANES {
+        INTERACTIVE,
+        BULK,
+    }
+
+    /**
+     * Request attribute holding the subject of the validated token, set by the authentication interceptor
+     */
+    public static final String AUTHENTICATED_USER = "taskclerk.authenticatedUser";
+
+    /**
+     * Owner of the results jobs submitted without a user
+     */
+    public static final String ANONYMOUS_USER = "anonymous";
+
+
+    /**
+     * Job states reported by the JDS
+     */
+    public static final String JOB_STATE_SUCCEEDED = "succeeded";
+    public static final String JOB_STATE_FAILED = "failed";
+    public static final String JOB_STATE_NOT_FOUND = "not_found";
+
+    /**
+     * Reported for a job that was accepted by the JDS but not checked yet
+     */
+    public static final String JOB_STATE_PENDING = "pending";
+
+    /**
+     * Job states that do not change anymore, jobs in these states are no longer polled
+     */
+    public static final List<String> FINAL_JOB_STATES = Arrays.asList(JOB_STATE_SUCCEEDED, JOB_STATE_FAILED, JOB_STATE_NOT_FOUND);
+
 
     public static final String FILE_CSV = "csv";
     public static final String FILE_JSON = "json";
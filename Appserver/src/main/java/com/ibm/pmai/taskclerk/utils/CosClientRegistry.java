@@ -0,0 +1,229 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.taskclerk.utils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.ibm.cloud.objectstorage.ClientConfiguration;
+import com.ibm.cloud.objectstorage.auth.AWSCredentials;
+import com.ibm.cloud.objectstorage.auth.AWSStaticCredentialsProvider;
+import com.ibm.cloud.objectstorage.client.builder.AwsClientBuilder;
+import com.ibm.cloud.objectstorage.oauth.BasicIBMOAuthCredentials;
+import com.ibm.cloud.objectstorage.oauth.DefaultTokenManager;
+import com.ibm.cloud.objectstorage.oauth.DefaultTokenProvider;
+import com.ibm.cloud.objectstorage.services.s3.AmazonS3;
+import com.ibm.cloud.objectstorage.services.s3.AmazonS3ClientBuilder;
+import com.ibm.pmai.models.core.DataRepositoryConfiguration;
+import com.ibm.pmai.taskclerk.configurations.ApplicationConfigurations;
+
+/**
+ * Keeps one COS client per data repository configuration. Clients are thread safe, own a pooled connection manager
+ * and a token manager that caches the IAM token until it expires, so they are shared by all downloads and uploads of
+ * a configuration. A client is rebuilt when the credentials of its configuration change and released when idle.
+ */
+@Component
+public class CosClientRegistry {
+
+    /**
+     * Logger declaration
+     */
+    private static final Logger logger = LoggerFactory.getLogger(CosClientRegistry.class);
+
+    /**
+     * Decrypted credentials
+     */
+    private CredentialsCache credentialsCache;
+
+    /**
+     * Application configurations to access property values
+     */
+    private ApplicationConfigurations applicationConfigurations;
+
+    private final Map<String, CosClient> clients = new ConcurrentHashMap<>();
+
+    /**
+     * Replaced or evicted clients, shut down once requests that may still use them had time to finish. A request may
+     * have looked a client up right before it was retired, so the grace period starts at the retirement.
+     */
+    private final List<CosClient> retiredClients = new ArrayList<>();
+
+    @Autowired
+    public CosClientRegistry(CredentialsCache credentialsCache, ApplicationConfigurations applicationConfigurations) {
+        this.credentialsCache = credentialsCache;
+        this.applicationConfigurations = applicationConfigurations;
+    }
+
+    /**
+     * Returns the client of a data repository configuration, building it on first use or when its credentials changed
+     * @param dataRepositoryConfiguration
+     * @return
+     */
+    public CosClient getClient(DataRepositoryConfiguration dataRepositoryConfiguration) {
+        String key = dataRepositoryConfiguration.getId() != null ? dataRepositoryConfiguration.getId() : dataRepositoryConfiguration.getName();
+        String credentials = dataRepositoryConfiguration.getCredentials();
+
+        CosClient client = clients.compute(key, (id, current) -> {
+            if (current != null && current.credentials.equals(credentials)) {
+                return current;
+            }
+            if (current != null) {
+                logger.info("======COS CREDENTIALS CHANGED, REBUILDING CLIENT====" + id);
+                retire(current);
+            }
+            return createClient(dataRepositoryConfiguration);
+        });
+        client.lastUsed = System.currentTimeMillis();
+        return client;
+    }
+
+    /**
+     * Drops the client of a configuration, e.g. after its credentials were updated
+     * @param dataRepositoryConfigurationId
+     */
+    public void invalidate(String dataRepositoryConfigurationId) {
+        CosClient client = clients.remove(dataRepositoryConfigurationId);
+        if (client != null) {
+            retire(client);
+        }
+    }
+
+    /**
+     * Releases clients that have not been used for the configured idle time
+     */
+    @Scheduled(fixedDelayString = "${app.cos_client_eviction_interval_ms:60000}")
+    public void evictIdleClients() {
+        long idleMillis = TimeUnit.MINUTES.toMillis(applicationConfigurations.getCosClientIdleMinutes());
+        long now = System.currentTimeMillis();
+
+        Iterator<Map.Entry<String, CosClient>> iterator = clients.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, CosClient> entry = iterator.next();
+            if (now - entry.getValue().lastUsed > idleMillis && clients.remove(entry.getKey(), entry.getValue())) {
+                logger.info("======EVICTING IDLE COS CLIENT====" + entry.getKey());
+                retire(entry.getValue());
+            }
+        }
+
+        synchronized (retiredClients) {
+            Iterator<CosClient> retired = retiredClients.iterator();
+            while (retired.hasNext()) {
+                CosClient client = retired.next();
+                if (now - Math.max(client.lastUsed, client.retiredAt) > idleMillis) {
+                    client.amazonS3.shutdown();
+                    retired.remove();
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clients.values().forEach(client -> client.amazonS3.shutdown());
+        clients.clear();
+        synchronized (retiredClients) {
+            retiredClients.forEach(client -> client.amazonS3.shutdown());
+            retiredClients.clear();
+        }
+    }
+
+    private void retire(CosClient client) {
+        client.retiredAt = System.currentTimeMillis();
+        synchronized (retiredClients) {
+            retiredClients.add(client);
+        }
+    }
+
+    /**
+     * Builds a client from the encrypted credentials of a configuration. The IAM endpoint is set on the token provider
+     * of the client instead of the JVM wide SDK configuration so clients of different accounts do not interfere.
+     * @param dataRepositoryConfiguration
+     * @return
+     */
+    private CosClient createClient(DataRepositoryConfiguration dataRepositoryConfiguration) {
+        // decrypt credentials
+        String decryptedCredentials;
+        try {
+            decryptedCredentials = credentialsCache.getCredentials(dataRepositoryConfiguration);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not decrypt data repository credentials", e);
+        }
+
+        JsonObject jsonObject = JsonParser.parseString(decryptedCredentials).getAsJsonObject();
+
+        DefaultTokenProvider tokenProvider = new DefaultTokenProvider(jsonObject.get("apikey").getAsString());
+        if (jsonObject.has("iamEndpoint")) {
+            tokenProvider.setIamEndpoint(jsonObject.get("iamEndpoint").getAsString());
+        }
+        AWSCredentials basicIBMOAuthCredentials = new BasicIBMOAuthCredentials(new DefaultTokenManager(tokenProvider), jsonObject.get("resource_instance_id").getAsString());
+
+        ClientConfiguration clientConfig = new ClientConfiguration()
+            .withRequestTimeout(5000)
+            .withTcpKeepAlive(true)
+            .withMaxConnections(applicationConfigurations.getCosMaxConnections())
+            .withConnectionMaxIdleMillis(TimeUnit.MINUTES.toMillis(1));
+
+        AmazonS3 amazonS3 = AmazonS3ClientBuilder
+            .standard()
+            .withCredentials(new AWSStaticCredentialsProvider(basicIBMOAuthCredentials))
+            .withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(jsonObject.get("endpointUrl").getAsString(), jsonObject.get("bucketRegion").getAsString()))
+            .withPathStyleAccessEnabled(true)
+            .withClientConfiguration(clientConfig)
+            .build();
+
+        return new CosClient(amazonS3, jsonObject.get("bucketName").getAsString(), dataRepositoryConfiguration.getCredentials());
+    }
+
+    /**
+     * A shared COS client together with the bucket of its configuration
+     */
+    public static class CosClient {
+        private final AmazonS3 amazonS3;
+        private final String bucketName;
+        private final String credentials;
+        private volatile long lastUsed = System.currentTimeMillis();
+        private volatile long retiredAt;
+
+        CosClient(AmazonS3 amazonS3, String bucketName, String credentials) {
+            this.amazonS3 = amazonS3;
+            this.bucketName = bucketName;
+            this.credentials = credentials;
+        }
+
+        public AmazonS3 getAmazonS3() {
+            return amazonS3;
+        }
+
+        public String getBucketName() {
+            return bucketName;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.taskclerk.utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ibm.pmai.models.core.DataRepositoryConfiguration;
+import com.ibm.pmai.taskclerk.configurations.ApplicationConfigurations;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bounded, time limited cache of decrypted data repository credentials. Entries are keyed by configuration id and a
+ * version derived from the stored ciphertext, so updated credentials never hit a stale entry. Callers parse the
+ * credentials into strings, so the cache only limits how long a secret is held, it does not wipe it from memory.
+ */
+@Component
+public class CredentialsCache {
+
+    /**
+     * Encryption key
+     */
+    private PBEEncryption pbeEncryption;
+
+    /**
+     * Application configurations to access property values
+     */
+    private ApplicationConfigurations applicationConfigurations;
+
+    /**
+     * Entries in least recently used order, guarded by the map itself
+     */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Registry of the lookup counters, misses are the lookups that needed a decryption
+     */
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    public CredentialsCache(PBEEncryption pbeEncryption, ApplicationConfigurations applicationConfigurations, MeterRegistry meterRegistry) {
+        this.pbeEncryption = pbeEncryption;
+        this.applicationConfigurations = applicationConfigurations;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Returns the decrypted credentials of a data repository configuration
+     * @param dataRepositoryConfiguration
+     * @return
+     * @throws Exception
+     */
+    public String getCredentials(DataRepositoryConfiguration dataRepositoryConfiguration) throws Exception {
+        String encryptedCredentials = dataRepositoryConfiguration.getCredentials();
+        String id = dataRepositoryConfiguration.getId() != null ? dataRepositoryConfiguration.getId() : dataRepositoryConfiguration.getName();
+        String key = id + ":" + Integer.toHexString(encryptedCredentials.hashCode());
+        long now = System.currentTimeMillis();
+
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.encryptedCredentials.equals(encryptedCredentials) && entry.expiresAt > now) {
+                countLookup("hit");
+                return entry.secret;
+            }
+        }
+        countLookup("miss");
+
+        // decrypt outside of the lock, concurrent misses of the same entry only cost a duplicate decryption
+        String decryptedCredentials = pbeEncryption
+            .decrypt(applicationConfigurations.getAuthenticationEncryptionKey().toCharArray(), encryptedCredentials);
+
+        Entry entry = new Entry(id, encryptedCredentials, decryptedCredentials,
+            now + TimeUnit.MINUTES.toMillis(applicationConfigurations.getCredentialsCacheTtlMinutes()));
+        synchronized (entries) {
+            entries.put(key, entry);
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (entries.size() > applicationConfigurations.getCredentialsCacheMaxEntries() && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        return decryptedCredentials;
+    }
+
+    /**
+     * Drops every cached version of the credentials of a configuration
+     * @param dataRepositoryConfigurationId
+     */
+    public void invalidate(String dataRepositoryConfigurationId) {
+        synchronized (entries) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entry.id.equals(dataRepositoryConfigurationId)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes expired entries so the cache stops referencing secrets past their time to live
+     */
+    @Scheduled(fixedDelayString = "${app.credentials_cache_eviction_interval_ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entry.expiresAt <= now) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private void countLookup(String result) {
+        meterRegistry.counter(TaskClerkMetrics.CREDENTIALS_LOOKUPS, "result", result).increment();
+    }
+
+    private static class Entry {
+        private final String id;
+        private final String encryptedCredentials;
+        private final String secret;
+        private final long expiresAt;
+
+        Entry(String id, String encryptedCredentials, String secret, long expiresAt) {
+            this.id = id;
+            this.encryptedCredentials = encryptedCredentials;
+            this.secret = secret;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -16,7 +16,9 @@
 
 package com.ibm.pmai.taskclerk.utils;
 import java.io.IOException;
+import java.io.InputStream;
 import java.security.NoSuchAlgorithmException;
+import java.util.List;
 
 /*
   */
@@ -26,7 +28,12 @@ import java.security.NoSuchAlgorithmException;
  */
 
 public interface DocumentHashingInterface {
+    // format version of the hashes returned by getHash, stored next to the hashes
+    int getVersion();
     String getHash(byte[] data) throws IOException, NoSuchAlgorithmException;
+    String getHash(InputStream inputStream) throws IOException, NoSuchAlgorithmException;
+    // hashes of the data in every format still stored, the current format first
+    List<String> getLookupHashes(byte[] data) throws IOException, NoSuchAlgorithmException;
     boolean compareHashes(String hash, byte[] data) throws IOException, NoSuchAlgorithmException;
     boolean compareHashesStrings(String hash1, String hash2) throws IOException, NoSuchAlgorithmException;
 }
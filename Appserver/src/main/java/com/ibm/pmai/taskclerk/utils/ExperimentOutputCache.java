@@ -0,0 +1,534 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.taskclerk.utils;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.ibm.cloud.objectstorage.services.s3.model.S3ObjectInputStream;
+import com.ibm.pmai.models.core.ExperimentOutput;
+import com.ibm.pmai.taskclerk.configurations.ApplicationConfigurations;
+import com.ibm.pmai.taskclerk.services.interfaces.ObjectStorageService;
+
+/**
+ * Size bounded, least recently used disk cache of experiment output objects. Files are addressed by the content hash
+ * of the output, so a cached file never needs to be revalidated against COS. Outputs without a hash bypass the cache.
+ * When COS cannot be reached the most recent cached output of the same experiment and type can be served instead;
+ * such stale copies are flagged to the caller. The index of the latest outputs is kept next to the files so the
+ * fallback survives a restart. Files are opened under the cache lock, so eviction never deletes a file between its
+ * lookup and its opening.
+ */
+@Component
+public class ExperimentOutputCache {
+
+    /**
+     * Logger declaration
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ExperimentOutputCache.class);
+
+    /**
+     * Suffix of files still being downloaded
+     */
+    private static final String TEMP_SUFFIX = ".part";
+
+    /**
+     * File holding the latest cached output of every experiment and output type
+     */
+    private static final String LATEST_INDEX_FILE = "latest-by-experiment.properties";
+
+    private static final int MAX_DOWNLOAD_ATTEMPTS = 3;
+
+    /**
+     * Object storage access
+     */
+    private ObjectStorageService objectStorageService;
+
+    /**
+     * Application configurations to access property values
+     */
+    private ApplicationConfigurations applicationConfigurations;
+
+    /**
+     * Sizes of the cached files in least recently used order, guarded by the map itself. Files are only opened and
+     * deleted while holding it.
+     */
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long cachedBytes;
+
+    /**
+     * Most recently cached file of an experiment and output type, used when COS is unreachable. Persisted to
+     * {@link #LATEST_INDEX_FILE} whenever it changes.
+     */
+    private final Map<String, String> latestByExperiment = new ConcurrentHashMap<>();
+
+    /**
+     * Downloads in progress, so concurrent misses of the same output share one download
+     */
+    private final Map<String, CompletableFuture<Path>> downloads = new ConcurrentHashMap<>();
+
+    private Path directory;
+
+    private ThreadPoolExecutor prefetchExecutor;
+
+    private ScheduledExecutorService timeoutScheduler;
+
+    @Autowired
+    public ExperimentOutputCache(ObjectStorageService objectStorageService, ApplicationConfigurations applicationConfigurations) {
+        this.objectStorageService = objectStorageService;
+        this.applicationConfigurations = applicationConfigurations;
+    }
+
+    /**
+     * Creates the cache directory and indexes the files left by a previous run
+     * @throws IOException
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        if (!isEnabled()) {
+            logger.info("======EXPERIMENT OUTPUT CACHE DISABLED====");
+            return;
+        }
+        directory = Paths.get(applicationConfigurations.getOutputCacheDir());
+        Files.createDirectories(directory);
+
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(Files::isRegularFile)
+                .filter(file -> !file.getFileName().toString().equals(LATEST_INDEX_FILE))
+                .collect(Collectors.toList());
+        }
+        files.sort(Comparator.comparingLong(file -> file.toFile().lastModified()));
+        for (Path file : files) {
+            if (file.getFileName().toString().endsWith(TEMP_SUFFIX)) {
+                Files.deleteIfExists(file);
+            } else {
+                register(file.getFileName().toString(), Files.size(file));
+            }
+        }
+        loadLatestIndex();
+        evict();
+        logger.info("======EXPERIMENT OUTPUT CACHE " + directory + " HOLDS " + entries.size() + " FILES, " + cachedBytes + " BYTES====");
+
+        int threads = Math.max(1, applicationConfigurations.getOutputCachePrefetchThreads());
+        prefetchExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(1000), runnable -> {
+            Thread thread = new Thread(runnable, "output-cache-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardOldestPolicy());
+        prefetchExecutor.allowCoreThreadTimeOut(true);
+
+        timeoutScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "output-cache-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (prefetchExecutor != null) {
+            prefetchExecutor.shutdownNow();
+        }
+        if (timeoutScheduler != null) {
+            timeoutScheduler.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return applicationConfigurations.getOutputCacheMaxMb() > 0;
+    }
+
+    /**
+     * Returns whether an output can be served from the cache
+     * @param experimentOutput
+     * @return
+     */
+    public boolean isCacheable(ExperimentOutput experimentOutput) {
+        return isEnabled()
+            && experimentOutput.getHash() != null && !experimentOutput.getHash().isEmpty()
+            && experimentOutput.getMetadataDetails() != null
+            && experimentOutput.getMetadataDetails().getDataRepositoryConfiguration() != null;
+    }
+
+    /**
+     * Opens the cached file of an output, downloading it on a miss
+     * @param experimentOutput output to read
+     * @param timeoutSeconds download timeout, 0 for none
+     * @param staleFallback whether an older cached output of the same experiment and type may be returned when the
+     *                      download fails
+     * @return the opened file, to be closed by the caller, or null if the output is not cacheable
+     * @throws Exception if the output is neither cached nor downloadable; a {@link TimeoutException} if the download
+     *                   timed out
+     */
+    public CachedFile openFile(ExperimentOutput experimentOutput, long timeoutSeconds, boolean staleFallback) throws Exception {
+        if (!isCacheable(experimentOutput)) {
+            return null;
+        }
+        String key = getKey(experimentOutput.getHash());
+
+        CachedFile cachedFile = openCached(key, false);
+        // a file downloaded concurrently with others may be evicted before it is opened, download it again
+        for (int attempt = 0; cachedFile == null; attempt++) {
+            try {
+                if (attempt == MAX_DOWNLOAD_ATTEMPTS) {
+                    throw new IOException("Experiment output " + experimentOutput.getId() + " was evicted before it could be read");
+                }
+                download(key, experimentOutput, timeoutSeconds);
+                cachedFile = openCached(key, false);
+            } catch (Exception e) {
+                CachedFile stale = staleFallback ? openLatest(experimentOutput) : null;
+                if (stale == null) {
+                    throw e;
+                }
+                logger.warn("======COS UNAVAILABLE, SERVING CACHED COPY====" + experimentOutput.getId() + " " + e.getMessage());
+                return stale;
+            }
+        }
+        String experimentKey = getExperimentKey(experimentOutput);
+        if (experimentKey != null && !key.equals(latestByExperiment.put(experimentKey, key))) {
+            saveLatestIndex();
+        }
+        return cachedFile;
+    }
+
+    /**
+     * Returns the name of the cached file of an output content hash
+     * @param hash
+     * @return
+     */
+    public static String getKey(String hash) {
+        return DigestUtils.sha256Hex(hash);
+    }
+
+    /**
+     * Opens an output for reading, from the cache when possible and from COS otherwise. Streams returned straight
+     * from COS are {@link S3ObjectInputStream}s so callers can abort them, stale cached copies are
+     * {@link StaleCopyInputStream}s.
+     * @param experimentOutput output to read
+     * @param timeoutSeconds download timeout of cacheable outputs, 0 for none
+     * @param staleFallback see {@link #openFile(ExperimentOutput, long, boolean)}
+     * @return
+     * @throws Exception
+     */
+    public InputStream open(ExperimentOutput experimentOutput, long timeoutSeconds, boolean staleFallback) throws Exception {
+        CachedFile cachedFile = openFile(experimentOutput, timeoutSeconds, staleFallback);
+        if (cachedFile != null) {
+            InputStream inputStream = Channels.newInputStream(cachedFile.getChannel());
+            return cachedFile.isStale() ? new StaleCopyInputStream(inputStream) : inputStream;
+        }
+        return objectStorageService.download(experimentOutput.getMetadataDetails().getDataRepositoryConfiguration(),
+            experimentOutput.getMetadataDetails().getName());
+    }
+
+    /**
+     * Downloads a newly registered output in the background so the first read is served from disk
+     * @param experimentOutput
+     */
+    public void prefetch(ExperimentOutput experimentOutput) {
+        if (prefetchExecutor == null || !isCacheable(experimentOutput)) {
+            return;
+        }
+        prefetchExecutor.execute(() -> {
+            try {
+                openFile(experimentOutput, applicationConfigurations.getResultsFetchTimeoutSeconds(), false).close();
+            } catch (Exception e) {
+                logger.warn("======EXPERIMENT OUTPUT NOT PREFETCHED====" + experimentOutput.getId() + " " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Opens a cached file, holding the cache lock so it cannot be evicted in between
+     * @param key
+     * @param stale
+     * @return the opened file or null if it is not cached
+     * @throws IOException
+     */
+    private CachedFile openCached(String key, boolean stale) throws IOException {
+        synchronized (entries) {
+            if (entries.get(key) == null) {
+                return null;
+            }
+            try {
+                return new CachedFile(key, FileChannel.open(directory.resolve(key), StandardOpenOption.READ), stale);
+            } catch (NoSuchFileException e) {
+                // removed behind our back
+                unregister(key);
+                return null;
+            }
+        }
+    }
+
+    private boolean isCached(String key) {
+        synchronized (entries) {
+            return entries.containsKey(key);
+        }
+    }
+
+    private CachedFile openLatest(ExperimentOutput experimentOutput) throws IOException {
+        String experimentKey = getExperimentKey(experimentOutput);
+        String key = experimentKey != null ? latestByExperiment.get(experimentKey) : null;
+        return key != null ? openCached(key, !key.equals(getKey(experimentOutput.getHash()))) : null;
+    }
+
+    private Path download(String key, ExperimentOutput experimentOutput, long timeoutSeconds) throws Exception {
+        CompletableFuture<Path> download = new CompletableFuture<>();
+        CompletableFuture<Path> running = downloads.putIfAbsent(key, download);
+        if (running != null) {
+            try {
+                return running.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+        }
+
+        try {
+            Path file = isCached(key) ? directory.resolve(key) : copyToCache(key, experimentOutput, timeoutSeconds);
+            download.complete(file);
+            return file;
+        } catch (Exception e) {
+            download.completeExceptionally(e);
+            throw e;
+        } finally {
+            downloads.remove(key, download);
+        }
+    }
+
+    private Path copyToCache(String key, ExperimentOutput experimentOutput, long timeoutSeconds) throws Exception {
+        Path temp = Files.createTempFile(directory, key, TEMP_SUFFIX);
+        AtomicBoolean timedOut = new AtomicBoolean(false);
+        ScheduledFuture<?> timeout = null;
+        try {
+            S3ObjectInputStream s3ObjectInputStream = objectStorageService.download(
+                experimentOutput.getMetadataDetails().getDataRepositoryConfiguration(), experimentOutput.getMetadataDetails().getName());
+            if (timeoutSeconds > 0) {
+                timeout = timeoutScheduler.schedule(() -> {
+                    timedOut.set(true);
+                    s3ObjectInputStream.abort();
+                }, timeoutSeconds, TimeUnit.SECONDS);
+            }
+            try (InputStream inputStream = s3ObjectInputStream) {
+                Files.copy(inputStream, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            // readers only ever see complete files
+            Path file = directory.resolve(key);
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            register(key, Files.size(file));
+            evict();
+            return file;
+        } catch (Exception e) {
+            Files.deleteIfExists(temp);
+            if (timedOut.get()) {
+                TimeoutException timeoutException = new TimeoutException("timed out after " + timeoutSeconds + "s");
+                timeoutException.initCause(e);
+                throw timeoutException;
+            }
+            throw e;
+        } finally {
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+        }
+    }
+
+    private void register(String key, long size) {
+        synchronized (entries) {
+            Long previous = entries.put(key, size);
+            cachedBytes += size - (previous != null ? previous : 0);
+        }
+    }
+
+    private void unregister(String key) {
+        synchronized (entries) {
+            Long previous = entries.remove(key);
+            if (previous != null) {
+                cachedBytes -= previous;
+            }
+        }
+    }
+
+    /**
+     * Deletes least recently used files until the cache fits its size limit. The most recent file is always kept.
+     * Files are deleted under the cache lock, so a file is either deleted before a reader looks it up or opened
+     * before it is deleted; readers that already opened a deleted file can still finish reading it.
+     */
+    private void evict() throws IOException {
+        long maxBytes = applicationConfigurations.getOutputCacheMaxMb() * 1024L * 1024L;
+        List<String> evicted = new ArrayList<>();
+        synchronized (entries) {
+            Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+            while (cachedBytes > maxBytes && entries.size() > 1 && iterator.hasNext()) {
+                Map.Entry<String, Long> entry = iterator.next();
+                cachedBytes -= entry.getValue();
+                evicted.add(entry.getKey());
+                iterator.remove();
+            }
+            for (String key : evicted) {
+                Files.deleteIfExists(directory.resolve(key));
+            }
+        }
+        if (!evicted.isEmpty() && latestByExperiment.values().removeAll(evicted)) {
+            saveLatestIndex();
+        }
+    }
+
+    /**
+     * Restores the latest outputs of the experiments whose files are still cached
+     */
+    private void loadLatestIndex() {
+        Path index = directory.resolve(LATEST_INDEX_FILE);
+        if (!Files.isRegularFile(index)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(index, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            logger.warn("======EXPERIMENT OUTPUT CACHE INDEX NOT READ====" + e.getMessage());
+            return;
+        }
+        for (String experimentKey : properties.stringPropertyNames()) {
+            String key = properties.getProperty(experimentKey);
+            if (isCached(key)) {
+                latestByExperiment.put(experimentKey, key);
+            }
+        }
+    }
+
+    /**
+     * Writes the latest outputs of the experiments, replacing the previous index atomically
+     */
+    private void saveLatestIndex() {
+        Properties properties = new Properties();
+        properties.putAll(latestByExperiment);
+        synchronized (latestByExperiment) {
+            try {
+                Path temp = Files.createTempFile(directory, LATEST_INDEX_FILE, TEMP_SUFFIX);
+                try (OutputStream outputStream = Files.newOutputStream(temp)) {
+                    properties.store(outputStream, null);
+                }
+                Files.move(temp, directory.resolve(LATEST_INDEX_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                logger.warn("======EXPERIMENT OUTPUT CACHE INDEX NOT WRITTEN====" + e.getMessage());
+            }
+        }
+    }
+
+    private static String getExperimentKey(ExperimentOutput experimentOutput) {
+        if (experimentOutput.getExperiment() == null || experimentOutput.getExperiment().getId() == null) {
+            return null;
+        }
+        return experimentOutput.getExperiment().getId() + "|" + experimentOutput.getType();
+    }
+
+    /**
+     * A cached file opened for reading
+     */
+    public static class CachedFile implements Closeable {
+        private final String key;
+        private final FileChannel channel;
+        private final boolean stale;
+
+        CachedFile(String key, FileChannel channel, boolean stale) {
+            this.key = key;
+            this.channel = channel;
+            this.stale = stale;
+        }
+
+        /**
+         * Name of the file, derived from the content hash of the output it holds
+         * @return
+         */
+        public String getKey() {
+            return key;
+        }
+
+        public FileChannel getChannel() {
+            return channel;
+        }
+
+        public long size() throws IOException {
+            return channel.size();
+        }
+
+        /**
+         * Whether the file holds an older output of the experiment, served because COS could not be reached
+         * @return
+         */
+        public boolean isStale() {
+            return stale;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Stream of a stale cached copy, see {@link CachedFile#isStale()}
+     */
+    public static class StaleCopyInputStream extends FilterInputStream {
+        StaleCopyInputStream(InputStream inputStream) {
+            super(inputStream);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.taskclerk.utils;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.hibernate.BaseSessionEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Counts the JDBC round trips of a Hibernate session: statements executed one by one and batches sent with
+ * executeBatch. Registered on every session through hibernate.session.events.auto, so a session that flushed
+ * more entities than it sent batches logs how many round trips it needed. Totals over all sessions are kept for monitoring.
+ */
+public class JdbcBatchStatisticsListener extends BaseSessionEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Logger declaration
+     */
+    private static final Logger logger = LoggerFactory.getLogger(JdbcBatchStatisticsListener.class);
+
+    private static final LongAdder TOTAL_BATCHES = new LongAdder();
+
+    private static final LongAdder TOTAL_STATEMENTS = new LongAdder();
+
+    private static final LongAdder TOTAL_FLUSHED_ENTITIES = new LongAdder();
+
+    /**
+     * A listener instance belongs to a single session and is never used concurrently
+     */
+    private long batches;
+
+    private long statements;
+
+    private long flushedEntities;
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batches++;
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statements++;
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        flushedEntities += numberOfEntities;
+    }
+
+    @Override
+    public void end() {
+        TOTAL_BATCHES.add(batches);
+        TOTAL_STATEMENTS.add(statements);
+        TOTAL_FLUSHED_ENTITIES.add(flushedEntities);
+
+        // only sessions where batching saved round trips are reported
+        if (batches > 0 && flushedEntities > batches) {
+            logger.info("======FLUSHED " + flushedEntities + " ENTITIES IN " + batches + " BATCHES (" + statements + " single statements)====");
+        }
+    }
+
+    /**
+     * @return number of JDBC batches executed by all sessions
+     */
+    public static long getTotalBatches() {
+        return TOTAL_BATCHES.sum();
+    }
+
+    /**
+     * @return number of statements executed one by one by all sessions
+     */
+    public static long getTotalStatements() {
+        return TOTAL_STATEMENTS.sum();
+    }
+
+    /**
+     * @return number of entities flushed by all sessions
+     */
+    public static long getTotalFlushedEntities() {
+        return TOTAL_FLUSHED_ENTITIES.sum();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.taskclerk.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.ibm.cloud.objectstorage.services.s3.model.S3ObjectInputStream;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Pulls selected top level fields out of a JSON document without building a tree of the whole document. Values of
+ * the fields that are not requested are skipped token by token, so memory use is bounded by the fields kept.
+ */
+public final class JsonFieldExtractor {
+
+    private JsonFieldExtractor() {
+    }
+
+    /**
+     * Extracts the requested top level fields of the JSON object read from the stream. Reading stops as soon as all the
+     * requested fields have been found; the caller remains responsible for closing the stream.
+     * @param inputStream UTF-8 encoded JSON object
+     * @param fields names of the top level fields to keep
+     * @return object holding the requested fields that were present in the document
+     * @throws IOException if the stream cannot be read or does not hold a JSON object
+     */
+    public static JsonObject extract(InputStream inputStream, Collection<String> fields) throws IOException {
+        return extract(inputStream, fields, inputStream);
+    }
+
+    /**
+     * Extracts the requested top level fields of the JSON object read from the stream. A COS source that still holds
+     * unread data when all the fields have been found is aborted, otherwise it is read to its end, so closing it
+     * neither warns nor drops its pooled connection without need.
+     * @param inputStream UTF-8 encoded JSON object
+     * @param fields names of the top level fields to keep
+     * @param source stream the input is read from, when it is wrapped by the input stream
+     * @return object holding the requested fields that were present in the document
+     * @throws IOException if the stream cannot be read or does not hold a JSON object
+     */
+    public static JsonObject extract(InputStream inputStream, Collection<String> fields, InputStream source) throws IOException {
+        Set<String> remaining = new HashSet<>(fields);
+        JsonObject result = new JsonObject();
+
+        JsonReader reader = new JsonReader(new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)));
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            throw new IOException("Expected a JSON object but found " + reader.peek());
+        }
+        reader.beginObject();
+        while (!remaining.isEmpty() && reader.hasNext()) {
+            String name = reader.nextName();
+            if (remaining.remove(name)) {
+                result.add(name, JsonParser.parseReader(reader));
+            } else {
+                reader.skipValue();
+            }
+        }
+
+        if (source instanceof S3ObjectInputStream) {
+            S3ObjectInputStream s3ObjectInputStream = (S3ObjectInputStream) source;
+            if (reader.hasNext()) {
+                // the rest of the object is not needed
+                s3ObjectInputStream.abort();
+            } else {
+                // only the end of the object is left
+                reader.endObject();
+                byte[] buffer = new byte[256];
+                while (s3ObjectInputStream.read(buffer) != -1) {
+                    // read to the end so the connection goes back to the pool
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ibm.pmai.taskclerk.utils;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.core.type.WritableTypeId;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+/**
+ * Response entity that copies a stored JSON document into the response while it is serialised, through a fixed size
+ * buffer, instead of parsing it into a tree first. It is written wherever the entity appears in the serialised
+ * {@link javax.ws.rs.core.Response}, so the document is opened once for every copy. On request the bytes are checked
+ * on the fly to form exactly one well formed JSON value, and a malformed document is cut short.
+ */
+public class JsonPassthrough implements JsonSerializable {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    /**
+     * Field names are not interned so the memory used by validation does not grow with the document
+     */
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder().disable(JsonFactory.Feature.CANONICALIZE_FIELD_NAMES).build();
+
+    /**
+     * Opens the document, the stream is closed once it has been copied
+     */
+    public interface Source {
+        InputStream open() throws Exception;
+    }
+
+    private final Source source;
+
+    private final boolean validate;
+
+    /**
+     * Constructor
+     * @param source UTF-8 encoded JSON document
+     * @param validate whether to check the document while copying
+     */
+    public JsonPassthrough(Source source, boolean validate) {
+        this.source = source;
+        this.validate = validate;
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        InputStream inputStream;
+        try {
+            inputStream = source.open();
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Document could not be opened: " + e.getMessage(), e);
+        }
+
+        JsonParser parser = validate ? JSON_FACTORY.createNonBlockingByteArrayParser() : null;
+        try (Reader reader = new InputStreamReader(parser != null ? new ValidatingInputStream(inputStream, parser) : inputStream, StandardCharsets.UTF_8)) {
+            char[] buffer = new char[BUFFER_SIZE];
+            int read = reader.read(buffer);
+            if (read == -1) {
+                // an empty document is written the way a missing entity is
+                gen.writeNull();
+                return;
+            }
+            gen.writeRawValue(buffer, 0, read);
+            while ((read = reader.read(buffer)) != -1) {
+                gen.writeRaw(buffer, 0, read);
+            }
+        } finally {
+            if (parser != null) {
+                parser.close();
+            }
+        }
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer) throws IOException {
+        WritableTypeId typeId = typeSer.writeTypePrefix(gen, typeSer.typeId(this, JsonToken.VALUE_EMBEDDED_OBJECT));
+        serialize(gen, serializers);
+        typeSer.writeTypeSuffix(gen, typeId);
+    }
+
+    /**
+     * Feeds every chunk to the non-blocking parser before handing it on, so nothing is written past a syntax error
+     */
+    private static class ValidatingInputStream extends FilterInputStream {
+
+        private final JsonParser parser;
+
+        private int depth;
+
+        private int roots;
+
+        private boolean ended;
+
+        ValidatingInputStream(InputStream inputStream, JsonParser parser) {
+            super(inputStream);
+            this.parser = parser;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            ByteArrayFeeder feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+            if (read == -1 && !ended) {
+                ended = true;
+                feeder.endOfInput();
+                consume();
+                if (roots == 0 || depth != 0) {
+                    throw new JsonParseException(parser, "Incomplete JSON document");
+                }
+            } else if (read > 0) {
+                feeder.feedInput(b, off, off + read);
+                consume();
+            }
+            return read;
+        }
+
+        private void consume() throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if (depth == 0 && ++roots > 1) {
+                    throw new JsonParseException(parser, "More than one JSON value");
+                }
+                if (token.isStructStart()) {
+                    depth++;
+                } else if (token.isStructEnd()) {
+                    depth--;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.taskclerk.utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Writes the rows of a repository stream straight to the response, either as newline delimited JSON or as a single
+ * JSON array. Rows are read through a database cursor inside a read only transaction, serialized one at a time and
+ * dropped from the persistence context every {@link #BATCH_SIZE} rows, so memory use does not depend on the number
+ * of rows exported.
+ */
+@Component
+public class JsonStreamExporter {
+
+    /**
+     * Logger declaration
+     */
+    private static final Logger logger = LoggerFactory.getLogger(JsonStreamExporter.class);
+
+    /**
+     * Rows between two flushes of the output and clears of the persistence context, matches the fetch size of the
+     * streaming repository queries
+     */
+    public static final int BATCH_SIZE = 500;
+
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    /**
+     * Supported export formats
+     */
+    public enum Format {
+        NDJSON("ndjson", APPLICATION_NDJSON),
+        JSON("json", MediaType.APPLICATION_JSON);
+
+        private final String extension;
+        private final MediaType mediaType;
+
+        Format(String extension, MediaType mediaType) {
+            this.extension = extension;
+            this.mediaType = mediaType;
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Serializes rows the same way as the rest of the API, without flushing after every row
+     */
+    private ObjectWriter objectWriter;
+
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public JsonStreamExporter(ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Builds a response that streams the rows of a query
+     * @param name base name of the downloaded file
+     * @param format output format
+     * @param query opens the stream of rows, called inside the export transaction
+     * @return
+     */
+    public <T> ResponseEntity<StreamingResponseBody> export(String name, Format format, Supplier<Stream<T>> query) {
+        HttpHeaders responseHeaders = new HttpHeaders();
+        responseHeaders.setContentType(format.mediaType);
+        responseHeaders.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + name + "." + format.extension);
+
+        StreamingResponseBody body = outputStream -> {
+            long started = System.currentTimeMillis();
+            try {
+                long rows = transactionTemplate.execute(status -> {
+                    try (Stream<T> stream = query.get();
+                         JsonGenerator generator = objectWriter.getFactory().createGenerator(outputStream)) {
+                        return write(stream, generator, format);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                logger.info("======EXPORTED " + rows + " " + name + " IN " + (System.currentTimeMillis() - started) + "ms====");
+            } catch (UncheckedIOException e) {
+                // most likely the client went away, the rest of the export is abandoned
+                logger.warn("======EXPORT OF " + name + " ABORTED====" + e.getCause().getMessage());
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().headers(responseHeaders).body(body);
+    }
+
+    private <T> long write(Stream<T> stream, JsonGenerator generator, Format format) throws IOException {
+        // the response stream is closed by the container
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        if (format == Format.JSON) {
+            generator.writeStartArray();
+        }
+
+        long rows = 0;
+        Iterator<T> iterator = stream.iterator();
+        while (iterator.hasNext()) {
+            T row = iterator.next();
+            objectWriter.writeValue(generator, row);
+            if (format == Format.NDJSON) {
+                generator.writeRaw('\n');
+            }
+            entityManager.detach(row);
+
+            if (++rows % BATCH_SIZE == 0) {
+                // associations loaded with the rows stay managed until the context is cleared
+                generator.flush();
+                entityManager.clear();
+            }
+        }
+
+        if (format == Format.JSON) {
+            generator.writeEndArray();
+        }
+        generator.flush();
+        return rows;
+    }
+}
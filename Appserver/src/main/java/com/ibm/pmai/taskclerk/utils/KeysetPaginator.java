@@ -0,0 +1,195 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.taskclerk.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.core.Response;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.ibm.pmai.models.core.Auditable;
+import com.ibm.pmai.taskclerk.configurations.ApplicationConfigurations;
+import com.ibm.pmai.taskclerk.exceptions.ApiException;
+
+/**
+ * Pages through the rows of an entity in (createdAt, id) order. The cursor holds the sort key of the last row
+ * returned, so the next page is read with a range condition on the (created_at, id) index instead of an offset and
+ * its cost does not grow with the number of pages already read. Counting all rows is opt-in.
+ */
+@Component
+public class KeysetPaginator {
+
+    /**
+     * Header holding the cursor of the next page, absent on the last page
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * Header holding the total number of rows when requested
+     */
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Application configurations to access property values
+     */
+    private ApplicationConfigurations applicationConfigurations;
+
+    @Autowired
+    public KeysetPaginator(ApplicationConfigurations applicationConfigurations) {
+        this.applicationConfigurations = applicationConfigurations;
+    }
+
+    /**
+     * Reads the page following a cursor
+     * @param entityClass entity to page through
+     * @param limit requested page size, the default page size when null
+     * @param cursor cursor of the previous page, null for the first page
+     * @param includeTotal whether to count all rows
+     * @return
+     * @throws ApiException if the limit or the cursor is invalid
+     */
+    public <T extends Auditable<?>> Page<T> getPage(Class<T> entityClass, Integer limit, String cursor, boolean includeTotal) throws ApiException {
+        int pageSize = getPageSize(limit);
+        Key after = cursor != null && !cursor.isEmpty() ? Key.decode(cursor) : null;
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = criteriaBuilder.createQuery(entityClass);
+        Root<T> root = query.from(entityClass);
+        Path<Date> createdAt = root.get("createdAt");
+        Path<String> id = root.get("id");
+        if (after != null) {
+            query.where(criteriaBuilder.or(
+                criteriaBuilder.greaterThan(createdAt, after.createdAt),
+                criteriaBuilder.and(criteriaBuilder.equal(createdAt, after.createdAt), criteriaBuilder.greaterThan(id, after.id))));
+        }
+        query.orderBy(criteriaBuilder.asc(createdAt), criteriaBuilder.asc(id));
+
+        // one extra row tells whether there is a next page
+        List<T> items = entityManager.createQuery(query).setMaxResults(pageSize + 1).getResultList();
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            T last = items.get(pageSize - 1);
+            nextCursor = new Key(last.getCreatedAt(), (String) entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(last)).encode();
+        }
+
+        Long total = null;
+        if (includeTotal) {
+            CriteriaQuery<Long> countQuery = criteriaBuilder.createQuery(Long.class);
+            countQuery.select(criteriaBuilder.count(countQuery.from(entityClass)));
+            total = entityManager.createQuery(countQuery).getSingleResult();
+        }
+        return new Page<>(items, nextCursor, total);
+    }
+
+    /**
+     * Validates a requested page size
+     * @param limit requested page size, the default page size when null
+     * @return
+     * @throws ApiException if the limit is out of range
+     */
+    public int getPageSize(Integer limit) throws ApiException {
+        int pageSize = limit != null ? limit : applicationConfigurations.getPageSizeDefault();
+        if (pageSize < 1 || pageSize > applicationConfigurations.getPageSizeMax()) {
+            throw new ApiException(Response.Status.BAD_REQUEST.getStatusCode(), "limit must be between 1 and " + applicationConfigurations.getPageSizeMax());
+        }
+        return pageSize;
+    }
+
+    /**
+     * A page of rows with the cursor of the next page
+     */
+    public static class Page<T> {
+        private final List<T> items;
+        private final String nextCursor;
+        private final Long total;
+
+        Page(List<T> items, String nextCursor, Long total) {
+            this.items = items;
+            this.nextCursor = nextCursor;
+            this.total = total;
+        }
+
+        public List<T> getItems() {
+            return items;
+        }
+
+        public String getNextCursor() {
+            return nextCursor;
+        }
+
+        public Long getTotal() {
+            return total;
+        }
+
+        /**
+         * Sets the paging headers, the body keeps its shape of a plain list
+         * @param httpServletResponse
+         */
+        public void applyHeaders(HttpServletResponse httpServletResponse) {
+            if (nextCursor != null) {
+                httpServletResponse.setHeader(NEXT_CURSOR_HEADER, nextCursor);
+            }
+            if (total != null) {
+                httpServletResponse.setHeader(TOTAL_COUNT_HEADER, String.valueOf(total));
+            }
+        }
+    }
+
+    /**
+     * Sort key of a row, encoded as an opaque url safe cursor
+     */
+    private static class Key {
+        private final Date createdAt;
+        private final String id;
+
+        Key(Date createdAt, String id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+
+        String encode() {
+            String value = createdAt.getTime() + ":" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Key decode(String cursor) throws ApiException {
+            try {
+                String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = value.indexOf(':');
+                return new Key(new Date(Long.parseLong(value.substring(0, separator))), value.substring(separator + 1));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new ApiException(Response.Status.BAD_REQUEST.getStatusCode(), "Invalid cursor");
+            }
+        }
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.taskclerk.utils;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.ibm.pmai.taskclerk.configurations.ApplicationConfigurations;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Checks that the case data of a location is available at the data base uri of a model. Instead of downloading the
+ * whole CSV, a probe requests its first bytes and stops reading once a header and a data line were seen. Results are
+ * cached per base uri and iso2 code; entries that keep being asked for are refreshed in the background before they
+ * expire, so only the first check of a location waits for the data service.
+ */
+@Component
+public class LocationDataAvailabilityVerifier {
+
+    /**
+     * Logger declaration
+     */
+    private static final Logger logger = LoggerFactory.getLogger(LocationDataAvailabilityVerifier.class);
+
+    /**
+     * Number of bytes requested by a probe, enough for the header and the first rows of the CSV
+     */
+    private static final int PROBE_BYTES = 8 * 1024;
+
+    /**
+     * Shared non blocking client, its connection pool is reused by all probes
+     */
+    private final WebClient webClient;
+
+    /**
+     * Application configurations to access property values
+     */
+    private final ApplicationConfigurations applicationConfigurations;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Probes in flight, concurrent checks of the same location share one request
+     */
+    private final Map<Key, CompletableFuture<Boolean>> probes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LocationDataAvailabilityVerifier(WebClient webClient, ApplicationConfigurations applicationConfigurations) {
+        this.webClient = webClient;
+        this.applicationConfigurations = applicationConfigurations;
+    }
+
+    /**
+     * Url of the case data of a location
+     * @param dataBaseUri
+     * @param iso2code
+     * @return
+     */
+    public static String getDataUrl(String dataBaseUri, String iso2code) {
+        return dataBaseUri + "casedata/csv/" + iso2code + "/?startDate=2020-01-01";
+    }
+
+    /**
+     * Whether the case data of a location has at least one row
+     * @param dataBaseUri data base uri of the model
+     * @param iso2code iso2 code of the location
+     * @return
+     */
+    public boolean isAvailable(String dataBaseUri, String iso2code) {
+        return check(dataBaseUri, iso2code) == Availability.AVAILABLE;
+    }
+
+    /**
+     * Checks the case data of a location, telling data the service reported missing from a service that could not
+     * be reached
+     * @param dataBaseUri data base uri of the model
+     * @param iso2code iso2 code of the location
+     * @return
+     */
+    public Availability check(String dataBaseUri, String iso2code) {
+        Key key = new Key(dataBaseUri, iso2code);
+        long now = System.currentTimeMillis();
+
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.lastRequested = now;
+            if (!isExpired(entry, now)) {
+                return entry.available ? Availability.AVAILABLE : Availability.MISSING;
+            }
+        }
+
+        try {
+            return probe(key).get(applicationConfigurations.getLocationDataProbeTimeoutSeconds(), TimeUnit.SECONDS)
+                ? Availability.AVAILABLE : Availability.MISSING;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Availability.UNKNOWN;
+        } catch (TimeoutException e) {
+            logger.warn("======LOCATION DATA CHECK TIMED OUT====" + getDataUrl(dataBaseUri, iso2code));
+            return Availability.UNKNOWN;
+        } catch (Exception e) {
+            logger.warn("======LOCATION DATA CHECK FAILED====" + getDataUrl(dataBaseUri, iso2code) + " " + e.getMessage());
+            return Availability.UNKNOWN;
+        }
+    }
+
+    /**
+     * Forgets the result of a location, e.g. after its data was published
+     * @param dataBaseUri
+     * @param iso2code
+     */
+    public void invalidate(String dataBaseUri, String iso2code) {
+        entries.remove(new Key(dataBaseUri, iso2code));
+    }
+
+    /**
+     * Forgets the results of a location for every data base uri
+     * @param iso2code
+     */
+    public void invalidate(String iso2code) {
+        entries.keySet().removeIf(key -> Objects.equals(key.iso2code, iso2code));
+    }
+
+    /**
+     * Forgets all results
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Re-probes the entries that are still being asked for once half of their time to live has passed and drops the
+     * ones nobody asked for during two times to live. Probes run on the client's event loop, not on the scheduler.
+     */
+    @Scheduled(fixedDelayString = "${app.location_data_refresh_interval_ms:60000}")
+    public void refresh() {
+        long now = System.currentTimeMillis();
+        long idleMillis = 2 * TimeUnit.MINUTES.toMillis(applicationConfigurations.getLocationDataCacheTtlMinutes());
+
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, Entry> mapEntry = iterator.next();
+            Entry entry = mapEntry.getValue();
+            if (now - entry.lastRequested > idleMillis) {
+                iterator.remove();
+            } else if (now - entry.checkedAt > getTimeToLive(entry) / 2) {
+                probe(mapEntry.getKey());
+            }
+        }
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.checkedAt > getTimeToLive(entry);
+    }
+
+    /**
+     * Missing data is checked again sooner so newly published locations become usable quickly
+     * @param entry
+     * @return
+     */
+    private long getTimeToLive(Entry entry) {
+        return entry.available
+            ? TimeUnit.MINUTES.toMillis(applicationConfigurations.getLocationDataCacheTtlMinutes())
+            : TimeUnit.SECONDS.toMillis(applicationConfigurations.getLocationDataMissingTtlSeconds());
+    }
+
+    /**
+     * Starts a probe of a location unless one is already running and caches its result
+     * @param key
+     * @return
+     */
+    private CompletableFuture<Boolean> probe(Key key) {
+        CompletableFuture<Boolean> created = new CompletableFuture<>();
+        CompletableFuture<Boolean> running = probes.putIfAbsent(key, created);
+        if (running != null) {
+            return running;
+        }
+
+        String dataUrl = getDataUrl(key.dataBaseUri, key.iso2code);
+        request(dataUrl).subscribe(available -> {
+            Entry previous = entries.get(key);
+            entries.put(key, new Entry(available, previous != null ? previous.lastRequested : System.currentTimeMillis()));
+            probes.remove(key, created);
+            created.complete(available);
+        }, error -> {
+            // failures are not cached, the previous result is kept until it expires
+            probes.remove(key, created);
+            created.completeExceptionally(error);
+        });
+        return created;
+    }
+
+    /**
+     * Requests the first bytes of the case data, servers that ignore the range are cut off after the probe size
+     * @param dataUrl
+     * @return
+     */
+    private Mono<Boolean> request(String dataUrl) {
+        return webClient.get()
+            .uri(URI.create(dataUrl))
+            .header(HttpHeaders.RANGE, "bytes=0-" + (PROBE_BYTES - 1))
+            .exchange()
+            .flatMap(response -> {
+                if (!response.statusCode().is2xxSuccessful()) {
+                    return response.releaseBody().thenReturn(false);
+                }
+                LineProbe lineProbe = new LineProbe();
+                return response.bodyToFlux(DataBuffer.class)
+                    .map(dataBuffer -> {
+                        try {
+                            return lineProbe.feed(dataBuffer);
+                        } finally {
+                            DataBufferUtils.release(dataBuffer);
+                        }
+                    })
+                    .takeUntil(done -> done)
+                    .then(Mono.fromCallable(lineProbe::hasRows));
+            })
+            .timeout(Duration.ofSeconds(applicationConfigurations.getLocationDataProbeTimeoutSeconds()));
+    }
+
+    /**
+     * Outcome of a check
+     */
+    public enum Availability {
+        AVAILABLE,
+        // the data service answered without any rows
+        MISSING,
+        // the data service could not be reached in time
+        UNKNOWN
+    }
+
+    /**
+     * Looks for a byte after the first line break, i.e. a data line following the header
+     */
+    private static class LineProbe {
+        private boolean lineBreakSeen;
+        private boolean rows;
+        private long bytes;
+
+        boolean feed(DataBuffer dataBuffer) {
+            while (!rows && dataBuffer.readableByteCount() > 0) {
+                byte value = dataBuffer.read();
+                bytes++;
+                if (lineBreakSeen) {
+                    rows = true;
+                } else if (value == '\n') {
+                    lineBreakSeen = true;
+                }
+            }
+            return rows || bytes >= PROBE_BYTES;
+        }
+
+        boolean hasRows() {
+            return rows;
+        }
+    }
+
+    private static class Key {
+        private final String dataBaseUri;
+        private final String iso2code;
+
+        Key(String dataBaseUri, String iso2code) {
+            this.dataBaseUri = dataBaseUri;
+            this.iso2code = iso2code;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(dataBaseUri, key.dataBaseUri) && Objects.equals(iso2code, key.iso2code);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dataBaseUri, iso2code);
+        }
+    }
+
+    private static class Entry {
+        private final boolean available;
+        private final long checkedAt = System.currentTimeMillis();
+        private volatile long lastRequested;
+
+        Entry(boolean available, long lastRequested) {
+            this.available = available;
+            this.lastRequested = lastRequested;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.taskclerk.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer. Every slot carries a sequence number telling
+ * whether it is free for the producer of a position or holds the element of that position for the consumer, so
+ * producers only contend on the CAS of the tail and never wait for the consumer: when the queue is full the element
+ * is dropped and counted.
+ * @param <E>
+ */
+public final class MpscRingBuffer<E> {
+
+    private final int capacity;
+
+    private final int mask;
+
+    private final AtomicReferenceArray<E> elements;
+
+    /**
+     * Position a slot is free for, or that position + 1 once its element is published
+     */
+    private final AtomicLongArray sequences;
+
+    /**
+     * Next position claimed by a producer
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Next position read by the consumer, only written by the consumer thread
+     */
+    private volatile long head;
+
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @param requestedCapacity rounded up to the next power of two, at least two so a published slot is never taken
+     *                          for a free one
+     */
+    public MpscRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 1 || requestedCapacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + requestedCapacity);
+        }
+        this.capacity = Math.max(2, Integer.highestOneBit(requestedCapacity - 1) << 1);
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an element without blocking, may be called from any thread
+     * @param element
+     * @return false if the queue was full and the element was dropped
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException();
+        }
+        long position;
+        int index;
+        while (true) {
+            position = tail.get();
+            index = (int) position & mask;
+            long sequence = sequences.get(index);
+            if (sequence < position) {
+                // the consumer has not freed the slot of the previous lap yet
+                dropped.increment();
+                return false;
+            }
+            if (sequence == position && tail.compareAndSet(position, position + 1)) {
+                break;
+            }
+        }
+        elements.lazySet(index, element);
+        sequences.lazySet(index, position + 1);
+        return true;
+    }
+
+    /**
+     * Removes the oldest published element, must only be called from the consumer thread
+     * @return the element or null if none is available
+     */
+    public E poll() {
+        long position = head;
+        int index = (int) position & mask;
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        E element = elements.get(index);
+        elements.lazySet(index, null);
+        sequences.lazySet(index, position + capacity);
+        head = position + 1;
+        return element;
+    }
+
+    /**
+     * @return approximate number of elements waiting for the consumer
+     */
+    public int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return number of elements dropped because the queue was full
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+}
@@ -17,6 +17,7 @@
 package com.ibm.pmai.taskclerk.utils;
 
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Base64Utils;
 
@@ -27,6 +28,11 @@ import javax.crypto.spec.PBEKeySpec;
 import javax.crypto.spec.PBEParameterSpec;
 import java.security.SecureRandom;
 import java.security.Security;
+import java.util.Arrays;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 /*
   */
 
@@ -36,11 +42,27 @@ import java.security.Security;
 @Component
 public class PBEEncryption
 {
+    /**
+     * Key of the last password used for decryption, salt and iteration count are applied per ciphertext
+     */
+    private volatile CachedKey cachedKey;
+
+    /**
+     * Registry of the decryption timers
+     */
+    private final MeterRegistry meterRegistry;
+
     /**
      * Used to add security provider, we are using bouncy castle
      */
     public PBEEncryption(){
+        this(Metrics.globalRegistry);
+    }
+
+    @Autowired
+    public PBEEncryption(MeterRegistry meterRegistry){
         Security.addProvider(new BouncyCastleProvider());
+        this.meterRegistry = meterRegistry;
     }
 
     /**
@@ -92,17 +114,29 @@ public class PBEEncryption
      * @throws Exception
      */
     public String decrypt(char[] password, String text) throws Exception {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean keyCached = isKeyCached(password);
+        String outcome = TaskClerkMetrics.ERROR;
+        try {
+            String plaintext = decryptText(password, text);
+            outcome = TaskClerkMetrics.SUCCESS;
+            return plaintext;
+        } finally {
+            sample.stop(Timer.builder(TaskClerkMetrics.DECRYPTIONS)
+                .description("Decryptions of stored secrets")
+                .tag("key", keyCached ? "cached" : "derived")
+                .tag(TaskClerkMetrics.TAG_OUTCOME, outcome)
+                .register(meterRegistry));
+        }
+    }
+
+    private String decryptText(char[] password, String text) throws Exception {
         String salt = text.substring(0, 12);
         String ciphertext = text.substring(12, text.length());
         byte[] saltArray = Base64Utils.decodeFromString(salt);
         byte[] ciphertextArray = Base64Utils.decodeFromString(ciphertext);
 
-        PBEKeySpec keySpec = new PBEKeySpec(password);
-
-        SecretKeyFactory keyFactory = SecretKeyFactory
-		        .getInstance("PBEWithSHAAnd3KeyTripleDES", "BC");
-
-        SecretKey key = keyFactory.generateSecret(keySpec);
+        SecretKey key = getKey(password);
 
         PBEParameterSpec paramSpec = new PBEParameterSpec(saltArray, 1000);
 
@@ -117,4 +151,48 @@ public class PBEEncryption
         return cipherString;
 
     }
+
+    /**
+     * Returns the secret key of a password, reusing the key of the previous call when the password did not change
+     * @param password
+     * @return
+     * @throws Exception
+     */
+    private SecretKey getKey(char[] password) throws Exception {
+        CachedKey current = cachedKey;
+        if (current != null && Arrays.equals(current.password, password)) {
+            return current.key;
+        }
+
+        PBEKeySpec keySpec = new PBEKeySpec(password);
+
+        SecretKeyFactory keyFactory = SecretKeyFactory
+		        .getInstance("PBEWithSHAAnd3KeyTripleDES", "BC");
+
+        SecretKey key = keyFactory.generateSecret(keySpec);
+        keySpec.clearPassword();
+
+        cachedKey = new CachedKey(password.clone(), key);
+        return key;
+    }
+
+    /**
+     * Whether decrypting with the password reuses the key of the previous call
+     * @param password
+     * @return
+     */
+    private boolean isKeyCached(char[] password) {
+        CachedKey current = cachedKey;
+        return current != null && Arrays.equals(current.password, password);
+    }
+
+    private static class CachedKey {
+        private final char[] password;
+        private final SecretKey key;
+
+        CachedKey(char[] password, SecretKey key) {
+            this.password = password;
+            this.key = key;
+        }
+    }
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.taskclerk.utils;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Access to the second level cache holding the reference data entities (executors, environments, algorithms,
+ * locations, ...). Writes made through Hibernate, including bulk JPQL updates, keep the cached entities, collections
+ * and query results up to date on this instance. Native updates are avoided as Hibernate cannot tell which entities
+ * they touch and drops the whole cache for each of them. Other instances pick up a change once their entries expire.
+ */
+@Component
+public class ReferenceDataCache {
+
+    /**
+     * Logger declaration
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+    private SessionFactoryImplementor sessionFactory;
+
+    @Autowired
+    public ReferenceDataCache(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class).unwrap(SessionFactoryImplementor.class);
+        // collected here rather than through hibernate.generate_statistics, which also logs the metrics of every session
+        this.sessionFactory.getStatistics().setStatisticsEnabled(true);
+    }
+
+    /**
+     * @return statistics of the session factory, including the cache hits and misses
+     */
+    public Statistics getStatistics() {
+        return sessionFactory.getStatistics();
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache_statistics_interval_ms:300000}")
+    public void logStatistics() {
+        Statistics statistics = sessionFactory.getStatistics();
+        logger.info("======SECOND LEVEL CACHE hits " + statistics.getSecondLevelCacheHitCount()
+            + " misses " + statistics.getSecondLevelCacheMissCount()
+            + " puts " + statistics.getSecondLevelCachePutCount()
+            + ", QUERY CACHE hits " + statistics.getQueryCacheHitCount()
+            + " misses " + statistics.getQueryCacheMissCount()
+            + " puts " + statistics.getQueryCachePutCount() + "====");
+    }
+}
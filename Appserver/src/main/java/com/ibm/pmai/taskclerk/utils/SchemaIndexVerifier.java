@@ -0,0 +1,115 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.taskclerk.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports at startup the indexes created by the schema migrations that are missing from the database, e.g. because
+ * they were dropped by hand or a migration was baselined over. The expected indexes are read from the migration
+ * scripts so the check never drifts from them.
+ */
+@Component
+public class SchemaIndexVerifier {
+
+    /**
+     * Logger declaration
+     */
+    private static final Logger logger = LoggerFactory.getLogger(SchemaIndexVerifier.class);
+
+    private static final String MIGRATIONS = "classpath:db/migration/*.sql";
+
+    private static final Pattern CREATE_INDEX = Pattern.compile(
+        "CREATE\\s+(?:UNIQUE\\s+)?INDEX\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?(\\w+)\\s+ON\\s+(\\w+)", Pattern.CASE_INSENSITIVE);
+
+    private static final String QUERY_INDEX_NAMES = "SELECT indexname FROM pg_indexes WHERE schemaname = current_schema()";
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public SchemaIndexVerifier(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verify() {
+        try {
+            Map<String, String> expected = getExpectedIndexes();
+            Set<String> present = new HashSet<>(jdbcTemplate.queryForList(QUERY_INDEX_NAMES, String.class));
+
+            List<String> missing = new ArrayList<>();
+            expected.forEach((index, table) -> {
+                if (!present.contains(index)) {
+                    missing.add(table + "." + index);
+                }
+            });
+
+            if (missing.isEmpty()) {
+                logger.info("======ALL " + expected.size() + " SCHEMA INDEXES PRESENT====");
+            } else {
+                logger.warn("======MISSING SCHEMA INDEXES====" + String.join(", ", missing));
+            }
+        } catch (IOException | DataAccessException e) {
+            logger.warn("======COULD NOT VERIFY SCHEMA INDEXES====" + e.getMessage());
+        }
+    }
+
+    /**
+     * Collects the indexes created by the migration scripts
+     * @return table of every index by index name
+     * @throws IOException
+     */
+    private Map<String, String> getExpectedIndexes() throws IOException {
+        Map<String, String> indexes = new LinkedHashMap<>();
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(MIGRATIONS)) {
+            String script;
+            try (InputStream inputStream = resource.getInputStream()) {
+                script = IOUtils.toString(inputStream, StandardCharsets.UTF_8);
+            }
+            Matcher matcher = CREATE_INDEX.matcher(script);
+            while (matcher.find()) {
+                // unquoted identifiers are folded to lower case by PostgreSQL
+                indexes.put(matcher.group(1).toLowerCase(), matcher.group(2).toLowerCase());
+            }
+        }
+        return indexes;
+    }
+}
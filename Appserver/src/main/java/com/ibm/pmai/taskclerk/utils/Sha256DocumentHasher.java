@@ -15,20 +15,49 @@
  */
 
 package com.ibm.pmai.taskclerk.utils;
-import org.springframework.stereotype.Component;
+
 import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
 
-/*
-  */
+import org.springframework.stereotype.Component;
 
 /**
- * This class is used to generate document hash using SHA-256 and also used to compare the hashes
+ * This class is used to generate document hash using SHA-256 and also used to compare the hashes. Every thread keeps
+ * its own digest and buffers, so hashing does not look up a provider or allocate besides the returned string.
+ *
+ * Version 1 hashes encoded every byte without its leading zero, which made them shorter than 64 characters and
+ * ambiguous. Version 2 hashes are the full lower case hex encoding; rows still carrying a version 1 hash are found
+ * through {@link #getLookupHashes(byte[])} until they are re-hashed.
  */
 @Component
 public class Sha256DocumentHasher implements DocumentHashingInterface {
 
+    /**
+     * Format version of the hashes returned by getHash
+     */
+    public static final int VERSION = 2;
+
+    /**
+     * Format of the hashes written before the version was stored
+     */
+    public static final int LEGACY_VERSION = 1;
+
+    private static final int DIGEST_LENGTH = 32;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+
+    @Override
+    public int getVersion() {
+        return VERSION;
+    }
+
     /**
      * This is used to generate document hash, the document is passed in byte array
      * @param data
@@ -38,34 +67,63 @@ public class Sha256DocumentHasher implements DocumentHashingInterface {
      */
     @Override
     public String getHash(byte[] data) throws IOException, NoSuchAlgorithmException {
+        State state = STATE.get();
+        state.start().update(data, 0, data.length);
+        return Utils.toHex(state.digest(), DIGEST_LENGTH, state.hex);
+    }
 
-        /**
-         * Create message digest using SHA-256
-         */
-        MessageDigest md = MessageDigest.getInstance("SHA-256");
-
-        /**
-         * Update the data
-         */
-        md.update(data, 0, data.length);
+    /**
+     * Generates the hash of a document read from a stream, the stream is not closed
+     * @param inputStream
+     * @return
+     * @throws IOException
+     * @throws NoSuchAlgorithmException
+     */
+    @Override
+    public String getHash(InputStream inputStream) throws IOException, NoSuchAlgorithmException {
+        State state = STATE.get();
+        MessageDigest messageDigest = state.start();
+        int read;
+        while ((read = inputStream.read(state.buffer)) != -1) {
+            messageDigest.update(state.buffer, 0, read);
+        }
+        return Utils.toHex(state.digest(), DIGEST_LENGTH, state.hex);
+    }
 
-        /**
-         * Generate the digest
-         */
-        byte[] digestBytes = md.digest();
+    /**
+     * Generates the version 1 hash of a document
+     * @param data
+     * @return
+     */
+    public String getLegacyHash(byte[] data) {
+        State state = STATE.get();
+        state.start().update(data, 0, data.length);
+        return toLegacyHex(state.digest());
+    }
 
+    /**
+     * Hashes of a document in the current and in the version 1 format, computed from a single digest
+     * @param data
+     * @return
+     * @throws IOException
+     * @throws NoSuchAlgorithmException
+     */
+    @Override
+    public List<String> getLookupHashes(byte[] data) throws IOException, NoSuchAlgorithmException {
+        State state = STATE.get();
+        state.start().update(data, 0, data.length);
+        byte[] digest = state.digest();
 
-        /**
-         * convert the byte to hex format method 2
-         */
-        StringBuilder hexString = new StringBuilder();
-        for (byte mdbyte : digestBytes) {
-            hexString.append(Integer.toHexString(0xFF & mdbyte));
+        List<String> hashes = new ArrayList<>(2);
+        hashes.add(Utils.toHex(digest, DIGEST_LENGTH, state.hex));
+        String legacyHash = toLegacyHex(digest);
+        // both formats are identical when no byte of the digest is below 0x10
+        if (!legacyHash.equals(hashes.get(0))) {
+            hashes.add(legacyHash);
         }
-        return hexString.toString();
+        return hashes;
     }
 
-
     /**
      * Computes the has of the byte data sent and compare with with the given hash
      * @param hash
@@ -76,7 +134,7 @@ public class Sha256DocumentHasher implements DocumentHashingInterface {
      */
     @Override
     public boolean compareHashes(String hash, byte[] data) throws IOException, NoSuchAlgorithmException {
-        return getHash(data).equals(hash);
+        return getLookupHashes(data).contains(hash);
     }
 
     /**
@@ -91,4 +149,51 @@ public class Sha256DocumentHasher implements DocumentHashingInterface {
     public boolean compareHashesStrings(String hash1, String hash2) throws IOException, NoSuchAlgorithmException {
         return hash1.equals(hash2);
     }
+
+    private static String toLegacyHex(byte[] digest) {
+        StringBuilder hexString = new StringBuilder(DIGEST_LENGTH * 2);
+        for (int i = 0; i < DIGEST_LENGTH; i++) {
+            hexString.append(Integer.toHexString(0xFF & digest[i]));
+        }
+        return hexString.toString();
+    }
+
+    /**
+     * Digest and buffers of a thread
+     */
+    private static class State {
+        private final MessageDigest messageDigest;
+        private final byte[] output = new byte[DIGEST_LENGTH];
+        private final char[] hex = new char[DIGEST_LENGTH * 2];
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+
+        State() {
+            try {
+                messageDigest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+
+        /**
+         * Resets the digest before a new document, a previous call may have failed half way through its input
+         * @return
+         */
+        MessageDigest start() {
+            messageDigest.reset();
+            return messageDigest;
+        }
+
+        /**
+         * Completes the digest into the thread's output buffer, which also resets the digest
+         */
+        byte[] digest() {
+            try {
+                messageDigest.digest(output, 0, DIGEST_LENGTH);
+            } catch (DigestException e) {
+                throw new IllegalStateException(e);
+            }
+            return output;
+        }
+    }
 }
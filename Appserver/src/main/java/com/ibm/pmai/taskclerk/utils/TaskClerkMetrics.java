@@ -0,0 +1,89 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.taskclerk.utils;
+
+import java.net.URI;
+
+/**
+ * Names and tag values of the application meters. Percentile histograms of all the meters starting with
+ * {@link #PREFIX} are enabled in the application configuration, so tags only take values from small fixed sets and
+ * never carry entity ids.
+ */
+public final class TaskClerkMetrics {
+
+    public static final String PREFIX = "taskclerk";
+
+    public static final String COS_REQUESTS = PREFIX + ".cos.requests";
+
+    public static final String JDS_REQUESTS = PREFIX + ".jds.requests";
+
+    public static final String DECRYPTIONS = PREFIX + ".crypto.decryptions";
+
+    public static final String CREDENTIALS_LOOKUPS = PREFIX + ".credentials.lookups";
+
+    public static final String REPOSITORY_INVOCATIONS = PREFIX + ".repository.invocations";
+
+    public static final String RESULTS_FETCHES = PREFIX + ".results.fetches";
+
+    public static final String RESULTS_JOBS_QUEUED = PREFIX + ".results.jobs.queued";
+
+    public static final String RESULTS_JOBS_RUNNING = PREFIX + ".results.jobs.running";
+
+    public static final String RESULTS_JOBS_REJECTED = PREFIX + ".results.jobs.rejected";
+
+    public static final String RESULTS_JOBS_WAIT = PREFIX + ".results.jobs.wait";
+
+    public static final String RESULTS_JOBS_DURATION = PREFIX + ".results.jobs.duration";
+
+    public static final String TAG_OPERATION = "operation";
+
+    public static final String TAG_OUTCOME = "outcome";
+
+    public static final String TAG_ENDPOINT = "endpoint";
+
+    public static final String TAG_LANE = "lane";
+
+    public static final String SUCCESS = "success";
+
+    public static final String ERROR = "error";
+
+    public static final String NONE = "none";
+
+    private TaskClerkMetrics() {
+    }
+
+    /**
+     * Tag value of a remote endpoint, the scheme and authority of the url so that ids in the path do not create a
+     * series per request
+     * @param url
+     * @return
+     */
+    public static String endpoint(String url) {
+        if (url == null) {
+            return NONE;
+        }
+        try {
+            URI uri = URI.create(url);
+            if (uri.getAuthority() != null) {
+                return (uri.getScheme() != null ? uri.getScheme() + "://" : "") + uri.getAuthority();
+            }
+        } catch (IllegalArgumentException e) {
+            // fall through to the generic value
+        }
+        return "invalid";
+    }
+}
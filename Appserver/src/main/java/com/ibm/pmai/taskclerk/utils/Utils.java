@@ -16,16 +16,7 @@
 
 package com.ibm.pmai.taskclerk.utils;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.math.BigInteger;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.List;
 import java.util.Random;
@@ -33,19 +24,6 @@ import java.util.Random;
 import org.joda.time.DateTime;
 import org.joda.time.format.DateTimeFormat;
 
-import com.ibm.cloud.objectstorage.ClientConfiguration;
-import com.ibm.cloud.objectstorage.SDKGlobalConfiguration;
-import com.ibm.cloud.objectstorage.auth.AWSCredentials;
-import com.ibm.cloud.objectstorage.auth.AWSStaticCredentialsProvider;
-import com.ibm.cloud.objectstorage.client.builder.AwsClientBuilder;
-import com.ibm.cloud.objectstorage.oauth.BasicIBMOAuthCredentials;
-import com.ibm.cloud.objectstorage.services.s3.AmazonS3;
-import com.ibm.cloud.objectstorage.services.s3.AmazonS3ClientBuilder;
-import com.ibm.cloud.objectstorage.services.s3.model.ObjectMetadata;
-import com.ibm.cloud.objectstorage.services.s3.model.PutObjectRequest;
-import com.ibm.cloud.objectstorage.services.s3.model.PutObjectResult;
-import com.ibm.cloud.objectstorage.services.s3.model.S3Object;
-import com.ibm.cloud.objectstorage.services.s3.model.S3ObjectInputStream;
 import com.ibm.pmai.models.core.Executor;
 import com.ibm.pmai.models.core.Experiment;
 import com.ibm.pmai.models.core.Task;
@@ -56,24 +34,23 @@ import com.ibm.pmai.models.core.Task;
 public class Utils {
 
     /**
-     * Used to generate a hash of a given string input
-     *
-     * @param input
-     * @return
-     * @throws NoSuchAlgorithmException
+     * Lower case hex digits indexed by nibble
      */
-    public static String getSHA512Hash(String input) throws NoSuchAlgorithmException {
-
-        // Get SHA instance
-        MessageDigest digest = MessageDigest.getInstance("SHA-512");
-
-        // Resets the digest for further use.
-        digest.reset();
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
 
-        // Updates the digest using the specified array of bytes.
-        digest.update(input.getBytes(StandardCharsets.UTF_8));
-
-        return String.format("%040x", new BigInteger(1, digest.digest()));
+    /**
+     * Encodes bytes as lower case hex, two characters per byte including leading zeros
+     * @param bytes
+     * @param length number of bytes to encode
+     * @param hex buffer of at least twice the length
+     * @return
+     */
+    public static String toHex(byte[] bytes, int length, char[] hex) {
+        for (int i = 0; i < length; i++) {
+            hex[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0x0F];
+            hex[2 * i + 1] = HEX_DIGITS[bytes[i] & 0x0F];
+        }
+        return new String(hex, 0, length * 2);
     }
 
 
@@ -99,45 +76,6 @@ public class Utils {
     }
 
 
-    public static boolean validateLocationData(String targetURL) {
-        boolean locationDataExists = false;
-        HttpURLConnection connection = null;
-
-        try {
-            //Create connection
-            URL url = new URL(targetURL);
-            connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
-            connection.setRequestProperty("Content-Type", "application/json");
-            connection.setConnectTimeout(10000);
-            connection.setReadTimeout(10000);
-            connection.setUseCaches(false);
-            connection.setDoOutput(true);
-
-            //Get Response
-            InputStream is = connection.getInputStream();
-            BufferedReader rd = new BufferedReader(new InputStreamReader(is));
-            int length = 0;
-            StringBuilder response = new StringBuilder();
-            String line;
-            while ((line = rd.readLine()) != null) {
-                response.append(line);
-                response.append('\r');
-                length++;
-            }
-            rd.close();
-            return length > 1;
-        } catch (Exception e) {
-            e.printStackTrace();
-            return locationDataExists;
-        } finally {
-            if (connection != null) {
-                connection.disconnect();
-            }
-        }
-    }
-
-
     /**
      * Used to combine task values for a hash
      * @param task
@@ -178,91 +116,6 @@ public class Utils {
         return stringBuilder.toString();
     }
 
-    /**
-     * download file from COS
-     * @param apiKey
-     * @param resourceInstanceId
-     * @param endpointUrl
-     * @param bucketName
-     * @param bucketRegion
-     * @param iamEndpoint
-     * @param fileName
-     * @return
-     */
-    public  static S3ObjectInputStream downloadFileFromCos(String apiKey, String resourceInstanceId, String endpointUrl,String bucketName, String bucketRegion,String iamEndpoint,String fileName){
-
-        SDKGlobalConfiguration.IAM_ENDPOINT = iamEndpoint;
-
-        AmazonS3 cos = createClient(apiKey, resourceInstanceId, endpointUrl, bucketRegion);
-
-        S3Object returned = cos.getObject( // request the object by identifying
-            bucketName, // the name of the bucket
-            fileName // the name of the serialized object
-        );
-        S3ObjectInputStream s3Input = returned.getObjectContent(); // set the object stream
-
-        return s3Input;
-
-    }
-
-
-    /**
-     * download file from COS
-     * @param apiKey
-     * @param resourceInstanceId
-     * @param endpointUrl
-     * @param bucketName
-     * @param bucketRegion
-     * @param iamEndpoint
-     * @param contentType
-     * @return
-     */
-    public  static PutObjectResult putObject(String apiKey, String resourceInstanceId, String endpointUrl, String bucketName, String bucketRegion, String iamEndpoint, String contentType, InputStream targetFileStream, String key){
-
-        SDKGlobalConfiguration.IAM_ENDPOINT = iamEndpoint;
-
-        AmazonS3 cos = createClient(apiKey, resourceInstanceId, endpointUrl, bucketRegion);
-        ObjectMetadata metaData = new ObjectMetadata();
-
-        metaData.setContentType(contentType);
-        try {
-            metaData.setContentLength(targetFileStream.available());
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        PutObjectRequest putObjectRequest = new PutObjectRequest(bucketName, key, targetFileStream,metaData);
-
-        PutObjectResult putObjectResult=cos.putObject(putObjectRequest );
-
-        return putObjectResult;
-
-    }
-
-
-    /**
-     * Create COS client
-     * @param apiKey
-     * @param serviceInstanceId
-     * @param endpointUrl
-     * @param location
-     * @return
-     */
-    public static AmazonS3 createClient(String apiKey, String serviceInstanceId, String endpointUrl, String location)
-    {
-        AWSCredentials basicIBMOAuthCredentials = new BasicIBMOAuthCredentials(apiKey, serviceInstanceId);
-        ClientConfiguration clientConfig = new ClientConfiguration()
-            .withRequestTimeout(5000)
-            .withTcpKeepAlive(true);
-
-        return AmazonS3ClientBuilder
-            .standard()
-            .withCredentials(new AWSStaticCredentialsProvider(basicIBMOAuthCredentials))
-            .withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(endpointUrl, location))
-            .withPathStyleAccessEnabled(true)
-            .withClientConfiguration(clientConfig)
-            .build();
-    }
-
     public static int randInt(int min, int max) {
 
         // Usually this can be a field rather than a method variable
@@ -0,0 +1,1164 @@
+-- Schema created by the Hibernate schema update before the schema moved to versioned migrations. Databases created
+-- that way are baselined at this version, so this script only runs on empty databases. Later changes go into the
+-- following versions, which therefore have to apply to both.
+
+create sequence hibernate_sequence start 1 increment 1;
+
+create table action (
+    _id int8 not null,
+    created_at date not null,
+    updated_at date,
+    coverage TEXT,
+    model_name varchar(255),
+    time varchar(255),
+    primary key (_id)
+);
+
+create table action_input (
+    id VARCHAR(255) not null,
+    action_value TEXT,
+    action_key TEXT not null,
+    primary key (id, action_key)
+);
+
+create table action_range (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    coverage_max varchar(255),
+    coverage_min varchar(255),
+    coverage_step varchar(255),
+    date_step varchar(255),
+    intervention_name varchar(255),
+    max_date varchar(255),
+    min_date varchar(255),
+    number_of_episodes varchar(255),
+    primary key (id)
+);
+
+create table action_request (
+    _id varchar(255) not null,
+    created_at date not null,
+    updated_at date,
+    action_hash varchar(255),
+    experiment_id varchar(255),
+    job_seeds bytea,
+    resolution varchar(255),
+    scenario_id varchar(255),
+    timestamp int8,
+    user_id varchar(255),
+    primary key (_id)
+);
+
+create table action_request_action (
+    action_request__id varchar(255) not null,
+    actions__id int8 not null
+);
+
+create table address (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    city varchar(255),
+    country varchar(255),
+    lat varchar(255),
+    lng varchar(255),
+    name varchar(255),
+    postal_code varchar(255),
+    person_id VARCHAR(255),
+    address_id VARCHAR(255),
+    primary key (id)
+);
+
+create table admin_level (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    level_id int4,
+    level_name varchar(255),
+    primary key (id)
+);
+
+create table algorithm (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    active boolean,
+    github_link varchar(255),
+    is_verified boolean,
+    name varchar(255),
+    requirements varchar(255),
+    title varchar(255),
+    type varchar(255),
+    uri varchar(255),
+    version varchar(255),
+    version_author varchar(255),
+    version_date timestamp,
+    primary key (id)
+);
+
+create table blockchain_task_events (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    correlation_id varchar(255),
+    error_code TEXT,
+    error_message TEXT,
+    error_type TEXT,
+    event_status_code varchar(255),
+    event_type varchar(255),
+    next_id varchar(255),
+    previous_id varchar(255),
+    previous_status_code varchar(255),
+    request_payload TEXT,
+    task_id VARCHAR(255),
+    primary key (id)
+);
+
+create table contact (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    system varchar(255),
+    value varchar(255),
+    contact_id VARCHAR(255),
+    primary key (id)
+);
+
+create table data_repository_configuration (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    category VARCHAR(255),
+    credentials TEXT,
+    description varchar(255),
+    host_end_point varchar(255),
+    name varchar(255),
+    primary key (id)
+);
+
+create table datapush (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    description varchar(255),
+    hash TEXT,
+    name varchar(255),
+    datapush_information_id VARCHAR(255),
+    primary key (id)
+);
+
+create table event (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    description varchar(255),
+    event varchar(255),
+    task_id VARCHAR(255),
+    user_id VARCHAR(255),
+    primary key (id)
+);
+
+create table execution_environment (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    authentication_endpoint varchar(255),
+    environment varchar(255),
+    host_endpoint varchar(255),
+    host_password varchar(255),
+    host_username varchar(255),
+    primary key (id)
+);
+
+create table execution_environment_commands (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    command_content_type varchar(255),
+    command_entry_point varchar(255),
+    command_entry_pointuriextension varchar(255),
+    command_name varchar(255),
+    command_sample_output varchar(255),
+    command_template TEXT,
+    environment_command_name varchar(255),
+    execution_environment_id VARCHAR(255),
+    primary key (id)
+);
+
+create table execution_workflow (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    description varchar(255),
+    name varchar(255),
+    work_progress int4,
+    execution_workflow_template_id VARCHAR(255),
+    submission_workflow_template_id VARCHAR(255),
+    primary key (id)
+);
+
+create table execution_workflow_templates (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    workflow_template TEXT,
+    workflow_template_content_type varchar(255),
+    workflow_template_name varchar(255),
+    primary key (id)
+);
+
+create table executor (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    alias varchar(255),
+    counter_factual_comparison boolean,
+    github_link varchar(255),
+    is_active boolean,
+    is_verified boolean,
+    name varchar(255),
+    run_command varchar(255),
+    title varchar(255),
+    uri varchar(255),
+    version varchar(255),
+    version_author varchar(255),
+    version_date timestamp,
+    data_repository_configuration_id VARCHAR(255),
+    execution_environment_action_id VARCHAR(255),
+    executor_type_id VARCHAR(255),
+    organization_id VARCHAR(255),
+    selected_experimeent_post_executor_id VARCHAR(255),
+    default_post_executor_id VARCHAR(255),
+    selected_post_executor_id VARCHAR(255),
+    primary key (id)
+);
+
+create table executor_actions (
+    id VARCHAR(255) not null,
+    executor_expected_actions varchar(255)
+);
+
+create table executor_domain (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    description varchar(255),
+    domain varchar(255),
+    type varchar(255),
+    primary key (id)
+);
+
+create table executor_executor_domain (
+    executor_id VARCHAR(255) not null,
+    executor_domain_id VARCHAR(255) not null
+);
+
+create table executor_executor_requirement_details (
+    executor_id VARCHAR(255) not null,
+    executor_requirement_id VARCHAR(255) not null
+);
+
+create table executor_options (
+    id VARCHAR(255) not null,
+    executor_expected_options varchar(255)
+);
+
+create table executor_requirement (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    category varchar(255),
+    defaults varchar(255),
+    description varchar(255),
+    hidden varchar(255),
+    name varchar(255),
+    readonly varchar(255),
+    required varchar(255),
+    type varchar(255),
+    value varchar(255),
+    optimization_envelope VARCHAR(255),
+    primary key (id)
+);
+
+create table executor_type (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    content_type varchar(255),
+    description varchar(255),
+    name varchar(255),
+    type varchar(255),
+    primary key (id)
+);
+
+create table expected_user_provided_inputs (
+    id VARCHAR(255) not null,
+    expected_user_input_command_inputs varchar(255)
+);
+
+create table expected_user_provided_workflow_template_inputs (
+    id VARCHAR(255) not null,
+    expected_user_input_workflow_template_inputs varchar(255)
+);
+
+create table experiment (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    algorithm_id varchar(255),
+    data TEXT,
+    description varchar(255),
+    experiment_hash varchar(255),
+    experiment_type varchar(255),
+    generation_type varchar(255),
+    job_id varchar(255),
+    location bytea,
+    name varchar(255),
+    resolution varchar(255),
+    scenario_id varchar(255),
+    status boolean,
+    timestamp int8,
+    user_id varchar(255),
+    executor_id VARCHAR(255),
+    primary key (id)
+);
+
+create table experiment_action_range_list (
+    experiment__id VARCHAR(255) not null,
+    action_range_list__id VARCHAR(255) not null
+);
+
+create table experiment_output (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    description varchar(255),
+    hash TEXT,
+    name varchar(255),
+    type varchar(255),
+    experimentoutput_experiment_id VARCHAR(255),
+    data_information_id VARCHAR(255),
+    primary key (id)
+);
+
+create table favourite (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    message varchar(255),
+    task_id VARCHAR(255),
+    user_id VARCHAR(255),
+    primary key (id)
+);
+
+create table feedback (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    contact varchar(255),
+    feedback varchar(255),
+    user_id VARCHAR(255),
+    primary key (id)
+);
+
+create table location (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    admin_level varchar(255),
+    admin_type varchar(255),
+    country varchar(255),
+    is_active boolean,
+    is_verified boolean,
+    located_in varchar(255),
+    names varchar(255),
+    primary key (id)
+);
+
+create table location_admin_level_details (
+    location_id VARCHAR(255) not null,
+    admin_level_id VARCHAR(255) not null
+);
+
+create table location_data (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    location_id VARCHAR(255),
+    primary key (id)
+);
+
+create table location_data_executor_details (
+    location_data_id VARCHAR(255) not null,
+    executor_id VARCHAR(255) not null
+);
+
+create table metadata_details (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    content_type varchar(255),
+    description varchar(255),
+    executor_id varchar(255),
+    key varchar(255),
+    location_id varchar(255),
+    max_days varchar(255),
+    name varchar(255),
+    source varchar(255),
+    start_date varchar(255),
+    test_data TEXT,
+    type varchar(255),
+    data_repository_configuration_id VARCHAR(255),
+    location_data_information_id VARCHAR(255),
+    requirement_data_information_id VARCHAR(255),
+    data_information_id VARCHAR(255),
+    primary key (id)
+);
+
+create table model_input (
+    id VARCHAR(255) not null,
+    container_path varchar(255),
+    json_mapper TEXT,
+    key varchar(255),
+    notes varchar(255),
+    type varchar(255),
+    model_meta_data_id VARCHAR(255),
+    primary key (id)
+);
+
+create table model_mappers (
+    id VARCHAR(255) not null,
+    executor_id varchar(255),
+    file_type varchar(255),
+    mapper_json_string TEXT,
+    primary key (id)
+);
+
+create table model_meta_data (
+    id VARCHAR(255) not null,
+    executable_type varchar(255),
+    executor_id varchar(255),
+    model_code_github varchar(255),
+    model_name varchar(255),
+    model_run_command varchar(255),
+    model_variables varchar(255),
+    model_version varchar(255),
+    onboarded boolean,
+    version_author varchar(255),
+    version_date varchar(255),
+    primary key (id)
+);
+
+create table model_output (
+    id VARCHAR(255) not null,
+    container_path varchar(255),
+    key varchar(255),
+    notes varchar(255),
+    input_type varchar(255),
+    model_meta_data_id VARCHAR(255),
+    primary key (id)
+);
+
+create table notification (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    message varchar(255),
+    task_id VARCHAR(255),
+    user_id VARCHAR(255),
+    primary key (id)
+);
+
+create table optimization_envelope (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    date varchar(255),
+    end_date varchar(255),
+    max_value varchar(255),
+    min_value varchar(255),
+    number_of_episodes varchar(255),
+    start_date varchar(255),
+    step_days varchar(255),
+    step_value varchar(255),
+    value varchar(255),
+    primary key (id)
+);
+
+create table organization (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    active boolean,
+    email varchar(255),
+    name varchar(255),
+    address_id VARCHAR(255),
+    primary key (id)
+);
+
+create table person (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    birth_date varchar(255),
+    email varchar(255),
+    family_name varchar(255),
+    gender varchar(255),
+    given_names varchar(255),
+    occupation varchar(255),
+    organization_id VARCHAR(255),
+    primary key (id)
+);
+
+create table privilege (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    description varchar(255),
+    privilege varchar(255),
+    primary key (id)
+);
+
+create table results_request (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    custom_map TEXT,
+    environments TEXT,
+    executors TEXT,
+    experiments TEXT,
+    locations TEXT,
+    request_name varchar(255),
+    status boolean,
+    tasks TEXT,
+    time_completed varchar(255),
+    time_created varchar(255),
+    primary key (id)
+);
+
+create table results_response (
+    id VARCHAR(255) not null,
+    actions TEXT,
+    environment_id varchar(255),
+    executor_id varchar(255),
+    location_id varchar(255),
+    result_id varchar(255),
+    result_name varchar(255),
+    rewards TEXT,
+    results_response_id VARCHAR(255),
+    primary key (id)
+);
+
+create table role (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    description varchar(255),
+    role varchar(255),
+    primary key (id)
+);
+
+create table role_privilege (
+    role_id VARCHAR(255) not null,
+    privilege_id VARCHAR(255) not null
+);
+
+create table system_auto_fill_inputs (
+    id VARCHAR(255) not null,
+    system_auto_fill_input_command_value varchar(255),
+    system_auto_fill_input_command_key varchar(255) not null,
+    primary key (id, system_auto_fill_input_command_key)
+);
+
+create table system_auto_fill_workflow_template_inputs (
+    id VARCHAR(255) not null,
+    system_auto_fill_workflow_template_input_value varchar(255),
+    system_auto_fill_workflow_template_input_key varchar(255) not null,
+    primary key (id, system_auto_fill_workflow_template_input_key)
+);
+
+create table system_default_inputs (
+    id VARCHAR(255) not null,
+    system_default_input_command_value varchar(255)
+);
+
+create table system_default_workflow_template_inputs (
+    id VARCHAR(255) not null,
+    system_default_input_workflow_template_value varchar(255)
+);
+
+create table task (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    description varchar(255),
+    experiment_id varchar(255),
+    name varchar(255),
+    null_action_hash varchar(255),
+    task_hash varchar(255),
+    type varchar(255),
+    work_progress int4,
+    data_repository_configuration_id VARCHAR(255),
+    executor_id VARCHAR(255),
+    location_id VARCHAR(255),
+    location_data_id VARCHAR(255),
+    task_input_id VARCHAR(255),
+    user_id VARCHAR(255),
+    experiment_task_id VARCHAR(255),
+    workflow_task_id VARCHAR(255),
+    primary key (id)
+);
+
+create table task_input (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    description varchar(255),
+    name varchar(255),
+    type varchar(255),
+    primary key (id)
+);
+
+create table task_output (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    description varchar(255),
+    hash TEXT,
+    name varchar(255),
+    type varchar(255),
+    data_information_id VARCHAR(255),
+    taskoutput_task_id VARCHAR(255),
+    primary key (id)
+);
+
+create table task_states (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    equivalent_progress_value int4,
+    is_active boolean,
+    state varchar(255),
+    workflow_state_id VARCHAR(255),
+    task_state_id VARCHAR(255),
+    primary key (id)
+);
+
+create table user_role (
+    user_id VARCHAR(255) not null,
+    role_id VARCHAR(255) not null
+);
+
+create table users (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    password varchar(255),
+    user_name varchar(255),
+    person_id VARCHAR(255),
+    primary key (id)
+);
+
+create table workflow_task_execution_flow (
+    id VARCHAR(255) not null,
+    work_flow_tasks_id VARCHAR(255) not null,
+    workflow_index_key int4 not null,
+    primary key (id, workflow_index_key)
+);
+
+alter table if exists action_request_action
+    add constraint UK_bkdpagklbtlkon4t6s5ralnsk unique (actions__id);
+
+alter table if exists admin_level
+    add constraint UK_pva6wa9ar1i8hyf7w3kd7aj88 unique (level_name);
+
+create index id_idx on blockchain_task_events (id);
+create index next_id_idx on blockchain_task_events (next_id);
+create index task_id_idx on blockchain_task_events (task_id);
+create index event_type_idx on blockchain_task_events (event_type);
+create index event_status_code_idx on blockchain_task_events (event_status_code);
+create index previous_status_code_idx on blockchain_task_events (previous_status_code);
+create index previous_id_idx on blockchain_task_events (previous_id);
+
+alter table if exists data_repository_configuration
+    add constraint UK_37gar5olc8b97vin44gmiunk7 unique (name);
+
+alter table if exists datapush
+    add constraint UK_9qv8p30p5fra3ptvcf1tne27y unique (name);
+
+alter table if exists execution_environment_commands
+    add constraint UK_4k4sinoyfgv7qnvhm5d10qe9v unique (environment_command_name);
+
+alter table if exists experiment_action_range_list
+    add constraint UK_nsp1o43x76sy4w1ujlkcnfhnf unique (action_range_list__id);
+
+alter table if exists model_mappers
+    add constraint UK_jjyke6b48bhg0yvqj1mmg2feu unique (executor_id);
+
+alter table if exists model_meta_data
+    add constraint UK_6fxat2kqb0iiep3s5skdlh9xr unique (model_name);
+
+alter table if exists workflow_task_execution_flow
+    add constraint UK_85ucuo03wfd1hcnyym2p5k4k7 unique (work_flow_tasks_id);
+
+alter table if exists action_input
+    add constraint FKgrlwmlm98wtgnrqy8k6lqkue
+    foreign key (id)
+    references task_input;
+
+alter table if exists action_request_action
+    add constraint FKl0gek5icmeddk1qkxlb41pfkk
+    foreign key (actions__id)
+    references action;
+
+alter table if exists action_request_action
+    add constraint FKf6liu8gnwbpi1ex8vv57f617i
+    foreign key (action_request__id)
+    references action_request;
+
+alter table if exists address
+    add constraint FK81ihijcn1kdfwffke0c0sjqeb
+    foreign key (person_id)
+    references person;
+
+alter table if exists address
+    add constraint FKq0t6afgeu4g74naw03vtprogl
+    foreign key (address_id)
+    references person;
+
+alter table if exists blockchain_task_events
+    add constraint FKr8d37hm7qs057ljhnk9r5ylpo
+    foreign key (task_id)
+    references task;
+
+alter table if exists contact
+    add constraint FKtg0h8qsd4jv9y6vk747cdfu7t
+    foreign key (contact_id)
+    references person;
+
+alter table if exists datapush
+    add constraint FKlwhmbim3esq3e2rajb4aybgkt
+    foreign key (datapush_information_id)
+    references metadata_details;
+
+alter table if exists event
+    add constraint FKpxqrrwy7eae3ulr9fj38cyc89
+    foreign key (task_id)
+    references task;
+
+alter table if exists event
+    add constraint FK31rxexkqqbeymnpw4d3bf9vsy
+    foreign key (user_id)
+    references users;
+
+alter table if exists execution_environment_commands
+    add constraint FKbshsmgbfpyrxprwd8rg8dbhyp
+    foreign key (execution_environment_id)
+    references execution_environment;
+
+alter table if exists execution_workflow
+    add constraint FKk02bublurvji8avps2oavsjvk
+    foreign key (execution_workflow_template_id)
+    references execution_workflow_templates;
+
+alter table if exists execution_workflow
+    add constraint FKaitcd99rh89d6a0u6emc8y32k
+    foreign key (submission_workflow_template_id)
+    references execution_workflow_templates;
+
+alter table if exists executor
+    add constraint FKl6vnsqmo4gqd8uqs6vqw2m8r7
+    foreign key (data_repository_configuration_id)
+    references data_repository_configuration;
+
+alter table if exists executor
+    add constraint FKfru9qysi1rhnuiwujgsp2nxpr
+    foreign key (execution_environment_action_id)
+    references execution_environment_commands;
+
+alter table if exists executor
+    add constraint FKgq1fxourjurati15jxc71p04r
+    foreign key (executor_type_id)
+    references executor_type;
+
+alter table if exists executor
+    add constraint FKirj35x56aq1u63mbsygwev2k1
+    foreign key (organization_id)
+    references organization;
+
+alter table if exists executor
+    add constraint FKpgkrq4dcx7xejtds2kus2lpyq
+    foreign key (selected_experimeent_post_executor_id)
+    references experiment;
+
+alter table if exists executor
+    add constraint FKfk2sp5uetbtd7yyhljo2tf5uq
+    foreign key (default_post_executor_id)
+    references executor;
+
+alter table if exists executor
+    add constraint FKp53hu4ckr4oy88bqrol0jf42u
+    foreign key (selected_post_executor_id)
+    references task;
+
+alter table if exists executor_actions
+    add constraint FK9i69b48j2bcq0bo8og43pt1c9
+    foreign key (id)
+    references executor;
+
+alter table if exists executor_executor_domain
+    add constraint FKcv7nvoib66h3w2h1lntwmq9i9
+    foreign key (executor_domain_id)
+    references executor_domain;
+
+alter table if exists executor_executor_domain
+    add constraint FK51onpi563r7ny3cmaw9bnfwkp
+    foreign key (executor_id)
+    references executor;
+
+alter table if exists executor_executor_requirement_details
+    add constraint FK2fp4f5fumf80760qbmwyp0i16
+    foreign key (executor_requirement_id)
+    references executor_requirement;
+
+alter table if exists executor_executor_requirement_details
+    add constraint FKa781j6dkg7tsqcx7xu6g1lvjy
+    foreign key (executor_id)
+    references executor;
+
+alter table if exists executor_options
+    add constraint FK7rd8li8vq9k4csjcj6pcanoiw
+    foreign key (id)
+    references executor_requirement;
+
+alter table if exists executor_requirement
+    add constraint FK92x1kat53l59vgqgh74lrfo7p
+    foreign key (optimization_envelope)
+    references optimization_envelope;
+
+alter table if exists expected_user_provided_inputs
+    add constraint FKe8ucaxehfv6bx7ulqwe5hiola
+    foreign key (id)
+    references execution_environment_commands;
+
+alter table if exists expected_user_provided_workflow_template_inputs
+    add constraint FK4ravx9is8kpfuof60g72mxr83
+    foreign key (id)
+    references execution_workflow_templates;
+
+alter table if exists experiment
+    add constraint FK2obluyxg3vc0qjyhrk3mvr5od
+    foreign key (executor_id)
+    references executor;
+
+alter table if exists experiment_action_range_list
+    add constraint FKs7s68k7cxfcskbqcvs2pqipr
+    foreign key (action_range_list__id)
+    references action_range;
+
+alter table if exists experiment_action_range_list
+    add constraint FKm2t4upd49lbq3l7433wn02c7f
+    foreign key (experiment__id)
+    references experiment;
+
+alter table if exists experiment_output
+    add constraint FKv70ouq2okwxh3bkhee975auj
+    foreign key (experimentoutput_experiment_id)
+    references experiment;
+
+alter table if exists experiment_output
+    add constraint FK8ruytwidfm48oqwub763rp47g
+    foreign key (data_information_id)
+    references metadata_details;
+
+alter table if exists favourite
+    add constraint FKhxtbdv1brpgtu6g6eq9ywvcl3
+    foreign key (task_id)
+    references task;
+
+alter table if exists favourite
+    add constraint FKrylb2w10mvr2e6cwbisk75obj
+    foreign key (user_id)
+    references users;
+
+alter table if exists feedback
+    add constraint FKpwwmhguqianghvi1wohmtsm8l
+    foreign key (user_id)
+    references users;
+
+alter table if exists location_admin_level_details
+    add constraint FKjv25pj3b41jfd3tu8i9iibris
+    foreign key (admin_level_id)
+    references admin_level;
+
+alter table if exists location_admin_level_details
+    add constraint FKnc9qhom1xoi3ol45h6hpjmvpt
+    foreign key (location_id)
+    references location;
+
+alter table if exists location_data
+    add constraint FKhxb17d8414ia4kanergwyc6qe
+    foreign key (location_id)
+    references location;
+
+alter table if exists location_data_executor_details
+    add constraint FKa1tfkmubbiung4i7vsmfhtke3
+    foreign key (executor_id)
+    references executor;
+
+alter table if exists location_data_executor_details
+    add constraint FKl8qwkbwbxwy2n5gwpm4mg6ohx
+    foreign key (location_data_id)
+    references location_data;
+
+alter table if exists metadata_details
+    add constraint FKs1bn31nih10p0kv3g89jt9yk3
+    foreign key (data_repository_configuration_id)
+    references data_repository_configuration;
+
+alter table if exists metadata_details
+    add constraint FKo1iw3m7my2goehhrm5ejocgof
+    foreign key (location_data_information_id)
+    references location_data;
+
+alter table if exists metadata_details
+    add constraint FK2qx7oo8pxncfi98w288xmncf2
+    foreign key (requirement_data_information_id)
+    references executor_requirement;
+
+alter table if exists metadata_details
+    add constraint FKps9y8s3vlw7c7c81bag1h17om
+    foreign key (data_information_id)
+    references task_input;
+
+alter table if exists model_input
+    add constraint FKe2dr9tdv6op60mhsdb8viikxp
+    foreign key (model_meta_data_id)
+    references model_meta_data;
+
+alter table if exists model_output
+    add constraint FKtl86ey10nyc19l5rx6w3h0c8u
+    foreign key (model_meta_data_id)
+    references model_meta_data;
+
+alter table if exists notification
+    add constraint FKg6e8dcyvu9qdcfds2o3pj9qen
+    foreign key (task_id)
+    references task;
+
+alter table if exists notification
+    add constraint FKnk4ftb5am9ubmkv1661h15ds9
+    foreign key (user_id)
+    references users;
+
+alter table if exists organization
+    add constraint FK97eigsvq2tsrd2bge4ox651wh
+    foreign key (address_id)
+    references address;
+
+alter table if exists person
+    add constraint FK23c7ajo7g43ugmupov5banbas
+    foreign key (organization_id)
+    references organization;
+
+alter table if exists results_response
+    add constraint FK4trrxf9s8qxdotw4138bwffkj
+    foreign key (results_response_id)
+    references results_request;
+
+alter table if exists role_privilege
+    add constraint FKdkwbrwb5r8h74m1v7dqmhp99c
+    foreign key (privilege_id)
+    references privilege;
+
+alter table if exists role_privilege
+    add constraint FKsykrtrdngu5iexmbti7lu9xa
+    foreign key (role_id)
+    references role;
+
+alter table if exists system_auto_fill_inputs
+    add constraint FKm4cwmt7lgusu88nrcmx0bee8p
+    foreign key (id)
+    references execution_environment_commands;
+
+alter table if exists system_auto_fill_workflow_template_inputs
+    add constraint FK174ev94lt598w6q6leknqg4fo
+    foreign key (id)
+    references execution_workflow_templates;
+
+alter table if exists system_default_inputs
+    add constraint FKcgv62dhp97bm83qrp35bcpv4g
+    foreign key (id)
+    references execution_environment_commands;
+
+alter table if exists system_default_workflow_template_inputs
+    add constraint FK84yxreg63fnl8s5as6c3qwmw3
+    foreign key (id)
+    references execution_workflow_templates;
+
+alter table if exists task
+    add constraint FKgh5221vb367e61fiwfx6nr1uq
+    foreign key (data_repository_configuration_id)
+    references data_repository_configuration;
+
+alter table if exists task
+    add constraint FKsdacep5e9cs3ovry0m5l5jgv5
+    foreign key (executor_id)
+    references executor;
+
+alter table if exists task
+    add constraint FK3g10rvjt2p0aswg0c3ihct9fc
+    foreign key (location_id)
+    references location;
+
+alter table if exists task
+    add constraint FK5yqo51801wnqc2bqkh1j1vdyt
+    foreign key (location_data_id)
+    references location_data;
+
+alter table if exists task
+    add constraint FKkhjhdo5ps553f85hybr3qj7i9
+    foreign key (task_input_id)
+    references task_input;
+
+alter table if exists task
+    add constraint FKbhwpp8tr117vvbxhf5sbkdkc9
+    foreign key (user_id)
+    references users;
+
+alter table if exists task
+    add constraint FKsj51uuhvvwsunb9inw5u8bb55
+    foreign key (experiment_task_id)
+    references experiment;
+
+alter table if exists task
+    add constraint FKiydg81iwpnutcbor3n69uv7y7
+    foreign key (workflow_task_id)
+    references execution_workflow;
+
+alter table if exists task_output
+    add constraint FKal2m5d343u1lkw3nxlpt4cbpy
+    foreign key (data_information_id)
+    references metadata_details;
+
+alter table if exists task_output
+    add constraint FKli5roky7kctk6lqou82m86xhy
+    foreign key (taskoutput_task_id)
+    references task;
+
+alter table if exists task_states
+    add constraint FK6k7vn67rogqth50ucbmx6be1u
+    foreign key (workflow_state_id)
+    references execution_workflow;
+
+alter table if exists task_states
+    add constraint FK4aom0gluce1upk9g8owdlusd6
+    foreign key (task_state_id)
+    references task;
+
+alter table if exists user_role
+    add constraint FKa68196081fvovjhkek5m97n3y
+    foreign key (role_id)
+    references role;
+
+alter table if exists user_role
+    add constraint FKj345gk1bovqvfame88rcx7yyx
+    foreign key (user_id)
+    references users;
+
+alter table if exists users
+    add constraint FKd21kkcigxa21xuby5i3va9ncs
+    foreign key (person_id)
+    references person;
+
+alter table if exists workflow_task_execution_flow
+    add constraint FK6vxeywp2qaeagqxwbppvtgyd1
+    foreign key (work_flow_tasks_id)
+    references task;
+
+alter table if exists workflow_task_execution_flow
+    add constraint FKofhv6kican3wc8cwadoh5vftt
+    foreign key (id)
+    references execution_workflow;
+
+-- Spring Batch job repository, schema-postgresql.sql of spring-batch-core 4.2.3
+CREATE TABLE BATCH_JOB_INSTANCE (
+    JOB_INSTANCE_ID BIGINT  NOT NULL PRIMARY KEY,
+    VERSION BIGINT,
+    JOB_NAME VARCHAR(100) NOT NULL,
+    JOB_KEY VARCHAR(32) NOT NULL,
+    constraint JOB_INST_UN unique (JOB_NAME, JOB_KEY)
+);
+
+CREATE TABLE BATCH_JOB_EXECUTION (
+    JOB_EXECUTION_ID BIGINT  NOT NULL PRIMARY KEY,
+    VERSION BIGINT ,
+    JOB_INSTANCE_ID BIGINT NOT NULL,
+    CREATE_TIME TIMESTAMP NOT NULL,
+    START_TIME TIMESTAMP DEFAULT NULL,
+    END_TIME TIMESTAMP DEFAULT NULL,
+    STATUS VARCHAR(10),
+    EXIT_CODE VARCHAR(2500),
+    EXIT_MESSAGE VARCHAR(2500),
+    LAST_UPDATED TIMESTAMP,
+    JOB_CONFIGURATION_LOCATION VARCHAR(2500) NULL,
+    constraint JOB_INST_EXEC_FK foreign key (JOB_INSTANCE_ID)
+    references BATCH_JOB_INSTANCE(JOB_INSTANCE_ID)
+);
+
+CREATE TABLE BATCH_JOB_EXECUTION_PARAMS (
+    JOB_EXECUTION_ID BIGINT NOT NULL,
+    TYPE_CD VARCHAR(6) NOT NULL,
+    KEY_NAME VARCHAR(100) NOT NULL,
+    STRING_VAL VARCHAR(250),
+    DATE_VAL TIMESTAMP DEFAULT NULL,
+    LONG_VAL BIGINT,
+    DOUBLE_VAL DOUBLE PRECISION,
+    IDENTIFYING CHAR(1) NOT NULL,
+    constraint JOB_EXEC_PARAMS_FK foreign key (JOB_EXECUTION_ID)
+    references BATCH_JOB_EXECUTION(JOB_EXECUTION_ID)
+);
+
+CREATE TABLE BATCH_STEP_EXECUTION (
+    STEP_EXECUTION_ID BIGINT  NOT NULL PRIMARY KEY,
+    VERSION BIGINT NOT NULL,
+    STEP_NAME VARCHAR(100) NOT NULL,
+    JOB_EXECUTION_ID BIGINT NOT NULL,
+    START_TIME TIMESTAMP NOT NULL,
+    END_TIME TIMESTAMP DEFAULT NULL,
+    STATUS VARCHAR(10),
+    COMMIT_COUNT BIGINT,
+    READ_COUNT BIGINT,
+    FILTER_COUNT BIGINT,
+    WRITE_COUNT BIGINT,
+    READ_SKIP_COUNT BIGINT,
+    WRITE_SKIP_COUNT BIGINT,
+    PROCESS_SKIP_COUNT BIGINT,
+    ROLLBACK_COUNT BIGINT,
+    EXIT_CODE VARCHAR(2500),
+    EXIT_MESSAGE VARCHAR(2500),
+    LAST_UPDATED TIMESTAMP,
+    constraint JOB_EXEC_STEP_FK foreign key (JOB_EXECUTION_ID)
+    references BATCH_JOB_EXECUTION(JOB_EXECUTION_ID)
+);
+
+CREATE TABLE BATCH_STEP_EXECUTION_CONTEXT (
+    STEP_EXECUTION_ID BIGINT NOT NULL PRIMARY KEY,
+    SHORT_CONTEXT VARCHAR(2500) NOT NULL,
+    SERIALIZED_CONTEXT TEXT,
+    constraint STEP_EXEC_CTX_FK foreign key (STEP_EXECUTION_ID)
+    references BATCH_STEP_EXECUTION(STEP_EXECUTION_ID)
+);
+
+CREATE TABLE BATCH_JOB_EXECUTION_CONTEXT (
+    JOB_EXECUTION_ID BIGINT NOT NULL PRIMARY KEY,
+    SHORT_CONTEXT VARCHAR(2500) NOT NULL,
+    SERIALIZED_CONTEXT TEXT,
+    constraint JOB_EXEC_CTX_FK foreign key (JOB_EXECUTION_ID)
+    references BATCH_JOB_EXECUTION(JOB_EXECUTION_ID)
+);
+
+CREATE SEQUENCE BATCH_STEP_EXECUTION_SEQ MAXVALUE 9223372036854775807 NO CYCLE;
+CREATE SEQUENCE BATCH_JOB_EXECUTION_SEQ MAXVALUE 9223372036854775807 NO CYCLE;
+CREATE SEQUENCE BATCH_JOB_SEQ MAXVALUE 9223372036854775807 NO CYCLE;
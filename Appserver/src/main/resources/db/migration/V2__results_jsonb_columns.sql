@@ -0,0 +1,33 @@
+-- The JSON documents of the results were stored as TEXT before they were mapped to jsonb; convert them in place.
+-- The columns of a table are altered in one statement so the table is rewritten once, not once per column.
+DO $$
+DECLARE
+    json_table RECORD;
+BEGIN
+    FOR json_table IN
+        SELECT table_name,
+               string_agg(format('ALTER COLUMN %I TYPE jsonb USING NULLIF(%I, '''')::jsonb', column_name, column_name), ', ') AS alterations
+        FROM information_schema.columns
+        WHERE table_schema = current_schema()
+          AND data_type = 'text'
+          AND (table_name, column_name) IN (
+              ('results_request', 'environments'),
+              ('results_request', 'executors'),
+              ('results_request', 'locations'),
+              ('results_request', 'experiments'),
+              ('results_request', 'tasks'),
+              ('results_request', 'custom_map'),
+              ('results_response', 'actions'),
+              ('results_response', 'rewards'))
+        GROUP BY table_name
+    LOOP
+        EXECUTE format('ALTER TABLE %I %s', json_table.table_name, json_table.alterations);
+    END LOOP;
+END $$;
+
+
+-- containment filters of the results request search
+CREATE INDEX IF NOT EXISTS results_request_environments_gin_idx ON results_request USING GIN (environments jsonb_path_ops);
+CREATE INDEX IF NOT EXISTS results_request_executors_gin_idx ON results_request USING GIN (executors jsonb_path_ops);
+CREATE INDEX IF NOT EXISTS results_request_locations_gin_idx ON results_request USING GIN (locations jsonb_path_ops);
+CREATE INDEX IF NOT EXISTS results_request_experiments_gin_idx ON results_request USING GIN (experiments jsonb_path_ops);
@@ -0,0 +1,53 @@
+-- Indexes declared on the entities of the baseline tables. Hibernate created them while it managed the schema, they
+-- are created here for databases baselined before they existed.
+CREATE INDEX IF NOT EXISTS algorithm_created_at_id_idx ON algorithm (created_at, id);
+CREATE INDEX IF NOT EXISTS data_repository_configuration_created_at_id_idx ON data_repository_configuration (created_at, id);
+CREATE INDEX IF NOT EXISTS datapush_created_at_id_idx ON datapush (created_at, id);
+CREATE INDEX IF NOT EXISTS execution_environment_created_at_id_idx ON execution_environment (created_at, id);
+CREATE INDEX IF NOT EXISTS execution_environment_commands_created_at_id_idx ON execution_environment_commands (created_at, id);
+CREATE INDEX IF NOT EXISTS executor_created_at_id_idx ON executor (created_at, id);
+CREATE INDEX IF NOT EXISTS executor_domain_created_at_id_idx ON executor_domain (created_at, id);
+CREATE INDEX IF NOT EXISTS executor_type_created_at_id_idx ON executor_type (created_at, id);
+CREATE INDEX IF NOT EXISTS experiment_created_at_id_idx ON experiment (created_at, id);
+CREATE INDEX IF NOT EXISTS experiment_output_created_at_id_idx ON experiment_output (created_at, id);
+CREATE INDEX IF NOT EXISTS favourite_created_at_id_idx ON favourite (created_at, id);
+CREATE INDEX IF NOT EXISTS feedback_created_at_id_idx ON feedback (created_at, id);
+CREATE INDEX IF NOT EXISTS location_created_at_id_idx ON location (created_at, id);
+CREATE INDEX IF NOT EXISTS location_data_created_at_id_idx ON location_data (created_at, id);
+CREATE INDEX IF NOT EXISTS metadata_details_created_at_id_idx ON metadata_details (created_at, id);
+CREATE INDEX IF NOT EXISTS notification_created_at_id_idx ON notification (created_at, id);
+CREATE INDEX IF NOT EXISTS results_request_created_at_id_idx ON results_request (created_at, id);
+
+-- experiment: getByExperimentHash, getByExperimentHashAndAlgorithmId
+CREATE INDEX IF NOT EXISTS experiment_experiment_hash_algorithm_id_idx ON experiment (experiment_hash, algorithm_id);
+-- experiment: getByAlgorithmId
+CREATE INDEX IF NOT EXISTS experiment_algorithm_id_idx ON experiment (algorithm_id);
+-- experiment: getByUserId, findSummariesByUserId ordered by creation, getByUserIdAndScenarioIdAndResolution
+CREATE INDEX IF NOT EXISTS experiment_user_id_created_at_id_idx ON experiment (user_id, created_at, id);
+
+-- experiment_output: getByExperiment_Id, getByExperiment_IdAndAndTypeOrderByUpdatedAt
+CREATE INDEX IF NOT EXISTS experiment_output_experiment_id_type_updated_at_idx ON experiment_output (experimentoutput_experiment_id, type, updated_at);
+-- experiment_output: getByExperiment_IdOrderByUpdatedAt
+CREATE INDEX IF NOT EXISTS experiment_output_experiment_id_updated_at_idx ON experiment_output (experimentoutput_experiment_id, updated_at);
+-- experiment_output: getByHashAndExperiment_Id, getByHashAndAndTypeAndExperiment_Id
+CREATE INDEX IF NOT EXISTS experiment_output_hash_experiment_id_idx ON experiment_output (hash, experimentoutput_experiment_id);
+
+-- datapush: getByHash
+CREATE INDEX IF NOT EXISTS datapush_hash_idx ON datapush (hash);
+
+-- task: getByTaskHash, getByTaskHashAndType, getByTaskHashAndWorkProgressAndType
+CREATE INDEX IF NOT EXISTS task_task_hash_type_work_progress_idx ON task (task_hash, type, work_progress);
+-- task: getByNullActionHashAndType, getByNullActionHashAndWorkProgressAndType
+CREATE INDEX IF NOT EXISTS task_null_action_hash_type_work_progress_idx ON task (null_action_hash, type, work_progress);
+-- task: findByExecutor_IdAndWorkProgress, findByExecutor_IdAndLocation_IdAndWorkProgress
+CREATE INDEX IF NOT EXISTS task_executor_id_work_progress_location_id_idx ON task (executor_id, work_progress, location_id);
+-- task: getByExperimentId
+CREATE INDEX IF NOT EXISTS task_experiment_id_idx ON task (experiment_id);
+
+-- metadata_details: getByLocationIdAndExecutorId
+CREATE INDEX IF NOT EXISTS metadata_details_location_id_executor_id_idx ON metadata_details (location_id, executor_id);
+
+-- results_response: countByResultId, streamByResultId ordered by id
+CREATE INDEX IF NOT EXISTS results_response_result_id_id_idx ON results_response (result_id, id);
+-- results_response: results of a results request
+CREATE INDEX IF NOT EXISTS results_response_results_response_id_idx ON results_response (results_response_id);
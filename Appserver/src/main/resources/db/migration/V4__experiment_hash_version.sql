@@ -0,0 +1,5 @@
+-- Format of the experiment hash; existing rows stay NULL until the re-hash migration has checked them
+ALTER TABLE experiment ADD COLUMN IF NOT EXISTS experiment_hash_version int4;
+
+-- experiment: findUnversionedHashes, empty once every row has been checked
+CREATE INDEX IF NOT EXISTS experiment_unversioned_hash_idx ON experiment (id) WHERE experiment_hash_version IS NULL;
@@ -0,0 +1,21 @@
+-- Queue of the results jobs, a row lives from the submission of its results request until its job has finished
+CREATE TABLE IF NOT EXISTS results_job (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    enqueued_at timestamp not null,
+    lane varchar(255) not null,
+    lease_until timestamp,
+    result_request_id varchar(255) not null,
+    started_at timestamp,
+    status varchar(255) not null,
+    user_id varchar(255) not null,
+    primary key (id)
+);
+
+-- results_job: findQueuedForUpdate takes the oldest queued jobs of a lane
+CREATE INDEX IF NOT EXISTS results_job_status_lane_enqueued_at_idx ON results_job (status, lane, enqueued_at);
+-- results_job: countByUserId, countByStatusGroupByUserId
+CREATE INDEX IF NOT EXISTS results_job_user_status_idx ON results_job (user_id, status);
+-- results_job: existsByResultRequestId
+CREATE INDEX IF NOT EXISTS results_job_result_request_idx ON results_job (result_request_id);
@@ -0,0 +1,22 @@
+-- Outbox of the experiments waiting to be submitted to the job deployment service
+CREATE TABLE IF NOT EXISTS experiment_submission (
+    id VARCHAR(255) not null,
+    created_at date not null,
+    updated_at date,
+    args TEXT,
+    attempts int4,
+    data_base_uri TEXT,
+    experiment_id varchar(255) not null,
+    job_deployment_service_url TEXT,
+    job_type varchar(255),
+    last_error TEXT,
+    location_code varchar(255),
+    next_attempt_at timestamp,
+    status varchar(255) not null,
+    primary key (id)
+);
+
+-- experiment_submission: findDueForUpdate takes the due submissions in the order of their next attempt
+CREATE INDEX IF NOT EXISTS experiment_submission_status_next_attempt_idx ON experiment_submission (status, next_attempt_at);
+-- experiment_submission: getByExperimentId
+CREATE INDEX IF NOT EXISTS experiment_submission_experiment_idx ON experiment_submission (experiment_id);
@@ -0,0 +1,12 @@
+-- Last job state reported by the JDS, kept up to date by the job status synchroniser
+ALTER TABLE experiment
+    ADD COLUMN IF NOT EXISTS job_message TEXT,
+    ADD COLUMN IF NOT EXISTS job_state varchar(255),
+    ADD COLUMN IF NOT EXISTS job_state_changed_at timestamp,
+    ADD COLUMN IF NOT EXISTS job_status_checked_at timestamp,
+    ADD COLUMN IF NOT EXISTS job_status_code int4,
+    ADD COLUMN IF NOT EXISTS job_status_next_check_at timestamp;
+
+-- experiment: findDueForJobStatusCheck only scans the experiments whose job is still running
+CREATE INDEX IF NOT EXISTS experiment_job_status_next_check_at_idx ON experiment (job_status_next_check_at NULLS FIRST)
+    WHERE status = false AND job_id IS NOT NULL;
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ibm.pmai.taskclerk;
+
+import java.io.IOException;
+
+import javax.sql.DataSource;
+
+import org.junit.runner.RunWith;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Base of the tests that need the real schema. An embedded PostgreSQL is started once per JVM, the Flyway migrations
+ * are applied to it and the repositories run with the Hibernate settings of the dev profile. Tests are not wrapped in
+ * a transaction, so they see commits the way concurrent instances do, and clean up their own rows.
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = PostgresRepositoryTest.PostgresConfiguration.class)
+@ActiveProfiles("dev")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public abstract class PostgresRepositoryTest {
+
+    private static EmbeddedPostgres embeddedPostgres;
+
+    static synchronized EmbeddedPostgres getEmbeddedPostgres() throws IOException {
+        if (embeddedPostgres == null) {
+            embeddedPostgres = EmbeddedPostgres.builder().start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    embeddedPostgres.close();
+                } catch (IOException e) {
+                    // the process is exiting anyway
+                }
+            }));
+        }
+        return embeddedPostgres;
+    }
+
+    @Configuration
+    @EnableJpaRepositories("com.ibm.pmai.models.repositories")
+    @EntityScan("com.ibm.pmai.models")
+    @EnableJpaAuditing
+    public static class PostgresConfiguration {
+
+        @Bean
+        public DataSource dataSource() throws IOException {
+            return getEmbeddedPostgres().getPostgresDatabase();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.pmai.taskclerk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * The Flyway migrations on an empty database and on a database created by the Hibernate schema update before the
+ * migrations existed, which is baselined at version 1 and only gets the later versions
+ */
+public class SchemaMigrationTest {
+
+    private static final String QUERY_COLUMN_TYPE = "SELECT data_type FROM information_schema.columns " +
+        "WHERE table_schema = current_schema() AND table_name = ? AND column_name = ?";
+
+    private static final String QUERY_INDEX_NAMES = "SELECT indexname FROM pg_indexes WHERE schemaname = current_schema()";
+
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void setUp() throws Exception {
+        String databaseName = "migration_" + UUID.randomUUID().toString().replace("-", "");
+        new JdbcTemplate(PostgresRepositoryTest.getEmbeddedPostgres().getPostgresDatabase()).execute("CREATE DATABASE " + databaseName);
+        dataSource = PostgresRepositoryTest.getEmbeddedPostgres().getDatabase("postgres", databaseName);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    public void baselineOnlyHoldsTheSchemaFromBeforeTheMigrations() {
+        configure().target(MigrationVersion.fromVersion("1")).load().migrate();
+
+        assertEquals("text", getColumnType("results_request", "environments"));
+        assertEquals("text", getColumnType("results_response", "actions"));
+        assertEquals(null, getColumnType("experiment", "job_state"));
+        assertEquals(null, getColumnType("experiment", "job_status_next_check_at"));
+        assertEquals(null, getColumnType("experiment", "experiment_hash_version"));
+        assertEquals(null, getColumnType("experiment_submission", "id"));
+        assertEquals(null, getColumnType("results_job", "id"));
+    }
+
+    @Test
+    public void emptyDatabaseIsMigratedToTheLatestVersion() {
+        Flyway flyway = configure().load();
+        flyway.migrate();
+
+        assertEquals(0, flyway.info().pending().length);
+        assertMigratedSchema();
+    }
+
+    @Test
+    public void preMigrationDatabaseIsBaselinedAndMigrated() {
+        // the schema the Hibernate schema update created, with data written through the old TEXT mappings
+        configure().target(MigrationVersion.fromVersion("1")).load().migrate();
+        jdbcTemplate.execute("DROP TABLE flyway_schema_history");
+        jdbcTemplate.update("INSERT INTO results_request (id, created_at, environments, executors, custom_map) VALUES ('r1', now(), ?, '', 'null')",
+            "[{\"id\":\"environment-1\"}]");
+        jdbcTemplate.update("INSERT INTO experiment (id, created_at, job_id, status) VALUES ('e1', now(), 'job-1', false)");
+
+        Flyway flyway = configure().baselineOnMigrate(true).baselineVersion(MigrationVersion.fromVersion("1")).load();
+        flyway.migrate();
+
+        assertEquals(MigrationVersion.fromVersion("1"), flyway.info().applied()[0].getVersion());
+        assertEquals(0, flyway.info().pending().length);
+        assertMigratedSchema();
+        assertEquals(Integer.valueOf(1), jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM results_request WHERE environments @> '[{\"id\":\"environment-1\"}]'", Integer.class));
+        assertEquals(null, jdbcTemplate.queryForObject("SELECT executors FROM results_request WHERE id = 'r1'", String.class));
+        assertEquals(null, jdbcTemplate.queryForObject("SELECT job_state FROM experiment WHERE id = 'e1'", String.class));
+    }
+
+    private void assertMigratedSchema() {
+        for (String column : new String[]{"environments", "executors", "locations", "experiments", "tasks", "custom_map"}) {
+            assertEquals("jsonb", getColumnType("results_request", column));
+        }
+        assertEquals("jsonb", getColumnType("results_response", "actions"));
+        assertEquals("jsonb", getColumnType("results_response", "rewards"));
+        for (String column : new String[]{"job_state", "job_status_code", "job_message", "job_status_checked_at", "job_state_changed_at", "job_status_next_check_at", "experiment_hash_version"}) {
+            assertTrue(column, getColumnType("experiment", column) != null);
+        }
+        assertEquals("text", getColumnType("experiment_submission", "data_base_uri"));
+        assertEquals("character varying", getColumnType("experiment_submission", "location_code"));
+        assertEquals(null, getColumnType("experiment_submission", "data_url"));
+        assertTrue(getColumnType("results_job", "lease_until") != null);
+
+        List<String> indexes = jdbcTemplate.queryForList(QUERY_INDEX_NAMES, String.class);
+        List<String> missing = new ArrayList<>();
+        for (String index : new String[]{"results_request_environments_gin_idx", "experiment_created_at_id_idx", "id_idx",
+                "experiment_submission_status_next_attempt_idx", "experiment_submission_experiment_idx",
+                "experiment_job_status_next_check_at_idx", "experiment_unversioned_hash_idx", "results_job_status_lane_enqueued_at_idx"}) {
+            if (!indexes.contains(index)) {
+                missing.add(index);
+            }
+        }
+        assertTrue("missing indexes " + missing, missing.isEmpty());
+    }
+
+    private FluentConfiguration configure() {
+        return Flyway.configure().dataSource(dataSource).locations("classpath:db/migration");
+    }
+
+    private String getColumnType(String table, String column) {
+        List<String> types = jdbcTemplate.queryForList(QUERY_COLUMN_TYPE, String.class, table, column);
+        return types.isEmpty() ? null : types.get(0);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ibm.pmai.taskclerk.controllers;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import javax.ws.rs.core.Response;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.ibm.pmai.models.core.ResultsRequest;
+import com.ibm.pmai.models.repositories.ResultsRequestRepository;
+import com.ibm.pmai.models.repositories.ResultsResponseRepository;
+import com.ibm.pmai.taskclerk.batch.results.ResultsProgressPublisher;
+import com.ibm.pmai.taskclerk.exceptions.ResultsJobRejectedException;
+import com.ibm.pmai.taskclerk.services.interfaces.ResultsJobService;
+import com.ibm.pmai.taskclerk.utils.Constants;
+import com.ibm.pmai.taskclerk.utils.JsonStreamExporter;
+import com.ibm.pmai.taskclerk.utils.KeysetPaginator;
+
+/**
+ * Submission of the results requests and the user they count against
+ */
+public class ResultsRequestControllerTest {
+
+    private ResultsJobService resultsJobService;
+
+    private ResultsRequestController resultsRequestController;
+
+    private MockHttpServletRequest httpServletRequest;
+
+    private MockHttpServletResponse httpServletResponse;
+
+    @Before
+    public void setUp() {
+        resultsJobService = mock(ResultsJobService.class);
+        resultsRequestController = new ResultsRequestController(mock(ResultsRequestRepository.class), mock(ResultsProgressPublisher.class),
+            mock(JobExplorer.class), mock(KeysetPaginator.class), mock(ResultsResponseRepository.class), mock(JsonStreamExporter.class), resultsJobService);
+
+        httpServletRequest = new MockHttpServletRequest("POST", "/api/resultsrequest");
+        httpServletResponse = new MockHttpServletResponse();
+    }
+
+    @Test
+    public void jobCountsAgainstTheTokenUserRatherThanTheParameter() throws Exception {
+        // set by the authentication interceptor from the validated token
+        httpServletRequest.setAttribute(Constants.AUTHENTICATED_USER, "alice");
+        ResultsRequest resultsRequest = new ResultsRequest();
+        when(resultsJobService.submit(any(ResultsRequest.class), eq("alice"), eq(Constants.RESULTS_JOB_LANES.BULK))).thenReturn(resultsRequest);
+
+        Response response = resultsRequestController.add(resultsRequest, "bob", Constants.RESULTS_JOB_LANES.BULK, httpServletRequest, httpServletResponse);
+
+        assertEquals(200, response.getStatus());
+        verify(resultsJobService).submit(resultsRequest, "alice", Constants.RESULTS_JOB_LANES.BULK);
+    }
+
+    @Test
+    public void jobWithoutTokenCountsAgainstTheRequestedUser() throws Exception {
+        ResultsRequest resultsRequest = new ResultsRequest();
+        when(resultsJobService.submit(any(ResultsRequest.class), any(), any())).thenReturn(resultsRequest);
+
+        resultsRequestController.add(resultsRequest, "bob", Constants.RESULTS_JOB_LANES.INTERACTIVE, httpServletRequest, httpServletResponse);
+        resultsRequestController.add(resultsRequest, null, Constants.RESULTS_JOB_LANES.INTERACTIVE, httpServletRequest, httpServletResponse);
+
+        verify(resultsJobService).submit(resultsRequest, "bob", Constants.RESULTS_JOB_LANES.INTERACTIVE);
+        verify(resultsJobService).submit(resultsRequest, Constants.ANONYMOUS_USER, Constants.RESULTS_JOB_LANES.INTERACTIVE);
+    }
+
+    @Test
+    public void rejectedJobIsAnsweredWithRetryAfter() throws Exception {
+        httpServletRequest.setAttribute(Constants.AUTHENTICATED_USER, "alice");
+        when(resultsJobService.submit(any(ResultsRequest.class), eq("alice"), eq(Constants.RESULTS_JOB_LANES.INTERACTIVE)))
+            .thenThrow(new ResultsJobRejectedException("Too many pending results requests of user alice", 120));
+
+        Response response = resultsRequestController.add(new ResultsRequest(), null, Constants.RESULTS_JOB_LANES.INTERACTIVE, httpServletRequest, httpServletResponse);
+
+        assertEquals(429, response.getStatus());
+        assertEquals("120", response.getHeaderString(HttpHeaders.RETRY_AFTER));
+        assertEquals(429, httpServletResponse.getStatus());
+        assertEquals("120", httpServletResponse.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+}
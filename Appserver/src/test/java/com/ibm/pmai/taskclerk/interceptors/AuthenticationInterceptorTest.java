@@ -0,0 +1,95 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ibm.pmai.taskclerk.interceptors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.ibm.pmai.taskclerk.utils.Constants;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+/**
+ * Token validation of the authentication interceptor
+ */
+public class AuthenticationInterceptorTest {
+
+    private PrivateKey signingKey;
+
+    private AuthenticationInterceptor authenticationInterceptor;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    @Before
+    public void setUp() throws Exception {
+        KeyPair keyPair = generateKeyPair();
+        signingKey = keyPair.getPrivate();
+        authenticationInterceptor = new AuthenticationInterceptor(Jwts.parser().setSigningKey(keyPair.getPublic()));
+
+        request = new MockHttpServletRequest("POST", "/api/resultsrequest");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    public void subjectOfAValidTokenIsTheUser() throws Exception {
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token("alice", signingKey));
+
+        assertTrue(authenticationInterceptor.preHandle(request, response, null));
+        assertEquals("alice", request.getAttribute(Constants.AUTHENTICATED_USER));
+    }
+
+    @Test
+    public void requestWithoutTokenIsLetThrough() throws Exception {
+        assertTrue(authenticationInterceptor.preHandle(request, response, null));
+        assertEquals(200, response.getStatus());
+        assertNull(request.getAttribute(Constants.AUTHENTICATED_USER));
+    }
+
+    @Test
+    public void tokenSignedWithAnotherKeySetsNoUser() throws Exception {
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token("alice", generateKeyPair().getPrivate()));
+
+        assertTrue(authenticationInterceptor.preHandle(request, response, null));
+        assertEquals(200, response.getStatus());
+        assertNull(request.getAttribute(Constants.AUTHENTICATED_USER));
+    }
+
+    private static String token(String subject, PrivateKey privateKey) {
+        return Jwts.builder().setSubject(subject).signWith(SignatureAlgorithm.RS256, privateKey).compact();
+    }
+
+    private static KeyPair generateKeyPair() throws Exception {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        return keyPairGenerator.generateKeyPair();
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.pmai.taskclerk.services.implimentations;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.ibm.pmai.models.core.Executor;
+import com.ibm.pmai.models.core.Experiment;
+import com.ibm.pmai.models.core.Location;
+import com.ibm.pmai.models.repositories.ExecutorRepository;
+import com.ibm.pmai.models.repositories.ExperimentRepository;
+import com.ibm.pmai.taskclerk.PostgresRepositoryTest;
+import com.ibm.pmai.taskclerk.configurations.ApplicationConfigurations;
+import com.ibm.pmai.taskclerk.utils.Sha256DocumentHasher;
+import com.ibm.pmai.taskclerk.utils.Utils;
+
+/**
+ * Re-hashing of the experiments stored before the hash format was versioned
+ */
+public class ExperimentHashMigrationServiceImplTest extends PostgresRepositoryTest {
+
+    @Autowired
+    private ExperimentRepository experimentRepository;
+
+    @Autowired
+    private ExecutorRepository executorRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Sha256DocumentHasher sha256DocumentHasher = new Sha256DocumentHasher();
+
+    private ExperimentHashMigrationServiceImpl experimentHashMigrationService;
+
+    private final List<Experiment> experiments = new ArrayList<>();
+
+    private Executor environment;
+
+    @Before
+    public void setUp() {
+        ApplicationConfigurations applicationConfigurations = mock(ApplicationConfigurations.class);
+        // smaller than the number of experiments so the migration has to go through several batches
+        when(applicationConfigurations.getHashMigrationBatchSize()).thenReturn(2);
+        experimentHashMigrationService = new ExperimentHashMigrationServiceImpl(experimentRepository, sha256DocumentHasher,
+            applicationConfigurations, transactionManager);
+
+        environment = new Executor();
+        environment.setAuditValues();
+        environment = executorRepository.save(environment);
+    }
+
+    @After
+    public void tearDown() {
+        experimentRepository.deleteAll(experiments);
+        executorRepository.delete(environment);
+    }
+
+    @Test
+    public void reproducibleLegacyHashesMoveToTheCurrentFormat() throws Exception {
+        String locationId = getLocationIdWithDistinctFormats();
+        byte[] data = Utils.getExperimentHash(locationId, environment.getId()).getBytes();
+        Experiment experiment = save(locationId, sha256DocumentHasher.getLegacyHash(data), null);
+
+        experimentHashMigrationService.migrateUnversionedHashes();
+
+        Experiment migrated = reload(experiment);
+        assertEquals(sha256DocumentHasher.getHash(data), migrated.getExperimentHash());
+        assertEquals(Integer.valueOf(Sha256DocumentHasher.VERSION), migrated.getExperimentHashVersion());
+    }
+
+    @Test
+    public void unreproducibleHashesAreKeptInTheLegacyFormat() {
+        Experiment withoutLocation = save(null, "hash-without-location", null);
+        Experiment versioned = save("location-2", "current-hash", Sha256DocumentHasher.VERSION);
+        // saved last so the environment is linked to it
+        Experiment foreign = save("location-1", "hash-of-other-inputs", null);
+
+        experimentHashMigrationService.migrateUnversionedHashes();
+
+        assertEquals("hash-of-other-inputs", reload(foreign).getExperimentHash());
+        assertEquals(Integer.valueOf(Sha256DocumentHasher.LEGACY_VERSION), reload(foreign).getExperimentHashVersion());
+        assertEquals("hash-without-location", reload(withoutLocation).getExperimentHash());
+        assertEquals(Integer.valueOf(Sha256DocumentHasher.LEGACY_VERSION), reload(withoutLocation).getExperimentHashVersion());
+        assertEquals("current-hash", reload(versioned).getExperimentHash());
+        assertEquals(Integer.valueOf(Sha256DocumentHasher.VERSION), reload(versioned).getExperimentHashVersion());
+        assertEquals(0, experimentRepository.findUnversionedHashes(10).size());
+    }
+
+    /**
+     * A location id whose experiment hash differs between the formats, so the test sees the hash change
+     */
+    private String getLocationIdWithDistinctFormats() throws Exception {
+        for (int i = 0; ; i++) {
+            byte[] data = Utils.getExperimentHash("location-" + i, environment.getId()).getBytes();
+            if (!sha256DocumentHasher.getLegacyHash(data).equals(sha256DocumentHasher.getHash(data))) {
+                return "location-" + i;
+            }
+        }
+    }
+
+    private Experiment save(String locationId, String experimentHash, Integer experimentHashVersion) {
+        Experiment experiment = new Experiment();
+        experiment.setAuditValues();
+        experiment.setExperimentHash(experimentHash);
+        experiment.setExperimentHashVersion(experimentHashVersion);
+        if (locationId != null) {
+            Location location = new Location();
+            location.setId(locationId);
+            experiment.setLocation(location);
+        }
+        experiment.setSelectedPostExecutor(new ArrayList<>(Collections.singletonList(environment)));
+        experiment = experimentRepository.save(experiment);
+        experiments.add(experiment);
+        return experiment;
+    }
+
+    private Experiment reload(Experiment experiment) {
+        return experimentRepository.findById(experiment.getId()).get();
+    }
+}
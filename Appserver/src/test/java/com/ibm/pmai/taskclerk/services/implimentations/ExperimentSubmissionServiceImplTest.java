@@ -0,0 +1,175 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ibm.pmai.taskclerk.services.implimentations;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.ibm.pmai.models.core.ExperimentSubmission;
+import com.ibm.pmai.models.repositories.ExperimentRepository;
+import com.ibm.pmai.models.repositories.ExperimentSubmissionRepository;
+import com.ibm.pmai.models.response.JobDeploymentResponse;
+import com.ibm.pmai.taskclerk.PostgresRepositoryTest;
+import com.ibm.pmai.taskclerk.configurations.ApplicationConfigurations;
+import com.ibm.pmai.taskclerk.services.interfaces.ExperimentService;
+import com.ibm.pmai.taskclerk.utils.Constants;
+import com.ibm.pmai.taskclerk.utils.LocationDataAvailabilityVerifier;
+
+/**
+ * Claiming and dispatching of the experiment submission outbox
+ */
+public class ExperimentSubmissionServiceImplTest extends PostgresRepositoryTest {
+
+    @Autowired
+    private ExperimentRepository experimentRepository;
+
+    @Autowired
+    private ExperimentSubmissionRepository experimentSubmissionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ExperimentService experimentService;
+
+    private LocationDataAvailabilityVerifier locationDataAvailabilityVerifier;
+
+    private ExperimentSubmissionServiceImpl experimentSubmissionService;
+
+    @Before
+    public void setUp() {
+        experimentService = mock(ExperimentService.class);
+        locationDataAvailabilityVerifier = mock(LocationDataAvailabilityVerifier.class);
+        when(locationDataAvailabilityVerifier.check(anyString(), anyString())).thenReturn(LocationDataAvailabilityVerifier.Availability.AVAILABLE);
+
+        ApplicationConfigurations applicationConfigurations = mock(ApplicationConfigurations.class);
+        when(applicationConfigurations.getSubmissionBatchSize()).thenReturn(20);
+        when(applicationConfigurations.getSubmissionMaxAttempts()).thenReturn(10);
+        when(applicationConfigurations.getSubmissionRetryBaseSeconds()).thenReturn(30L);
+        when(applicationConfigurations.getSubmissionRetryMaxSeconds()).thenReturn(1800L);
+
+        experimentSubmissionService = new ExperimentSubmissionServiceImpl(experimentRepository, experimentSubmissionRepository,
+            experimentService, applicationConfigurations, transactionManager, locationDataAvailabilityVerifier);
+    }
+
+    @After
+    public void tearDown() {
+        experimentSubmissionService.shutdown();
+        experimentSubmissionRepository.deleteAll();
+    }
+
+    @Test
+    public void leasesOneSubmissionPerCall() throws Exception {
+        ExperimentSubmission first = pending("experiment-1");
+        ExperimentSubmission second = pending("experiment-2");
+
+        // while the first submission is being posted, the second one must still be claimable by other instances
+        List<Date> secondNextAttemptAt = new ArrayList<>();
+        when(experimentService.postJDS(any(), anyString())).thenAnswer(invocation -> {
+            if (secondNextAttemptAt.isEmpty()) {
+                ExperimentSubmission other = experimentSubmissionRepository.findById(second.getId()).get();
+                secondNextAttemptAt.add(other.getNextAttemptAt());
+            }
+            return ResponseEntity.ok(new JobDeploymentResponse("job", "submitted", null, 200));
+        });
+
+        experimentSubmissionService.dispatchDueSubmissions();
+
+        assertTrue(secondNextAttemptAt.get(0).getTime() <= System.currentTimeMillis());
+        assertEquals(Constants.TASK_EXECUTION_STATUS.SUBMITTED.toString(), reload(first).getStatus());
+        assertEquals(Constants.TASK_EXECUTION_STATUS.SUBMITTED.toString(), reload(second).getStatus());
+        verify(experimentService, times(2)).postJDS(any(), anyString());
+    }
+
+    @Test
+    public void claimedSubmissionIsSkippedUntilItsLeaseExpires() throws Exception {
+        ExperimentSubmission submission = pending("experiment-1");
+
+        // another instance holds the lease
+        submission.setNextAttemptAt(new Date(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(5)));
+        experimentSubmissionRepository.save(submission);
+
+        experimentSubmissionService.dispatchDueSubmissions();
+
+        verify(experimentService, never()).postJDS(any(), anyString());
+        assertEquals(0, reload(submission).getAttempts());
+    }
+
+    @Test
+    public void missingLocationDataFailsRightAway() throws Exception {
+        ExperimentSubmission submission = pending("experiment-1");
+        when(locationDataAvailabilityVerifier.check(anyString(), anyString())).thenReturn(LocationDataAvailabilityVerifier.Availability.MISSING);
+
+        experimentSubmissionService.dispatchDueSubmissions();
+
+        ExperimentSubmission failed = reload(submission);
+        assertEquals(Constants.TASK_EXECUTION_STATUS.FAILED.toString(), failed.getStatus());
+        assertEquals(1, failed.getAttempts());
+        verify(experimentService, never()).postJDS(any(), anyString());
+    }
+
+    @Test
+    public void unreachableDataServiceIsRetried() throws Exception {
+        ExperimentSubmission submission = pending("experiment-1");
+        when(locationDataAvailabilityVerifier.check(anyString(), anyString())).thenReturn(LocationDataAvailabilityVerifier.Availability.UNKNOWN);
+
+        experimentSubmissionService.dispatchDueSubmissions();
+
+        ExperimentSubmission retried = reload(submission);
+        assertEquals(Constants.TASK_EXECUTION_STATUS.PENDING.toString(), retried.getStatus());
+        assertEquals(1, retried.getAttempts());
+        assertTrue(retried.getNextAttemptAt().getTime() > System.currentTimeMillis());
+        verify(experimentService, never()).postJDS(any(), anyString());
+    }
+
+    private ExperimentSubmission pending(String experimentId) {
+        ExperimentSubmission experimentSubmission = new ExperimentSubmission();
+        experimentSubmission.setAuditValues();
+        experimentSubmission.setExperimentId(experimentId);
+        experimentSubmission.setStatus(Constants.TASK_EXECUTION_STATUS.PENDING.toString());
+        experimentSubmission.setDataBaseUri("http://data/");
+        experimentSubmission.setLocationCode("KE");
+        experimentSubmission.setJobDeploymentServiceUrl("http://jds/submit");
+        experimentSubmission.setJobType("optimization");
+        experimentSubmission.setArgs("{}");
+        experimentSubmission.setNextAttemptAt(new Date(System.currentTimeMillis() - 1000));
+        return experimentSubmissionRepository.save(experimentSubmission);
+    }
+
+    private ExperimentSubmission reload(ExperimentSubmission experimentSubmission) {
+        return experimentSubmissionRepository.findById(experimentSubmission.getId()).get();
+    }
+}
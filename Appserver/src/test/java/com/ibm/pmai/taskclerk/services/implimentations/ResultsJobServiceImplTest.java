@@ -0,0 +1,207 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ibm.pmai.taskclerk.services.implimentations;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ibm.pmai.models.core.ResultsJob;
+import com.ibm.pmai.models.core.ResultsRequest;
+import com.ibm.pmai.models.repositories.ResultsJobRepository;
+import com.ibm.pmai.models.repositories.ResultsRequestRepository;
+import com.ibm.pmai.taskclerk.PostgresRepositoryTest;
+import com.ibm.pmai.taskclerk.configurations.ApplicationConfigurations;
+import com.ibm.pmai.taskclerk.exceptions.ResultsJobRejectedException;
+import com.ibm.pmai.taskclerk.utils.Constants;
+import com.ibm.pmai.taskclerk.utils.TaskClerkMetrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Admission control, dispatch caps and lease renewal of the results job queue
+ */
+public class ResultsJobServiceImplTest extends PostgresRepositoryTest {
+
+    @Autowired
+    private ResultsRequestRepository resultsRequestRepository;
+
+    @Autowired
+    private ResultsJobRepository resultsJobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ApplicationConfigurations applicationConfigurations;
+
+    private TaskExecutor resultsJobExecutor;
+
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate transactionTemplate;
+
+    private ResultsJobServiceImpl resultsJobService;
+
+    @Before
+    public void setUp() {
+        // jobs handed to the pool never run, so they stay running on this instance
+        resultsJobExecutor = mock(TaskExecutor.class);
+        meterRegistry = new SimpleMeterRegistry();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        applicationConfigurations = mock(ApplicationConfigurations.class);
+        when(applicationConfigurations.getResultsJobConcurrency()).thenReturn(4);
+        when(applicationConfigurations.getResultsJobBulkConcurrency()).thenReturn(2);
+        when(applicationConfigurations.getResultsJobUserConcurrency()).thenReturn(2);
+        when(applicationConfigurations.getResultsJobInteractiveQueueMax()).thenReturn(10);
+        when(applicationConfigurations.getResultsJobBulkQueueMax()).thenReturn(1);
+        when(applicationConfigurations.getResultsJobUserQueueMax()).thenReturn(3);
+        when(applicationConfigurations.getResultsJobRetryAfterSeconds()).thenReturn(30);
+
+        resultsJobService = new ResultsJobServiceImpl(resultsRequestRepository, resultsJobRepository, mock(JobLauncher.class),
+            mock(Job.class), resultsJobExecutor, applicationConfigurations, transactionManager, meterRegistry);
+    }
+
+    @After
+    public void tearDown() {
+        resultsJobService.shutdown();
+        // waits for a dispatch that is still running before the rows are removed
+        resultsJobService.dispatchQueuedJobs();
+        resultsJobRepository.deleteAll();
+        resultsRequestRepository.deleteAll();
+    }
+
+    @Test
+    public void userAtTheQueueCapIsRejected() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            submit("alice", Constants.RESULTS_JOB_LANES.INTERACTIVE);
+        }
+
+        try {
+            submit("alice", Constants.RESULTS_JOB_LANES.INTERACTIVE);
+            fail("a fourth job of the user must be rejected");
+        } catch (ResultsJobRejectedException e) {
+            assertEquals(30, e.getRetryAfterSeconds());
+        }
+
+        // nothing is saved for a rejected request and other users are still admitted
+        assertEquals(3, resultsRequestRepository.count());
+        submit("bob", Constants.RESULTS_JOB_LANES.INTERACTIVE);
+        assertEquals(1, resultsJobRepository.countByUserId("bob"));
+        assertEquals(1.0, meterRegistry.get(TaskClerkMetrics.RESULTS_JOBS_REJECTED).tag("reason", "user_limit").counter().count(), 0);
+    }
+
+    @Test
+    public void fullLaneIsRejectedWithTheEstimatedWait() throws Exception {
+        // two bulk jobs of ten minutes on average free up a bulk slot every five minutes
+        Timer duration = Timer.builder(TaskClerkMetrics.RESULTS_JOBS_DURATION)
+            .tag(TaskClerkMetrics.TAG_LANE, Constants.RESULTS_JOB_LANES.BULK.name())
+            .tag(TaskClerkMetrics.TAG_OUTCOME, TaskClerkMetrics.SUCCESS)
+            .register(meterRegistry);
+        duration.record(10, TimeUnit.MINUTES);
+        duration.record(10, TimeUnit.MINUTES);
+
+        // no worker is free, so the bulk job stays queued
+        when(applicationConfigurations.getResultsJobConcurrency()).thenReturn(0);
+
+        submit("alice", Constants.RESULTS_JOB_LANES.BULK);
+        try {
+            submit("bob", Constants.RESULTS_JOB_LANES.BULK);
+            fail("a job beyond the bulk queue limit must be rejected");
+        } catch (ResultsJobRejectedException e) {
+            assertEquals(300, e.getRetryAfterSeconds());
+        }
+
+        // the interactive lane has its own limit
+        submit("bob", Constants.RESULTS_JOB_LANES.INTERACTIVE);
+        assertEquals(1.0, meterRegistry.get(TaskClerkMetrics.RESULTS_JOBS_REJECTED).tag("reason", "queue_full").counter().count(), 0);
+    }
+
+    @Test
+    public void dispatchStartsNoMoreThanTheUserConcurrency() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            submit("alice", Constants.RESULTS_JOB_LANES.INTERACTIVE);
+        }
+        submit("bob", Constants.RESULTS_JOB_LANES.INTERACTIVE);
+
+        resultsJobService.dispatchQueuedJobs();
+
+        verify(resultsJobExecutor, timeout(5000).times(3)).execute(any());
+        String running = Constants.TASK_EXECUTION_STATUS.IN_PROGRESS.toString();
+        long aliceRunning = resultsJobRepository.findAll().stream()
+            .filter(resultsJob -> "alice".equals(resultsJob.getUserId()) && running.equals(resultsJob.getStatus())).count();
+        assertEquals(2, aliceRunning);
+    }
+
+    @Test
+    public void leasesOfRunningJobsAreRenewed() throws Exception {
+        submit("alice", Constants.RESULTS_JOB_LANES.INTERACTIVE);
+        resultsJobService.dispatchQueuedJobs();
+        verify(resultsJobExecutor, timeout(5000)).execute(any());
+
+        // the lease is about to expire
+        ResultsJob resultsJob = resultsJobRepository.findAll().get(0);
+        resultsJob.setLeaseUntil(new Date(System.currentTimeMillis() + 1000));
+        resultsJobRepository.save(resultsJob);
+
+        resultsJobService.renewLeases();
+
+        Date leaseUntil = resultsJobRepository.findById(resultsJob.getId()).get().getLeaseUntil();
+        assertTrue(leaseUntil.getTime() > System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(4));
+    }
+
+    private ResultsRequest submit(String userId, Constants.RESULTS_JOB_LANES lane) throws ResultsJobRejectedException {
+        ResultsRequest resultsRequest = new ResultsRequest();
+        resultsRequest.setAuditValues();
+        resultsRequest.setRequestName("request of " + userId);
+        try {
+            return transactionTemplate.execute(status -> {
+                try {
+                    return resultsJobService.submit(resultsRequest, userId, lane);
+                } catch (ResultsJobRejectedException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        } catch (IllegalStateException e) {
+            if (e.getCause() instanceof ResultsJobRejectedException) {
+                throw (ResultsJobRejectedException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ibm.pmai.taskclerk.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.ibm.cloud.objectstorage.SdkClientException;
+import com.ibm.cloud.objectstorage.services.s3.model.S3ObjectInputStream;
+import com.ibm.pmai.models.core.DataRepositoryConfiguration;
+import com.ibm.pmai.models.core.Experiment;
+import com.ibm.pmai.models.core.ExperimentOutput;
+import com.ibm.pmai.models.core.MetadataDetails;
+import com.ibm.pmai.taskclerk.configurations.ApplicationConfigurations;
+import com.ibm.pmai.taskclerk.services.interfaces.ObjectStorageService;
+
+/**
+ * Stale fallback and eviction of the experiment output cache
+ */
+public class ExperimentOutputCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private ObjectStorageService objectStorageService;
+
+    private ApplicationConfigurations applicationConfigurations;
+
+    private ExperimentOutputCache experimentOutputCache;
+
+    @Before
+    public void setUp() throws IOException {
+        objectStorageService = mock(ObjectStorageService.class);
+        applicationConfigurations = mock(ApplicationConfigurations.class);
+        when(applicationConfigurations.getOutputCacheDir()).thenReturn(temporaryFolder.getRoot().getPath());
+        when(applicationConfigurations.getOutputCacheMaxMb()).thenReturn(1L);
+        when(applicationConfigurations.getOutputCachePrefetchThreads()).thenReturn(1);
+        experimentOutputCache = start();
+    }
+
+    @After
+    public void tearDown() {
+        experimentOutputCache.shutdown();
+    }
+
+    @Test
+    public void servesFreshOutputFromCache() throws Exception {
+        ExperimentOutput output = output("output-1", "hash-1");
+        cosReturns(output, "v1");
+
+        assertEquals("v1", read(experimentOutputCache.open(output, 0, true)));
+        // the second read is served from disk
+        cosFails(output);
+        InputStream inputStream = experimentOutputCache.open(output, 0, true);
+        assertFalse(inputStream instanceof ExperimentOutputCache.StaleCopyInputStream);
+        assertEquals("v1", read(inputStream));
+    }
+
+    @Test
+    public void servesFlaggedStaleCopyWhenCosIsUnreachable() throws Exception {
+        ExperimentOutput previous = output("output-1", "hash-1");
+        cosReturns(previous, "v1");
+        read(experimentOutputCache.open(previous, 0, true));
+
+        ExperimentOutput current = output("output-2", "hash-2");
+        cosFails(current);
+        InputStream inputStream = experimentOutputCache.open(current, 0, true);
+        assertTrue(inputStream instanceof ExperimentOutputCache.StaleCopyInputStream);
+        assertEquals("v1", read(inputStream));
+
+        try (ExperimentOutputCache.CachedFile cachedFile = experimentOutputCache.openFile(current, 0, true)) {
+            assertTrue(cachedFile.isStale());
+            assertEquals(ExperimentOutputCache.getKey("hash-1"), cachedFile.getKey());
+        }
+    }
+
+    @Test
+    public void doesNotFallBackUnlessAsked() throws Exception {
+        ExperimentOutput previous = output("output-1", "hash-1");
+        cosReturns(previous, "v1");
+        read(experimentOutputCache.open(previous, 0, true));
+
+        ExperimentOutput current = output("output-2", "hash-2");
+        cosFails(current);
+        try {
+            experimentOutputCache.open(current, 0, false);
+            fail("expected the download failure");
+        } catch (SdkClientException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void staleFallbackSurvivesRestart() throws Exception {
+        ExperimentOutput previous = output("output-1", "hash-1");
+        cosReturns(previous, "v1");
+        read(experimentOutputCache.open(previous, 0, true));
+
+        experimentOutputCache.shutdown();
+        experimentOutputCache = start();
+
+        ExperimentOutput current = output("output-2", "hash-2");
+        cosFails(current);
+        InputStream inputStream = experimentOutputCache.open(current, 0, true);
+        assertTrue(inputStream instanceof ExperimentOutputCache.StaleCopyInputStream);
+        assertEquals("v1", read(inputStream));
+    }
+
+    @Test
+    public void openedFileStaysReadableWhenEvicted() throws Exception {
+        byte[] content = new byte[700 * 1024];
+        Arrays.fill(content, (byte) 'a');
+        ExperimentOutput first = output("output-1", "hash-1");
+        cosReturns(first, content);
+        ExperimentOutput second = output("output-2", "hash-2", "experiment-2");
+        cosReturns(second, content);
+
+        try (ExperimentOutputCache.CachedFile cachedFile = experimentOutputCache.openFile(first, 0, false)) {
+            // both files do not fit, caching the second evicts the first
+            read(experimentOutputCache.open(second, 0, false));
+            assertFalse(temporaryFolder.getRoot().toPath().resolve(cachedFile.getKey()).toFile().exists());
+
+            ByteBuffer buffer = ByteBuffer.allocate(content.length);
+            while (buffer.hasRemaining() && cachedFile.getChannel().read(buffer) >= 0) {
+                // read the whole file
+            }
+            assertArrayEquals(content, buffer.array());
+        }
+    }
+
+    private ExperimentOutputCache start() throws IOException {
+        ExperimentOutputCache cache = new ExperimentOutputCache(objectStorageService, applicationConfigurations);
+        cache.init();
+        return cache;
+    }
+
+    private ExperimentOutput output(String id, String hash) {
+        return output(id, hash, "experiment-1");
+    }
+
+    private ExperimentOutput output(String id, String hash, String experimentId) {
+        Experiment experiment = new Experiment();
+        experiment.setId(experimentId);
+        MetadataDetails metadataDetails = new MetadataDetails();
+        metadataDetails.setName(id + ".json");
+        metadataDetails.setDataRepositoryConfiguration(new DataRepositoryConfiguration());
+        ExperimentOutput output = new ExperimentOutput();
+        output.setId(id);
+        output.setHash(hash);
+        output.setType("TASK_EXECUTION_RESPONSE");
+        output.setExperiment(experiment);
+        output.setMetadataDetails(metadataDetails);
+        return output;
+    }
+
+    private void cosReturns(ExperimentOutput output, String content) {
+        cosReturns(output, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void cosReturns(ExperimentOutput output, byte[] content) {
+        when(objectStorageService.download(any(), eq(output.getMetadataDetails().getName())))
+            .thenAnswer(invocation -> new S3ObjectInputStream(new ByteArrayInputStream(content), null));
+    }
+
+    private void cosFails(ExperimentOutput output) {
+        when(objectStorageService.download(any(), eq(output.getMetadataDetails().getName())))
+            .thenThrow(new SdkClientException("Unable to execute HTTP request"));
+    }
+
+    private static String read(InputStream inputStream) throws IOException {
+        try (InputStream in = inputStream) {
+            return IOUtils.toString(in, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ibm.pmai.taskclerk.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.google.gson.JsonObject;
+import com.ibm.cloud.objectstorage.services.s3.model.S3ObjectInputStream;
+
+/**
+ * Streaming extraction of top level fields and how the COS stream is left behind
+ */
+public class JsonFieldExtractorTest {
+
+    private static final String OUTPUT = "{\"states\":[1,2],\"actions\":[3],\"study_trials\":{\"large\":[4,5,6]}}";
+
+    @Test
+    public void stopsAndAbortsOnceAllFieldsAreFound() throws Exception {
+        RecordingS3ObjectInputStream source = new RecordingS3ObjectInputStream(OUTPUT);
+
+        JsonObject fields = JsonFieldExtractor.extract(source, Arrays.asList("states", "actions"));
+
+        assertEquals(2, fields.size());
+        assertEquals(2, fields.get("states").getAsJsonArray().size());
+        assertTrue(source.aborted);
+    }
+
+    @Test
+    public void readsToTheEndWhenTheLastFieldIsNeeded() throws Exception {
+        RecordingS3ObjectInputStream source = new RecordingS3ObjectInputStream(OUTPUT + "\n");
+
+        JsonObject fields = JsonFieldExtractor.extract(source, Arrays.asList("states", "study_trials", "missing"));
+
+        assertEquals(2, fields.size());
+        assertFalse(source.aborted);
+        assertEquals(-1, source.read());
+    }
+
+    /**
+     * COS stream over a document that remembers whether it was aborted
+     */
+    private static class RecordingS3ObjectInputStream extends S3ObjectInputStream {
+
+        private boolean aborted;
+
+        RecordingS3ObjectInputStream(String document) {
+            super(new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)), null);
+        }
+
+        @Override
+        public void abort() {
+            aborted = true;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ibm.pmai.taskclerk.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import javax.ws.rs.core.Response;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Streamed outputs are written in the same envelope as parsed ones
+ */
+public class JsonPassthroughTest {
+
+    private static final String OUTPUT = "{\"states\":[1,2,{\"nested\":\"\\u00e9t\\u00e9 \\\"quoted\\\"\"}],\"actions\":[]}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void envelopeMatchesTheParsedResponse() throws Exception {
+        ObjectNode parsed = (ObjectNode) objectMapper.readTree(objectMapper.writeValueAsString(Response.ok().entity(objectMapper.readTree(OUTPUT)).build()));
+        ObjectNode streamed = (ObjectNode) objectMapper.readTree(objectMapper.writeValueAsString(Response.ok().entity(passthrough(OUTPUT, true)).build()));
+
+        // only the Java type names of the entity differ
+        for (JsonNode envelope : new JsonNode[] {parsed.get("context"), streamed.get("context")}) {
+            ((ObjectNode) envelope).remove("entityType");
+            ((ObjectNode) envelope).remove("entityClass");
+        }
+        assertEquals(parsed, streamed);
+        assertEquals(objectMapper.readTree(OUTPUT), streamed.get("entity"));
+    }
+
+    @Test
+    public void emptyOutputIsWrittenAsNull() throws Exception {
+        JsonNode streamed = objectMapper.readTree(objectMapper.writeValueAsString(Response.ok().entity(passthrough("", false)).build()));
+
+        assertTrue(streamed.get("entity").isNull());
+    }
+
+    @Test
+    public void malformedOutputIsRejectedWhenValidating() throws Exception {
+        for (String malformed : new String[] {"{\"states\":[1,2}", "{\"states\":[1,2]", "{} {}", ""}) {
+            try {
+                objectMapper.writeValueAsString(Response.ok().entity(passthrough(malformed, true)).build());
+                fail("expected the output to be rejected: " + malformed);
+            } catch (JsonProcessingException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void outputIsOpenedForEveryCopyInTheEnvelope() throws Exception {
+        int[] opened = new int[1];
+        JsonPassthrough passthrough = new JsonPassthrough(() -> {
+            opened[0]++;
+            return new ByteArrayInputStream(OUTPUT.getBytes(StandardCharsets.UTF_8));
+        }, false);
+
+        JsonNode streamed = objectMapper.readTree(objectMapper.writeValueAsString(Response.ok().entity(passthrough).build()));
+
+        assertEquals(streamed.findValues("entity").size(), opened[0]);
+    }
+
+    private static JsonPassthrough passthrough(String output, boolean validate) {
+        return new JsonPassthrough(() -> new ByteArrayInputStream(output.getBytes(StandardCharsets.UTF_8)), validate);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.pmai.taskclerk.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.ibm.pmai.models.core.ExecutorType;
+import com.ibm.pmai.models.repositories.ExecutorTypeRepository;
+import com.ibm.pmai.models.repositories.ExperimentRepository;
+import com.ibm.pmai.models.repositories.ResultsJobRepository;
+import com.ibm.pmai.models.repositories.ResultsResponseRepository;
+import com.ibm.pmai.taskclerk.PostgresRepositoryTest;
+
+/**
+ * The second level cache of the reference data stays in place across bulk updates and follows writes made through
+ * the repositories without manual evictions
+ */
+public class ReferenceDataCacheTest extends PostgresRepositoryTest {
+
+    private static final List<String> UNKNOWN_IDS = Collections.singletonList("unknown");
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ExecutorTypeRepository executorTypeRepository;
+
+    @Autowired
+    private ExperimentRepository experimentRepository;
+
+    @Autowired
+    private ResultsJobRepository resultsJobRepository;
+
+    @Autowired
+    private ResultsResponseRepository resultsResponseRepository;
+
+    private Cache cache;
+
+    private ExecutorType executorType;
+
+    @Before
+    public void setUp() {
+        cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        executorType = new ExecutorType();
+        executorType.setName("before");
+        executorType = executorTypeRepository.save(executorType);
+        // loaded once so the entity and the query result are cached
+        executorTypeRepository.findById(executorType.getId());
+        executorTypeRepository.getById(executorType.getId());
+    }
+
+    @After
+    public void tearDown() {
+        executorTypeRepository.deleteById(executorType.getId());
+    }
+
+    @Test
+    public void bulkUpdatesKeepUnrelatedEntitiesCached() {
+        assertTrue(cache.containsEntity(ExecutorType.class, executorType.getId()));
+
+        Date now = new Date();
+        experimentRepository.updateJobStatusNextCheck(UNKNOWN_IDS, now);
+        experimentRepository.updateJobStatus(UNKNOWN_IDS.get(0), "running", 200, null, now, now, now);
+        experimentRepository.updateExperimentHash(UNKNOWN_IDS.get(0), "hash", 1);
+        resultsJobRepository.renewLeases(UNKNOWN_IDS, now);
+        resultsJobRepository.requeueExpired("running", "queued", now);
+        resultsResponseRepository.linkToResultsRequest(UNKNOWN_IDS.get(0), UNKNOWN_IDS);
+
+        assertTrue(cache.containsEntity(ExecutorType.class, executorType.getId()));
+    }
+
+    @Test
+    public void savedChangesReplaceCachedEntitiesAndQueryResults() {
+        executorType.setName("after");
+        executorTypeRepository.save(executorType);
+
+        assertEquals("after", executorTypeRepository.findById(executorType.getId()).get().getName());
+        assertEquals("after", executorTypeRepository.getById(executorType.getId()).get(0).getName());
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.pmai.taskclerk.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Hash formats of Sha256DocumentHasher and the reuse of its per-thread digest
+ */
+public class Sha256DocumentHasherTest {
+
+    private static final byte[] DOCUMENT = "abc".getBytes(StandardCharsets.UTF_8);
+
+    private static final String DOCUMENT_HASH = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+
+    // the same digest without the leading zero of every byte below 0x10
+    private static final String DOCUMENT_LEGACY_HASH = "ba7816bf8f1cfea414140de5dae2223b0361a396177a9cb410ff61f2015ad";
+
+    private final Sha256DocumentHasher sha256DocumentHasher = new Sha256DocumentHasher();
+
+    @Test
+    public void currentHashIsTheFullHexEncoding() throws Exception {
+        assertEquals(Sha256DocumentHasher.VERSION, sha256DocumentHasher.getVersion());
+        assertEquals(DOCUMENT_HASH, sha256DocumentHasher.getHash(DOCUMENT));
+        assertEquals(DOCUMENT_HASH, sha256DocumentHasher.getHash(new ByteArrayInputStream(DOCUMENT)));
+    }
+
+    @Test
+    public void legacyHashDropsLeadingZeros() {
+        assertEquals(DOCUMENT_LEGACY_HASH, sha256DocumentHasher.getLegacyHash(DOCUMENT));
+    }
+
+    @Test
+    public void lookupMatchesBothFormats() throws Exception {
+        List<String> hashes = sha256DocumentHasher.getLookupHashes(DOCUMENT);
+
+        assertEquals(2, hashes.size());
+        assertEquals(DOCUMENT_HASH, hashes.get(0));
+        assertEquals(DOCUMENT_LEGACY_HASH, hashes.get(1));
+        assertTrue(sha256DocumentHasher.compareHashes(DOCUMENT_HASH, DOCUMENT));
+        assertTrue(sha256DocumentHasher.compareHashes(DOCUMENT_LEGACY_HASH, DOCUMENT));
+        assertFalse(sha256DocumentHasher.compareHashes(DOCUMENT_HASH, "abd".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void failedStreamDoesNotLeakIntoTheNextHash() throws Exception {
+        InputStream failing = new SequenceInputStream(new ByteArrayInputStream(DOCUMENT), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("connection reset");
+            }
+        });
+        try {
+            sha256DocumentHasher.getHash(failing);
+            fail();
+        } catch (IOException e) {
+            // the digest of this thread now holds part of a document
+        }
+
+        assertEquals(DOCUMENT_HASH, sha256DocumentHasher.getHash(DOCUMENT));
+        assertEquals(DOCUMENT_LEGACY_HASH, sha256DocumentHasher.getLegacyHash(DOCUMENT));
+        assertEquals(DOCUMENT_HASH, sha256DocumentHasher.getLookupHashes(DOCUMENT).get(0));
+    }
+}
@@ -0,0 +1,37 @@
+#!/usr/bin/env bash
+
+#
+# Copyright 2022 IBM Corporation
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+#
+# http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+#
+
+# Builds the data models, the app server and the benchmarks, then runs the benchmarks and writes the JMH results as
+# JSON to results/. Extra arguments are passed to JMH, e.g. ./run-benchmarks.sh -p rewardPoints=1000 Processor
+
+set -e
+
+cd "$(dirname "$0")"
+
+mvn -B -q -f ../DataModels/pom.xml install -DskipTests
+mvn -B -q -f ../Appserver/pom.xml install -DskipTests
+mvn -B -q clean package
+
+VERSION=$(mvn -B -q -f ../Appserver/pom.xml help:evaluate -Dexpression=project.version -DforceStdout)
+REVISION=$(git rev-parse --short HEAD 2>/dev/null || echo "unknown")
+mkdir -p results
+RESULTS="results/taskclerk-${VERSION}-${REVISION}-$(date +%Y%m%d%H%M%S).json"
+
+java -jar target/benchmarks.jar -rf json -rff "${RESULTS}" "$@"
+
+echo "Benchmark results written to ${RESULTS}"
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.pmai.taskclerk.utils.Sha256DocumentHasher;
+
+/**
+ * Cost of hashing an experiment output document from memory and from a stream, and of the version 1 hash still used
+ * to find rows that have not been re-hashed
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class DocumentHasherBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int rewardPoints;
+
+    private Sha256DocumentHasher documentHasher;
+
+    private byte[] document;
+
+    @Setup
+    public void setup() {
+        documentHasher = new Sha256DocumentHasher();
+        document = Payloads.experimentOutputBytes(rewardPoints);
+    }
+
+    @Benchmark
+    public String getHash() throws Exception {
+        return documentHasher.getHash(document);
+    }
+
+    @Benchmark
+    public String getHashFromStream() throws Exception {
+        return documentHasher.getHash(new ByteArrayInputStream(document));
+    }
+
+    @Benchmark
+    public String getLegacyHash() {
+        return documentHasher.getLegacyHash(document);
+    }
+
+    /**
+     * Hashers are shared by all request threads
+     * @return
+     * @throws Exception
+     */
+    @Benchmark
+    @Threads(4)
+    public String getHashConcurrently() throws Exception {
+        return documentHasher.getHash(document);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.benchmarks;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.pmai.models.core.JsonbType;
+
+/**
+ * Cost of the conversions Hibernate applies to the rewards of a results response: the snapshot copy taken for dirty
+ * checking and the JSON round trip used when the document is written and read back
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class JsonbTypeBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int rewardPoints;
+
+    private JsonbType jsonbType;
+
+    private List<Map<String, Object>> rewards;
+
+    private Serializable rewardsJson;
+
+    @Setup
+    public void setup() {
+        jsonbType = new JsonbType();
+        rewards = Payloads.rewardMaps(rewardPoints);
+        rewardsJson = jsonbType.disassemble(rewards);
+    }
+
+    @Benchmark
+    public Object deepCopy() {
+        return jsonbType.deepCopy(rewards);
+    }
+
+    @Benchmark
+    public Serializable toJson() {
+        return jsonbType.disassemble(rewards);
+    }
+
+    @Benchmark
+    public Object fromJson() {
+        return jsonbType.assemble(rewardsJson, null);
+    }
+
+    @Benchmark
+    public Object roundTrip() {
+        return jsonbType.assemble(jsonbType.disassemble(rewards), null);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.JsonObject;
+import com.ibm.pmai.taskclerk.utils.PBEEncryption;
+
+/**
+ * Cost of decrypting data repository credentials, with the key of the previous call reused and with the key derived
+ * again because the password changed between calls
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PBEEncryptionBenchmark {
+
+    private static final char[] PASSWORD = "benchmark-encryption-key".toCharArray();
+
+    private static final char[] OTHER_PASSWORD = "other-encryption-key".toCharArray();
+
+    private PBEEncryption pbeEncryption;
+
+    private String encryptedCredentials;
+
+    private String otherEncryptedCredentials;
+
+    @Setup
+    public void setup() throws Exception {
+        pbeEncryption = new PBEEncryption();
+
+        JsonObject credentials = new JsonObject();
+        credentials.addProperty("apikey", "0123456789abcdefghijklmnopqrstuvwxyzABCDEF");
+        credentials.addProperty("resource_instance_id", "crn:v1:bluemix:public:cloud-object-storage:global:a/0123456789abcdef::");
+        credentials.addProperty("iamEndpoint", "https://iam.cloud.ibm.com/identity/token");
+        credentials.addProperty("endpointUrl", "https://s3.us-south.cloud-object-storage.appdomain.cloud");
+        credentials.addProperty("bucketRegion", "us-south");
+        credentials.addProperty("bucketName", "experiment-outputs");
+        byte[] data = credentials.toString().getBytes(StandardCharsets.UTF_8);
+
+        encryptedCredentials = PBEEncryption.encrypt(PASSWORD, data);
+        otherEncryptedCredentials = PBEEncryption.encrypt(OTHER_PASSWORD, data);
+    }
+
+    @Benchmark
+    public String decrypt() throws Exception {
+        return pbeEncryption.decrypt(PASSWORD, encryptedCredentials);
+    }
+
+    @Benchmark
+    public String decryptAlternatingPasswords() throws Exception {
+        pbeEncryption.decrypt(PASSWORD, encryptedCredentials);
+        return pbeEncryption.decrypt(OTHER_PASSWORD, otherEncryptedCredentials);
+    }
+}
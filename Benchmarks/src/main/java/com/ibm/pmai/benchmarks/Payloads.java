@@ -0,0 +1,161 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.ibm.pmai.taskclerk.utils.Constants;
+
+/**
+ * Deterministic synthetic payloads shaped like the experiment outputs written by the optimization engine: one state
+ * record per simulated day, the actions applied over the simulation and, for calibrations, the study trials.
+ */
+public final class Payloads {
+
+    private static final LocalDate START_DATE = LocalDate.of(2020, 3, 1);
+
+    private static final int ACTIONS = 12;
+
+    private static final int STUDY_TRIALS = 50;
+
+    private Payloads() {
+    }
+
+    /**
+     * Reward points, one state record per point
+     * @param points
+     * @return
+     */
+    public static JsonArray rewards(int points) {
+        Random random = new Random(points);
+        JsonArray rewards = new JsonArray();
+        long population = 1_000_000L;
+        for (int i = 0; i < points; i++) {
+            JsonObject state = new JsonObject();
+            long infected = 1 + random.nextInt(50_000);
+            long recovered = random.nextInt(200_000);
+            state.addProperty("date", START_DATE.plusDays(i % 3650).toString());
+            state.addProperty("step", i);
+            state.addProperty("susceptible", population - infected - recovered);
+            state.addProperty("exposed", random.nextInt(10_000));
+            state.addProperty("infected", infected);
+            state.addProperty("recovered", recovered);
+            state.addProperty("reward", random.nextDouble() * 100);
+            state.addProperty("cost", random.nextDouble() * 1_000);
+            rewards.add(state);
+        }
+        return rewards;
+    }
+
+    public static JsonArray actions() {
+        Random random = new Random(ACTIONS);
+        JsonArray actions = new JsonArray();
+        for (int i = 0; i < ACTIONS; i++) {
+            JsonObject action = new JsonObject();
+            action.addProperty("action_position", i);
+            action.addProperty("action_start_date", START_DATE.plusDays(30L * i).toString());
+            action.addProperty("action_end_date", START_DATE.plusDays(30L * i + 29).toString());
+            action.addProperty("action_name", "intervention_" + i);
+            action.addProperty("action_value", random.nextDouble());
+            actions.add(action);
+        }
+        return actions;
+    }
+
+    public static JsonArray studyTrials() {
+        Random random = new Random(STUDY_TRIALS);
+        JsonArray trials = new JsonArray();
+        for (int i = 0; i < STUDY_TRIALS; i++) {
+            JsonObject trial = new JsonObject();
+            trial.addProperty("number", i);
+            trial.addProperty("value", random.nextDouble());
+            trial.addProperty("params_beta", random.nextDouble());
+            trial.addProperty("params_gamma", random.nextDouble());
+            trial.addProperty("state", "COMPLETE");
+            trials.add(trial);
+        }
+        return trials;
+    }
+
+    /**
+     * Experiment output document as stored in the object store, with the fields the results job skips
+     * @param points
+     * @return
+     */
+    public static JsonObject experimentOutput(int points) {
+        JsonObject output = new JsonObject();
+        output.addProperty("id", "experiment-" + points + "-calibration");
+        JsonObject diagnostics = new JsonObject();
+        diagnostics.add("trace", rewards(Math.max(1, points / 10)));
+        output.add("diagnostics", diagnostics);
+        output.add("actions", actions());
+        output.add("states", rewards(points));
+        output.add("study_trials", studyTrials());
+        return output;
+    }
+
+    public static byte[] experimentOutputBytes(int points) {
+        return experimentOutput(points).toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Item handed by the results reader to the processor
+     * @param points
+     * @return
+     */
+    public static JsonObject resultsItem(int points) {
+        JsonObject item = new JsonObject();
+        item.addProperty("resultId", "results-request-1");
+        item.addProperty("resultName", "");
+        item.addProperty("locationId", "location-1");
+        item.addProperty("executorId", "executor-1");
+        item.add("rewards", rewards(points));
+        item.add("actions", actions());
+        item.add("study_trials", studyTrials());
+        item.addProperty("outputType", Constants.TASK_OUTPUTS_TYPES.TASK_EXECUTION_RESPONSE.toString());
+        return item;
+    }
+
+    /**
+     * Rewards as kept in the results response documents
+     * @param points
+     * @return
+     */
+    public static List<Map<String, Object>> rewardMaps(int points) {
+        Random random = new Random(points);
+        List<Map<String, Object>> rewards = new ArrayList<>(points);
+        for (int i = 0; i < points; i++) {
+            Map<String, Object> state = new LinkedHashMap<>();
+            state.put("date", START_DATE.plusDays(i % 3650).toString());
+            state.put("step", i);
+            state.put("infected", random.nextInt(50_000));
+            state.put("recovered", random.nextInt(200_000));
+            state.put("reward", random.nextDouble() * 100);
+            state.put("cost", random.nextDouble() * 1_000);
+            rewards.add(state);
+        }
+        return rewards;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.JsonObject;
+import com.ibm.pmai.models.core.ResultsResponse;
+import com.ibm.pmai.taskclerk.batch.results.Processor;
+import com.ibm.pmai.taskclerk.utils.Constants;
+
+/**
+ * Cost of turning one fetched experiment output into a results response, including the Gson conversion of every
+ * reward point and action into a map
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ProcessorBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int rewardPoints;
+
+    private Processor processor;
+
+    private JsonObject executionResponse;
+
+    private JsonObject rewardResponse;
+
+    @Setup
+    public void setup() {
+        processor = new Processor();
+        executionResponse = Payloads.resultsItem(rewardPoints);
+
+        // reward responses carry a single rewards object instead of one record per point
+        JsonObject rewards = new JsonObject();
+        rewards.add("states", Payloads.rewards(rewardPoints));
+        rewardResponse = Payloads.resultsItem(0);
+        rewardResponse.add("rewards", rewards);
+        rewardResponse.addProperty("outputType", Constants.TASK_OUTPUTS_TYPES.TASK_EXECUTION_REWARD_RESPONSE.toString());
+    }
+
+    @Benchmark
+    public ResultsResponse executionResponse() throws Exception {
+        return processor.process(executionResponse);
+    }
+
+    @Benchmark
+    public ResultsResponse rewardResponse() throws Exception {
+        return processor.process(rewardResponse);
+    }
+}
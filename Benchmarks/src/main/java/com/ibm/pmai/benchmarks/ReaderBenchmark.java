@@ -0,0 +1,88 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.ibm.pmai.taskclerk.utils.JsonFieldExtractor;
+
+/**
+ * Cost of reading one experiment output document on the results read path: streaming only the kept fields out of the
+ * raw bytes, compared with parsing the whole document and with converting it to Gson maps
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ReaderBenchmark {
+
+    /**
+     * Top level fields kept by the results fetcher
+     */
+    private static final List<String> OUTPUT_FIELDS = Arrays.asList("states", "actions", "study_trials");
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int rewardPoints;
+
+    private byte[] document;
+
+    private Gson gson;
+
+    @Setup
+    public void setup() {
+        document = Payloads.experimentOutputBytes(rewardPoints);
+        gson = new Gson();
+    }
+
+    @Benchmark
+    public JsonObject extractFields() throws Exception {
+        return JsonFieldExtractor.extract(new ByteArrayInputStream(document), OUTPUT_FIELDS);
+    }
+
+    @Benchmark
+    public JsonObject parseDocument() {
+        return JsonParser.parseReader(new InputStreamReader(new ByteArrayInputStream(document), StandardCharsets.UTF_8)).getAsJsonObject();
+    }
+
+    @Benchmark
+    public Map<?, ?> convertToMap() {
+        return gson.fromJson(new InputStreamReader(new ByteArrayInputStream(document), StandardCharsets.UTF_8), Map.class);
+    }
+}
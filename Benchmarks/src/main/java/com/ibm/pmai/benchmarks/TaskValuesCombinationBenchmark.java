@@ -0,0 +1,108 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.pmai.models.core.ExecutionEnvironment;
+import com.ibm.pmai.models.core.ExecutionEnvironmentCommand;
+import com.ibm.pmai.models.core.Executor;
+import com.ibm.pmai.models.core.Task;
+import com.ibm.pmai.models.core.TaskInput;
+import com.ibm.pmai.taskclerk.utils.Utils;
+
+/**
+ * Cost of building the values a task hash is computed from, for tasks with small and with very large action inputs
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskValuesCombinationBenchmark {
+
+    private static final int POST_EXECUTORS = 3;
+
+    @Param({"10", "1000", "100000"})
+    public int actionEntries;
+
+    private Task task;
+
+    @Setup
+    public void setup() {
+        ExecutionEnvironment executionEnvironment = new ExecutionEnvironment();
+        executionEnvironment.setId("execution-environment-1");
+
+        ExecutionEnvironmentCommand executionEnvironmentCommand = new ExecutionEnvironmentCommand();
+        executionEnvironmentCommand.setId("execution-environment-command-1");
+        executionEnvironmentCommand.setExecutionEnvironment(executionEnvironment);
+
+        Executor executor = new Executor();
+        executor.setId("executor-1");
+        executor.setExecutionEnvironmentCommand(executionEnvironmentCommand);
+
+        Random random = new Random(actionEntries);
+        Map<String, String> action = new HashMap<>();
+        action.put("seed", String.valueOf(random.nextInt()));
+        for (int i = 1; i < actionEntries; i++) {
+            action.put("action_" + i, String.valueOf(random.nextDouble()));
+        }
+        TaskInput taskInput = new TaskInput();
+        taskInput.setAction(action);
+
+        List<Executor> postExecutors = new ArrayList<>();
+        for (int i = 0; i < POST_EXECUTORS; i++) {
+            Executor postExecutor = new Executor();
+            postExecutor.setId("post-executor-" + i);
+            postExecutors.add(postExecutor);
+        }
+
+        task = new Task();
+        task.setName("task-1");
+        task.setExecutor(executor);
+        task.setTaskInputs(taskInput);
+        task.setSelectedPostExecutor(postExecutors);
+    }
+
+    @Benchmark
+    public String taskValues() {
+        return Utils.getTaskValuesCombination(task, false);
+    }
+
+    @Benchmark
+    public String nullActionValues() {
+        return Utils.getTaskValuesCombination(task, true);
+    }
+}
@@ -15,10 +15,10 @@
  */
 
 import {Injectable} from '@angular/core';
-import {HttpClient, HttpHeaders} from '@angular/common/http';
+import {HttpClient, HttpHeaders, HttpParams, HttpResponse} from '@angular/common/http';
 import {Observable} from 'rxjs';
-import {catchError, map} from 'rxjs/operators';
-import {forkJoin, of} from 'rxjs';
+import {catchError, expand, map, reduce} from 'rxjs/operators';
+import {EMPTY, forkJoin, of} from 'rxjs';
 import {environment} from '../../../../environments/environment';
 import {
   OverviewControlPanelParameters,
@@ -64,6 +64,7 @@ export const POST_RESULTS_REQUEST = `${API_URL}/resultsrequest`;
 export const GET_RESULTS_REQUEST_STATUS = `${API_URL}/resultsrequest/status/`;
 export const ALGORITHMS = `${API_URL}/algorithms`;
 export const EXPERIMENT_OUTPUT = `${API_URL}/experimentOutput/`;
+export const NEXT_CURSOR_HEADER = 'X-Next-Cursor';
 
 @Injectable({
   providedIn: 'root'
@@ -135,6 +136,28 @@ export class ApiService {
       })));
   }
 
+  /**
+   * Collection endpoints are paged, follows the next page cursor until the whole collection is loaded
+   */
+  private getAllPages<T>(url: string): Observable<T[]> {
+    const getPage = (cursor?: string) => this.httpClient.get(url, {
+      headers: this.headers,
+      params: cursor ? new HttpParams().set('cursor', cursor) : new HttpParams(),
+      observe: 'response'
+    });
+    return getPage().pipe(
+      expand((response: HttpResponse<any>) => {
+        const cursor = response.headers.get(NEXT_CURSOR_HEADER);
+        return cursor ? getPage(cursor) : EMPTY;
+      }),
+      map((response: HttpResponse<any>) => {
+        if (!isNotNullOrUndefined(response.body) || !isNotNullOrUndefined(response.body['entity'])) { return []; }
+        return response.body['entity'] as T[];
+      }),
+      reduce((all: T[], page: T[]) => all.concat(page), [])
+    );
+  }
+
   getAllModels(exempt?: boolean): Observable<Executor[]> {
     return this.httpClient.get<Executor[]>(`${GET_EXECUTOR_TYPE}WHITE_BOX_MODEL`, {headers: this.headers})
       .pipe(map((response => {
@@ -144,11 +167,7 @@ export class ApiService {
   }
 
   getAllAlgorithms(): Observable<Algorithms[]> {
-    return this.httpClient.get<Algorithms[]>(`${ALGORITHMS}`, {headers: this.headers})
-      .pipe(map((response => {
-        if (!isNotNullOrUndefined(response) || !isNotNullOrUndefined(response['entity'])) { return []; }
-        return response['entity'];
-      })));
+    return this.getAllPages<Algorithms>(`${ALGORITHMS}`);
   }
 
   postAlgorithm(algorithm: Algorithms) {
@@ -245,11 +264,7 @@ export class ApiService {
   }
 
   getAllExperiments(): Observable<Experiments[]> {
-    return this.httpClient.get<Experiments[]>(`${GET_EXPERIMENTS_DATA_API}`, {headers: this.headers})
-      .pipe(map((response => {
-        if (!isNotNullOrUndefined(response) || !isNotNullOrUndefined(response['entity'])) { return []; }
-        return response['entity'];
-      })));
+    return this.getAllPages<Experiments>(`${GET_EXPERIMENTS_DATA_API}`);
   }
 
   getAllFavoriteResults(): Observable<Policy[]> {
@@ -298,11 +313,7 @@ export class ApiService {
   }
 
   getAllLocations(): Observable<Location[]> {
-    return this.httpClient.get<Location[]>(`${LOCATIONS_API}`, {headers: this.headers})
-      .pipe(map((response => {
-        if (!isNotNullOrUndefined(response) || !isNotNullOrUndefined(response['entity'])) { return []; }
-        return response['entity'];
-      })));
+    return this.getAllPages<Location>(`${LOCATIONS_API}`);
   }
 
   getMetadataDetails(locationId: string, executorId: string): Observable<MetadataDetails[]> {
@@ -397,8 +408,9 @@ export class ApiService {
       }));
   }
 
-  getExperimentOutputByExperimentOutputId(experimentOutputId: string) {
-    return this.httpClient.get(`${EXPERIMENT_OUTPUT}by.experiment.output.id/` + experimentOutputId, {headers: this.headers})
+  getExperimentOutputByExperimentOutputId(experimentOutputId: string, fields?: string[]) {
+    const params = isNotNullOrUndefined(fields) ? {fields: fields.join(',')} : {};
+    return this.httpClient.get(`${EXPERIMENT_OUTPUT}by.experiment.output.id/` + experimentOutputId, {headers: this.headers, params})
       .pipe(map(response => {
         if (!isNotNullOrUndefined(response) || !isNotNullOrUndefined(response['entity'])) { return null; }
         return response['entity'];
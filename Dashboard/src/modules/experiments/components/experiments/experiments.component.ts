@@ -624,7 +624,7 @@ export class ExperimentsComponent implements OnInit, AfterViewInit, OnDestroy {
           return;
         }
 
-        if (outcome['status'] === 201) {
+        if (outcome['status'] === 201 || outcome['status'] === 202) {
           this.itemsDataSource.data = [...outcome['entity'], ...this.itemsDataSource.data];
           this.snackBar.open(EXPERIMENTS_CONSTANTS.EXPERIMENT_CREATION_SUCCESSFUL
             + experimentPayload['name'], EXPERIMENTS_CONSTANTS.CLOSE, {
@@ -699,7 +699,7 @@ export class ExperimentsComponent implements OnInit, AfterViewInit, OnDestroy {
         (this.formGroup.get('dynamicGroup') as FormGroup).controls[control].disable({ onlySelf: true })
       }
     });
-    this.apiService.getExperimentOutputByExperimentOutputId(item.id).subscribe(
+    this.apiService.getExperimentOutputByExperimentOutputId(item.id, ['actions']).subscribe(
       output => {
         if (!isNotNullOrUndefined(output) || !isNotNullOrUndefined(output['actions'])) { return; }
         Object.keys(this.formGroup.controls).forEach(control => {
@@ -21,6 +21,8 @@ import javax.persistence.*;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.GenericGenerator;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -35,7 +37,9 @@ import java.util.Date;
  **/
 
 @Entity
-@Table(name="algorithm")
+@Table(name="algorithm", indexes = @Index(name = "algorithm_created_at_id_idx", columnList = "createdAt,id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @EntityListeners(AuditingEntityListener.class)
 @JsonIgnoreProperties({"hibernateLazyInitializer","handler"})
 public class Algorithm extends Auditable<String> implements Serializable {
@@ -24,7 +24,7 @@ import javax.persistence.*;
 import java.io.Serializable;
 
 @Entity
-@Table(name="datapush")
+@Table(name="datapush", indexes = @Index(name = "datapush_created_at_id_idx", columnList = "createdAt,id"))
 @JsonIgnoreProperties({"hibernateLazyInitializer","handler"})
 public class DataPush extends Auditable<String> implements Serializable {
     @Schema(hidden = true)
@@ -18,6 +18,8 @@ package com.ibm.pmai.models.core;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import io.swagger.v3.oas.annotations.media.Schema;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.GenericGenerator;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -25,7 +27,9 @@ import javax.persistence.*;
 import java.io.Serializable;
 
 @Entity
-@Table(name="data_repository_configuration")
+@Table(name="data_repository_configuration", indexes = @Index(name = "data_repository_configuration_created_at_id_idx", columnList = "createdAt,id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @EntityListeners(AuditingEntityListener.class)
 @JsonIgnoreProperties({"hibernateLazyInitializer","handler"})
 public class DataRepositoryConfiguration extends Auditable<String> implements Serializable {
@@ -18,6 +18,8 @@ package com.ibm.pmai.models.core;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import io.swagger.v3.oas.annotations.media.Schema;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.GenericGenerator;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -25,7 +27,9 @@ import javax.persistence.*;
 import java.io.Serializable;
 
 @Entity
-@Table(name="execution_environment")
+@Table(name="execution_environment", indexes = @Index(name = "execution_environment_created_at_id_idx", columnList = "createdAt,id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @EntityListeners(AuditingEntityListener.class)
 @JsonIgnoreProperties({"hibernateLazyInitializer","handler"})
 public class ExecutionEnvironment extends Auditable<String> implements Serializable {
@@ -18,6 +18,8 @@ package com.ibm.pmai.models.core;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import io.swagger.v3.oas.annotations.media.Schema;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.LazyCollection;
 import org.hibernate.annotations.LazyCollectionOption;
@@ -29,7 +31,9 @@ import java.util.List;
 import java.util.Map;
 
 @Entity
-@Table(name="execution_environment_commands")
+@Table(name="execution_environment_commands", indexes = @Index(name = "execution_environment_commands_created_at_id_idx", columnList = "createdAt,id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @EntityListeners(AuditingEntityListener.class)
 @JsonIgnoreProperties({"hibernateLazyInitializer","handler"})
 public class ExecutionEnvironmentCommand extends Auditable<String> implements Serializable {
@@ -62,6 +66,7 @@ public class ExecutionEnvironmentCommand extends Auditable<String> implements Se
     @Column
     private String commandContentType;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @LazyCollection(LazyCollectionOption.FALSE)
     @ElementCollection
     @Column(name="expected_user_input_command_inputs")
@@ -69,6 +74,7 @@ public class ExecutionEnvironmentCommand extends Auditable<String> implements Se
     private List<String> expectedUserProvidedInputs;
 
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @LazyCollection(LazyCollectionOption.FALSE)
     @ElementCollection
     @Column(name="system_default_input_command_value")
@@ -77,6 +83,7 @@ public class ExecutionEnvironmentCommand extends Auditable<String> implements Se
 
 
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @ElementCollection(fetch = FetchType.EAGER)
     @MapKeyColumn(name="system_auto_fill_input_command_key")
     @Column(name="system_auto_fill_input_command_value")
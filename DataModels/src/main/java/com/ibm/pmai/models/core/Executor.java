@@ -20,18 +20,23 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import io.swagger.v3.oas.annotations.media.Schema;
 import org.hibernate.annotations.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import javax.persistence.*;
 import javax.persistence.CascadeType;
 import javax.persistence.Entity;
+import javax.persistence.Index;
 import javax.persistence.Table;
 import java.io.Serializable;
 import java.util.Date;
 import java.util.List;
 
 @Entity
-@Table(name="executor")
+@Table(name="executor", indexes = @Index(name = "executor_created_at_id_idx", columnList = "createdAt,id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @EntityListeners(AuditingEntityListener.class)
 @JsonIgnoreProperties({"hibernateLazyInitializer","handler"})
 public class Executor extends Auditable<String> implements Serializable {
@@ -81,6 +86,7 @@ public class Executor extends Auditable<String> implements Serializable {
     @Column
     private boolean counterFactualComparison;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @LazyCollection(LazyCollectionOption.FALSE)
     @ElementCollection
     @Column(name="executor_expected_actions")
@@ -89,10 +95,10 @@ public class Executor extends Auditable<String> implements Serializable {
 
 
     // An executor can have more than post executors e.g. reward functions
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @Schema(hidden = true)
-    @OneToMany(fetch = FetchType.EAGER)
+    @OneToMany(fetch = FetchType.LAZY)
     @JoinColumn(name="default_post_executor_id", referencedColumnName="id")
-    @Fetch(value = FetchMode.SUBSELECT)
     private List<Executor> defaultPostExecutor;
 
     @Schema(hidden = true)
@@ -115,6 +121,7 @@ public class Executor extends Auditable<String> implements Serializable {
     @OneToOne(cascade = CascadeType.MERGE, targetEntity = ExecutionEnvironmentCommand.class,fetch = FetchType.LAZY)
     private ExecutionEnvironmentCommand executionEnvironmentCommand;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @ManyToMany(cascade = CascadeType.MERGE, targetEntity = ExecutorDomain.class, fetch = FetchType.LAZY)
     @JoinTable(
             name="executor_executor_domain",
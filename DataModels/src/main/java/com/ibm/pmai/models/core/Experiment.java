@@ -16,18 +16,18 @@
 
 package com.ibm.pmai.models.core;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import io.swagger.v3.oas.annotations.media.Schema;
-import org.hibernate.annotations.Fetch;
-import org.hibernate.annotations.FetchMode;
 import org.hibernate.annotations.GenericGenerator;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import javax.persistence.*;
 import java.io.Serializable;
+import java.util.Date;
 import java.util.List;
 
 @Entity
-@Table(name="experiment")
+@Table(name="experiment", indexes = @Index(name = "experiment_created_at_id_idx", columnList = "createdAt,id"))
 @EntityListeners(AuditingEntityListener.class)
 @JsonIgnoreProperties({"hibernateLazyInitializer","handler"})
 public class Experiment extends Auditable<String> implements Serializable {
@@ -55,6 +55,11 @@ public class Experiment extends Auditable<String> implements Serializable {
     @Column
     private String experimentHash;
 
+    // format of the experiment hash, null until checked by the re-hash migration
+    @Schema(hidden = true)
+    @Column(name = "experiment_hash_version", nullable = true)
+    private Integer experimentHashVersion;
+
     @Column(columnDefinition = "TEXT")
     private String data;
 
@@ -79,6 +84,32 @@ public class Experiment extends Auditable<String> implements Serializable {
     @Column(nullable = true)
     private String generationType;
 
+    // last state of the job reported by the JDS, kept up to date by the job status synchroniser
+    @Schema(hidden = true)
+    @Column(nullable = true)
+    private String jobState;
+
+    @Schema(hidden = true)
+    @Column(nullable = true)
+    private Integer jobStatusCode;
+
+    @Schema(hidden = true)
+    @Column(columnDefinition = "TEXT", nullable = true)
+    private String jobMessage;
+
+    @Schema(hidden = true)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date jobStatusCheckedAt;
+
+    @Schema(hidden = true)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date jobStateChangedAt;
+
+    @Schema(hidden = true)
+    @JsonIgnore
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date jobStatusNextCheckAt;
+
     public Experiment(){}
     public Experiment(String _id, String jobId, String userId, long timestamp,
                       boolean status, String scenarioId, String algorithmId, String resolution,
@@ -114,9 +145,8 @@ public class Experiment extends Auditable<String> implements Serializable {
     private List<Executor> selectedPostExecutor;
 
     // An experiment can have more than one task
-    @OneToMany(cascade = CascadeType.ALL,fetch = FetchType.EAGER)
+    @OneToMany(cascade = CascadeType.ALL,fetch = FetchType.LAZY)
     @JoinColumn(name="experiment_task_id", referencedColumnName="id")
-    @Fetch(value = FetchMode.SUBSELECT)
     private List<Task> tasks;
 
     public String getName() {
@@ -269,6 +299,14 @@ public class Experiment extends Auditable<String> implements Serializable {
         this.experimentHash = experimentHash;
     }
 
+    public Integer getExperimentHashVersion() {
+        return this.experimentHashVersion;
+    }
+
+    public void setExperimentHashVersion(Integer experimentHashVersion) {
+        this.experimentHashVersion = experimentHashVersion;
+    }
+
     public String getData() {
         return this.data;
     }
@@ -276,4 +314,52 @@ public class Experiment extends Auditable<String> implements Serializable {
     public void setData(String data) {
         this.data = data;
     }
+
+    public String getJobState() {
+        return jobState;
+    }
+
+    public void setJobState(String jobState) {
+        this.jobState = jobState;
+    }
+
+    public Integer getJobStatusCode() {
+        return jobStatusCode;
+    }
+
+    public void setJobStatusCode(Integer jobStatusCode) {
+        this.jobStatusCode = jobStatusCode;
+    }
+
+    public String getJobMessage() {
+        return jobMessage;
+    }
+
+    public void setJobMessage(String jobMessage) {
+        this.jobMessage = jobMessage;
+    }
+
+    public Date getJobStatusCheckedAt() {
+        return jobStatusCheckedAt;
+    }
+
+    public void setJobStatusCheckedAt(Date jobStatusCheckedAt) {
+        this.jobStatusCheckedAt = jobStatusCheckedAt;
+    }
+
+    public Date getJobStateChangedAt() {
+        return jobStateChangedAt;
+    }
+
+    public void setJobStateChangedAt(Date jobStateChangedAt) {
+        this.jobStateChangedAt = jobStateChangedAt;
+    }
+
+    public Date getJobStatusNextCheckAt() {
+        return jobStatusNextCheckAt;
+    }
+
+    public void setJobStatusNextCheckAt(Date jobStatusNextCheckAt) {
+        this.jobStatusNextCheckAt = jobStatusNextCheckAt;
+    }
 }
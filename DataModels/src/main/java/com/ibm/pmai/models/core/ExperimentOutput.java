@@ -24,7 +24,7 @@ import javax.persistence.*;
 import java.io.Serializable;
 
 @Entity
-@Table(name="experiment_output")
+@Table(name="experiment_output", indexes = @Index(name = "experiment_output_created_at_id_idx", columnList = "createdAt,id"))
 @JsonIgnoreProperties({"hibernateLazyInitializer","handler"})
 public class ExperimentOutput extends Auditable<String> implements Serializable {
     @Schema(hidden = true)
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.models.core;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import org.hibernate.annotations.GenericGenerator;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Outbox entry of an experiment waiting to be submitted to the job deployment service. It is stored in the same
+ * transaction as its experiment and picked up by a background dispatcher, which records the job id on success.
+ */
+@Entity
+@Table(name="experiment_submission", indexes = {
+    @Index(name = "experiment_submission_status_next_attempt_idx", columnList = "status,nextAttemptAt"),
+    @Index(name = "experiment_submission_experiment_idx", columnList = "experimentId")
+})
+@JsonIgnoreProperties({"hibernateLazyInitializer","handler"})
+public class ExperimentSubmission extends Auditable<String> {
+    @Schema(hidden = true)
+    @Id
+    @GeneratedValue(generator="system-uuid")
+    @GenericGenerator(name="system-uuid", strategy = "uuid")
+    @Column(name="id", columnDefinition = "VARCHAR(255)", insertable = false, updatable = false, nullable = false)
+    private String id;
+
+    @Column(nullable = false)
+    private String experimentId;
+
+    @Column(nullable = false)
+    private String status;
+
+    // base uri and iso2 code of the location data that has to exist before the experiment is submitted, kept apart
+    // because they key the availability cache and its invalidation; the url is derived from them
+    @Column(columnDefinition = "TEXT")
+    private String dataBaseUri;
+
+    @Column
+    private String locationCode;
+
+    @Column(columnDefinition = "TEXT")
+    private String jobDeploymentServiceUrl;
+
+    @Column
+    private String jobType;
+
+    // JSON encoded job arguments
+    @Column(columnDefinition = "TEXT")
+    private String args;
+
+    @Column
+    private int attempts;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date nextAttemptAt;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getExperimentId() {
+        return experimentId;
+    }
+
+    public void setExperimentId(String experimentId) {
+        this.experimentId = experimentId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getDataBaseUri() {
+        return dataBaseUri;
+    }
+
+    public void setDataBaseUri(String dataBaseUri) {
+        this.dataBaseUri = dataBaseUri;
+    }
+
+    public String getLocationCode() {
+        return locationCode;
+    }
+
+    public void setLocationCode(String locationCode) {
+        this.locationCode = locationCode;
+    }
+
+    public String getJobDeploymentServiceUrl() {
+        return jobDeploymentServiceUrl;
+    }
+
+    public void setJobDeploymentServiceUrl(String jobDeploymentServiceUrl) {
+        this.jobDeploymentServiceUrl = jobDeploymentServiceUrl;
+    }
+
+    public String getJobType() {
+        return jobType;
+    }
+
+    public void setJobType(String jobType) {
+        this.jobType = jobType;
+    }
+
+    public String getArgs() {
+        return args;
+    }
+
+    public void setArgs(String args) {
+        this.args = args;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Date getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(Date nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
@@ -25,7 +25,7 @@ import javax.persistence.*;
 import java.io.Serializable;
 
 @Entity
-@Table(name="favourite")
+@Table(name="favourite", indexes = @Index(name = "favourite_created_at_id_idx", columnList = "createdAt,id"))
 @EntityListeners(AuditingEntityListener.class)
 @JsonIgnoreProperties({"hibernateLazyInitializer","handler"})
 public class Favourite extends Auditable<String> implements Serializable {
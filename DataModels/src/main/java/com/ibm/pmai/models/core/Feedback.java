@@ -25,7 +25,7 @@ import javax.persistence.*;
 import java.io.Serializable;
 
 @Entity
-@Table(name="feedback")
+@Table(name="feedback", indexes = @Index(name = "feedback_created_at_id_idx", columnList = "createdAt,id"))
 @EntityListeners(AuditingEntityListener.class)
 @JsonIgnoreProperties({"hibernateLazyInitializer","handler"})
 public class Feedback extends Auditable<String> implements Serializable {
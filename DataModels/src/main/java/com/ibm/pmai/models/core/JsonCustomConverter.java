@@ -1,45 +0,0 @@
-/*
- * Copyright 2022 IBM Corporation
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-
-package com.ibm.pmai.models.core;
-
-import com.fasterxml.jackson.databind.ObjectMapper;
-import javax.persistence.AttributeConverter;
-
-public class JsonCustomConverter implements AttributeConverter<Object, String> {
-    private static final ObjectMapper objectMapper = new ObjectMapper();
-
-    @Override
-    public String convertToDatabaseColumn(Object attribute) {
-        try {
-            return objectMapper.writeValueAsString(attribute);
-        } catch (Exception ex) {
-            ex.printStackTrace();
-            return null;
-        }
-    }
-
-    @Override
-    public Object convertToEntityAttribute(String data) {
-        try {
-            return objectMapper.readValue(data, Object.class);
-        } catch (Exception ex) {
-            ex.printStackTrace();
-            return null;
-        }
-    }
-}
-
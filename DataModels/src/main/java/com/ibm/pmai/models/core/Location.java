@@ -18,6 +18,8 @@ package com.ibm.pmai.models.core;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import io.swagger.v3.oas.annotations.media.Schema;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Fetch;
 import org.hibernate.annotations.FetchMode;
 import org.hibernate.annotations.GenericGenerator;
@@ -28,7 +30,9 @@ import java.io.Serializable;
 import java.util.List;
 
 @Entity
-@Table(name="location")
+@Table(name="location", indexes = @Index(name = "location_created_at_id_idx", columnList = "createdAt,id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @EntityListeners(AuditingEntityListener.class)
 @JsonIgnoreProperties({"hibernateLazyInitializer","handler"})
 public class Location extends Auditable<String> implements Serializable {
@@ -55,7 +59,8 @@ public class Location extends Auditable<String> implements Serializable {
     @Column
     private String adminLevel;
 
-    @ManyToMany(cascade = CascadeType.MERGE, targetEntity = AdminLevel.class , fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @ManyToMany(cascade = CascadeType.MERGE, targetEntity = AdminLevel.class , fetch = FetchType.LAZY)
     @JoinTable(
             name="location_admin_level_details",
             joinColumns=@JoinColumn(name="location_id", referencedColumnName="id"),
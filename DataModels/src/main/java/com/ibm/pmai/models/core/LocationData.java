@@ -28,7 +28,7 @@ import java.io.Serializable;
 import java.util.List;
 
 @Entity
-@Table(name="location_data")
+@Table(name="location_data", indexes = @Index(name = "location_data_created_at_id_idx", columnList = "createdAt,id"))
 @EntityListeners(AuditingEntityListener.class)
 @JsonIgnoreProperties({"hibernateLazyInitializer","handler"})
 public class LocationData extends Auditable<String> implements Serializable {
@@ -27,7 +27,7 @@ import java.util.HashMap;
 import java.util.List;
 
 @Entity
-@Table(name="metadata_details")
+@Table(name="metadata_details", indexes = @Index(name = "metadata_details_created_at_id_idx", columnList = "createdAt,id"))
 @JsonIgnoreProperties({"hibernateLazyInitializer","handler"})
 public class MetadataDetails extends Auditable<String> implements Serializable {
     @Schema(hidden = true)
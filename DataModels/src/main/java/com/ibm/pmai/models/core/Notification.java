@@ -25,7 +25,7 @@ import javax.persistence.*;
 import java.io.Serializable;
 
 @Entity
-@Table(name="notification")
+@Table(name="notification", indexes = @Index(name = "notification_created_at_id_idx", columnList = "createdAt,id"))
 @EntityListeners(AuditingEntityListener.class)
 @JsonIgnoreProperties({"hibernateLazyInitializer","handler"})
 public class Notification extends Auditable<String> implements Serializable {
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ibm.pmai.models.core;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import org.hibernate.annotations.GenericGenerator;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Queue entry of the job that fetches the results of a results request. It is stored in the same transaction as its
+ * request, claimed by an instance once a worker, its lane and its user have a free slot and removed when the job has
+ * finished. The lease lets another instance take the job over if the one running it dies.
+ */
+@Entity
+@Table(name="results_job", indexes = {
+    @Index(name = "results_job_status_lane_enqueued_at_idx", columnList = "status,lane,enqueuedAt"),
+    @Index(name = "results_job_user_status_idx", columnList = "userId,status"),
+    @Index(name = "results_job_result_request_idx", columnList = "resultRequestId")
+})
+@JsonIgnoreProperties({"hibernateLazyInitializer","handler"})
+public class ResultsJob extends Auditable<String> {
+    @Schema(hidden = true)
+    @Id
+    @GeneratedValue(generator="system-uuid")
+    @GenericGenerator(name="system-uuid", strategy = "uuid")
+    @Column(name="id", columnDefinition = "VARCHAR(255)", insertable = false, updatable = false, nullable = false)
+    private String id;
+
+    @Column(nullable = false)
+    private String resultRequestId;
+
+    @Column(nullable = false)
+    private String userId;
+
+    @Column(nullable = false)
+    private String lane;
+
+    @Column(nullable = false)
+    private String status;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date enqueuedAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date startedAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date leaseUntil;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getResultRequestId() {
+        return resultRequestId;
+    }
+
+    public void setResultRequestId(String resultRequestId) {
+        this.resultRequestId = resultRequestId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getLane() {
+        return lane;
+    }
+
+    public void setLane(String lane) {
+        this.lane = lane;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Date getEnqueuedAt() {
+        return enqueuedAt;
+    }
+
+    public void setEnqueuedAt(Date enqueuedAt) {
+        this.enqueuedAt = enqueuedAt;
+    }
+
+    public Date getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Date startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Date getLeaseUntil() {
+        return leaseUntil;
+    }
+
+    public void setLeaseUntil(Date leaseUntil) {
+        this.leaseUntil = leaseUntil;
+    }
+}
@@ -22,6 +22,8 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import org.hibernate.annotations.Fetch;
 import org.hibernate.annotations.FetchMode;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Type;
+import org.hibernate.annotations.TypeDef;
 
 import javax.persistence.*;
 import java.io.Serializable;
@@ -29,7 +31,8 @@ import java.util.List;
 import java.util.Map;
 
 @Entity
-@Table(name="results_request")
+@TypeDef(name = JsonbType.NAME, typeClass = JsonbType.class)
+@Table(name="results_request", indexes = @Index(name = "results_request_created_at_id_idx", columnList = "createdAt,id"))
 @ApiModel("ResultsRequest")
 @JsonIgnoreProperties({"hibernateLazyInitializer","handler"})
 public class ResultsRequest extends Auditable<String> implements Serializable {
@@ -52,28 +55,28 @@ public class ResultsRequest extends Auditable<String> implements Serializable {
     @Column
     private  boolean status;
 
-    @Column(columnDefinition = "TEXT")
-    @Convert(converter = JsonCustomConverter.class)
+    @Column(columnDefinition = "jsonb")
+    @Type(type = JsonbType.NAME)
     private List<Map<String, Object>> environments;
 
-    @Column(columnDefinition = "TEXT")
-    @Convert(converter = JsonCustomConverter.class)
+    @Column(columnDefinition = "jsonb")
+    @Type(type = JsonbType.NAME)
     private List<Map<String, Object>> executors;
 
-    @Column(columnDefinition = "TEXT")
-    @Convert(converter = JsonCustomConverter.class)
+    @Column(columnDefinition = "jsonb")
+    @Type(type = JsonbType.NAME)
     private List<Map<String, Object>> locations;
 
-    @Column(columnDefinition = "TEXT")
-    @Convert(converter = JsonCustomConverter.class)
+    @Column(columnDefinition = "jsonb")
+    @Type(type = JsonbType.NAME)
     private List<Map<String, Object>> experiments;
 
-    @Column(columnDefinition = "TEXT")
-    @Convert(converter = JsonCustomConverter.class)
+    @Column(columnDefinition = "jsonb")
+    @Type(type = JsonbType.NAME)
     private List<Map<String, Object>> tasks;
 
-    @Column(columnDefinition = "TEXT")
-    @Convert(converter = JsonCustomConverter.class)
+    @Column(columnDefinition = "jsonb")
+    @Type(type = JsonbType.NAME)
     private List<Map<String, Object>> customMap;
 
 
@@ -20,13 +20,14 @@ import java.util.List;
 import java.util.Map;
 
 import javax.persistence.Column;
-import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.Table;
 
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Type;
+import org.hibernate.annotations.TypeDef;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
@@ -34,6 +35,7 @@ import io.swagger.annotations.ApiModel;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 @Entity
+@TypeDef(name = JsonbType.NAME, typeClass = JsonbType.class)
 @Table(name="results_response")
 @ApiModel("ResultsRequest")
 @JsonIgnoreProperties({"hibernateLazyInitializer","handler"})
@@ -60,12 +62,12 @@ public class ResultsResponse extends BaseModel {
     @Column
     private String environmentId;
 
-    @Column(columnDefinition = "TEXT")
-    @Convert(converter = JsonCustomConverter.class)
+    @Column(columnDefinition = "jsonb")
+    @Type(type = JsonbType.NAME)
     private List<Map<String, Object>> actions;
 
-    @Column(columnDefinition = "TEXT")
-    @Convert(converter = JsonCustomConverter.class)
+    @Column(columnDefinition = "jsonb")
+    @Type(type = JsonbType.NAME)
     private List<Map<String, Object>> rewards;
 
     public String getId() {
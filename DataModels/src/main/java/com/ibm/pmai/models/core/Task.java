@@ -18,8 +18,6 @@ package com.ibm.pmai.models.core;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import io.swagger.v3.oas.annotations.media.Schema;
-import org.hibernate.annotations.Fetch;
-import org.hibernate.annotations.FetchMode;
 import org.hibernate.annotations.GenericGenerator;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -49,9 +47,8 @@ public class Task extends Auditable<String> implements Serializable {
 
     @Schema(hidden = true)
     // An task can have more than one state e.g. started, completed etc
-    @OneToMany(cascade = CascadeType.ALL,fetch = FetchType.EAGER)
+    @OneToMany(cascade = CascadeType.ALL,fetch = FetchType.LAZY)
     @JoinColumn(name="task_state_id", referencedColumnName="id")
-    @Fetch(value = FetchMode.SUBSELECT)
     private List<TaskStates> taskStates;
 
     @Schema(hidden = true)
@@ -74,7 +71,7 @@ public class Task extends Auditable<String> implements Serializable {
     private Location location;
 
     @JoinColumn(name = "location_data_id", referencedColumnName = "id")
-    @OneToOne(cascade = CascadeType.MERGE, targetEntity = LocationData.class,fetch = FetchType.EAGER)
+    @OneToOne(cascade = CascadeType.MERGE, targetEntity = LocationData.class,fetch = FetchType.LAZY)
     private LocationData locationData;
 
     // Many or more than one task belong to one user
@@ -96,7 +93,7 @@ public class Task extends Auditable<String> implements Serializable {
     private DataRepositoryConfiguration dataRepositoryConfiguration;
 
     // An task can have more than post executors e.g. reward functions
-    @OneToMany(fetch = FetchType.EAGER)
+    @OneToMany(fetch = FetchType.LAZY)
     @JoinColumn(name="selected_post_executor_id", referencedColumnName="id")
     private List<Executor> selectedPostExecutor;
 
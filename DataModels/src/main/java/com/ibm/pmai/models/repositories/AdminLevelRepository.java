@@ -19,14 +19,18 @@ package com.ibm.pmai.models.repositories;
 import com.ibm.pmai.models.core.AdminLevel;
 import com.ibm.pmai.models.core.Experiment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
 @Repository
 public interface AdminLevelRepository extends JpaRepository<AdminLevel, String> {
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<AdminLevel> getById(String id);
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     AdminLevel getByLevelName(String levelName);
 
 
@@ -18,16 +18,21 @@ package com.ibm.pmai.models.repositories;
 
 import com.ibm.pmai.models.core.DataRepositoryConfiguration;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
 @Repository
 public interface DataRepositoryConfigurationRepository extends JpaRepository<DataRepositoryConfiguration, String> {
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<DataRepositoryConfiguration> getById(String id);
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     DataRepositoryConfiguration getByName(String name);
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<DataRepositoryConfiguration> getByCategory(String category);
 
 }
@@ -18,13 +18,17 @@ package com.ibm.pmai.models.repositories;
 
 import com.ibm.pmai.models.core.ExecutionEnvironmentCommand;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
 @Repository
 public interface ExecutionEnvironmentCommandRepository extends JpaRepository<ExecutionEnvironmentCommand, String> {
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<ExecutionEnvironmentCommand> getById(String id);
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     ExecutionEnvironmentCommand getByEnvironmentCommandName(String environmentCommandName);
 }
@@ -18,12 +18,15 @@ package com.ibm.pmai.models.repositories;
 
 import com.ibm.pmai.models.core.ExecutionEnvironment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
 @Repository
 public interface ExecutionEnvironmentRepository extends JpaRepository<ExecutionEnvironment, String> {
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<ExecutionEnvironment> getById(String id);
 
     @Override
@@ -18,8 +18,11 @@ package com.ibm.pmai.models.repositories;
 
 import java.util.List;
 
+import javax.persistence.QueryHint;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -27,6 +30,7 @@ import com.ibm.pmai.models.core.Executor;
 
 @Repository
 public interface ExecutorRepository extends JpaRepository<Executor, String> {
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Executor> getById(String id);
 
     @Query(
@@ -35,9 +39,11 @@ public interface ExecutorRepository extends JpaRepository<Executor, String> {
     )
     List<Executor> getByIds(@Param("ids") List<String> var1);
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Executor> getByIdAndExecutorType_Type(String id,String executorType);
 
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Executor> getByExecutorType_Type(String executorType);
 
 }
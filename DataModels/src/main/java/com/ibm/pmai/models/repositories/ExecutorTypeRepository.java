@@ -18,11 +18,14 @@ package com.ibm.pmai.models.repositories;
 
 import com.ibm.pmai.models.core.ExecutorType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
 @Repository
 public interface ExecutorTypeRepository extends JpaRepository<ExecutorType, String> {
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<ExecutorType> getById(String id);
 }
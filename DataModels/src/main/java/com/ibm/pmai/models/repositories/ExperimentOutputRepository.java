@@ -18,9 +18,14 @@ package com.ibm.pmai.models.repositories;
 
 import com.ibm.pmai.models.core.ExperimentOutput;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ExperimentOutputRepository extends JpaRepository<ExperimentOutput, String> {
@@ -40,6 +45,14 @@ public interface ExperimentOutputRepository extends JpaRepository<ExperimentOutp
 
     List<ExperimentOutput> getByExperiment_ExperimentHash(String experimentHash);
 
+    // lookup by a hash in every stored format, see Sha256DocumentHasher.getLookupHashes
+    List<ExperimentOutput> getByExperiment_ExperimentHashIn(Collection<String> experimentHashes);
+
+    // read only cursor over all experiment outputs for exports, rows are fetched from the database in chunks
+    @QueryHints({@QueryHint(name = "org.hibernate.fetchSize", value = "500"), @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+    @Query("SELECT experimentOutput FROM ExperimentOutput experimentOutput ORDER BY experimentOutput.createdAt, experimentOutput.id")
+    Stream<ExperimentOutput> streamAll();
+
     // List<ExperimentOutput> getByExperiment_AlgorithmIdAndAndTypeOrderByUpdatedAt(String algorithmId, String type);
 
     // List<ExperimentOutput> getByExperiment_ExperimentHashAndAndTypeOrderByUpdatedAt(String experimentHash, String type);
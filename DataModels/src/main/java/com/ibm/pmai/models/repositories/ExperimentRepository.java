@@ -16,13 +16,24 @@
 
 package com.ibm.pmai.models.repositories;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
 import com.ibm.pmai.models.core.Experiment;
+import com.ibm.pmai.models.response.ExperimentSummary;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface ExperimentRepository extends JpaRepository<Experiment, String> {
@@ -30,9 +41,29 @@ public interface ExperimentRepository extends JpaRepository<Experiment, String>
 
     List<Experiment> getByExperimentHash(String experimentHash);
 
+    // lookup by a hash in every stored format, see Sha256DocumentHasher.getLookupHashes
+    List<Experiment> getByExperimentHashIn(Collection<String> experimentHashes);
+
     List<Experiment> getByExperimentHashAndAlgorithmId(String experimentHash, String algorithm_id);
 
-    List<Experiment> getByUserId(String user_id);
+    List<Experiment> getByExperimentHashInAndAlgorithmId(Collection<String> experimentHashes, String algorithm_id);
+
+    // loads the experiments of a user together with their executor, tasks and task location data in one query,
+    // the remaining task associations are batch fetched
+    @EntityGraph(attributePaths = {"executor", "tasks", "tasks.locationData"})
+    @Query("SELECT DISTINCT experiment FROM Experiment experiment WHERE experiment.userId = :userId")
+    List<Experiment> getByUserId(@Param("userId") String user_id);
+
+    String QUERY_FIND_SUMMARIES_BY_USER_ID = "SELECT new com.ibm.pmai.models.response.ExperimentSummary(" +
+            "experiment.id, experiment.name, experiment.description, experiment.userId, experiment.algorithmId, " +
+            "experiment.experimentHash, experiment.experimentType, experiment.generationType, experiment.resolution, " +
+            "experiment.scenarioId, experiment.status, experiment.jobId, experiment.jobState, experiment.timestamp, " +
+            "executor.id, executor.name, experiment.createdAt, experiment.updatedAt) " +
+            "FROM Experiment experiment LEFT JOIN experiment.executor executor " +
+            "WHERE experiment.userId = :userId " +
+            "ORDER BY experiment.createdAt, experiment.id";
+    @Query(QUERY_FIND_SUMMARIES_BY_USER_ID)
+    List<ExperimentSummary> findSummariesByUserId(@Param("userId") String userId);
 
     List<Experiment> getByAlgorithmId(String algorithm_id);
 
@@ -44,4 +75,61 @@ public interface ExperimentRepository extends JpaRepository<Experiment, String>
             "AND experiments.timestamp > :timestamp ";
     @org.springframework.data.jpa.repository.Query(value = QUERY_FIND_BY_USER_IS_AND_TIMESTAMP, nativeQuery = true)
     List<Experiment> findByUserIdAndTimestamp(@Param("user_id") String user_id, @Param("timestamp") long timestamp);
+
+    // read only cursor over all experiments for exports, rows are fetched from the database in chunks
+    @QueryHints({@QueryHint(name = "org.hibernate.fetchSize", value = "500"), @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+    @Query("SELECT experiment FROM Experiment experiment ORDER BY experiment.createdAt, experiment.id")
+    Stream<Experiment> streamAll();
+
+    // locks the experiments whose job is due for a status check, rows locked by another instance are skipped
+    String QUERY_FIND_DUE_FOR_JOB_STATUS_CHECK = "SELECT experiment.* " +
+            "FROM experiment " +
+            "WHERE experiment.status = false " +
+            "AND experiment.job_id IS NOT NULL " +
+            "AND (experiment.job_state IS NULL OR experiment.job_state NOT IN (:finalStates)) " +
+            "AND (experiment.job_status_next_check_at IS NULL OR experiment.job_status_next_check_at <= :now) " +
+            "ORDER BY experiment.job_status_next_check_at NULLS FIRST " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED";
+    @Query(value = QUERY_FIND_DUE_FOR_JOB_STATUS_CHECK, nativeQuery = true)
+    List<Experiment> findDueForJobStatusCheck(@Param("finalStates") Collection<String> finalStates, @Param("now") Date now, @Param("limit") int limit);
+
+    String QUERY_UPDATE_JOB_STATUS_NEXT_CHECK = "UPDATE Experiment experiment " +
+            "SET experiment.jobStatusNextCheckAt = :nextCheckAt " +
+            "WHERE experiment.id IN (:ids) ";
+    @Transactional
+    @Modifying
+    @Query(QUERY_UPDATE_JOB_STATUS_NEXT_CHECK)
+    int updateJobStatusNextCheck(@Param("ids") Collection<String> ids, @Param("nextCheckAt") Date nextCheckAt);
+
+    // only the job columns are written so concurrent updates of the experiment are not overwritten
+    String QUERY_UPDATE_JOB_STATUS = "UPDATE Experiment experiment " +
+            "SET experiment.jobState = :jobState, experiment.jobStatusCode = :jobStatusCode, experiment.jobMessage = :jobMessage, " +
+            "experiment.jobStatusCheckedAt = :checkedAt, experiment.jobStateChangedAt = :stateChangedAt, " +
+            "experiment.jobStatusNextCheckAt = :nextCheckAt " +
+            "WHERE experiment.id = :id ";
+    @Transactional
+    @Modifying
+    @Query(QUERY_UPDATE_JOB_STATUS)
+    int updateJobStatus(@Param("id") String id, @Param("jobState") String jobState, @Param("jobStatusCode") Integer jobStatusCode,
+                        @Param("jobMessage") String jobMessage, @Param("checkedAt") Date checkedAt, @Param("stateChangedAt") Date stateChangedAt,
+                        @Param("nextCheckAt") Date nextCheckAt);
+
+    // locks a batch of experiments whose hash has not been checked by the re-hash migration, rows locked by another instance are skipped
+    String QUERY_FIND_UNVERSIONED_HASHES = "SELECT experiment.* " +
+            "FROM experiment " +
+            "WHERE experiment.experiment_hash_version IS NULL " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED";
+    @Query(value = QUERY_FIND_UNVERSIONED_HASHES, nativeQuery = true)
+    List<Experiment> findUnversionedHashes(@Param("limit") int limit);
+
+    // only the hash columns are written so concurrent updates of the experiment are not overwritten
+    String QUERY_UPDATE_EXPERIMENT_HASH = "UPDATE Experiment experiment " +
+            "SET experiment.experimentHash = :experimentHash, experiment.experimentHashVersion = :experimentHashVersion " +
+            "WHERE experiment.id = :id ";
+    @Transactional
+    @Modifying
+    @Query(QUERY_UPDATE_EXPERIMENT_HASH)
+    int updateExperimentHash(@Param("id") String id, @Param("experimentHash") String experimentHash, @Param("experimentHashVersion") int experimentHashVersion);
 }
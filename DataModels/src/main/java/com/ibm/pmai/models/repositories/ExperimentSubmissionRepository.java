@@ -0,0 +1,44 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.models.repositories;
+
+import java.util.Date;
+import java.util.List;
+
+import com.ibm.pmai.models.core.ExperimentSubmission;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ExperimentSubmissionRepository extends JpaRepository<ExperimentSubmission, String> {
+
+    ExperimentSubmission getByExperimentId(String experimentId);
+
+    // locks the due submissions, rows locked by another instance are skipped so instances never dispatch the same row
+    String QUERY_FIND_DUE_FOR_UPDATE = "SELECT experiment_submission.* " +
+            "FROM experiment_submission " +
+            "WHERE experiment_submission.status = :status " +
+            "AND experiment_submission.next_attempt_at <= :now " +
+            "ORDER BY experiment_submission.next_attempt_at " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED";
+    @Query(value = QUERY_FIND_DUE_FOR_UPDATE, nativeQuery = true)
+    List<ExperimentSubmission> findDueForUpdate(@Param("status") String status, @Param("now") Date now, @Param("limit") int limit);
+}
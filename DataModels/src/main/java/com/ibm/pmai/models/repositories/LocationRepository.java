@@ -21,12 +21,15 @@ import com.ibm.pmai.models.core.Executor;
 import com.ibm.pmai.models.core.Location;
 import com.ibm.pmai.models.core.LocationData;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
 @Repository
 public interface LocationRepository extends JpaRepository<Location, String> {
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Location> getById(String id);
     List<Location> getByAdminLevelAndCountry(String adminLevel, String country);
     List<Location> getByAdminLevel(String adminLevel);
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ibm.pmai.models.repositories;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import com.ibm.pmai.models.core.ResultsJob;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface ResultsJobRepository extends JpaRepository<ResultsJob, String> {
+
+    boolean existsByResultRequestId(String resultRequestId);
+
+    long countByStatusAndLane(String status, String lane);
+
+    // queued and running jobs of a user, finished jobs are deleted
+    long countByUserId(String userId);
+
+    // locks the oldest queued jobs of a lane, rows locked by another instance are skipped so instances never start the same job
+    String QUERY_FIND_QUEUED_FOR_UPDATE = "SELECT results_job.* " +
+            "FROM results_job " +
+            "WHERE results_job.status = :status " +
+            "AND results_job.lane = :lane " +
+            "ORDER BY results_job.enqueued_at " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED";
+    @Query(value = QUERY_FIND_QUEUED_FOR_UPDATE, nativeQuery = true)
+    List<ResultsJob> findQueuedForUpdate(@Param("status") String status, @Param("lane") String lane, @Param("limit") int limit);
+
+    // number of jobs in the given status per user, as [userId, count] pairs
+    @Query("SELECT resultsJob.userId, COUNT(resultsJob) FROM ResultsJob resultsJob WHERE resultsJob.status = :status GROUP BY resultsJob.userId")
+    List<Object[]> countByStatusGroupByUserId(@Param("status") String status);
+
+    String QUERY_RENEW_LEASES = "UPDATE ResultsJob resultsJob " +
+            "SET resultsJob.leaseUntil = :leaseUntil " +
+            "WHERE resultsJob.id IN (:ids) ";
+    @Transactional
+    @Modifying
+    @Query(QUERY_RENEW_LEASES)
+    int renewLeases(@Param("ids") Collection<String> ids, @Param("leaseUntil") Date leaseUntil);
+
+    // puts back the jobs whose instance stopped renewing their lease
+    String QUERY_REQUEUE_EXPIRED = "UPDATE ResultsJob resultsJob " +
+            "SET resultsJob.status = :queuedStatus, resultsJob.startedAt = NULL, resultsJob.leaseUntil = NULL " +
+            "WHERE resultsJob.status = :runningStatus " +
+            "AND resultsJob.leaseUntil < :now ";
+    @Transactional
+    @Modifying
+    @Query(QUERY_REQUEUE_EXPIRED)
+    int requeueExpired(@Param("runningStatus") String runningStatus, @Param("queuedStatus") String queuedStatus, @Param("now") Date now);
+}
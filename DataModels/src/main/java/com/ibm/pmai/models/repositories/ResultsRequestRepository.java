@@ -19,6 +19,8 @@ package com.ibm.pmai.models.repositories;
 import com.ibm.pmai.models.core.ResultsRequest;
 import com.ibm.pmai.models.core.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -27,5 +29,25 @@ import java.util.List;
 public interface ResultsRequestRepository extends JpaRepository<ResultsRequest, String> {
     ResultsRequest getById(String id);
 
+    // completion flag only, without loading the request and its results
+    String QUERY_FIND_STATUS_BY_ID = "SELECT results_request.status " +
+            "FROM results_request " +
+            "WHERE results_request.id = :id ";
+    @Query(value = QUERY_FIND_STATUS_BY_ID, nativeQuery = true)
+    Boolean findStatusById(@Param("id") String id);
+
+    // requests whose documents contain the given JSON arrays, e.g. [{"id":"..."}]; an empty array matches any request. Served by the GIN indexes on the jsonb columns
+    String QUERY_FIND_BY_CONTAINED_DOCUMENTS = "SELECT results_request.* " +
+            "FROM results_request " +
+            "WHERE (:executors = '[]' OR results_request.executors @> CAST(:executors AS jsonb)) " +
+            "AND (:locations = '[]' OR results_request.locations @> CAST(:locations AS jsonb)) " +
+            "AND (:environments = '[]' OR results_request.environments @> CAST(:environments AS jsonb)) " +
+            "AND (:experiments = '[]' OR results_request.experiments @> CAST(:experiments AS jsonb)) " +
+            "ORDER BY results_request.created_at DESC, results_request.id " +
+            "LIMIT :limit";
+    @Query(value = QUERY_FIND_BY_CONTAINED_DOCUMENTS, nativeQuery = true)
+    List<ResultsRequest> findByContainedDocuments(@Param("executors") String executors, @Param("locations") String locations,
+                                                  @Param("environments") String environments, @Param("experiments") String experiments,
+                                                  @Param("limit") int limit);
 
 }
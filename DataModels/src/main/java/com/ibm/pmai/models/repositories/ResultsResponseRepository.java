@@ -0,0 +1,38 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.pmai.models.repositories;
+
+import com.ibm.pmai.models.core.ResultsResponse;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.util.stream.Stream;
+
+@Repository
+public interface ResultsResponseRepository extends JpaRepository<ResultsResponse, String>, ResultsResponseRepositoryCustom {
+
+    long countByResultId(String resultId);
+
+    // read only cursor over the responses of a results request for exports, rows are fetched from the database in chunks
+    @QueryHints({@QueryHint(name = "org.hibernate.fetchSize", value = "500"), @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+    @Query("SELECT resultsResponse FROM ResultsResponse resultsResponse WHERE resultsResponse.resultId = :resultId ORDER BY resultsResponse.id")
+    Stream<ResultsResponse> streamByResultId(@Param("resultId") String resultId);
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2022 IBM Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.pmai.models.repositories;
+
+import com.ibm.pmai.models.core.ResultsRequest;
+import com.ibm.pmai.models.core.ResultsResponse;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+/**
+ * Native queries that declare the entities they write. Without this Hibernate cannot tell what a native update
+ * touches and drops the whole second level cache every time one runs.
+ */
+public class ResultsResponseRepositoryImpl implements ResultsResponseRepositoryCustom {
+
+    // the join column of ResultsRequest.results is not mapped on ResultsResponse, so this cannot be a JPQL update
+    static final String QUERY_LINK_TO_RESULTS_REQUEST = "UPDATE results_response " +
+            "SET results_response_id=:resultsRequestId " +
+            "WHERE results_response.id IN (:ids) ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int linkToResultsRequest(String resultsRequestId, List<String> ids) {
+        return entityManager.createNativeQuery(QUERY_LINK_TO_RESULTS_REQUEST)
+            .unwrap(NativeQuery.class)
+            .addSynchronizedEntityClass(ResultsResponse.class)
+            .addSynchronizedEntityClass(ResultsRequest.class)
+            .setParameter("resultsRequestId", resultsRequestId)
+            .setParameterList("ids", ids)
+            .executeUpdate();
+    }
+}